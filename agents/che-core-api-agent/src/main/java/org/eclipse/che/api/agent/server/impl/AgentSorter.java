@@ -21,8 +21,10 @@ import org.eclipse.che.api.agent.shared.model.AgentKey;
 import org.eclipse.che.commons.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -70,6 +72,40 @@ public class AgentSorter {
         return sorted;
     }
 
+    /**
+     * Sort agents respecting dependencies between them and group the agents which
+     * don't depend on each other, so they can be launched concurrently.
+     * Agents of each group depend only on agents of the previous groups.
+     *
+     * @see #sort(List)
+     *
+     * @param agentKeys list of agents to sort
+     * @return groups of created agents in proper order
+     *
+     * @throws AgentException
+     *      if circular dependency found or agent creation failed or other unexpected error
+     */
+    public List<List<AgentKey>> sortInGroups(@Nullable List<String> agentKeys) throws AgentException {
+        List<List<AgentKey>> groups = new ArrayList<>();
+        Map<String, Integer> levels = new HashMap<>();
+
+        for (AgentKey agentKey : sort(agentKeys)) {
+            // dependencies are sorted before the agent, so their levels are already known
+            int level = 0;
+            for (String dependency : agentRegistry.getAgent(agentKey).getDependencies()) {
+                level = Math.max(level, levels.get(AgentKeyImpl.parse(dependency).getId()) + 1);
+            }
+            levels.put(agentKey.getId(), level);
+
+            if (level == groups.size()) {
+                groups.add(new ArrayList<>());
+            }
+            groups.get(level).add(agentKey);
+        }
+
+        return groups;
+    }
+
     private void doSort(AgentKey agentKey, List<AgentKey> sorted, Set<String> pending) throws AgentException {
         String agentId = agentKey.getId();
 
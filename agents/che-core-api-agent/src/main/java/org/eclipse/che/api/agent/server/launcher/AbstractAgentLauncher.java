@@ -34,14 +34,21 @@ import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Launch agent script asynchronously over target instance and wait when it run.
  * The policy of checking if agent is run might be different for agents.
  *
+ * <p>Agent state is checked often right after the start and after each output of the agent,
+ * the delay between checks grows up to agent ping delay while the agent is silent.
+ * Checks are never done more often than once per a quarter of the agent ping delay,
+ * as each of them may execute a process in the machine.
+ *
  * @see Agent#getScript()
  * @see AgentLaunchingChecker
  * @see AgentLaunchingChecker#DEFAULT
@@ -57,6 +64,9 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
                                                                     .setDaemon(true)
                                                                     .build());
 
+    /** The minimal delay between checks of agent state, unless the agent ping delay is shorter. */
+    private static final long MIN_PING_DELAY_MS = 100;
+
     private final AgentLaunchingChecker agentLaunchingChecker;
     private final long                  agentPingDelayMs;
     private final long                  agentMaxStartTimeMs;
@@ -75,11 +85,14 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
             return;
         }
         ListLineConsumer agentLogger = new ListLineConsumer();
+        // output of the agent signals that its state may be changed
+        Semaphore outputSignals = new Semaphore(0);
         LineConsumer lineConsumer = new AbstractLineConsumer() {
             @Override
             public void writeLine(String line) throws IOException {
                 machine.getLogger().writeLine(line);
                 agentLogger.writeLine(line);
+                outputSignals.release();
             }
         };
         try {
@@ -87,11 +100,25 @@ public abstract class AbstractAgentLauncher implements AgentLauncher {
             LOG.debug("Waiting for agent {} is launched. Workspace ID:{}", agent.getId(), machine.getWorkspaceId());
 
             final long pingStartTimestamp = System.currentTimeMillis();
+            final long minPingDelayMs = Math.max(Math.min(MIN_PING_DELAY_MS, agentPingDelayMs), agentPingDelayMs / 4);
+            long pingDelayMs = minPingDelayMs;
+            int checks = 0;
             while (System.currentTimeMillis() - pingStartTimestamp < agentMaxStartTimeMs) {
+                checks++;
                 if (agentLaunchingChecker.isLaunched(agent, process, machine)) {
+                    LOG.debug("Agent {} is launched in {}ms after {} checks. Workspace ID:{}",
+                              agent.getId(),
+                              System.currentTimeMillis() - pingStartTimestamp,
+                              checks,
+                              machine.getWorkspaceId());
                     return;
+                }
+                Thread.sleep(minPingDelayMs);
+                if (outputSignals.tryAcquire(pingDelayMs - minPingDelayMs, MILLISECONDS)) {
+                    outputSignals.drainPermits();
+                    pingDelayMs = minPingDelayMs;
                 } else {
-                    Thread.sleep(agentPingDelayMs);
+                    pingDelayMs = Math.min(pingDelayMs * 2, agentPingDelayMs);
                 }
             }
 
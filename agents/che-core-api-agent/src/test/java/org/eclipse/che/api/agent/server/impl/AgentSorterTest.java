@@ -75,6 +75,30 @@ public class AgentSorterTest {
         assertEquals(sorted.get(2).getId(), "fqn2");
     }
 
+    @Test
+    public void groupAgentsWhichDoNotDependOnEachOther() throws Exception {
+        List<List<AgentKey>> groups = agentSorter.sortInGroups(Arrays.asList("fqn1", "fqn2", "fqn3"));
+
+        assertEquals(groups.size(), 2);
+        assertEquals(groups.get(0).size(), 1);
+        assertEquals(groups.get(0).get(0).getId(), "fqn3");
+        assertEquals(groups.get(1).size(), 2);
+        assertEquals(groups.get(1).get(0).getId(), "fqn1");
+        assertEquals(groups.get(1).get(1).getId(), "fqn2");
+    }
+
+    @Test
+    public void groupDependentAgentsAfterTheirDependencies() throws Exception {
+        when(agent2.getDependencies()).thenReturn(singletonList("fqn1"));
+
+        List<List<AgentKey>> groups = agentSorter.sortInGroups(singletonList("fqn2"));
+
+        assertEquals(groups.size(), 3);
+        assertEquals(groups.get(0).get(0).getId(), "fqn3");
+        assertEquals(groups.get(1).get(0).getId(), "fqn1");
+        assertEquals(groups.get(2).get(0).getId(), "fqn2");
+    }
+
     @Test(expectedExceptions = AgentException.class, expectedExceptionsMessageRegExp = ".*fqn1.*fqn2.*")
     public void sortingShouldFailIfCircularDependenciesFound() throws Exception {
         when(agent1.getDependencies()).thenReturn(singletonList("fqn2"));
@@ -31,6 +31,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -186,6 +187,83 @@ public class AbstractAgentLauncherTest {
         }
     }
 
+    @Test
+    public void shouldCheckAgentStateSoonAfterItsOutput() throws Exception {
+        // given
+        launcher = spy(new TestAgentLauncher(20000, 1600, agentChecker));
+        when(machine.getLogger()).thenReturn(LineConsumer.DEV_NULL);
+        LineConsumer[] agentOutput = new LineConsumer[1];
+        doAnswer(invocationOnMock -> {
+            agentOutput[0] = (LineConsumer)invocationOnMock.getArguments()[2];
+            return process;
+        }).when(launcher).start(any(Instance.class), any(Agent.class), any(LineConsumer.class));
+        ArrayList<Long> checkTimestamps = new ArrayList<>(5);
+        Answer<Boolean> recordTimestampAndReturnFalse = invocationOnMock -> {
+            checkTimestamps.add(System.currentTimeMillis());
+            return false;
+        };
+        Answer<Boolean> recordTimestampWriteOutputAndReturnFalse = invocationOnMock -> {
+            checkTimestamps.add(System.currentTimeMillis());
+            agentOutput[0].writeLine("agent is starting");
+            return false;
+        };
+        Answer<Boolean> recordTimestampAndReturnTrue = invocationOnMock -> {
+            checkTimestamps.add(System.currentTimeMillis());
+            return true;
+        };
+        when(agentChecker.isLaunched(any(Agent.class),
+                                     any(InstanceProcess.class),
+                                     any(Instance.class))).thenAnswer(recordTimestampAndReturnFalse)
+                                                          .thenAnswer(recordTimestampAndReturnFalse)
+                                                          .thenAnswer(recordTimestampAndReturnFalse)
+                                                          .thenAnswer(recordTimestampWriteOutputAndReturnFalse)
+                                                          .thenAnswer(recordTimestampAndReturnTrue);
+
+        // when
+        launcher.launch(machine, agent);
+
+        // then
+        // delay grows while agent is silent and is reset by its output
+        assertTrue(checkTimestamps.get(3) - checkTimestamps.get(2) > checkTimestamps.get(1) - checkTimestamps.get(0));
+        assertTrue(checkTimestamps.get(4) - checkTimestamps.get(3) < 800);
+    }
+
+    @Test
+    public void shouldNotCheckAgentStateMoreFrequentThanQuarterOfAgentPingDelayWhenAgentWritesOutput() throws Exception {
+        // given
+        launcher = spy(new TestAgentLauncher(20000, 800, agentChecker));
+        when(machine.getLogger()).thenReturn(LineConsumer.DEV_NULL);
+        LineConsumer[] agentOutput = new LineConsumer[1];
+        doAnswer(invocationOnMock -> {
+            agentOutput[0] = (LineConsumer)invocationOnMock.getArguments()[2];
+            return process;
+        }).when(launcher).start(any(Instance.class), any(Agent.class), any(LineConsumer.class));
+        ArrayList<Long> checkTimestamps = new ArrayList<>(4);
+        Answer<Boolean> recordTimestampWriteOutputAndReturnFalse = invocationOnMock -> {
+            checkTimestamps.add(System.currentTimeMillis());
+            agentOutput[0].writeLine("agent is starting");
+            return false;
+        };
+        Answer<Boolean> recordTimestampAndReturnTrue = invocationOnMock -> {
+            checkTimestamps.add(System.currentTimeMillis());
+            return true;
+        };
+        when(agentChecker.isLaunched(any(Agent.class),
+                                     any(InstanceProcess.class),
+                                     any(Instance.class))).thenAnswer(recordTimestampWriteOutputAndReturnFalse)
+                                                          .thenAnswer(recordTimestampWriteOutputAndReturnFalse)
+                                                          .thenAnswer(recordTimestampWriteOutputAndReturnFalse)
+                                                          .thenAnswer(recordTimestampAndReturnTrue);
+
+        // when
+        launcher.launch(machine, agent);
+
+        // then
+        for (int i = 1; i < checkTimestamps.size(); i++) {
+            assertTrue(checkTimestamps.get(i) - checkTimestamps.get(i - 1) >= 200);
+        }
+    }
+
     @Test(expectedExceptions = ServerException.class, expectedExceptionsMessageRegExp = "agent launcher test exception")
     public void shouldThrowServerExceptionIfMachineExceptionIsThrownByAgentCheck() throws Exception {
         // given
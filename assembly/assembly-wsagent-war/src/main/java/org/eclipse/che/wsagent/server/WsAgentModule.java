@@ -22,16 +22,20 @@ import org.eclipse.che.UriApiEndpointProvider;
 import org.eclipse.che.UserTokenProvider;
 import org.eclipse.che.api.auth.oauth.OAuthTokenProvider;
 import org.eclipse.che.api.core.jsonrpc.BuildingRequestTransmitter;
+import org.eclipse.che.api.core.jsonrpc.ConcurrentJsonRpcMessageReceiver;
 import org.eclipse.che.api.core.jsonrpc.JsonRpcFactory;
 import org.eclipse.che.api.core.jsonrpc.JsonRpcMessageReceiver;
 import org.eclipse.che.api.core.jsonrpc.RequestHandlerConfigurator;
 import org.eclipse.che.api.core.rest.ApiInfoService;
 import org.eclipse.che.api.core.rest.CoreRestModule;
+import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
+import org.eclipse.che.api.core.rest.PooledHttpJsonRequestFactory;
 import org.eclipse.che.api.core.util.FileCleaner.FileCleanerModule;
 import org.eclipse.che.api.core.websocket.WebSocketMessageReceiver;
 import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
 import org.eclipse.che.api.core.websocket.impl.BasicWebSocketMessageTransmitter;
 import org.eclipse.che.api.core.websocket.impl.GuiceInjectorEndpointConfigurator;
+import org.eclipse.che.api.core.websocket.impl.QueuedWebSocketMessageTransmitter;
 import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.GitUserResolver;
 import org.eclipse.che.api.git.LocalGitUserResolver;
@@ -46,6 +50,7 @@ import org.eclipse.che.plugin.ssh.key.SshServiceClient;
 import org.eclipse.che.security.oauth.RemoteOAuthTokenProvider;
 
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import java.net.URI;
 
@@ -65,6 +70,7 @@ public class WsAgentModule extends AbstractModule {
                 .to(org.eclipse.che.plugin.ssh.key.script.SshKeyProviderImpl.class);
 
         install(new CoreRestModule());
+        bind(HttpJsonRequestFactory.class).to(PooledHttpJsonRequestFactory.class);
         install(new FileCleanerModule());
         install(new ProjectApiModule());
         install(new org.eclipse.che.swagger.deploy.DocsModule());
@@ -106,9 +112,22 @@ public class WsAgentModule extends AbstractModule {
 
     private void configureWebSocket() {
         requestStaticInjection(GuiceInjectorEndpointConfigurator.class);
-        bind(WebSocketMessageTransmitter.class).to(BasicWebSocketMessageTransmitter.class);
+    }
 
-        bind(WebSocketMessageReceiver.class).to(JsonRpcMessageReceiver.class);
+    @Provides
+    @Singleton
+    WebSocketMessageReceiver webSocketMessageReceiver(@Named("che.core.jsonrpc.processor.concurrent") boolean concurrent,
+                                                      Provider<JsonRpcMessageReceiver> basicReceiverProvider,
+                                                      Provider<ConcurrentJsonRpcMessageReceiver> concurrentReceiverProvider) {
+        return concurrent ? concurrentReceiverProvider.get() : basicReceiverProvider.get();
+    }
+
+    @Provides
+    @Singleton
+    WebSocketMessageTransmitter webSocketMessageTransmitter(@Named("che.core.websocket.transmitter.queued") boolean queued,
+                                                            Provider<BasicWebSocketMessageTransmitter> basicTransmitterProvider,
+                                                            Provider<QueuedWebSocketMessageTransmitter> queuedTransmitterProvider) {
+        return queued ? queuedTransmitterProvider.get() : basicTransmitterProvider.get();
     }
 
     private void configureJsonRpc() {
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.jsonrpc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.eclipse.che.api.core.jsonrpc.JsonRpcEntityQualifier.JsonRpcEntityType;
+import org.eclipse.che.api.core.websocket.WebSocketMessageReceiver;
+import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.Session;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Receives and process messages coming from web socket service. Unlike
+ * {@link JsonRpcMessageReceiver} a message is parsed only once, including
+ * all entities of a batch, and requests are handled on a dedicated pool of
+ * threads instead of a web socket container thread. Requests of a batch are
+ * handled concurrently and their responses are transmitted back as a single
+ * JSON RPC batch.
+ *
+ * <p>Messages of an endpoint are handled strictly one after another in order
+ * they were received, unless the endpoint opts out of it by opening a web socket
+ * session with {@value #ORDERED_PARAMETER} request parameter set to {@code false},
+ * then its messages and entities of its batches are handled concurrently.
+ */
+@Singleton
+public class ConcurrentJsonRpcMessageReceiver implements WebSocketMessageReceiver {
+    /** Name of web socket session request parameter used to opt out of ordered processing */
+    public static final String ORDERED_PARAMETER = "ordered";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrentJsonRpcMessageReceiver.class);
+
+    private final RequestDispatcher           requestDispatcher;
+    private final ResponseDispatcher          responseDispatcher;
+    private final JsonRpcEntityQualifier      entityQualifier;
+    private final JsonRpcFactory              jsonRpcFactory;
+    private final WebSocketMessageTransmitter transmitter;
+    private final WebSocketSessionRegistry    sessionRegistry;
+    private final JsonParser                  jsonParser;
+    private final ExecutorService             executor;
+    private final Map<String, Executor>       endpointExecutors;
+
+    @Inject
+    public ConcurrentJsonRpcMessageReceiver(RequestDispatcher requestDispatcher,
+                                            ResponseDispatcher responseDispatcher,
+                                            JsonRpcEntityQualifier entityQualifier,
+                                            JsonRpcFactory jsonRpcFactory,
+                                            WebSocketMessageTransmitter transmitter,
+                                            WebSocketSessionRegistry sessionRegistry,
+                                            JsonParser jsonParser,
+                                            @Named("che.core.jsonrpc.processor.pool_size") int poolSize) {
+        this(requestDispatcher,
+             responseDispatcher,
+             entityQualifier,
+             jsonRpcFactory,
+             transmitter,
+             sessionRegistry,
+             jsonParser,
+             Executors.newFixedThreadPool(poolSize, new ThreadFactoryBuilder().setNameFormat("JsonRpcProcessor-%d")
+                                                                              .setDaemon(true)
+                                                                              .build()));
+    }
+
+    ConcurrentJsonRpcMessageReceiver(RequestDispatcher requestDispatcher,
+                                     ResponseDispatcher responseDispatcher,
+                                     JsonRpcEntityQualifier entityQualifier,
+                                     JsonRpcFactory jsonRpcFactory,
+                                     WebSocketMessageTransmitter transmitter,
+                                     WebSocketSessionRegistry sessionRegistry,
+                                     JsonParser jsonParser,
+                                     ExecutorService executor) {
+        this.requestDispatcher = requestDispatcher;
+        this.responseDispatcher = responseDispatcher;
+        this.entityQualifier = entityQualifier;
+        this.jsonRpcFactory = jsonRpcFactory;
+        this.transmitter = transmitter;
+        this.sessionRegistry = sessionRegistry;
+        this.jsonParser = jsonParser;
+        this.executor = executor;
+        this.endpointExecutors = new ConcurrentHashMap<>();
+
+        sessionRegistry.addRemovalListener(endpointExecutors::remove);
+    }
+
+    @Override
+    public void receive(String endpointId, String message) {
+        checkNotNull(endpointId, "Endpoint ID must not be null");
+        checkArgument(!endpointId.isEmpty(), "Endpoint ID name must not be empty");
+        checkNotNull(message, "Message must not be null");
+        checkArgument(!message.isEmpty(), "Message must not be empty");
+
+        LOG.debug("Receiving message: {}, from endpoint: {}", message, endpointId);
+
+        final JsonElement jsonElement;
+        try {
+            jsonElement = jsonParser.parse(message);
+        } catch (JsonParseException e) {
+            LOG.debug("Parsing failed: {}", e.getMessage(), e);
+
+            JsonRpcException exception = new JsonRpcException(-32700, "An error occurred on the server while parsing the JSON text");
+            transmitter.transmit(endpointId, toErrorResponse(exception, null).toString());
+            return;
+        }
+
+        final boolean batch = jsonElement.isJsonArray();
+        final List<JsonElement> entities = new ArrayList<>();
+        if (batch) {
+            jsonElement.getAsJsonArray().forEach(entities::add);
+        } else {
+            entities.add(jsonElement);
+        }
+
+        if (entities.isEmpty()) {
+            JsonRpcException exception = new JsonRpcException(-32600, "The JSON sent is an empty batch");
+            transmitter.transmit(endpointId, toErrorResponse(exception, null).toString());
+            return;
+        }
+
+        final Executor endpointExecutor = endpointExecutors.computeIfAbsent(endpointId, this::createEndpointExecutor);
+        if (endpointExecutor != executor) {
+            LOG.debug("Endpoint {} is processed in order", endpointId);
+
+            endpointExecutor.execute(() -> transmitReplies(endpointId, batch, entities.stream()
+                                                                                    .map(entity -> process(endpointId, entity))
+                                                                                    .collect(toList())));
+        } else {
+            List<CompletableFuture<JsonRpcResponse>> replies = entities.stream()
+                                                                       .map(entity -> CompletableFuture.supplyAsync(
+                                                                               () -> process(endpointId, entity), executor))
+                                                                       .collect(toList());
+
+            CompletableFuture.allOf(replies.toArray(new CompletableFuture[replies.size()]))
+                             .thenRun(() -> transmitReplies(endpointId, batch, replies.stream()
+                                                                                      .map(CompletableFuture::join)
+                                                                                      .collect(toList())));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    private Executor createEndpointExecutor(String endpointId) {
+        boolean unordered = sessionRegistry.get(endpointId)
+                                           .map(Session::getRequestParameterMap)
+                                           .map(parameters -> parameters.get(ORDERED_PARAMETER))
+                                           .filter(values -> values.contains("false"))
+                                           .isPresent();
+
+        return unordered ? executor : new SerialExecutor(executor);
+    }
+
+    /**
+     * Processes a single JSON RPC entity.
+     *
+     * @return response that should be transmitted back or null if there is nothing to transmit,
+     * notifications are never answered even if they fail
+     */
+    private JsonRpcResponse process(String endpointId, JsonElement entity) {
+        String id = null;
+        boolean notification = false;
+        try {
+            if (!entity.isJsonObject()) {
+                throw new JsonRpcException(-32600, "The JSON sent is not a valid Request object");
+            }
+
+            JsonObject jsonObject = entity.getAsJsonObject();
+            JsonRpcEntityType type = entityQualifier.qualify(jsonObject);
+
+            switch (type) {
+                case REQUEST:
+                    JsonRpcRequest request = jsonRpcFactory.createRequest(jsonObject);
+                    id = request.getId();
+                    notification = id == null || id.isEmpty();
+                    return requestDispatcher.handle(endpointId, request);
+                case RESPONSE:
+                    JsonRpcResponse response = jsonRpcFactory.createResponse(jsonObject);
+                    responseDispatcher.dispatch(endpointId, response);
+                    return null;
+                case UNDEFINED:
+                default:
+                    throw new JsonRpcException(-32600, "The JSON sent is not a valid Request object");
+            }
+        } catch (JsonRpcException e) {
+            LOG.debug("Processing of an entity from endpoint {} failed: {}", endpointId, e.getMessage());
+
+            return notification ? null : toErrorResponse(e, id);
+        } catch (RuntimeException e) {
+            LOG.error("Error while processing an entity from endpoint {}", endpointId, e);
+
+            return notification ? null : toErrorResponse(new JsonRpcException(-32603, "Internal JSON RPC error"), id);
+        }
+    }
+
+    private void transmitReplies(String endpointId, boolean batch, List<JsonRpcResponse> replies) {
+        List<JsonRpcResponse> responses = replies.stream().filter(Objects::nonNull).collect(toList());
+        if (responses.isEmpty()) {
+            return;
+        }
+
+        if (batch) {
+            JsonArray jsonArray = new JsonArray();
+            responses.forEach(response -> jsonArray.add(response.toJsonObject()));
+            transmitter.transmit(endpointId, jsonArray.toString());
+        } else {
+            transmitter.transmit(endpointId, responses.get(0).toString());
+        }
+    }
+
+    private JsonRpcResponse toErrorResponse(JsonRpcException e, String requestId) {
+        JsonRpcError error = jsonRpcFactory.createError(e.getCode(), e.getMessage());
+        String id = e.getId() != null ? e.getId() : requestId;
+        return id == null || id.isEmpty() ? jsonRpcFactory.createResponse(null, error)
+                                          : jsonRpcFactory.createResponse(id, null, error);
+    }
+
+    /**
+     * Executes tasks one after another on a backing executor.
+     */
+    private static class SerialExecutor implements Executor {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private final Executor        executor;
+
+        private Runnable active;
+
+        private SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.offer(() -> {
+                try {
+                    task.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            if ((active = tasks.poll()) != null) {
+                executor.execute(active);
+            }
+        }
+    }
+}
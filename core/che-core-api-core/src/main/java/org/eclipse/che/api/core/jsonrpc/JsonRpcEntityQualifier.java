@@ -48,7 +48,12 @@ public class JsonRpcEntityQualifier {
         checkArgument(!message.isEmpty(), "Message must not be empty");
         LOG.debug("Qualifying message: " + message);
 
-        JsonObject jsonObject = jsonParser.parse(message).getAsJsonObject();
+        return qualify(jsonParser.parse(message).getAsJsonObject());
+    }
+
+    public JsonRpcEntityType qualify(JsonObject jsonObject) {
+        checkNotNull(jsonObject, "Json object must not be null");
+
         LOG.debug("Json keys: " + jsonObject.entrySet().stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
 
         if (jsonObject.has("method")) {
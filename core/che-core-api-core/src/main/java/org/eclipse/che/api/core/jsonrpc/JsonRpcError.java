@@ -43,6 +43,13 @@ public class JsonRpcError {
         this.message = getMessage(message, jsonParser);
     }
 
+    public JsonRpcError(JsonObject jsonObject) {
+        checkNotNull(jsonObject, "Json object must not be null");
+
+        this.code = jsonObject.get("code").getAsInt();
+        this.message = jsonObject.get("message").getAsString();
+    }
+
     private static String getMessage(String message, JsonParser jsonParser) {
         return jsonParser.parse(message).getAsJsonObject().get("message").getAsString();
     }
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.jsonrpc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.slf4j.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Keeps promises of requests that are sent to endpoints and are waiting
+ * for a response. An entry is removed as soon as a response is taken,
+ * when its timeout is exceeded or when the endpoint it is bound to
+ * is disconnected (removed from {@link WebSocketSessionRegistry}).
+ *
+ * <p>The number of pending responses is limited, when the limit is reached
+ * the oldest pending response is abandoned to register a new one.
+ * The owner of a promise is notified about each abandoned pending response.
+ * Pending responses are kept in the order of registration, so the oldest one is found at once.
+ */
+@Singleton
+public class JsonRpcPromiseRegistry {
+    private static final Logger LOG = getLogger(JsonRpcPromiseRegistry.class);
+
+    /** Reasons a pending response is removed without a response being received. */
+    public enum AbandonReason {
+        /** Response is not received in time. */
+        TIMED_OUT,
+        /** Endpoint the request was sent to is disconnected. */
+        ENDPOINT_DISCONNECTED,
+        /** Too many responses are pending, the oldest ones are abandoned. */
+        LIMIT_EXCEEDED
+    }
+
+    /** Guarded by itself, iterated from the oldest to the newest pending response. */
+    private final Map<String, PendingResponse> pendingResponses = new LinkedHashMap<>();
+    private final AtomicLong                   timedOutCounter  = new AtomicLong();
+    private final AtomicLong                   evictedCounter   = new AtomicLong();
+    private final AtomicLong                   overflowCounter  = new AtomicLong();
+    private final ScheduledThreadPoolExecutor  timeoutExecutor;
+    private final long                         defaultTimeoutMs;
+    private final int                          maxPendingResponses;
+
+    @Inject
+    public JsonRpcPromiseRegistry(@Named("che.core.jsonrpc.response_timeout_ms") long defaultTimeoutMs,
+                                  @Named("che.core.jsonrpc.max_pending_responses") int maxPendingResponses,
+                                  WebSocketSessionRegistry sessionRegistry) {
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxPendingResponses = maxPendingResponses;
+        this.timeoutExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("JsonRpcPromiseTimeout-%d")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
+        // cancelled timeouts must not stay in the queue until their delay is elapsed
+        this.timeoutExecutor.setRemoveOnCancelPolicy(true);
+
+        sessionRegistry.addRemovalListener(this::evict);
+    }
+
+    private static String combine(String endpointId, String requestId) {
+        return endpointId + '@' + requestId;
+    }
+
+    /**
+     * Registers a promise with a default timeout.
+     *
+     * @see #register(String, String, Class, JsonRpcPromise, long, BiConsumer)
+     */
+    public void register(String endpointId, String requestId, Class<?> rClass, JsonRpcPromise<?> promise,
+                         BiConsumer<PendingResponse, AbandonReason> onAbandon) {
+        register(endpointId, requestId, rClass, promise, defaultTimeoutMs, onAbandon);
+    }
+
+    /**
+     * Registers a promise of a response for a request with specified identifier
+     * that was sent to a specified endpoint.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     * @param requestId
+     *         request identifier
+     * @param rClass
+     *         class of the expected result
+     * @param promise
+     *         promise to be resolved or rejected when response is received
+     * @param timeoutMs
+     *         time in milliseconds the response is waited for, non positive
+     *         value means that the response is waited until endpoint is disconnected
+     * @param onAbandon
+     *         action to be performed with the pending response if it is removed without a response,
+     *         e.g. if timeout is exceeded or endpoint is disconnected
+     */
+    public void register(String endpointId, String requestId, Class<?> rClass, JsonRpcPromise<?> promise, long timeoutMs,
+                         BiConsumer<PendingResponse, AbandonReason> onAbandon) {
+        String key = combine(endpointId, requestId);
+        PendingResponse pendingResponse = new PendingResponse(endpointId, requestId, rClass, promise, onAbandon);
+
+        PendingResponse previous;
+        PendingResponse oldest = null;
+        synchronized (pendingResponses) {
+            // re-registered request becomes the newest one
+            previous = pendingResponses.remove(key);
+            if (maxPendingResponses > 0 && pendingResponses.size() >= maxPendingResponses) {
+                Iterator<PendingResponse> it = pendingResponses.values().iterator();
+                oldest = it.next();
+                it.remove();
+            }
+            pendingResponses.put(key, pendingResponse);
+        }
+
+        if (previous != null) {
+            LOG.warn("Promise for request {} of endpoint {} is registered twice, previous one is discarded", requestId, endpointId);
+            previous.cancelTimeout();
+        }
+        if (oldest != null) {
+            overflowCounter.incrementAndGet();
+            LOG.warn("Too many pending responses, response for request {} of endpoint {} is not waited any more",
+                     oldest.requestId, oldest.endpointId);
+            oldest.cancelTimeout();
+            oldest.abandon(AbandonReason.LIMIT_EXCEEDED);
+        }
+
+        if (timeoutMs > 0) {
+            pendingResponse.timeout = timeoutExecutor.schedule(() -> {
+                if (remove(key, pendingResponse)) {
+                    timedOutCounter.incrementAndGet();
+                    LOG.debug("Response for request {} of endpoint {} is timed out", requestId, endpointId);
+                    pendingResponse.abandon(AbandonReason.TIMED_OUT);
+                }
+            }, timeoutMs, MILLISECONDS);
+        }
+    }
+
+    /**
+     * Removes and returns a pending response for a specified endpoint and request.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     * @param requestId
+     *         request identifier
+     *
+     * @return pending response or empty optional if there is no such request,
+     * or it is already timed out or evicted
+     */
+    public Optional<PendingResponse> take(String endpointId, String requestId) {
+        PendingResponse pendingResponse;
+        synchronized (pendingResponses) {
+            pendingResponse = pendingResponses.remove(combine(endpointId, requestId));
+        }
+        if (pendingResponse != null) {
+            pendingResponse.cancelTimeout();
+        }
+        return Optional.ofNullable(pendingResponse);
+    }
+
+    /**
+     * Removes all pending responses of a specified endpoint,
+     * their owners are notified that the endpoint is disconnected.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     */
+    public void evict(String endpointId) {
+        List<PendingResponse> evicted = new ArrayList<>();
+        synchronized (pendingResponses) {
+            for (Iterator<PendingResponse> it = pendingResponses.values().iterator(); it.hasNext(); ) {
+                PendingResponse pendingResponse = it.next();
+                if (pendingResponse.endpointId.equals(endpointId)) {
+                    it.remove();
+                    evicted.add(pendingResponse);
+                }
+            }
+        }
+
+        for (PendingResponse pendingResponse : evicted) {
+            pendingResponse.cancelTimeout();
+            pendingResponse.abandon(AbandonReason.ENDPOINT_DISCONNECTED);
+        }
+        if (!evicted.isEmpty()) {
+            evictedCounter.addAndGet(evicted.size());
+            LOG.debug("Evicted {} pending responses of endpoint {}", evicted.size(), endpointId);
+        }
+    }
+
+    /** Returns the number of requests that are currently waiting for a response. */
+    public int getInFlightCount() {
+        synchronized (pendingResponses) {
+            return pendingResponses.size();
+        }
+    }
+
+    /** Returns the total number of requests whose response was not received in time. */
+    public long getTimedOutCount() {
+        return timedOutCounter.get();
+    }
+
+    /** Returns the total number of pending responses removed because of endpoint disconnection. */
+    public long getEvictedCount() {
+        return evictedCounter.get();
+    }
+
+    /** Returns the total number of pending responses removed because the limit of pending responses was reached. */
+    public long getOverflowCount() {
+        return overflowCounter.get();
+    }
+
+    private boolean remove(String key, PendingResponse pendingResponse) {
+        synchronized (pendingResponses) {
+            return pendingResponses.remove(key, pendingResponse);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        timeoutExecutor.shutdownNow();
+    }
+
+    /**
+     * Promise of a response along with the context of the request it was registered for.
+     */
+    public static class PendingResponse {
+        private final String            endpointId;
+        private final String            requestId;
+        private final Class<?>          rClass;
+        private final JsonRpcPromise<?> promise;
+
+        private final BiConsumer<PendingResponse, AbandonReason> onAbandon;
+
+        private volatile ScheduledFuture<?> timeout;
+
+        private PendingResponse(String endpointId,
+                                String requestId,
+                                Class<?> rClass,
+                                JsonRpcPromise<?> promise,
+                                BiConsumer<PendingResponse, AbandonReason> onAbandon) {
+            this.endpointId = endpointId;
+            this.requestId = requestId;
+            this.rClass = rClass;
+            this.promise = promise;
+            this.onAbandon = onAbandon;
+        }
+
+        public String getEndpointId() {
+            return endpointId;
+        }
+
+        public String getRequestId() {
+            return requestId;
+        }
+
+        public Class<?> getResultClass() {
+            return rClass;
+        }
+
+        public JsonRpcPromise<?> getPromise() {
+            return promise;
+        }
+
+        private void abandon(AbandonReason reason) {
+            try {
+                onAbandon.accept(this, reason);
+            } catch (RuntimeException e) {
+                LOG.error(format("Failed to notify about abandoned response for request %s of endpoint %s", requestId, endpointId), e);
+            }
+        }
+
+        private void cancelTimeout() {
+            ScheduledFuture<?> timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+}
@@ -22,7 +22,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Represents JSON RPC request object. Can be constructed out of
  * stringified json object or by passing specific parameters.
  * Use {@link JsonRpcFactory#createRequest(String, String, JsonRpcParams)}
- * {@link JsonRpcFactory#createRequest(String)} or
+ * {@link JsonRpcFactory#createRequest(String)},
+ * {@link JsonRpcFactory#createRequest(JsonObject)} or
  * {@link JsonRpcFactory#createRequest(String, JsonRpcParams)} to get an instance.
  */
 public class JsonRpcRequest {
@@ -52,6 +53,15 @@ public class JsonRpcRequest {
         }
     }
 
+    @AssistedInject
+    public JsonRpcRequest(@Assisted("jsonObject") JsonObject jsonObject, JsonRpcFactory jsonRpcFactory) {
+        checkNotNull(jsonObject, "Json object must not be null");
+
+        method = jsonObject.get("method").getAsString();
+        id = jsonObject.has("id") ? jsonObject.get("id").getAsString() : null;
+        params = jsonObject.has("params") ? jsonRpcFactory.createParams(jsonObject.get("params")) : null;
+    }
+
     @AssistedInject
     public JsonRpcRequest(@Assisted("id") String id, @Assisted("method") String method, @Assisted("params") JsonRpcParams params,
                           JsonParser jsonParser) {
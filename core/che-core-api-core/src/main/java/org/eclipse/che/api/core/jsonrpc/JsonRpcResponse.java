@@ -21,7 +21,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 /**
  * Represents JSON RPC response object. Can be constructed out of
  * stringified json object or by passing specific parameters.
- * Use {@link JsonRpcFactory#createResponse(String)} or
+ * Use {@link JsonRpcFactory#createResponse(String)},
+ * {@link JsonRpcFactory#createResponse(JsonObject)} or
  * {@link JsonRpcFactory#createResponse(String, JsonRpcResult, JsonRpcError)}
  * to get an instance of this entity.
  */
@@ -50,6 +51,23 @@ public class JsonRpcResponse {
                      : null;
     }
 
+    @AssistedInject
+    public JsonRpcResponse(@Assisted("jsonObject") JsonObject jsonObject) {
+        checkNotNull(jsonObject, "Json object must not be null");
+
+        this.id = jsonObject.has("id")
+                  ? jsonObject.get("id").getAsString()
+                  : null;
+
+        this.result = jsonObject.has("result")
+                      ? new JsonRpcResult(jsonObject.get("result"))
+                      : null;
+
+        this.error = jsonObject.has("error")
+                     ? new JsonRpcError(jsonObject.get("error").getAsJsonObject())
+                     : null;
+    }
+
     @AssistedInject
     public JsonRpcResponse(@Assisted("id") String id, @Assisted("result") JsonRpcResult result, @Assisted("error") JsonRpcError error) {
         checkNotNull(id, "ID must not be null");
@@ -56,6 +56,18 @@ public class JsonRpcResult {
         }
     }
 
+    public JsonRpcResult(JsonElement jsonElement) {
+        checkNotNull(jsonElement, "Json element must not be null");
+
+        if (jsonElement.isJsonArray()) {
+            JsonArray jsonArray = jsonElement.getAsJsonArray();
+            this.resultList = new ArrayList<>(jsonArray.size());
+            jsonArray.forEach(it -> this.resultList.add(it));
+        } else {
+            this.result = jsonElement;
+        }
+    }
+
     @AssistedInject
     public JsonRpcResult(@Assisted("result") Object result, JsonParser jsonParser) {
         this.result = result == null ? EMPTY_OBJECT : jsonParser.parse(result.toString());
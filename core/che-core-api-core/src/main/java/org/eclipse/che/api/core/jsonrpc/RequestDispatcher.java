@@ -41,6 +41,28 @@ public class RequestDispatcher {
     }
 
     public void dispatch(String endpointId, JsonRpcRequest request) throws JsonRpcException {
+        JsonRpcResponse response = handle(endpointId, request);
+
+        if (response != null) {
+            LOG.debug("Transmitting back a response: {}", response);
+            transmitter.transmit(endpointId, response.toString());
+        }
+    }
+
+    /**
+     * Handles a request or a notification without transmitting anything back.
+     *
+     * @param endpointId
+     *         identifier of an endpoint the request came from
+     * @param request
+     *         request or notification to be handled
+     *
+     * @return response to the request or null if it is a notification
+     *
+     * @throws JsonRpcException
+     *         if there is no handler for the request method
+     */
+    public JsonRpcResponse handle(String endpointId, JsonRpcRequest request) throws JsonRpcException {
         checkNotNull(endpointId, "Endpoint ID must not be null");
         checkArgument(!endpointId.isEmpty(), "Endpoint ID must not be empty");
         checkNotNull(request, "Request must not be null");
@@ -57,16 +79,14 @@ public class RequestDispatcher {
             RequestHandler handler = registry.getRequestHandler(method);
             checkHandler(method, handler, id);
             JsonRpcResult result = handler.handle(endpointId, params);
-            JsonRpcResponse response = factory.createResponse(id, result, null);
-
-            LOG.debug("Transmitting back a response: {}", response);
-            transmitter.transmit(endpointId, response.toString());
+            return factory.createResponse(id, result, null);
         } else {
             LOG.debug("Request has no ID -> it is a notification");
 
             NotificationHandler handler = registry.getNotificationHandler(method);
             checkHandler(method, handler, null);
             handler.handle(endpointId, params);
+            return null;
         }
     }
 
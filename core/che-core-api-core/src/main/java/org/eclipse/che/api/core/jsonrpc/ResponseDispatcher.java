@@ -10,28 +10,42 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.jsonrpc;
 
-import org.eclipse.che.api.core.jsonrpc.transmission.MethodNameConfigurator;
+import org.eclipse.che.api.core.jsonrpc.JsonRpcPromiseRegistry.AbandonReason;
+import org.eclipse.che.api.core.jsonrpc.JsonRpcPromiseRegistry.PendingResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * Dispatches JSON RPC responses
+ * Dispatches JSON RPC responses. Promises of the responses are kept in
+ * {@link JsonRpcPromiseRegistry} until a response is dispatched, the
+ * request is timed out or the endpoint is disconnected.
  */
 @Singleton
 public class ResponseDispatcher {
-    private static final Logger LOG = LoggerFactory.getLogger(MethodNameConfigurator.class);
+    /** Implementation defined server error code used when response is not received in time */
+    public static final int RESPONSE_TIMEOUT_ERROR_CODE      = -32001;
+    /** Implementation defined server error code used when endpoint is disconnected before response is received */
+    public static final int ENDPOINT_DISCONNECTED_ERROR_CODE = -32002;
+    /** Implementation defined server error code used when too many responses are waited for */
+    public static final int TOO_MANY_PENDING_ERROR_CODE      = -32003;
 
-    private final Map<String, JsonRpcPromise> promises = new HashMap<>();
-    private final Map<String, Class<?>>       rClasses = new HashMap<>();
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseDispatcher.class);
+
+    private final JsonRpcPromiseRegistry promiseRegistry;
+
+    @Inject
+    public ResponseDispatcher(JsonRpcPromiseRegistry promiseRegistry) {
+        this.promiseRegistry = promiseRegistry;
+    }
 
     private static void checkArguments(String endpointId, String requestId, Class<?> rClass, JsonRpcPromise success) {
         checkNotNull(endpointId, "Endpoint ID must not be null");
@@ -45,10 +59,6 @@ public class ResponseDispatcher {
         checkNotNull(success, "Json rpc promise must not be null");
     }
 
-    private static String combine(String endpointId, String requestId) {
-        return endpointId + '@' + requestId;
-    }
-
     @SuppressWarnings("unchecked")
     private static <T> T cast(Object object) {
         return (T)object;
@@ -80,26 +90,29 @@ public class ResponseDispatcher {
         String responseId = response.getId();
         LOG.debug("Fetching response ID: {}", responseId);
 
-        String key = combine(endpointId, responseId);
-        LOG.debug("Generating key: {}", key);
+        Optional<PendingResponse> pendingResponse = promiseRegistry.take(endpointId, responseId);
+        if (!pendingResponse.isPresent()) {
+            LOG.warn("Received a response: {}, from endpoint: {}, that is not expected or is already timed out", responseId, endpointId);
+            return;
+        }
 
-        Class<?> rClass = rClasses.get(key);
+        JsonRpcPromise<?> promise = pendingResponse.get().getPromise();
+        Class<?> rClass = pendingResponse.get().getResultClass();
         LOG.debug("Fetching result class: {}", rClass);
 
         if (response.hasResult()) {
-            processResult(endpointId, response, key, rClass);
+            processResult(endpointId, response, promise, rClass);
         } else if (response.hasError()) {
-            processError(endpointId, response, key);
+            processError(endpointId, response.getError(), promise);
         } else {
             LOG.error("Received incorrect response: no error, no result");
         }
     }
 
-    private void processError(String endpointId, JsonRpcResponse response, String key) {
+    private void processError(String endpointId, JsonRpcError error, JsonRpcPromise<?> promise) {
         LOG.debug("Response has error. Proceeding...");
 
-        JsonRpcError error = response.getError();
-        BiConsumer<String, JsonRpcError> consumer = cast(promises.get(key).getFailureConsumer());
+        BiConsumer<String, JsonRpcError> consumer = cast(promise.getFailureConsumer());
         if (consumer != null) {
             LOG.debug("Failure consumer is found, accepting...");
             consumer.accept(endpointId, error);
@@ -108,15 +121,37 @@ public class ResponseDispatcher {
         }
     }
 
-    private void processResult(String endpointId, JsonRpcResponse response, String key, Class<?> rClass) {
+    private void processResult(String endpointId, JsonRpcResponse response, JsonRpcPromise<?> promise, Class<?> rClass) {
         LOG.debug("Response has result. Proceeding...");
 
+        if (promise.getSuccessConsumer() == null) {
+            LOG.debug("Success consumer is not found, skipping");
+            return;
+        }
+
         JsonRpcResult result = response.getResult();
         if (result.isArray()) {
-            processMany(endpointId, response, rClass, cast(promises.get(key).getSuccessConsumer()));
+            processMany(endpointId, response, rClass, cast(promise.getSuccessConsumer()));
         } else {
-            processOne(endpointId, response, rClass, cast(promises.get(key).getSuccessConsumer()));
+            processOne(endpointId, response, rClass, cast(promise.getSuccessConsumer()));
+        }
+    }
+
+    private void processAbandoned(PendingResponse pendingResponse, AbandonReason reason) {
+        LOG.debug("Response for request {} is abandoned: {}", pendingResponse.getRequestId(), reason);
+
+        JsonRpcError error;
+        switch (reason) {
+            case TIMED_OUT:
+                error = new JsonRpcError(RESPONSE_TIMEOUT_ERROR_CODE, "Response is not received in time");
+                break;
+            case ENDPOINT_DISCONNECTED:
+                error = new JsonRpcError(ENDPOINT_DISCONNECTED_ERROR_CODE, "Endpoint is disconnected");
+                break;
+            default:
+                error = new JsonRpcError(TOO_MANY_PENDING_ERROR_CODE, "Too many requests are waiting for a response");
         }
+        processError(pendingResponse.getEndpointId(), error, pendingResponse.getPromise());
     }
 
     public <R> JsonRpcPromise<R> registerPromiseOfOne(String endpointId, String requestId, Class<R> rClass, JsonRpcPromise<R> promise) {
@@ -131,10 +166,7 @@ public class ResponseDispatcher {
     private <R> JsonRpcPromise registerInternal(String endpointId, String requestId, Class<R> rClass, JsonRpcPromise promise) {
         checkArguments(endpointId, requestId, rClass, promise);
 
-        String key = combine(endpointId, requestId);
-
-        promises.put(key, promise);
-        rClasses.put(key, rClass);
+        promiseRegistry.register(endpointId, requestId, rClass, promise, this::processAbandoned);
 
         return promise;
     }
@@ -10,23 +10,33 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.notification;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -41,47 +51,61 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     bus.publish(new MyEvent());
  * </pre>
  *
+ * <p>Subscribers of each concrete event class, including subscribers of all its
+ * super types, are collected into an immutable dispatch table once and the table
+ * is reused until any subscription is changed.
+ *
+ * <p>Events may also be published asynchronously with {@link #publishAsync(Object)},
+ * in this case each subscriber receives events in order they were published from
+ * its own bounded queue drained by a shared bounded pool of threads. Events which
+ * don't fit into the queue of a subscriber are dropped and counted, see
+ * {@link #getDroppedAsyncEventsCount()}.
+ *
  * @author andrew00x
  */
 @Singleton
 public class EventService {
     private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
-    private static final int CACHE_NUM  = 1 << 2;
-    private static final int CACHE_MASK = CACHE_NUM - 1;
-    private static final int SEG_SIZE   = 32;
+    /** Max number of events waiting for asynchronous delivery to a single subscriber */
+    private static final int ASYNC_QUEUE_SIZE = 10_000;
 
-    private final LoadingCache<Class<?>, Set<Class<?>>>[]       typeCache;
-    private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    /** Max number of threads delivering events asynchronously */
+    private static final int ASYNC_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final EventSubscriber[] NO_SUBSCRIBERS = new EventSubscriber[0];
+
+    private final ConcurrentMap<Class<?>, Set<EventSubscriber>>      subscribersByEventType;
+    private final ConcurrentMap<EventSubscriber, SubscriberQueue>    asyncQueues;
+    private final AtomicLong                                         droppedAsyncEvents;
+    private volatile ConcurrentMap<Class<?>, EventSubscriber[]>      dispatchTables;
+    private volatile ExecutorService                                 asyncExecutor;
 
-    @SuppressWarnings("unchecked")
     public EventService() {
         subscribersByEventType = new ConcurrentHashMap<>();
-        typeCache = new LoadingCache[CACHE_NUM];
-        for (int i = 0; i < CACHE_NUM; i++) {
-            typeCache[i] = CacheBuilder.newBuilder().concurrencyLevel(SEG_SIZE).build(
-                    new CacheLoader<Class<?>, Set<Class<?>>>() {
-                        @Override
-                        public Set<Class<?>> load(Class<?> eventClass) {
-                            LinkedList<Class<?>> parents = new LinkedList<>();
-                            Set<Class<?>> classes = new HashSet<>();
-                            parents.add(eventClass);
-                            while (!parents.isEmpty()) {
-                                Class<?> clazz = parents.pop();
-                                classes.add(clazz);
-                                Class<?> parent = clazz.getSuperclass();
-                                if (parent != null) {
-                                    parents.add(parent);
-                                }
-                                Class<?>[] interfaces = clazz.getInterfaces();
-                                if (interfaces.length > 0) {
-                                    Collections.addAll(parents, interfaces);
-                                }
-                            }
-                            return classes;
-                        }
-                    });
+        asyncQueues = new ConcurrentHashMap<>();
+        droppedAsyncEvents = new AtomicLong();
+        dispatchTables = new ConcurrentHashMap<>();
+    }
+
+    /** Returns the event class along with all its super classes and interfaces. */
+    private static Set<Class<?>> getTypeHierarchy(Class<?> eventClass) {
+        LinkedList<Class<?>> parents = new LinkedList<>();
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        parents.add(eventClass);
+        while (!parents.isEmpty()) {
+            Class<?> clazz = parents.pop();
+            classes.add(clazz);
+            Class<?> parent = clazz.getSuperclass();
+            if (parent != null) {
+                parents.add(parent);
+            }
+            Class<?>[] interfaces = clazz.getInterfaces();
+            if (interfaces.length > 0) {
+                Collections.addAll(parents, interfaces);
+            }
         }
+        return classes;
     }
 
     /**
@@ -96,21 +120,102 @@ public class EventService {
         if (event == null) {
             throw new IllegalArgumentException("Null event.");
         }
-        final Class<?> eventClass = event.getClass();
-        for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
-            final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-            if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-                for (EventSubscriber eventSubscriber : eventSubscribers) {
-                    try {
-                        LOG.debug("Publish event {} for {}", event, eventSubscriber);
-                        eventSubscriber.onEvent(event);
-                    } catch (RuntimeException e) {
-                        LOG.error(e.getMessage(), e);
-                    }
+        for (EventSubscriber eventSubscriber : getDispatchTable(event.getClass())) {
+            deliver(eventSubscriber, event);
+        }
+        return event;
+    }
+
+    /**
+     * Publish event {@code event} asynchronously. Method returns immediately, the event
+     * is added to a queue of each subscriber and is delivered to subscribers by a pool of
+     * threads, subscribers are never called by the publishing thread. Events are delivered
+     * to each subscriber in order they were published. If queue of a subscriber is full
+     * the event is not delivered to that subscriber and it is counted as dropped.
+     *
+     * @param event
+     *         event
+     * @return published event
+     */
+    public <T> T publishAsync(T event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Null event.");
+        }
+        for (EventSubscriber eventSubscriber : getDispatchTable(event.getClass())) {
+            asyncQueues.computeIfAbsent(eventSubscriber, s -> new SubscriberQueue(s)).offer(event);
+        }
+        return event;
+    }
+
+    /** Returns the total number of asynchronously published events that were not delivered because of full queues. */
+    public long getDroppedAsyncEventsCount() {
+        return droppedAsyncEvents.get();
+    }
+
+    @PreDestroy
+    void stop() {
+        ExecutorService executor = asyncExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void deliver(EventSubscriber eventSubscriber, Object event) {
+        try {
+            LOG.debug("Publish event {} for {}", event, eventSubscriber);
+            eventSubscriber.onEvent(event);
+        } catch (RuntimeException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    private EventSubscriber[] getDispatchTable(Class<?> eventClass) {
+        // tables are replaced on each subscription change, so table built
+        // out of outdated subscriptions is put into an outdated map
+        final ConcurrentMap<Class<?>, EventSubscriber[]> tables = dispatchTables;
+        EventSubscriber[] table = tables.get(eventClass);
+        if (table == null) {
+            final List<EventSubscriber> subscribers = new ArrayList<>();
+            for (Class<?> clazz : getTypeHierarchy(eventClass)) {
+                final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
+                if (eventSubscribers != null) {
+                    subscribers.addAll(eventSubscribers);
                 }
             }
+            table = subscribers.isEmpty() ? NO_SUBSCRIBERS : subscribers.toArray(new EventSubscriber[subscribers.size()]);
+            tables.putIfAbsent(eventClass, table);
         }
-        return event;
+        return table;
+    }
+
+    private void invalidateDispatchTables() {
+        dispatchTables = new ConcurrentHashMap<>();
+    }
+
+    private ExecutorService getAsyncExecutor() {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    final ThreadPoolExecutor pool =
+                            new ThreadPoolExecutor(ASYNC_POOL_SIZE,
+                                                   ASYNC_POOL_SIZE,
+                                                   60,
+                                                   SECONDS,
+                                                   // each subscriber queue waits for a thread at most once at a time,
+                                                   // so the number of waiting tasks is bounded by the number of subscribers
+                                                   new LinkedBlockingQueue<>(),
+                                                   new ThreadFactoryBuilder().setNameFormat("EventService-%d")
+                                                                             .setDaemon(true)
+                                                                             .build());
+                    pool.allowCoreThreadTimeOut(true);
+                    asyncExecutor = executor = pool;
+                }
+            }
+        }
+        return executor;
     }
 
     /**
@@ -145,7 +250,9 @@ public class EventService {
                 entries = newEntries;
             }
         }
-        entries.add(subscriber);
+        if (entries.add(subscriber)) {
+            invalidateDispatchTables();
+        }
     }
 
     /**
@@ -171,6 +278,8 @@ public class EventService {
                 if (entries.isEmpty()) {
                     subscribersByEventType.remove(eventType);
                 }
+                asyncQueues.remove(subscriber);
+                invalidateDispatchTables();
             }
         }
     }
@@ -200,4 +309,65 @@ public class EventService {
         }
         return eventType;
     }
+
+    /**
+     * Queue of events waiting for asynchronous delivery to a single subscriber,
+     * at most one thread delivers events from the queue at a time.
+     */
+    private class SubscriberQueue {
+        private final EventSubscriber subscriber;
+        private final Deque<Object>   events;
+
+        private boolean draining;
+        private long    dropped;
+
+        private SubscriberQueue(EventSubscriber subscriber) {
+            this.subscriber = subscriber;
+            this.events = new ArrayDeque<>();
+        }
+
+        private void offer(Object event) {
+            synchronized (this) {
+                if (events.size() >= ASYNC_QUEUE_SIZE) {
+                    droppedAsyncEvents.incrementAndGet();
+                    // warn only once until the queue is drained, a slow subscriber may miss lots of events
+                    if (dropped++ == 0) {
+                        LOG.warn("Queue of subscriber {} is full, events are not delivered until it is drained", subscriber);
+                    }
+                    return;
+                }
+                events.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                getAsyncExecutor().execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Event service is stopped, events are not delivered to {}", subscriber);
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                final Object event;
+                synchronized (this) {
+                    event = events.pollFirst();
+                    if (event == null) {
+                        if (dropped > 0) {
+                            LOG.warn("Queue of subscriber {} is drained, {} events were not delivered", subscriber, dropped);
+                            dropped = 0;
+                        }
+                        draining = false;
+                        return;
+                    }
+                }
+                deliver(subscriber, event);
+            }
+        }
+    }
 }
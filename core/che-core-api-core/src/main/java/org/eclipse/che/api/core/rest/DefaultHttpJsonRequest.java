@@ -220,9 +220,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
             }
             url = ub.build().toString();
         }
-        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
-        conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
-        conn.setReadTimeout(timeout > 0 ? timeout : 60000);
+        final HttpURLConnection conn = openConnection(url, timeout);
+        boolean consumed = false;
         try {
             conn.setRequestMethod(method);
             //drop a hint for server side that we want to receive application/json
@@ -241,9 +240,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                     conn.setRequestProperty("X-HTTP-Method-Override", HttpMethod.DELETE);
                 }
 
-                try (OutputStream output = conn.getOutputStream()) {
-                    output.write(DtoFactory.getInstance().toJson(body).getBytes());
-                }
+                writeBody(conn, body);
             }
 
             final int responseCode = conn.getResponseCode();
@@ -256,6 +253,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 try (Reader reader = new InputStreamReader(in)) {
                     str = CharStreams.toString(reader);
                 }
+                consumed = true;
                 final String contentType = conn.getContentType();
                 if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
                     final ServiceError serviceError = DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
@@ -285,11 +283,70 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 throw new IOException(conn.getResponseMessage());
             }
 
-            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
+            try (InputStream in = conn.getInputStream()) {
+                final DefaultHttpJsonResponse response = readResponse(in, contentType, responseCode);
+                consumed = true;
+                return response;
             }
         } finally {
-            conn.disconnect();
+            releaseConnection(conn, consumed);
+        }
+    }
+
+    /**
+     * Opens connection to the url, the connection is released by {@link #releaseConnection(HttpURLConnection, boolean)}.
+     *
+     * @param url
+     *         request url with query parameters
+     * @param timeout
+     *         request timeout, used only if it is greater than 0
+     */
+    protected HttpURLConnection openConnection(String url, int timeout) throws IOException {
+        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
+        conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
+        conn.setReadTimeout(timeout > 0 ? timeout : 60000);
+        return conn;
+    }
+
+    /**
+     * Releases connection once the request is done.
+     *
+     * @param conn
+     *         connection opened by {@link #openConnection(String, int)}
+     * @param consumed
+     *         whether the response is read fully, so the connection may be reused for other requests
+     */
+    protected void releaseConnection(HttpURLConnection conn, boolean consumed) {
+        conn.disconnect();
+    }
+
+    /**
+     * Writes request body into the connection output and closes it.
+     *
+     * @param conn
+     *         connection opened by {@link #openConnection(String, int)}, which output is not open yet
+     * @param body
+     *         request body, must be instance of {@link JsonSerializable}
+     */
+    protected void writeBody(HttpURLConnection conn, Object body) throws IOException {
+        try (OutputStream output = conn.getOutputStream()) {
+            output.write(DtoFactory.getInstance().toJson(body).getBytes());
+        }
+    }
+
+    /**
+     * Reads successful response from the connection input.
+     *
+     * @param in
+     *         connection input, closed by the caller
+     * @param contentType
+     *         content type of the response, either {@code null} or {@code application/json}
+     * @param responseCode
+     *         response code
+     */
+    protected DefaultHttpJsonResponse readResponse(InputStream in, String contentType, int responseCode) throws IOException {
+        try (Reader reader = new InputStreamReader(in)) {
+            return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
         }
     }
 
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts leased connections and optionally limits the number of concurrent connections per host.
+ *
+ * <p>Connections themselves are kept by the keep-alive cache of {@link java.net.HttpURLConnection}, which keeps
+ * up to {@code http.maxConnections} idle connections per host and closes the extra ones. By default the number
+ * of concurrent connections is not limited, so requests never wait for each other. If a limit is set, not more
+ * connections to a host are open at once and a request waits for a free connection up to the lease timeout.
+ */
+public class HttpConnectionPool {
+    /** Max number of connections to a single host open at once, not positive if the number is not limited. */
+    private final int                    maxConnectionsPerHost;
+    private final long                   leaseTimeoutMs;
+    private final Map<String, Semaphore> hosts;
+    private final AtomicLong             leased;
+    private final AtomicLong             pending;
+    private final AtomicLong             requests;
+    private final AtomicLong             keptAlive;
+    private final AtomicLong             discarded;
+    private final AtomicLong             leaseTimeouts;
+    private final AtomicLong             totalLeaseWaitNanos;
+
+    /**
+     * @param maxConnectionsPerHost
+     *         max number of connections to a single host open at once, the number is not limited if it is not positive
+     * @param leaseTimeoutMs
+     *         max time in milliseconds a request waits for a free connection
+     */
+    public HttpConnectionPool(int maxConnectionsPerHost, long leaseTimeoutMs) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.hosts = new ConcurrentHashMap<>();
+        this.leased = new AtomicLong();
+        this.pending = new AtomicLong();
+        this.requests = new AtomicLong();
+        this.keptAlive = new AtomicLong();
+        this.discarded = new AtomicLong();
+        this.leaseTimeouts = new AtomicLong();
+        this.totalLeaseWaitNanos = new AtomicLong();
+    }
+
+    /**
+     * Leases connection to the host, waits for a free one if the number of connections is limited
+     * and the max number of connections to the host is leased.
+     *
+     * @param host
+     *         host and port the connection is open to
+     * @throws IOException
+     *         if there is no free connection within the lease timeout
+     * @throws InterruptedIOException
+     *         if the thread is interrupted while it waits for a free connection
+     */
+    public void lease(String host) throws IOException {
+        final Semaphore connections = hosts.computeIfAbsent(host, key -> maxConnectionsPerHost > 0
+                                                                         ? new Semaphore(maxConnectionsPerHost, true)
+                                                                         : new Semaphore(Integer.MAX_VALUE));
+        final long started = System.nanoTime();
+        pending.incrementAndGet();
+        try {
+            if (!connections.tryAcquire(leaseTimeoutMs, TimeUnit.MILLISECONDS)) {
+                leaseTimeouts.incrementAndGet();
+                throw new IOException(String.format("Timeout of %d ms exceeded while waiting for a free connection to %s",
+                                                    leaseTimeoutMs, host));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free connection to " + host);
+        } finally {
+            pending.decrementAndGet();
+            totalLeaseWaitNanos.addAndGet(System.nanoTime() - started);
+        }
+        leased.incrementAndGet();
+        requests.incrementAndGet();
+    }
+
+    /**
+     * Releases connection leased by {@link #lease(String)}.
+     *
+     * @param host
+     *         host and port the connection is open to
+     * @param keptAlive
+     *         whether the connection is left open for reuse or it is closed
+     */
+    public void release(String host, boolean keptAlive) {
+        final Semaphore connections = hosts.get(host);
+        if (connections == null) {
+            return;
+        }
+        (keptAlive ? this.keptAlive : discarded).incrementAndGet();
+        leased.decrementAndGet();
+        connections.release();
+    }
+
+    /** Returns the max number of connections to a single host open at once, not positive if the number is not limited. */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /** Returns the number of hosts connections were leased to. */
+    public int getHostsCount() {
+        return hosts.size();
+    }
+
+    /** Returns the number of connections leased at the moment. */
+    public long getLeasedCount() {
+        return leased.get();
+    }
+
+    /** Returns the number of requests waiting for a free connection at the moment. */
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    /** Returns the total number of leased connections. */
+    public long getRequestsCount() {
+        return requests.get();
+    }
+
+    /** Returns the total number of connections left open for reuse after a request. */
+    public long getKeptAliveCount() {
+        return keptAlive.get();
+    }
+
+    /** Returns the total number of connections closed after a request, e.g. because of an error. */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    /** Returns the total number of requests that didn't get a free connection within the lease timeout. */
+    public long getLeaseTimeoutsCount() {
+        return leaseTimeouts.get();
+    }
+
+    /** Returns the average time in milliseconds a request waits for a free connection. */
+    public double getAverageLeaseWaitMs() {
+        final long count = requests.get() + leaseTimeouts.get();
+        return count == 0 ? 0 : (double)totalLeaseWaitNanos.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "HttpConnectionPool{" +
+               "maxConnectionsPerHost=" + maxConnectionsPerHost +
+               ", hosts=" + hosts.size() +
+               ", leased=" + leased +
+               ", pending=" + pending +
+               ", requests=" + requests +
+               ", keptAlive=" + keptAlive +
+               ", discarded=" + discarded +
+               ", leaseTimeouts=" + leaseTimeouts +
+               '}';
+    }
+}
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.io.CharStreams;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonSerializable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Implementation of {@link HttpJsonRequest} that reuses connections leased from {@link HttpConnectionPool}.
+ *
+ * <p>The response is read fully and the connection is left open, so the next request to the same host reuses it.
+ * A connection is closed only if the response is not read, e.g. because of an error. A body that exceeds
+ * {@value #CHUNK_SIZE} bytes is written into the connection in chunks while it is serialized, a smaller one is sent
+ * with its length. A json response is parsed while it is read, so it is not kept in memory as a string,
+ * a response that turns out not to be json is read as is.
+ *
+ * <p>The implementation is not thread-safe, instance of this class must be created each time when it's needed.
+ *
+ * @see PooledHttpJsonRequestFactory
+ */
+public class PooledHttpJsonRequest extends DefaultHttpJsonRequest {
+    private static final int                      CHUNK_SIZE           = 8192;
+    private static final TypeAdapter<JsonElement> JSON_ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    private final HttpConnectionPool pool;
+
+    private String leasedHost;
+
+    protected PooledHttpJsonRequest(HttpConnectionPool pool, String url) {
+        super(url);
+        this.pool = pool;
+    }
+
+    protected PooledHttpJsonRequest(HttpConnectionPool pool, Link link) {
+        super(link);
+        this.pool = pool;
+    }
+
+    @Override
+    protected HttpURLConnection openConnection(String url, int timeout) throws IOException {
+        final URL parsed = new URL(url);
+        final String host = parsed.getProtocol() + "://" + parsed.getHost() + ':' +
+                            (parsed.getPort() != -1 ? parsed.getPort() : parsed.getDefaultPort());
+        pool.lease(host);
+        try {
+            final HttpURLConnection conn = super.openConnection(url, timeout);
+            leasedHost = host;
+            return conn;
+        } catch (IOException | RuntimeException e) {
+            pool.release(host, false);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void releaseConnection(HttpURLConnection conn, boolean consumed) {
+        if (!consumed) {
+            conn.disconnect();
+        }
+        if (leasedHost != null) {
+            pool.release(leasedHost, consumed);
+            leasedHost = null;
+        }
+    }
+
+    @Override
+    protected void writeBody(HttpURLConnection conn, Object body) throws IOException {
+        try (OutputStream output = new BodyOutputStream(conn)) {
+            if (body instanceof JsonSerializable) {
+                final Writer writer = new OutputStreamWriter(output, UTF_8);
+                ((JsonSerializable)body).toJson(writer);
+                writer.flush();
+            } else {
+                output.write(DtoFactory.getInstance().toJson(body).getBytes());
+            }
+        }
+    }
+
+    @Override
+    protected DefaultHttpJsonResponse readResponse(InputStream in, String contentType, int responseCode) throws IOException {
+        if (contentType == null) {
+            // the content is not declared as json
+            return super.readResponse(in, null, responseCode);
+        }
+        final RecordingReader reader = new RecordingReader(new InputStreamReader(in, UTF_8), CHUNK_SIZE);
+        final JsonReader jsonReader = new JsonReader(reader);
+        final JsonElement json;
+        try {
+            json = jsonReader.peek() == JsonToken.END_DOCUMENT ? JsonNull.INSTANCE : JSON_ELEMENT_ADAPTER.read(jsonReader);
+            // fails if the value is followed by anything but whitespaces
+            jsonReader.peek();
+        } catch (MalformedJsonException | EOFException | JsonParseException | IllegalStateException e) {
+            final String recorded = reader.getRecorded();
+            if (recorded == null) {
+                throw new IOException("Unable parse response. " + e.getLocalizedMessage(), e);
+            }
+            return new DefaultHttpJsonResponse(recorded + CharStreams.toString(reader), responseCode);
+        }
+        // the rest of the response must be read, otherwise the connection can't be reused
+        final byte[] buffer = new byte[CHUNK_SIZE];
+        while (in.read(buffer) != -1) {
+            // skip trailing whitespaces
+        }
+        return new StreamedHttpJsonResponse(json, responseCode);
+    }
+
+    @Override
+    public String toString() {
+        return "PooledHttpJsonRequest{" +
+               "url='" + getUrl() + '\'' +
+               ", pool=" + pool +
+               '}';
+    }
+
+    /**
+     * Keeps the body until it exceeds {@value #CHUNK_SIZE} bytes, then switches the connection
+     * to chunked streaming mode and writes the body straight into it. A body that doesn't exceed the size
+     * by the time the stream is closed is sent in fixed length streaming mode.
+     */
+    private static class BodyOutputStream extends OutputStream {
+        private final HttpURLConnection conn;
+
+        private ByteArrayOutputStream buffer;
+        private OutputStream          output;
+
+        BodyOutputStream(HttpURLConnection conn) {
+            this.conn = conn;
+            this.buffer = new ByteArrayOutputStream();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (output == null && buffer.size() + len > CHUNK_SIZE) {
+                conn.setChunkedStreamingMode(CHUNK_SIZE);
+                output = conn.getOutputStream();
+                buffer.writeTo(output);
+                buffer = null;
+            }
+            if (output != null) {
+                output.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (output != null) {
+                output.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (output == null) {
+                conn.setFixedLengthStreamingMode(buffer.size());
+                output = conn.getOutputStream();
+                buffer.writeTo(output);
+            }
+            output.close();
+        }
+    }
+
+    /**
+     * Keeps the read characters while their number doesn't exceed the limit,
+     * so the response that turns out not to be json can be read as is.
+     */
+    private static class RecordingReader extends FilterReader {
+        private final int limit;
+
+        private StringBuilder recorded;
+
+        RecordingReader(Reader in, int limit) {
+            super(in);
+            this.limit = limit;
+            this.recorded = new StringBuilder();
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int c = super.read();
+            if (c != -1) {
+                record(new char[] {(char)c}, 0, 1);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            final int read = super.read(cbuf, off, len);
+            if (read > 0) {
+                record(cbuf, off, read);
+            }
+            return read;
+        }
+
+        /** Returns the read characters or {@code null} if their number exceeds the limit. */
+        String getRecorded() {
+            return recorded != null ? recorded.toString() : null;
+        }
+
+        private void record(char[] cbuf, int off, int len) {
+            if (recorded == null) {
+                return;
+            }
+            if (recorded.length() + len > limit) {
+                recorded = null;
+            } else {
+                recorded.append(cbuf, off, len);
+            }
+        }
+    }
+}
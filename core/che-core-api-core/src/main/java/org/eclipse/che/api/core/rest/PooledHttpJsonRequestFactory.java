@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Creates {@link PooledHttpJsonRequest} instances that share the same {@link HttpConnectionPool}.
+ */
+@Singleton
+public class PooledHttpJsonRequestFactory implements HttpJsonRequestFactory {
+
+    private final HttpConnectionPool pool;
+
+    /**
+     * @param maxConnectionsPerHost
+     *         max number of connections to a single host open at once, the number is not limited if it is not positive
+     * @param leaseTimeoutMs
+     *         max time in milliseconds a request waits for a free connection
+     */
+    @Inject
+    public PooledHttpJsonRequestFactory(@Named("che.core.http.max_connections_per_host") int maxConnectionsPerHost,
+                                        @Named("che.core.http.lease_timeout_ms") long leaseTimeoutMs) {
+        this.pool = new HttpConnectionPool(maxConnectionsPerHost, leaseTimeoutMs);
+    }
+
+    @Override
+    public HttpJsonRequest fromUrl(@NotNull String url) {
+        return new PooledHttpJsonRequest(pool, url);
+    }
+
+    @Override
+    public HttpJsonRequest fromLink(@NotNull Link link) {
+        return new PooledHttpJsonRequest(pool, link);
+    }
+
+    /** Returns the pool of connections of created requests, e.g. to get its statistics. */
+    public HttpConnectionPool getConnectionPool() {
+        return pool;
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.gson.JsonElement;
+
+import org.eclipse.che.commons.json.JsonHelper;
+import org.eclipse.che.commons.json.JsonParseException;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Response which body is parsed while it is read from the connection.
+ * DTOs are created from the parsed body and its string form is created only if it is requested.
+ */
+class StreamedHttpJsonResponse extends DefaultHttpJsonResponse {
+    private final JsonElement json;
+
+    private String responseBody;
+
+    StreamedHttpJsonResponse(JsonElement json, int responseCode) {
+        super(null, responseCode);
+        this.json = json;
+    }
+
+    @Override
+    public String asString() {
+        if (responseBody == null) {
+            responseBody = json.isJsonNull() ? "" : json.toString();
+        }
+        return responseBody;
+    }
+
+    @Override
+    public <T> T asDto(Class<T> dtoInterface) {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        if (json.isJsonNull()) {
+            return null;
+        }
+        return DtoFactory.getInstance().createDtoFromJson(json, dtoInterface);
+    }
+
+    @Override
+    public <T> List<T> asList(Class<T> dtoInterface) {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        if (!json.isJsonArray()) {
+            return DtoFactory.getInstance().createListDtoFromJson(asString(), dtoInterface);
+        }
+        final List<T> list = new ArrayList<>(json.getAsJsonArray().size());
+        for (JsonElement element : json.getAsJsonArray()) {
+            list.add(DtoFactory.getInstance().createDtoFromJson(element, dtoInterface));
+        }
+        return new JsonArrayImpl<>(list);
+    }
+
+    @Override
+    public <T> T as(Class<T> clazz, Type genericType) throws IOException {
+        requireNonNull(clazz, "Required non-null class");
+        try {
+            return JsonHelper.fromJson(asString(), clazz, genericType);
+        } catch (JsonParseException jsonEx) {
+            throw new IOException(jsonEx.getLocalizedMessage(), jsonEx);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.List;
 
 /**
  * Consumes logs and writes them into file.
@@ -61,6 +62,29 @@ public class FileLineConsumer implements LineConsumer {
         }
     }
 
+    /**
+     * Writes all the lines and flushes them at once.
+     */
+    @Override
+    public void writeLines(List<String> lines) throws IOException {
+        if (isOpen) {
+            try {
+                for (String line : lines) {
+                    if (line != null) {
+                        writer.write(line);
+                    }
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                if ("Stream closed".equals(e.getMessage())) {
+                    throw new ConsumerAlreadyClosedException(e.getMessage());
+                }
+                throw e;
+            }
+        }
+    }
+
     @Override
     public void close() throws IOException {
         if (isOpen) {
@@ -15,6 +15,7 @@ import org.everrest.websockets.message.ChannelBroadcastMessage;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -25,6 +26,10 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 public class WebsocketLineConsumer implements LineConsumer {
     private static final Logger LOG = getLogger(WebsocketLineConsumer.class);
+
+    /** Max number of characters of lines joined into a single websocket message. */
+    static final int MAX_MESSAGE_LENGTH = 32 * 1024;
+
     private final String channel;
 
     public WebsocketLineConsumer(String channel) {
@@ -33,6 +38,36 @@ public class WebsocketLineConsumer implements LineConsumer {
 
     @Override
     public void writeLine(String line) throws IOException {
+        send(line);
+    }
+
+    /**
+     * Joins lines with line separators and sends them in as few messages as possible,
+     * a line that doesn't fit into a message of {@link #MAX_MESSAGE_LENGTH} is sent by itself.
+     */
+    @Override
+    public void writeLines(List<String> lines) throws IOException {
+        final StringBuilder message = new StringBuilder();
+        int messageLines = 0;
+        for (String line : lines) {
+            final String nonNullLine = line == null ? "" : line;
+            if (messageLines > 0 && message.length() + 1 + nonNullLine.length() > MAX_MESSAGE_LENGTH) {
+                send(message.toString());
+                message.setLength(0);
+                messageLines = 0;
+            }
+            if (messageLines > 0) {
+                message.append('\n');
+            }
+            message.append(nonNullLine);
+            messageLines++;
+        }
+        if (messageLines > 0) {
+            send(message.toString());
+        }
+    }
+
+    private void send(String line) {
         final ChannelBroadcastMessage bm = new ChannelBroadcastMessage();
         bm.setChannel(channel);
         bm.setBody(line);
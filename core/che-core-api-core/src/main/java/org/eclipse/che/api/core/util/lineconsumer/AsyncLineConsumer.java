@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util.lineconsumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Puts consumed lines into a bounded buffer and writes them into the delegate consumer in batches on a separate
+ * thread, see {@link LineConsumer#writeLines(List)}, so a producer is not slowed down by each write of the delegate.
+ *
+ * <p>Lines are written once the buffer holds a batch of lines or once the first buffered line waits for the linger
+ * time, whichever comes first. When the delegate falls behind and the buffer is full the {@link OverflowPolicy}
+ * decides whether the producer waits or lines are dropped, the number of dropped lines is written into the delegate.
+ *
+ * <p>Lines buffered before {@link #close()} are written into the delegate before it is closed.
+ * This implementation is thread safe.
+ */
+public class AsyncLineConsumer implements LineConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncLineConsumer.class);
+
+    public static final int  DEFAULT_CAPACITY        = 10_000;
+    public static final int  DEFAULT_MAX_BATCH_LINES = 1_000;
+    public static final long DEFAULT_LINGER_MS       = 50;
+
+    /** What happens with a line consumed while the buffer is full. */
+    public enum OverflowPolicy {
+        /** The producer waits until the delegate writes buffered lines. */
+        BLOCK,
+        /** The oldest buffered line is dropped. */
+        DROP_OLDEST,
+        /** The consumed line is dropped. */
+        DROP_NEWEST
+    }
+
+    private static volatile ScheduledExecutorService sharedExecutor;
+
+    private final LineConsumer             delegate;
+    private final BlockingQueue<String>    buffer;
+    private final OverflowPolicy           overflowPolicy;
+    private final int                      maxBatchLines;
+    private final long                     lingerMs;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean            drainScheduled;
+    private final AtomicBoolean            batchDrainScheduled;
+    private final AtomicLong               droppedLines;
+    private final Object                   drainLock;
+
+    private volatile boolean isOpen;
+
+    /** Number of dropped lines already reported to the delegate, guarded by the drain lock. */
+    private long reportedDroppedLines;
+
+    /**
+     * Creates consumer with default buffer capacity, batch size and linger time that writes lines on the shared
+     * thread pool of line consumers.
+     */
+    public AsyncLineConsumer(LineConsumer delegate, OverflowPolicy overflowPolicy) {
+        this(delegate, overflowPolicy, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_LINES, DEFAULT_LINGER_MS, getSharedExecutor());
+    }
+
+    /**
+     * @param delegate
+     *         consumer buffered lines are written into
+     * @param overflowPolicy
+     *         what happens with a line consumed while the buffer is full
+     * @param capacity
+     *         max number of buffered lines
+     * @param maxBatchLines
+     *         max number of lines written into the delegate at once
+     * @param lingerMs
+     *         max time in milliseconds a line waits in the buffer for other lines to be written together
+     * @param executor
+     *         executor that writes lines into the delegate
+     */
+    public AsyncLineConsumer(LineConsumer delegate,
+                             OverflowPolicy overflowPolicy,
+                             int capacity,
+                             int maxBatchLines,
+                             long lingerMs,
+                             ScheduledExecutorService executor) {
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchLines = maxBatchLines;
+        this.lingerMs = lingerMs;
+        this.executor = executor;
+        this.drainScheduled = new AtomicBoolean();
+        this.batchDrainScheduled = new AtomicBoolean();
+        this.droppedLines = new AtomicLong();
+        this.drainLock = new Object();
+        this.isOpen = true;
+    }
+
+    public boolean isOpen() {
+        return isOpen;
+    }
+
+    /** Returns the total number of lines dropped because the buffer was full. */
+    public long getDroppedLinesCount() {
+        return droppedLines.get();
+    }
+
+    /**
+     * Puts given line into the buffer.
+     * Do nothing if this consumer or its delegate is closed.
+     *
+     * @throws InterruptedIOException
+     *         if the thread is interrupted while it waits for free space in the buffer
+     */
+    @Override
+    public void writeLine(String line) throws IOException {
+        if (!isOpen) {
+            return;
+        }
+        final String nonNullLine = line == null ? "" : line;
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    while (!buffer.offer(nonNullLine, lingerMs, MILLISECONDS)) {
+                        if (!isOpen) {
+                            return;
+                        }
+                        scheduleDrain(0);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for free space in the buffer of line consumer");
+                }
+                break;
+            case DROP_OLDEST:
+                while (!buffer.offer(nonNullLine)) {
+                    if (buffer.poll() != null) {
+                        droppedLines.incrementAndGet();
+                    }
+                }
+                break;
+            default:
+                if (!buffer.offer(nonNullLine)) {
+                    droppedLines.incrementAndGet();
+                }
+        }
+
+        if (buffer.size() >= maxBatchLines) {
+            if (batchDrainScheduled.compareAndSet(false, true)) {
+                executor.execute(() -> {
+                    batchDrainScheduled.set(false);
+                    drain();
+                });
+            }
+        } else {
+            scheduleDrain(lingerMs);
+        }
+    }
+
+    /**
+     * Writes buffered lines and closes the delegate.
+     */
+    @Override
+    public void close() throws IOException {
+        if (isOpen) {
+            isOpen = false;
+            synchronized (drainLock) {
+                drain();
+                delegate.close();
+            }
+        }
+    }
+
+    private void scheduleDrain(long delayMs) {
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                drainScheduled.set(false);
+                drain();
+            }, delayMs, MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        synchronized (drainLock) {
+            final List<String> batch = new ArrayList<>(Math.min(maxBatchLines, buffer.size() + 1));
+            while (buffer.drainTo(batch, maxBatchLines) > 0) {
+                final long dropped = droppedLines.get();
+                if (dropped > reportedDroppedLines) {
+                    batch.add(0, String.format("[WARN] %d lines of log were dropped as they were produced faster than written",
+                                               dropped - reportedDroppedLines));
+                    reportedDroppedLines = dropped;
+                }
+                try {
+                    delegate.writeLines(batch);
+                } catch (ConsumerAlreadyClosedException e) {
+                    // nothing can be written into the delegate any more
+                    isOpen = false;
+                    buffer.clear();
+                } catch (IOException e) {
+                    LOG.error(String.format("An error occurred while writing lines to the line consumer %s", delegate), e);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /** Returns the thread pool that writes lines of all the consumers that are created without an executor. */
+    private static ScheduledExecutorService getSharedExecutor() {
+        if (sharedExecutor == null) {
+            synchronized (AsyncLineConsumer.class) {
+                if (sharedExecutor == null) {
+                    final int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+                    sharedExecutor = new ScheduledThreadPoolExecutor(threads,
+                                                                     new ThreadFactoryBuilder().setNameFormat("AsyncLineConsumer-%d")
+                                                                                               .setUncaughtExceptionHandler(
+                                                                                                       LoggingUncaughtExceptionHandler
+                                                                                                               .getInstance())
+                                                                                               .setDaemon(true)
+                                                                                               .build());
+                }
+            }
+        }
+        return sharedExecutor;
+    }
+}
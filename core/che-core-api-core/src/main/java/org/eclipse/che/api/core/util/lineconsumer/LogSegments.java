@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util.lineconsumer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Layout of a segmented log, see {@link SegmentedFileLineConsumer} and {@link SegmentedLogReader}.
+ *
+ * <p>A log is a directory of segments. Each segment is named by the number of its first line in the whole log,
+ * its lines are kept in {@code <first line>.log} file, or in {@code <first line>.log.gz} once it is compressed,
+ * and a sparse index of its lines is kept in {@code <first line>.idx} file. The index holds pairs of longs,
+ * the number of a line in the segment and the offset of the line in the uncompressed segment,
+ * for each {@link #INDEX_INTERVAL}th line.
+ */
+final class LogSegments {
+    static final Charset CHARSET        = StandardCharsets.UTF_8;
+    static final int     INDEX_INTERVAL = 128;
+
+    private static final String LOG_SUFFIX        = ".log";
+    private static final String COMPRESSED_SUFFIX = ".log.gz";
+    private static final String INDEX_SUFFIX      = ".idx";
+
+    private LogSegments() {
+    }
+
+    /** Returns numbers of first lines of segments of the log, in ascending order. */
+    static List<Long> list(File dir) {
+        final String[] names = dir.list();
+        if (names == null) {
+            return Collections.emptyList();
+        }
+        final List<Long> segments = new ArrayList<>();
+        for (String name : names) {
+            final int suffix = name.endsWith(COMPRESSED_SUFFIX) ? name.length() - COMPRESSED_SUFFIX.length()
+                                                                : name.endsWith(LOG_SUFFIX) ? name.length() - LOG_SUFFIX.length() : -1;
+            if (suffix > 0) {
+                try {
+                    final Long firstLine = Long.parseLong(name.substring(0, suffix));
+                    if (!segments.contains(firstLine)) {
+                        segments.add(firstLine);
+                    }
+                } catch (NumberFormatException ignored) {
+                    // not a segment
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    static File logFile(File dir, long firstLine) {
+        return new File(dir, name(firstLine) + LOG_SUFFIX);
+    }
+
+    static File compressedFile(File dir, long firstLine) {
+        return new File(dir, name(firstLine) + COMPRESSED_SUFFIX);
+    }
+
+    static File indexFile(File dir, long firstLine) {
+        return new File(dir, name(firstLine) + INDEX_SUFFIX);
+    }
+
+    /**
+     * Opens uncompressed content of the segment.
+     *
+     * @throws FileNotFoundException
+     *         if there is no such segment
+     */
+    static InputStream open(File dir, long firstLine) throws IOException {
+        try {
+            return new BufferedInputStream(new FileInputStream(logFile(dir, firstLine)));
+        } catch (FileNotFoundException e) {
+            // segment may be compressed meanwhile
+            return new BufferedInputStream(new GZIPInputStream(new FileInputStream(compressedFile(dir, firstLine))));
+        }
+    }
+
+    /**
+     * Returns the offset of the closest indexed line that precedes the line, as {@code {line, offset}} pair,
+     * both relative to the segment.
+     */
+    static long[] findIndexed(File dir, long firstLine, long lineInSegment) throws IOException {
+        final long[] found = new long[2];
+        final File index = indexFile(dir, firstLine);
+        if (!index.isFile()) {
+            return found;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(index)))) {
+            for (; ; ) {
+                final long line = in.readLong();
+                final long offset = in.readLong();
+                if (line > lineInSegment) {
+                    break;
+                }
+                found[0] = line;
+                found[1] = offset;
+            }
+        } catch (EOFException ignored) {
+            // the last entry may be written partially, it is ignored as well
+        }
+        return found;
+    }
+
+    /**
+     * Reads a line without the line separator, returns {@code null} at the end of the stream
+     * or if the last line is not complete, e.g. is being written.
+     */
+    static String readLine(InputStream in, ByteArrayOutputStream buffer) throws IOException {
+        buffer.reset();
+        for (int b = in.read(); b != -1; b = in.read()) {
+            if (b == '\n') {
+                return new String(buffer.toByteArray(), CHARSET);
+            }
+            buffer.write(b);
+        }
+        return null;
+    }
+
+    /** Skips the number of complete lines, returns the number of skipped ones. */
+    static long skipLines(InputStream in, long count) throws IOException {
+        long skipped = 0;
+        for (int b = skipped < count ? in.read() : -1; b != -1; ) {
+            if (b == '\n' && ++skipped == count) {
+                break;
+            }
+            b = in.read();
+        }
+        return skipped;
+    }
+
+    /** Skips exactly the number of bytes, unlike {@link InputStream#skip(long)}. */
+    static void skipBytes(InputStream in, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (in.read() == -1) {
+                throw new EOFException("Segment is shorter than its index");
+            } else {
+                remaining--;
+            }
+        }
+    }
+
+    /** Counts complete lines of the segment, using the index to skip indexed lines. */
+    static long countLines(File dir, long firstLine) throws IOException {
+        final long[] indexed = findIndexed(dir, firstLine, Long.MAX_VALUE);
+        try (InputStream in = open(dir, firstLine)) {
+            skipBytes(in, indexed[1]);
+            return indexed[0] + skipLines(in, Long.MAX_VALUE);
+        }
+    }
+
+    private static String name(long firstLine) {
+        return String.format("%020d", firstLine);
+    }
+}
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util.lineconsumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Consumes logs and writes them into a segmented log in the directory, so the log can be read by
+ * {@link SegmentedLogReader} from any line without reading it fully.
+ *
+ * <p>Lines are numbered from 0 over the whole log. Once the current segment exceeds the max size a new segment
+ * is started, segments older than the few newest ones are compressed and the oldest segments are removed when
+ * the log exceeds the max number of segments. Old segments are compressed and removed in background, so writers
+ * are not blocked by it. When the directory already holds a log, lines are appended to it.
+ *
+ * <p>Lines are written with UTF-8 encoding, a line that contains line separators is written as several lines.
+ * This implementation is thread safe.
+ */
+public class SegmentedFileLineConsumer implements LineConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentedFileLineConsumer.class);
+
+    public static final long DEFAULT_MAX_SEGMENT_BYTES     = 8 * 1024 * 1024;
+    public static final int  DEFAULT_UNCOMPRESSED_SEGMENTS = 2;
+    public static final int  DEFAULT_MAX_SEGMENTS          = 64;
+
+    /** Compresses and removes old segments of all the logs one by one. */
+    private static final ExecutorService SEGMENTS_CLEANER =
+            Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("SegmentedLogCleaner-%d")
+                                                                        .setUncaughtExceptionHandler(
+                                                                                LoggingUncaughtExceptionHandler.getInstance())
+                                                                        .setDaemon(true)
+                                                                        .build());
+
+    private final File dir;
+    private final long maxSegmentBytes;
+    private final int  uncompressedSegments;
+    private final int  maxSegments;
+
+    private OutputStream     segment;
+    private DataOutputStream index;
+    private long             segmentFirstLine;
+    private long             segmentLines;
+    private long             segmentBytes;
+    private boolean          isOpen;
+    private Future<?>        cleanup;
+
+    /**
+     * Creates consumer with default size of segments and number of kept segments.
+     */
+    public SegmentedFileLineConsumer(File dir) throws IOException {
+        this(dir, DEFAULT_MAX_SEGMENT_BYTES, DEFAULT_UNCOMPRESSED_SEGMENTS, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * @param dir
+     *         directory of the log, created if it doesn't exist
+     * @param maxSegmentBytes
+     *         size of a segment in bytes that starts a new segment
+     * @param uncompressedSegments
+     *         number of the newest segments that are not compressed, including the current one
+     * @param maxSegments
+     *         max number of kept segments, including the current one
+     * @throws IOException
+     *         if the directory or the segment can't be created
+     */
+    public SegmentedFileLineConsumer(File dir, long maxSegmentBytes, int uncompressedSegments, int maxSegments) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable create directory " + dir.getAbsolutePath());
+        }
+        this.dir = dir;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.uncompressedSegments = Math.max(1, uncompressedSegments);
+        this.maxSegments = Math.max(1, maxSegments);
+
+        final List<Long> segments = LogSegments.list(dir);
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            final long lastSegment = segments.get(segments.size() - 1);
+            openSegment(lastSegment + LogSegments.countLines(dir, lastSegment));
+        }
+        isOpen = true;
+        cleanup = CompletableFuture.completedFuture(null);
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    public synchronized boolean isOpen() {
+        return isOpen;
+    }
+
+    @Override
+    public void writeLine(String line) throws IOException {
+        writeLines(Collections.singletonList(line));
+    }
+
+    /**
+     * Writes all the lines and flushes them at once.
+     */
+    @Override
+    public synchronized void writeLines(List<String> lines) throws IOException {
+        if (!isOpen) {
+            return;
+        }
+        for (String line : lines) {
+            if (line == null) {
+                append("");
+                continue;
+            }
+            int start = 0;
+            for (int end = line.indexOf('\n'); end != -1; end = line.indexOf('\n', start)) {
+                append(line.substring(start, end));
+                start = end + 1;
+            }
+            append(line.substring(start));
+        }
+        segment.flush();
+        index.flush();
+        if (segmentBytes >= maxSegmentBytes) {
+            rotate();
+        }
+    }
+
+    /**
+     * Closes the current segment and waits for compression and removal of old segments to complete.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (isOpen) {
+            isOpen = false;
+            try {
+                segment.close();
+            } finally {
+                index.close();
+                awaitCleanup();
+            }
+        }
+    }
+
+    private void append(String line) throws IOException {
+        if (segmentLines > 0 && segmentLines % LogSegments.INDEX_INTERVAL == 0) {
+            index.writeLong(segmentLines);
+            index.writeLong(segmentBytes);
+        }
+        final byte[] bytes = line.getBytes(LogSegments.CHARSET);
+        segment.write(bytes);
+        segment.write('\n');
+        segmentBytes += bytes.length + 1;
+        segmentLines++;
+    }
+
+    private void openSegment(long firstLine) throws IOException {
+        final File file = LogSegments.logFile(dir, firstLine);
+        segment = new BufferedOutputStream(new FileOutputStream(file, true));
+        index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(LogSegments.indexFile(dir, firstLine), true)));
+        segmentFirstLine = firstLine;
+        segmentLines = LogSegments.countLines(dir, firstLine);
+        segmentBytes = file.length();
+    }
+
+    private void rotate() throws IOException {
+        segment.close();
+        index.close();
+        openSegment(segmentFirstLine + segmentLines);
+        cleanup = SEGMENTS_CLEANER.submit(this::cleanup);
+    }
+
+    private void cleanup() {
+        final List<Long> segments = LogSegments.list(dir);
+        final int count = segments.size();
+        for (int i = 0; i < count - 1; i++) {
+            final long firstLine = segments.get(i);
+            if (i < count - maxSegments) {
+                remove(firstLine);
+            } else if (i < count - uncompressedSegments) {
+                compress(firstLine);
+            }
+        }
+    }
+
+    private void awaitCleanup() {
+        try {
+            cleanup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.warn("Unable clean up log segments in {}. {}", dir, e.getCause().getMessage());
+        }
+    }
+
+    private void compress(long firstLine) {
+        final File source = LogSegments.logFile(dir, firstLine);
+        if (!source.isFile()) {
+            return;
+        }
+        final File target = LogSegments.compressedFile(dir, firstLine);
+        final File tmp = new File(dir, target.getName() + ".tmp");
+        try {
+            try (InputStream in = new FileInputStream(source);
+                 OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp))) {
+                final byte[] buffer = new byte[8192];
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            // readers open a segment once it is removed, so the compressed one must be complete by then
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(source.toPath());
+        } catch (IOException e) {
+            LOG.warn("Unable compress log segment {}. {}", source, e.getMessage());
+            if (tmp.exists() && !tmp.delete()) {
+                LOG.warn("Failed delete {}", tmp);
+            }
+        }
+    }
+
+    private void remove(long firstLine) {
+        for (File file : new File[] {LogSegments.logFile(dir, firstLine),
+                                     LogSegments.compressedFile(dir, firstLine),
+                                     LogSegments.indexFile(dir, firstLine)}) {
+            if (file.exists() && !file.delete()) {
+                LOG.warn("Failed delete {}", file);
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util.lineconsumer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads a segmented log written by {@link SegmentedFileLineConsumer}.
+ *
+ * <p>Lines are addressed by their numbers over the whole log, the sparse index of segments lets read lines
+ * from the middle of the log without reading the preceding ones. Lines of removed segments are not available,
+ * so the first available line may be greater than 0. A line that is being written is not available until it
+ * is complete. This implementation is thread safe and may be used while the log is written.
+ */
+public class SegmentedLogReader {
+    private static final int  MAX_ATTEMPTS   = 3;
+    private static final long FOLLOW_POLL_MS = 200;
+
+    private final File dir;
+
+    public SegmentedLogReader(File dir) {
+        this.dir = dir;
+    }
+
+    /** Returns {@code true} if the log has at least one segment. */
+    public boolean exists() {
+        return !LogSegments.list(dir).isEmpty();
+    }
+
+    /** Returns the number of the first available line. */
+    public long getFirstLine() {
+        final List<Long> segments = LogSegments.list(dir);
+        return segments.isEmpty() ? 0 : segments.get(0);
+    }
+
+    /** Returns the number of the line next to the last complete line, i.e. the number of written lines. */
+    public long getEndLine() throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            final List<Long> segments = LogSegments.list(dir);
+            if (segments.isEmpty()) {
+                return 0;
+            }
+            final long lastSegment = segments.get(segments.size() - 1);
+            try {
+                return lastSegment + LogSegments.countLines(dir, lastSegment);
+            } catch (FileNotFoundException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads lines starting from the line.
+     *
+     * @param fromLine
+     *         number of the first line to read, lines that are not available any more are skipped
+     * @param maxLines
+     *         max number of lines to read
+     */
+    public Lines readLines(long fromLine, int maxLines) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return doReadLines(fromLine, maxLines);
+            } catch (FileNotFoundException e) {
+                // segment was removed or compressed while it was read
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the last lines.
+     *
+     * @param lines
+     *         max number of lines to read
+     */
+    public Lines tail(int lines) throws IOException {
+        return readLines(Math.max(0, getEndLine() - lines), lines);
+    }
+
+    /**
+     * Reads lines starting from the line, waits for new lines while there are no lines to read yet.
+     *
+     * @param fromLine
+     *         number of the first line to read
+     * @param maxLines
+     *         max number of lines to read
+     * @param timeoutMs
+     *         max time in milliseconds to wait for new lines
+     * @return read lines, no lines if nothing is written in the given time
+     * @throws InterruptedIOException
+     *         if the thread is interrupted while it waits for new lines
+     */
+    public Lines follow(long fromLine, int maxLines, long timeoutMs) throws IOException {
+        final long deadline = System.currentTimeMillis() + timeoutMs;
+        Lines lines = readLines(fromLine, maxLines);
+        while (lines.getLines().isEmpty() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(Math.min(FOLLOW_POLL_MS, Math.max(1, deadline - System.currentTimeMillis())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for new lines of log " + dir);
+            }
+            lines = readLines(fromLine, maxLines);
+        }
+        return lines;
+    }
+
+    /**
+     * Opens reader of the whole available log, segments are opened one by one while the reader reaches them.
+     *
+     * @throws FileNotFoundException
+     *         if there is no log
+     */
+    public Reader openReader() throws IOException {
+        final Iterator<Long> segments = LogSegments.list(dir).iterator();
+        if (!segments.hasNext()) {
+            throw new FileNotFoundException("There is no log in " + dir);
+        }
+        return new InputStreamReader(new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return segments.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return LogSegments.open(dir, segments.next());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }), LogSegments.CHARSET);
+    }
+
+    private Lines doReadLines(long fromLine, int maxLines) throws IOException {
+        final List<Long> segments = LogSegments.list(dir);
+        if (segments.isEmpty()) {
+            return new Lines(fromLine, new ArrayList<>());
+        }
+        long line = Math.max(fromLine, segments.get(0));
+        long firstLine = line;
+        final List<String> lines = new ArrayList<>();
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        int i = segments.size() - 1;
+        while (i > 0 && segments.get(i) > line) {
+            i--;
+        }
+        for (; i < segments.size() && lines.size() < maxLines; i++) {
+            final long segment = segments.get(i);
+            if (i + 1 < segments.size() && segments.get(i + 1) <= line) {
+                continue;
+            }
+            // a segment may end with an incomplete line, then numbering continues from the next segment
+            line = Math.max(line, segment);
+            final long lineInSegment = line - segment;
+            final long[] indexed = LogSegments.findIndexed(dir, segment, lineInSegment);
+            try (InputStream in = LogSegments.open(dir, segment)) {
+                LogSegments.skipBytes(in, indexed[1]);
+                final long toSkip = lineInSegment - indexed[0];
+                if (LogSegments.skipLines(in, toSkip) < toSkip) {
+                    continue;
+                }
+                if (lines.isEmpty()) {
+                    firstLine = line;
+                }
+                for (String read = LogSegments.readLine(in, buffer); read != null; read = LogSegments.readLine(in, buffer)) {
+                    lines.add(read);
+                    line++;
+                    if (lines.size() == maxLines) {
+                        break;
+                    }
+                }
+            }
+        }
+        return new Lines(firstLine, lines);
+    }
+
+    /** Lines read from the log. */
+    public static class Lines {
+        private final long         firstLine;
+        private final List<String> lines;
+
+        private Lines(long firstLine, List<String> lines) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+        }
+
+        /** Returns the number of the first read line. */
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        /** Returns the number of the line to continue reading from. */
+        public long getNextLine() {
+            return firstLine + lines.size();
+        }
+    }
+}
@@ -21,6 +21,9 @@ import javax.websocket.OnMessage;
 import javax.websocket.OnOpen;
 import javax.websocket.Session;
 import javax.websocket.server.PathParam;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Duplex WEB SOCKET endpoint, handles messages, errors, session open/close events.
@@ -30,6 +33,13 @@ import javax.websocket.server.PathParam;
 public class BasicWebSocketEndpoint {
     private static final Logger LOG = LoggerFactory.getLogger(BasicWebSocketEndpoint.class);
 
+    /**
+     * Name of an optional request parameter that holds sequence number of the last message
+     * received by a client before reconnection (-1 if there is no such message). Clients which
+     * pass it get sequence numbers of sent messages, see {@link MessagesReSender#resend(String, long)}
+     */
+    private static final String LAST_ACKNOWLEDGED_PARAMETER = "last-acknowledged";
+
     private final WebSocketSessionRegistry registry;
     private final MessagesReSender         reSender;
     private final WebSocketMessageReceiver receiver;
@@ -52,7 +62,28 @@ public class BasicWebSocketEndpoint {
         session.setMaxIdleTimeout(0);
 
         registry.add(endpointId, session);
-        reSender.resend(endpointId);
+
+        Optional<Long> lastAcknowledged = getLastAcknowledged(session);
+        if (lastAcknowledged.isPresent()) {
+            reSender.resend(endpointId, lastAcknowledged.get());
+        } else {
+            reSender.resend(endpointId);
+        }
+    }
+
+    private Optional<Long> getLastAcknowledged(Session session) {
+        Map<String, List<String>> parameters = session.getRequestParameterMap();
+        List<String> values = parameters == null ? null : parameters.get(LAST_ACKNOWLEDGED_PARAMETER);
+        if (values == null || values.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Long.parseLong(values.get(0)));
+        } catch (NumberFormatException e) {
+            LOG.debug("Illegal value of the last acknowledged message: {}", values.get(0));
+            return Optional.empty();
+        }
     }
 
     @OnMessage
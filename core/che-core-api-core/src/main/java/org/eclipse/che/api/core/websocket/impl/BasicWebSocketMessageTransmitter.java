@@ -11,6 +11,7 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.MessagesReSender.SequencedMessage;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
@@ -39,6 +40,8 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
     public BasicWebSocketMessageTransmitter(WebSocketSessionRegistry registry, MessagesReSender reSender) {
         this.registry = registry;
         this.reSender = reSender;
+
+        reSender.setResendAction(this::resend);
     }
 
     @Override
@@ -77,4 +80,27 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
                 });
     }
 
+    private synchronized void resend(String endpointId) {
+        final Optional<Session> sessionOptional = registry.get(endpointId);
+
+        if (!sessionOptional.isPresent()) {
+            return;
+        }
+
+        final Session session = sessionOptional.get();
+        for (SequencedMessage message : reSender.getPending(endpointId)) {
+            if (!session.isOpen()) {
+                break;
+            }
+
+            try {
+                session.getBasicRemote().sendText(message.getText());
+                reSender.delivered(endpointId, message.getSequence());
+            } catch (IOException e) {
+                LOG.error("Error while trying to resend a message to a basic websocket remote endpoint", e);
+                break;
+            }
+        }
+    }
+
 }
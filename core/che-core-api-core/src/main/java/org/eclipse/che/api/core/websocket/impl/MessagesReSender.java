@@ -10,56 +10,326 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.websocket.impl;
 
+import org.slf4j.Logger;
+
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Instance is responsible for re-sending messages that were not sent during the period
  * when WEB SOCKET session was closed. If session is closed during re-send process it
  * stops and left messages will be re-sent as WEB SOCKET session becomes open again.
  *
+ * <p>Every message sent to an endpoint gets the next sequence number of the endpoint and
+ * is kept until it is delivered. Only the endpoints which opt in by passing the sequence number
+ * of the last message they have received when they connect (see {@link #resend(String, long)})
+ * get the sequence number in the {@value #SEQUENCE_MEMBER} member of the sent JSON objects,
+ * messages sent to the other endpoints are not changed.
+ *
+ * <p>Messages are resent by the transmitter which sends the other messages of the endpoint,
+ * see {@link #setResendAction(Consumer)}, so they are never sent to a session concurrently
+ * with them.
+ *
+ * <p>Messages of each endpoint are kept in a ring buffer that is bounded by the number of
+ * messages and by their size, when any of the bounds is exceeded the oldest messages are
+ * dropped. Buffers of disconnected endpoints that do not get any new message during the
+ * time to live period are removed.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
-    private static final int MAX_MESSAGES = 100;
+    private static final Logger LOG = getLogger(MessagesReSender.class);
+
+    /** Name of the member of a sent JSON object which holds the sequence number of the message */
+    public static final String SEQUENCE_MEMBER = "seq";
+
+    private static final int  DEFAULT_MAX_MESSAGES   = 1000;
+    private static final long DEFAULT_MAX_SIZE_BYTES = 4 * 1024 * 1024;
+    private static final long DEFAULT_TTL_MS         = MINUTES.toMillis(10);
+    private static final long RESEND_TIMEOUT_MS      = 60_000;
 
     private final WebSocketSessionRegistry registry;
+    private final int                      maxMessages;
+    private final long                     maxSizeBytes;
+    private final long                     ttlMs;
 
-    private final Map<String, List<String>> messagesMap = new HashMap<>();
+    private final Map<String, MessagesBuffer> buffersMap    = new ConcurrentHashMap<>();
+    private final AtomicLong                  droppedCount  = new AtomicLong();
+    private final AtomicLong                  bufferedBytes = new AtomicLong();
+    private final AtomicLong                  lastExpiration;
+
+    private volatile Consumer<String> resendAction = this::sendPending;
 
-    @Inject
     public MessagesReSender(WebSocketSessionRegistry registry) {
+        this(registry, DEFAULT_MAX_MESSAGES, DEFAULT_MAX_SIZE_BYTES, DEFAULT_TTL_MS);
+    }
+
+    @Inject
+    public MessagesReSender(WebSocketSessionRegistry registry,
+                            @Named("che.core.websocket.resender.max_messages") int maxMessages,
+                            @Named("che.core.websocket.resender.max_size_bytes") long maxSizeBytes,
+                            @Named("che.core.websocket.resender.ttl_ms") long ttlMs) {
         this.registry = registry;
+        this.maxMessages = maxMessages;
+        this.maxSizeBytes = maxSizeBytes;
+        this.ttlMs = ttlMs;
+        this.lastExpiration = new AtomicLong(System.currentTimeMillis());
     }
 
-    public void add(String endpointId, String message) {
-        List<String> messages = messagesMap.get(endpointId);
+    /** Approximate number of bytes a message occupies in memory */
+    private static long sizeOf(String message) {
+        return (long)message.length() * Character.BYTES;
+    }
 
-        if (messages == null) {
-            messages = new LinkedList<>();
-            messagesMap.put(endpointId, messages);
+    /**
+     * Puts the sequence number into a stringified JSON object or into the first object of a
+     * JSON batch, other messages are returned as is.
+     */
+    static String stamp(String message, long sequence) {
+        int start = skipWhitespaces(message, 0);
+        if (start < message.length() && message.charAt(start) == '[') {
+            start = skipWhitespaces(message, start + 1);
+        }
+        if (start >= message.length() || message.charAt(start) != '{') {
+            return message;
         }
 
-        if (messages.size() <= MAX_MESSAGES) {
-            messages.add(message);
+        final int next = skipWhitespaces(message, start + 1);
+        final String member = '"' + SEQUENCE_MEMBER + "\":" + sequence;
+        return message.substring(0, start + 1) +
+               (next < message.length() && message.charAt(next) == '}' ? member : member + ',') +
+               message.substring(start + 1);
+    }
+
+    private static int skipWhitespaces(String message, int from) {
+        int index = from;
+        while (index < message.length() && Character.isWhitespace(message.charAt(index))) {
+            index++;
         }
+        return index;
     }
 
+    /**
+     * Adds a message that is not delivered to an endpoint to the buffer of the endpoint.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     * @param message
+     *         message to be resent
+     *
+     * @return sequence number assigned to the message within the endpoint
+     */
+    public long add(String endpointId, String message) {
+        return track(endpointId, message).getSequence();
+    }
+
+    /**
+     * Assigns the next sequence number of an endpoint to a message that is about to be sent
+     * to the endpoint and keeps the message until it is delivered.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     * @param message
+     *         message to be sent
+     *
+     * @return message along with its sequence number that is to be sent to the endpoint,
+     * the text of the message is stamped with the sequence number if the endpoint opted in
+     */
+    public SequencedMessage track(String endpointId, String message) {
+        expireStaleBuffers();
+
+        while (true) {
+            MessagesBuffer buffer = buffersMap.computeIfAbsent(endpointId, id -> new MessagesBuffer());
+            synchronized (buffer) {
+                if (buffer.removed) {
+                    // buffer has been concurrently expired, get a fresh one
+                    continue;
+                }
+
+                long sequence = buffer.nextSequence++;
+                String stamped = buffer.sequenced ? stamp(message, sequence) : message;
+                SequencedMessage pending = new SequencedMessage(sequence, stamped, sizeOf(stamped));
+
+                buffer.messages.addLast(pending);
+                buffer.size += pending.size;
+                buffer.lastModified = System.currentTimeMillis();
+                bufferedBytes.addAndGet(pending.size);
+
+                while (buffer.messages.size() > maxMessages || buffer.size > maxSizeBytes) {
+                    SequencedMessage dropped = buffer.messages.pollFirst();
+                    release(buffer, dropped);
+                    droppedCount.incrementAndGet();
+                    LOG.debug("Resend buffer of endpoint {} is full, dropping message {}", endpointId, dropped.sequence);
+                }
+
+                return pending;
+            }
+        }
+    }
+
+    /**
+     * Sets the action which resends buffered messages of an endpoint, it is
+     * performed by the transmitter that sends the other messages of the endpoint
+     * and takes the messages to be resent with {@link #getPending(String)}.
+     * By default messages are sent directly to the session of the endpoint.
+     *
+     * @param resendAction
+     *         action which consumes the identifier of the endpoint whose messages are to be resent
+     */
+    public void setResendAction(Consumer<String> resendAction) {
+        this.resendAction = resendAction;
+    }
+
+    /**
+     * Removes buffered messages of an endpoint up to and including the specified one,
+     * they are not resent any more.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     * @param sequence
+     *         sequence number of the last message delivered to the endpoint
+     */
+    public void delivered(String endpointId, long sequence) {
+        final MessagesBuffer buffer = buffersMap.get(endpointId);
+
+        if (buffer != null) {
+            synchronized (buffer) {
+                acknowledge(buffer, sequence);
+            }
+        }
+    }
+
+    /**
+     * Resends buffered messages of an endpoint which doesn't use sequence numbers,
+     * messages sent to it afterwards are not stamped.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     */
     public void resend(String endpointId) {
-        final List<String> messages = messagesMap.remove(endpointId);
+        expireStaleBuffers();
+
+        final MessagesBuffer buffer = buffersMap.get(endpointId);
+
+        if (buffer == null) {
+            return;
+        }
+
+        final boolean empty;
+        synchronized (buffer) {
+            buffer.sequenced = false;
+            empty = buffer.messages.isEmpty();
+        }
+        if (!empty) {
+            resendAction.accept(endpointId);
+        }
+    }
+
+    /**
+     * Resends buffered messages that follow the last one received by an endpoint,
+     * messages sent to the endpoint afterwards are stamped with their sequence numbers.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     * @param lastAcknowledged
+     *         sequence number of the last message received by the endpoint,
+     *         negative value means that all buffered messages are resent
+     */
+    public void resend(String endpointId, long lastAcknowledged) {
+        expireStaleBuffers();
 
-        if (messages == null || messages.isEmpty()) {
+        while (true) {
+            final MessagesBuffer buffer = buffersMap.computeIfAbsent(endpointId, id -> new MessagesBuffer());
+            final boolean empty;
+            synchronized (buffer) {
+                if (buffer.removed) {
+                    // buffer has been concurrently expired, get a fresh one
+                    continue;
+                }
+                buffer.sequenced = true;
+                acknowledge(buffer, lastAcknowledged);
+                empty = buffer.messages.isEmpty();
+            }
+            if (!empty) {
+                resendAction.accept(endpointId);
+            }
             return;
         }
+    }
+
+    /**
+     * Returns messages buffered for an endpoint in the order they are to be sent.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     */
+    public List<SequencedMessage> getPending(String endpointId) {
+        final MessagesBuffer buffer = buffersMap.get(endpointId);
 
+        if (buffer == null) {
+            return new ArrayList<>();
+        }
+        synchronized (buffer) {
+            return new ArrayList<>(buffer.messages);
+        }
+    }
+
+    /** Returns the total number of messages dropped because of buffer overflow or expiration. */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /** Returns approximate number of bytes that are held by all buffered messages. */
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    /** Returns the number of messages that are buffered for an endpoint. */
+    public int getBufferedCount(String endpointId) {
+        final MessagesBuffer buffer = buffersMap.get(endpointId);
+
+        if (buffer == null) {
+            return 0;
+        }
+        synchronized (buffer) {
+            return buffer.messages.size();
+        }
+    }
+
+    private void acknowledge(MessagesBuffer buffer, long lastAcknowledged) {
+        while (!buffer.messages.isEmpty() && buffer.messages.peekFirst().sequence <= lastAcknowledged) {
+            release(buffer, buffer.messages.pollFirst());
+        }
+    }
+
+    private void release(MessagesBuffer buffer, SequencedMessage message) {
+        buffer.size -= message.size;
+        bufferedBytes.addAndGet(-message.size);
+    }
+
+    /**
+     * Sends messages of an endpoint one by one directly to its session,
+     * used when there is no transmitter to resend them.
+     */
+    private void sendPending(String endpointId) {
         final Optional<Session> sessionOptional = registry.get(endpointId);
 
         if (!sessionOptional.isPresent()) {
@@ -67,19 +337,85 @@ public class MessagesReSender {
         }
 
         final Session session = sessionOptional.get();
+        for (SequencedMessage pending : getPending(endpointId)) {
+            if (!session.isOpen()) {
+                break;
+            }
+
+            try {
+                // messages are resent one by one to keep their order
+                session.getAsyncRemote().sendText(pending.text).get(RESEND_TIMEOUT_MS, MILLISECONDS);
+                delivered(endpointId, pending.sequence);
+            } catch (ExecutionException | TimeoutException e) {
+                LOG.error("Error while trying to resend a message to an async websocket remote endpoint", e);
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
 
-        final List<String> backing = new ArrayList<>(messages);
-        messages.clear();
+    /**
+     * Removes buffers (along with sequence numbers of their endpoints) that were
+     * not modified during the time to live period, it is done not more often than
+     * once per half of that period. Buffers of connected endpoints are kept, so their
+     * sequence numbers are not reset.
+     */
+    private void expireStaleBuffers() {
+        final long now = System.currentTimeMillis();
+        final long last = lastExpiration.get();
+
+        if (now - last < ttlMs / 2 || !lastExpiration.compareAndSet(last, now)) {
+            return;
+        }
 
-        for (String message : backing) {
+        buffersMap.forEach((endpointId, buffer) -> {
+            synchronized (buffer) {
+                if (now - buffer.lastModified >= ttlMs
+                    && !registry.get(endpointId).filter(Session::isOpen).isPresent()
+                    && buffersMap.remove(endpointId, buffer)) {
+                    buffer.removed = true;
+                    LOG.debug("Resend buffer of endpoint {} is expired, dropping {} messages", endpointId, buffer.messages.size());
 
-            if (session.isOpen()) {
-                session.getAsyncRemote().sendText(message);
-            } else {
-                messages.add(message);
+                    droppedCount.addAndGet(buffer.messages.size());
+                    bufferedBytes.addAndGet(-buffer.size);
+                    buffer.messages.clear();
+                    buffer.size = 0;
+                }
             }
+        });
+    }
+
+    private static class MessagesBuffer {
+        private final Deque<SequencedMessage> messages = new ArrayDeque<>();
+
+        private long    nextSequence;
+        private long    size;
+        private boolean removed;
+        /** Endpoint opted in to get sequence numbers of messages. */
+        private boolean sequenced;
+        private long    lastModified = System.currentTimeMillis();
+    }
+
+    /** Message stamped with its sequence number within an endpoint. */
+    public static class SequencedMessage {
+        private final long   sequence;
+        private final String text;
+        private final long   size;
+
+        SequencedMessage(long sequence, String text, long size) {
+            this.sequence = sequence;
+            this.text = text;
+            this.size = size;
         }
 
-        messagesMap.put(endpointId, messages);
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getText() {
+            return text;
+        }
     }
 }
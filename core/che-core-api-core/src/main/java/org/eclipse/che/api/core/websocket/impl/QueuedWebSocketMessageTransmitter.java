@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.MessagesReSender.SequencedMessage;
+import org.slf4j.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static javax.websocket.CloseReason.CloseCodes.TRY_AGAIN_LATER;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Transmits messages over WEB SOCKET through a bounded outbound queue that is
+ * kept for each endpoint. Queues are drained by a small pool of threads, messages
+ * are sent asynchronously one at a time per endpoint, so a slow client blocks only
+ * its own queue and never a thread of the pool, other endpoints or the thread
+ * that produces the message. When a queue is full an {@link OverflowPolicy} is
+ * applied. Every message is tracked by re-sender before it is queued, so messages
+ * that are not sent because WEB SOCKET session is closed can be resent when session
+ * will be opened again. Resent messages are put in front of the queue of the endpoint,
+ * so they are never sent concurrently with the other messages.
+ */
+@Singleton
+public class QueuedWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
+    private static final Logger LOG = getLogger(QueuedWebSocketMessageTransmitter.class);
+
+    /** Max length of a JSON RPC batch made of queued messages, the older messages which don't fit are dropped */
+    static final int MAX_COALESCED_BATCH_LENGTH = 1024 * 1024;
+
+    private final Map<String, EndpointQueue> queues = new ConcurrentHashMap<>();
+    private final WebSocketSessionRegistry   registry;
+    private final MessagesReSender           reSender;
+    private final ExecutorService            executor;
+    private final int                        queueSize;
+    private final OverflowPolicy             overflowPolicy;
+    private final long                       sendTimeoutMs;
+
+    @Inject
+    public QueuedWebSocketMessageTransmitter(WebSocketSessionRegistry registry,
+                                             MessagesReSender reSender,
+                                             @Named("che.core.websocket.transmitter.pool_size") int poolSize,
+                                             @Named("che.core.websocket.transmitter.queue_size") int queueSize,
+                                             @Named("che.core.websocket.transmitter.overflow_policy") String overflowPolicy,
+                                             @Named("che.core.websocket.transmitter.send_timeout_ms") long sendTimeoutMs) {
+        this(registry,
+             reSender,
+             Executors.newFixedThreadPool(poolSize, new ThreadFactoryBuilder().setNameFormat("WebSocketTransmitter-%d")
+                                                                              .setDaemon(true)
+                                                                              .build()),
+             queueSize,
+             OverflowPolicy.valueOf(overflowPolicy.toUpperCase()),
+             sendTimeoutMs);
+    }
+
+    QueuedWebSocketMessageTransmitter(WebSocketSessionRegistry registry,
+                                      MessagesReSender reSender,
+                                      ExecutorService executor,
+                                      int queueSize,
+                                      OverflowPolicy overflowPolicy,
+                                      long sendTimeoutMs) {
+        this.registry = registry;
+        this.reSender = reSender;
+        this.executor = executor;
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        registry.addRemovalListener(this::release);
+        reSender.setResendAction(this::resend);
+    }
+
+    /**
+     * Joins the newest stringified JSON RPC entities into a single JSON RPC batch that is not
+     * longer than {@link #MAX_COALESCED_BATCH_LENGTH} characters, the older entities which
+     * don't fit are dropped. Entities that are batches themselves are flattened, each of them
+     * keeps its own sequence number and the batch gets the sequence number of the newest one.
+     */
+    private static SequencedMessage coalesce(Deque<SequencedMessage> messages) {
+        Deque<String> entities = new ArrayDeque<>();
+        int length = 2;
+        for (Iterator<SequencedMessage> it = messages.descendingIterator(); it.hasNext(); ) {
+            String trimmed = it.next().getText().trim();
+            if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+                trimmed = trimmed.substring(1, trimmed.length() - 1).trim();
+            }
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!entities.isEmpty() && length + trimmed.length() + 1 > MAX_COALESCED_BATCH_LENGTH) {
+                LOG.debug("Coalesced batch is too long, {} oldest messages are dropped", messages.size() - entities.size());
+                break;
+            }
+            entities.addFirst(trimmed);
+            length += trimmed.length() + 1;
+        }
+        return new SequencedMessage(messages.peekLast().getSequence(), '[' + String.join(",", entities) + ']', 0);
+    }
+
+    @Override
+    public void transmit(String endpointId, String message) {
+        final Optional<Session> sessionOptional = registry.get(endpointId);
+
+        if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
+            LOG.debug("Session is not registered or closed, adding message to pending");
+
+            reSender.add(endpointId, message);
+        } else {
+            LOG.debug("Session registered and open, queueing message");
+
+            enqueue(endpointId, sessionOptional.get(), message);
+        }
+    }
+
+    @Override
+    public void transmit(String message) {
+        LOG.debug("Broadcasting a web socket transmission: {}", message);
+
+        for (String endpointId : registry.getEndpointIds()) {
+            registry.get(endpointId)
+                    .filter(Session::isOpen)
+                    .ifPresent(session -> enqueue(endpointId, session, message));
+        }
+    }
+
+    /**
+     * Returns the number of messages that are waiting to be sent to an endpoint.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     */
+    public int getQueueDepth(String endpointId) {
+        EndpointQueue queue = queues.get(endpointId);
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.messages.size();
+        }
+    }
+
+    /** Returns the number of messages that are waiting to be sent, mapped by endpoint identifiers. */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new HashMap<>();
+        for (String endpointId : queues.keySet()) {
+            depths.put(endpointId, getQueueDepth(endpointId));
+        }
+        return depths;
+    }
+
+    /**
+     * Returns the number of messages that were dropped or coalesced because
+     * the queue of an endpoint was full.
+     *
+     * @param endpointId
+     *         endpoint identifier
+     */
+    public long getOverflowCount(String endpointId) {
+        EndpointQueue queue = queues.get(endpointId);
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.overflowCount;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    private void enqueue(String endpointId, Session session, String message) {
+        EndpointQueue queue;
+        boolean disconnect = false;
+        boolean startDraining = false;
+        while (true) {
+            queue = queues.computeIfAbsent(endpointId, id -> new EndpointQueue());
+            synchronized (queue) {
+                if (queue.removed) {
+                    // queue is released concurrently, take the next one
+                    continue;
+                }
+                // endpoint may be registered again while the queue of its previous session is drained
+                queue.released = false;
+                // message is tracked under the queue lock, so sequence numbers follow the order of the queue
+                final SequencedMessage sequenced = reSender.track(endpointId, message);
+                if (queue.messages.size() >= queueSize) {
+                    queue.overflowCount++;
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST:
+                            LOG.debug("Queue of endpoint {} is full, dropping the oldest message", endpointId);
+                            queue.messages.pollFirst();
+                            break;
+                        case COALESCE:
+                            LOG.debug("Queue of endpoint {} is full, coalescing queued messages", endpointId);
+                            SequencedMessage batch = coalesce(queue.messages);
+                            queue.messages.clear();
+                            queue.messages.add(batch);
+                            break;
+                        case DISCONNECT:
+                        default:
+                            LOG.warn("Queue of endpoint {} is full, closing the session", endpointId);
+                            queue.messages.clear();
+                            disconnect = true;
+                    }
+                }
+
+                if (queue.session != session) {
+                    // older messages that are resent to the new session must precede this one
+                    queue.session = session;
+                    queue.firstSequence = sequenced.getSequence();
+                }
+                if (!disconnect) {
+                    queue.messages.addLast(sequenced);
+                    if (!queue.draining) {
+                        queue.draining = true;
+                        startDraining = true;
+                    }
+                }
+                break;
+            }
+        }
+
+        if (disconnect) {
+            disconnect(endpointId);
+        } else if (startDraining) {
+            final EndpointQueue drained = queue;
+            executor.execute(() -> drain(endpointId, drained));
+        }
+    }
+
+    /**
+     * Puts messages buffered by re-sender in front of the queue of an endpoint, except
+     * the ones that are already queued for the current session of the endpoint.
+     * The queue may exceed its size until resent messages are sent.
+     */
+    private void resend(String endpointId) {
+        final Optional<Session> sessionOptional = registry.get(endpointId);
+        if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
+            return;
+        }
+        final Session session = sessionOptional.get();
+
+        EndpointQueue queue;
+        boolean startDraining = false;
+        while (true) {
+            queue = queues.computeIfAbsent(endpointId, id -> new EndpointQueue());
+            synchronized (queue) {
+                if (queue.removed) {
+                    // queue is released concurrently, take the next one
+                    continue;
+                }
+                queue.released = false;
+                final long queuedFrom = queue.session == session ? queue.firstSequence : Long.MAX_VALUE;
+                final List<SequencedMessage> pending = reSender.getPending(endpointId);
+                for (ListIterator<SequencedMessage> it = pending.listIterator(pending.size()); it.hasPrevious(); ) {
+                    final SequencedMessage message = it.previous();
+                    if (message.getSequence() < queuedFrom) {
+                        queue.messages.addFirst(message);
+                    }
+                }
+                if (!queue.messages.isEmpty() && !queue.draining) {
+                    queue.draining = true;
+                    startDraining = true;
+                }
+                break;
+            }
+        }
+
+        if (startDraining) {
+            final EndpointQueue drained = queue;
+            executor.execute(() -> drain(endpointId, drained));
+        }
+    }
+
+    private void drain(String endpointId, EndpointQueue queue) {
+        final SequencedMessage message;
+        synchronized (queue) {
+            message = queue.messages.pollFirst();
+            if (message == null) {
+                queue.draining = false;
+                if (queue.released) {
+                    remove(endpointId, queue);
+                }
+                return;
+            }
+        }
+
+        final Optional<Session> sessionOptional = registry.get(endpointId);
+        if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
+            LOG.debug("Session is not registered or closed, queued messages are left pending");
+
+            synchronized (queue) {
+                queue.messages.clear();
+                queue.draining = false;
+                if (queue.released) {
+                    remove(endpointId, queue);
+                }
+            }
+            return;
+        }
+
+        try {
+            final RemoteEndpoint.Async remote = sessionOptional.get().getAsyncRemote();
+            remote.setSendTimeout(sendTimeoutMs);
+            // the next message is sent when this one is completed, meanwhile the thread serves other endpoints
+            remote.sendText(message.getText(), result -> {
+                if (result.isOK()) {
+                    reSender.delivered(endpointId, message.getSequence());
+                } else {
+                    LOG.error("Error while trying to send a message to an async websocket remote endpoint", result.getException());
+                }
+                continueDraining(endpointId, queue);
+            });
+        } catch (RuntimeException e) {
+            LOG.error("Error while trying to send a message to an async websocket remote endpoint", e);
+            continueDraining(endpointId, queue);
+        }
+    }
+
+    private void continueDraining(String endpointId, EndpointQueue queue) {
+        try {
+            executor.execute(() -> drain(endpointId, queue));
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Transmitter is stopped, messages of endpoint {} are not sent", endpointId);
+        }
+    }
+
+    private void disconnect(String endpointId) {
+        registry.get(endpointId).ifPresent(session -> {
+            try {
+                session.close(new CloseReason(TRY_AGAIN_LATER, "Outbound message queue is full"));
+            } catch (IOException e) {
+                LOG.error("Error while trying to close a web socket session of endpoint {}", endpointId, e);
+            }
+        });
+    }
+
+    /**
+     * Drops messages queued for an endpoint whose session is removed. The queue itself is removed
+     * only when it is not drained, otherwise a new queue could be drained concurrently with it
+     * and messages sent to the same session would be reordered. A queue which is being drained
+     * is removed by the draining thread once the message in flight is completed.
+     */
+    private void release(String endpointId) {
+        EndpointQueue queue = queues.get(endpointId);
+        if (queue == null) {
+            return;
+        }
+
+        synchronized (queue) {
+            // queued messages are already tracked by re-sender
+            queue.messages.clear();
+            if (queue.draining) {
+                queue.released = true;
+            } else {
+                remove(endpointId, queue);
+            }
+        }
+    }
+
+    /** Must be called under the lock of the queue. */
+    private void remove(String endpointId, EndpointQueue queue) {
+        queue.removed = true;
+        queues.remove(endpointId, queue);
+    }
+
+    /**
+     * Defines what happens when an outbound queue of an endpoint is full.
+     */
+    public enum OverflowPolicy {
+        /** The oldest queued message is dropped */
+        DROP_OLDEST,
+        /** All queued JSON RPC messages are joined into a single JSON RPC batch */
+        COALESCE,
+        /** Queued messages are dropped and the session of the endpoint is closed */
+        DISCONNECT
+    }
+
+    private static class EndpointQueue {
+        private final Deque<SequencedMessage> messages = new ArrayDeque<>();
+
+        private boolean draining;
+        /** Session of the endpoint is removed, the queue should be removed once it is drained. */
+        private boolean released;
+        /** The queue is removed from the map of queues and must not be used any more. */
+        private boolean removed;
+        private long    overflowCount;
+        /** Session the messages are queued for and the sequence number of the first of them. */
+        private Session session;
+        private long    firstSequence;
+    }
+}
@@ -14,11 +14,12 @@ import org.slf4j.Logger;
 
 import javax.inject.Singleton;
 import javax.websocket.Session;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 
 import static java.util.stream.Collectors.toSet;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -32,7 +33,8 @@ import static org.slf4j.LoggerFactory.getLogger;
 public class WebSocketSessionRegistry {
     private static final Logger LOG = getLogger(WebSocketSessionRegistry.class);
 
-    private final Map<String, Session> sessionsMap = new ConcurrentHashMap<>();
+    private final Map<String, Session>  sessionsMap      = new ConcurrentHashMap<>();
+    private final Set<Consumer<String>> removalListeners = new CopyOnWriteArraySet<>();
 
     public void add(String endpointId, Session session) {
         LOG.debug("Registering session with endpoint {}", session.getId(), endpointId);
@@ -44,12 +46,35 @@ public class WebSocketSessionRegistry {
         LOG.debug("Cancelling registration for session with endpoint {}", endpointId);
 
         sessionsMap.remove(endpointId);
+
+        for (Consumer<String> listener : removalListeners) {
+            try {
+                listener.accept(endpointId);
+            } catch (RuntimeException e) {
+                LOG.error("Error while notifying about removal of endpoint {}", endpointId, e);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener that is notified with an endpoint identifier
+     * each time a session of that endpoint is removed from the registry.
+     *
+     * @param listener
+     *         consumer of removed endpoint identifiers
+     */
+    public void addRemovalListener(Consumer<String> listener) {
+        removalListeners.add(listener);
     }
 
     public Optional<Session> get(String endpointId) {
         return Optional.ofNullable(sessionsMap.get(endpointId));
     }
 
+    public Set<String> getEndpointIds() {
+        return sessionsMap.keySet().stream().collect(toSet());
+    }
+
     public Set<Session> getSessions() {
         return sessionsMap.values().stream().collect(toSet());
     }
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.jsonrpc;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import javax.websocket.Session;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.api.core.jsonrpc.JsonRpcEntityQualifier.JsonRpcEntityType.REQUEST;
+import static org.eclipse.che.api.core.jsonrpc.JsonRpcEntityQualifier.JsonRpcEntityType.RESPONSE;
+import static org.eclipse.che.api.core.jsonrpc.JsonRpcEntityQualifier.JsonRpcEntityType.UNDEFINED;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ConcurrentJsonRpcMessageReceiver}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class ConcurrentJsonRpcMessageReceiverTest {
+    static final String ENDPOINT_ID    = "endpointId";
+    static final String OBJECT_MESSAGE = "{\"id\":\"0\"}";
+    static final String LIST_MESSAGE   = "[{\"id\":\"0\"},{\"id\":\"1\"}]";
+
+    @Mock
+    RequestDispatcher           requestDispatcher;
+    @Mock
+    ResponseDispatcher          responseDispatcher;
+    @Mock
+    JsonRpcEntityQualifier      qualifier;
+    @Mock
+    JsonRpcFactory              jsonRpcFactory;
+    @Mock
+    WebSocketMessageTransmitter transmitter;
+    @Mock
+    WebSocketSessionRegistry    sessionRegistry;
+    @Mock
+    ExecutorService             executor;
+
+    @Mock
+    Session         session;
+    @Mock
+    JsonRpcRequest  request;
+    @Mock
+    JsonRpcResponse response;
+    @Mock
+    JsonRpcError    error;
+
+    ConcurrentJsonRpcMessageReceiver receiver;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        doAnswer(invocation -> {
+            ((Runnable)invocation.getArguments()[0]).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        when(sessionRegistry.get(anyString())).thenReturn(Optional.empty());
+        when(qualifier.qualify(any(JsonObject.class))).thenReturn(REQUEST);
+        when(jsonRpcFactory.createRequest(any(JsonObject.class))).thenReturn(request);
+        when(jsonRpcFactory.createResponse(any(JsonObject.class))).thenReturn(response);
+        when(jsonRpcFactory.createError(anyInt(), anyString())).thenReturn(error);
+        when(jsonRpcFactory.createResponse(anyString(), any(), any())).thenReturn(response);
+        when(jsonRpcFactory.createResponse(any(JsonRpcResult.class), any(JsonRpcError.class))).thenReturn(response);
+        when(requestDispatcher.handle(ENDPOINT_ID, request)).thenReturn(response);
+        when(response.toString()).thenReturn("{}");
+        when(response.toJsonObject()).thenReturn(new JsonObject());
+
+        receiver = createReceiver(executor);
+    }
+
+    @Test
+    public void shouldHandleRequestAndTransmitResponse() throws Exception {
+        receiver.receive(ENDPOINT_ID, OBJECT_MESSAGE);
+
+        verify(requestDispatcher).handle(ENDPOINT_ID, request);
+        verify(transmitter).transmit(ENDPOINT_ID, "{}");
+    }
+
+    @Test
+    public void shouldTransmitSingleBatchResponseForBatchRequest() throws Exception {
+        receiver.receive(ENDPOINT_ID, LIST_MESSAGE);
+
+        verify(requestDispatcher, times(2)).handle(ENDPOINT_ID, request);
+        verify(transmitter).transmit(ENDPOINT_ID, "[{},{}]");
+    }
+
+    @Test
+    public void shouldNotTransmitAnythingForNotification() throws Exception {
+        when(requestDispatcher.handle(ENDPOINT_ID, request)).thenReturn(null);
+
+        receiver.receive(ENDPOINT_ID, OBJECT_MESSAGE);
+
+        verify(requestDispatcher).handle(ENDPOINT_ID, request);
+        verify(transmitter, never()).transmit(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldNotTransmitErrorForFailedNotification() throws Exception {
+        when(requestDispatcher.handle(ENDPOINT_ID, request)).thenThrow(new IllegalStateException("failed"));
+
+        receiver.receive(ENDPOINT_ID, OBJECT_MESSAGE);
+
+        verify(transmitter, never()).transmit(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldTransmitErrorForFailedRequest() throws Exception {
+        when(request.getId()).thenReturn("0");
+        when(requestDispatcher.handle(ENDPOINT_ID, request)).thenThrow(new IllegalStateException("failed"));
+
+        receiver.receive(ENDPOINT_ID, OBJECT_MESSAGE);
+
+        verify(jsonRpcFactory).createError(eq(-32603), anyString());
+        verify(transmitter).transmit(ENDPOINT_ID, "{}");
+    }
+
+    @Test
+    public void shouldHandleBatchEntitiesInOrderByDefault() throws Exception {
+        ExecutorService pool = mock(ExecutorService.class);
+        receiver = createReceiver(pool);
+
+        receiver.receive(ENDPOINT_ID, LIST_MESSAGE);
+
+        // the whole batch is handled by a single task
+        verify(pool).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void shouldHandleBatchEntitiesConcurrentlyWhenEndpointOptsOutOfOrdering() throws Exception {
+        Map<String, List<String>> parameters = singletonMap(ConcurrentJsonRpcMessageReceiver.ORDERED_PARAMETER,
+                                                            singletonList("false"));
+        when(session.getRequestParameterMap()).thenReturn(parameters);
+        when(sessionRegistry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
+        ExecutorService pool = mock(ExecutorService.class);
+        receiver = createReceiver(pool);
+
+        receiver.receive(ENDPOINT_ID, LIST_MESSAGE);
+
+        verify(pool, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void shouldDispatchResponse() throws Exception {
+        when(qualifier.qualify(any(JsonObject.class))).thenReturn(RESPONSE);
+
+        receiver.receive(ENDPOINT_ID, OBJECT_MESSAGE);
+
+        verify(responseDispatcher).dispatch(ENDPOINT_ID, response);
+        verify(transmitter, never()).transmit(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldTransmitErrorForUndefinedEntity() throws Exception {
+        when(qualifier.qualify(any(JsonObject.class))).thenReturn(UNDEFINED);
+
+        receiver.receive(ENDPOINT_ID, OBJECT_MESSAGE);
+
+        verify(jsonRpcFactory).createError(eq(-32600), anyString());
+        verify(transmitter).transmit(ENDPOINT_ID, "{}");
+    }
+
+    @Test
+    public void shouldTransmitErrorForMalformedMessage() throws Exception {
+        receiver.receive(ENDPOINT_ID, "{");
+
+        verify(jsonRpcFactory).createError(eq(-32700), anyString());
+        verify(requestDispatcher, never()).handle(anyString(), any(JsonRpcRequest.class));
+    }
+
+    private ConcurrentJsonRpcMessageReceiver createReceiver(ExecutorService executor) {
+        return new ConcurrentJsonRpcMessageReceiver(requestDispatcher,
+                                                    responseDispatcher,
+                                                    qualifier,
+                                                    jsonRpcFactory,
+                                                    transmitter,
+                                                    sessionRegistry,
+                                                    new JsonParser(),
+                                                    executor);
+    }
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.jsonrpc;
+
+import org.eclipse.che.api.core.jsonrpc.JsonRpcPromiseRegistry.AbandonReason;
+import org.eclipse.che.api.core.jsonrpc.JsonRpcPromiseRegistry.PendingResponse;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiConsumer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link JsonRpcPromiseRegistry}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class JsonRpcPromiseRegistryTest {
+    static final String ENDPOINT_ID = "endpointId";
+    static final String REQUEST_ID  = "0";
+
+    @Mock
+    BiConsumer<PendingResponse, AbandonReason> onAbandon;
+
+    WebSocketSessionRegistry sessionRegistry;
+    JsonRpcPromiseRegistry   promiseRegistry;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        sessionRegistry = new WebSocketSessionRegistry();
+        promiseRegistry = new JsonRpcPromiseRegistry(0, 2, sessionRegistry);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        promiseRegistry.stop();
+    }
+
+    @Test
+    public void shouldRemovePromiseWhenItIsTaken() throws Exception {
+        JsonRpcPromise<String> promise = new JsonRpcPromise<>();
+        promiseRegistry.register(ENDPOINT_ID, REQUEST_ID, String.class, promise, onAbandon);
+
+        Optional<PendingResponse> pendingResponse = promiseRegistry.take(ENDPOINT_ID, REQUEST_ID);
+
+        assertTrue(pendingResponse.isPresent());
+        assertEquals(pendingResponse.get().getPromise(), promise);
+        assertEquals(pendingResponse.get().getResultClass(), String.class);
+        assertEquals(promiseRegistry.getInFlightCount(), 0);
+        assertFalse(promiseRegistry.take(ENDPOINT_ID, REQUEST_ID).isPresent());
+    }
+
+    @Test
+    public void shouldEvictPromisesWhenEndpointSessionIsRemoved() throws Exception {
+        promiseRegistry.register(ENDPOINT_ID, "0", String.class, new JsonRpcPromise<>(), onAbandon);
+        promiseRegistry.register(ENDPOINT_ID, "1", String.class, new JsonRpcPromise<>(), onAbandon);
+        promiseRegistry.register("anotherEndpointId", "2", String.class, new JsonRpcPromise<>(), onAbandon);
+
+        sessionRegistry.remove(ENDPOINT_ID);
+
+        assertEquals(promiseRegistry.getInFlightCount(), 1);
+        assertEquals(promiseRegistry.getEvictedCount(), 2);
+        assertTrue(promiseRegistry.take("anotherEndpointId", "2").isPresent());
+    }
+
+    @Test
+    public void shouldNotifyAboutPromisesEvictedBecauseOfEndpointDisconnection() throws Exception {
+        promiseRegistry.register(ENDPOINT_ID, REQUEST_ID, String.class, new JsonRpcPromise<>(), onAbandon);
+
+        sessionRegistry.remove(ENDPOINT_ID);
+
+        verify(onAbandon).accept(any(PendingResponse.class), eq(AbandonReason.ENDPOINT_DISCONNECTED));
+    }
+
+    @Test
+    public void shouldAbandonOldestPromiseWhenLimitIsExceeded() throws Exception {
+        promiseRegistry.register(ENDPOINT_ID, "0", String.class, new JsonRpcPromise<>(), onAbandon);
+        promiseRegistry.register(ENDPOINT_ID, "1", String.class, new JsonRpcPromise<>(), onAbandon);
+
+        promiseRegistry.register(ENDPOINT_ID, "2", String.class, new JsonRpcPromise<>(), onAbandon);
+
+        ArgumentCaptor<PendingResponse> captor = ArgumentCaptor.forClass(PendingResponse.class);
+        verify(onAbandon).accept(captor.capture(), eq(AbandonReason.LIMIT_EXCEEDED));
+        assertEquals(captor.getValue().getRequestId(), "0");
+        assertEquals(promiseRegistry.getInFlightCount(), 2);
+        assertEquals(promiseRegistry.getOverflowCount(), 1);
+        assertFalse(promiseRegistry.take(ENDPOINT_ID, "0").isPresent());
+        assertTrue(promiseRegistry.take(ENDPOINT_ID, "2").isPresent());
+    }
+
+    @Test
+    public void shouldTimeOutPromise() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        promiseRegistry.register(ENDPOINT_ID, REQUEST_ID, String.class, new JsonRpcPromise<>(), 10, (pendingResponse, reason) -> latch.countDown());
+
+        assertTrue(latch.await(5, SECONDS));
+        assertEquals(promiseRegistry.getInFlightCount(), 0);
+        assertEquals(promiseRegistry.getTimedOutCount(), 1);
+        assertFalse(promiseRegistry.take(ENDPOINT_ID, REQUEST_ID).isPresent());
+    }
+
+    @Test
+    public void shouldNotTimeOutTakenPromise() throws Exception {
+        promiseRegistry.register(ENDPOINT_ID, REQUEST_ID, String.class, new JsonRpcPromise<>(), 100, onAbandon);
+
+        promiseRegistry.take(ENDPOINT_ID, REQUEST_ID);
+        Thread.sleep(200);
+
+        verify(onAbandon, never()).accept(any(), any());
+        assertEquals(promiseRegistry.getTimedOutCount(), 0);
+    }
+}
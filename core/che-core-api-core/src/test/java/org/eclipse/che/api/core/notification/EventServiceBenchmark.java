@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of {@link EventService} publishing with many subscribers and compares
+ * it with {@link BaselineEventService} which dispatches events the way {@link EventService}
+ * did before dispatch tables were introduced, run it with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventServiceBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int subscribers;
+
+    private EventService         eventService;
+    private BaselineEventService baselineEventService;
+    private Event                event;
+    private Object       unhandledEvent;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eventService = new EventService();
+        baselineEventService = new BaselineEventService();
+        for (int i = 0; i < subscribers; i++) {
+            // spread subscribers over the type hierarchy of the event
+            final Class<?> eventType = i % 3 == 0 ? Event.class : i % 3 == 1 ? BaseEvent.class : Marker.class;
+            eventService.subscribe(new CountingSubscriber<>(), eventType);
+            eventService.subscribe(new CountingSubscriber<>(), String.class);
+            baselineEventService.subscribe(new CountingSubscriber<>(), eventType);
+            baselineEventService.subscribe(new CountingSubscriber<>(), String.class);
+        }
+        event = new Event();
+        unhandledEvent = new Object();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventService.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object publish() {
+        return eventService.publish(event);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object publishContended() {
+        return eventService.publish(event);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object publishWithoutSubscribers() {
+        return eventService.publish(unhandledEvent);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object publishBaseline() {
+        return baselineEventService.publish(event);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object publishBaselineContended() {
+        return baselineEventService.publish(event);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object publishBaselineWithoutSubscribers() {
+        return baselineEventService.publish(unhandledEvent);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void publishAsync(Blackhole blackhole) {
+        blackhole.consume(eventService.publishAsync(event));
+    }
+
+    interface Marker {
+    }
+
+    static class BaseEvent implements Marker {
+    }
+
+    static class Event extends BaseEvent {
+    }
+
+    /**
+     * Publishes events the way {@link EventService} did before dispatch tables were introduced,
+     * walks the cached type hierarchy of the event and looks up subscribers of each type.
+     */
+    static class BaselineEventService {
+        private final LoadingCache<Class<?>, Set<Class<?>>>         typeCache;
+        private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+
+        BaselineEventService() {
+            subscribersByEventType = new ConcurrentHashMap<>();
+            typeCache = CacheBuilder.newBuilder().concurrencyLevel(32).build(new CacheLoader<Class<?>, Set<Class<?>>>() {
+                @Override
+                public Set<Class<?>> load(Class<?> eventClass) {
+                    LinkedList<Class<?>> parents = new LinkedList<>();
+                    Set<Class<?>> classes = new HashSet<>();
+                    parents.add(eventClass);
+                    while (!parents.isEmpty()) {
+                        Class<?> clazz = parents.pop();
+                        classes.add(clazz);
+                        Class<?> parent = clazz.getSuperclass();
+                        if (parent != null) {
+                            parents.add(parent);
+                        }
+                        Collections.addAll(parents, clazz.getInterfaces());
+                    }
+                    return classes;
+                }
+            });
+        }
+
+        void subscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
+            subscribersByEventType.computeIfAbsent(eventType, type -> new CopyOnWriteArraySet<>()).add(subscriber);
+        }
+
+        @SuppressWarnings("unchecked")
+        Object publish(Object event) {
+            for (Class<?> clazz : typeCache.getUnchecked(event.getClass())) {
+                final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
+                if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
+                    for (EventSubscriber eventSubscriber : eventSubscribers) {
+                        try {
+                            eventSubscriber.onEvent(event);
+                        } catch (RuntimeException e) {
+                            // the same as EventService does
+                        }
+                    }
+                }
+            }
+            return event;
+        }
+    }
+
+    static class CountingSubscriber<T> implements EventSubscriber<T> {
+        private volatile long count;
+
+        @Override
+        public void onEvent(T event) {
+            count++;
+        }
+    }
+}
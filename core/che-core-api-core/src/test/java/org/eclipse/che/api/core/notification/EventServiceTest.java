@@ -15,8 +15,12 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author andrew00x
@@ -191,6 +195,72 @@ public class EventServiceTest {
         bus.unsubscribe(sb, CustomEventImpl.class);
     }
 
+    @Test
+    public void shouldDeliverEventsToSubscribersAddedAfterPublish() {
+        final Listener first = new Listener();
+        bus.subscribe(first);
+        bus.publish("a");
+
+        final Listener second = new Listener();
+        bus.subscribe(second);
+        bus.publish("b");
+
+        bus.unsubscribe(first);
+        bus.publish("c");
+
+        Assert.assertEquals(first.events, Arrays.asList("a", "b"));
+        Assert.assertEquals(second.events, Arrays.asList("b", "c"));
+    }
+
+    @Test
+    public void shouldPublishEventsAsynchronouslyInOrder() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(100);
+        final List<Integer> events = new CopyOnWriteArrayList<>();
+        bus.subscribe(new EventSubscriber<Integer>() {
+            @Override
+            public void onEvent(Integer event) {
+                events.add(event);
+                latch.countDown();
+            }
+        });
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            bus.publishAsync(i);
+            expected.add(i);
+        }
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(events, expected);
+        bus.stop();
+    }
+
+    @Test
+    public void shouldCountAsynchronousEventsDroppedBecauseOfFullQueueWithoutDeliveringThemInPublisherThread() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread publisher = Thread.currentThread();
+        final List<Thread> deliveringThreads = new CopyOnWriteArrayList<>();
+        bus.subscribe(new EventSubscriber<Integer>() {
+            @Override
+            public void onEvent(Integer event) {
+                deliveringThreads.add(Thread.currentThread());
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        for (int i = 0; i < 10_002; i++) {
+            bus.publishAsync(i);
+        }
+        release.countDown();
+
+        Assert.assertTrue(bus.getDroppedAsyncEventsCount() >= 1);
+        Assert.assertFalse(deliveringThreads.contains(publisher));
+        bus.stop();
+    }
+
     static class CustomEventSubscriber<T extends CustomEvent> implements EventSubscriber<T> {
         final List<String> events = new ArrayList<>();
 
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.eclipse.che.api.core.util.LinksHelper.createLink;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests for {@link HttpConnectionPool} and {@link PooledHttpJsonRequest}.
+ */
+public class HttpConnectionPoolTest {
+    private static final String HOST = "http://localhost:8080";
+
+    private HttpConnectionPool pool;
+
+    @BeforeMethod
+    public void setUp() {
+        pool = new HttpConnectionPool(2, 100);
+    }
+
+    @Test
+    public void shouldLimitConnectionsPerHost() throws Exception {
+        pool.lease(HOST);
+        pool.lease(HOST);
+        pool.lease("http://localhost:8081");
+
+        try {
+            pool.lease(HOST);
+            fail("Connection must not be leased");
+        } catch (IOException expected) {
+        }
+
+        assertEquals(pool.getLeasedCount(), 3);
+        assertEquals(pool.getHostsCount(), 2);
+        assertEquals(pool.getLeaseTimeoutsCount(), 1);
+        assertEquals(pool.getPendingCount(), 0);
+    }
+
+    @Test
+    public void shouldNotLimitConnectionsPerHostIfLimitIsNotSet() throws Exception {
+        HttpConnectionPool unlimited = new HttpConnectionPool(0, 100);
+
+        for (int i = 0; i < 100; i++) {
+            unlimited.lease(HOST);
+        }
+        unlimited.release(HOST, true);
+
+        assertEquals(unlimited.getLeasedCount(), 99);
+        assertEquals(unlimited.getLeaseTimeoutsCount(), 0);
+    }
+
+    @Test
+    public void shouldLeaseReleasedConnection() throws Exception {
+        pool.lease(HOST);
+        pool.lease(HOST);
+        pool.release(HOST, true);
+        pool.lease(HOST);
+        pool.release(HOST, false);
+
+        assertEquals(pool.getLeasedCount(), 1);
+        assertEquals(pool.getRequestsCount(), 3);
+        assertEquals(pool.getKeptAliveCount(), 1);
+        assertEquals(pool.getDiscardedCount(), 1);
+    }
+
+    @Test
+    public void shouldKeepConnectionAliveOnlyIfResponseIsConsumed() throws Exception {
+        PooledHttpJsonRequest request = new PooledHttpJsonRequest(pool, HOST);
+        HttpURLConnection consumed = request.openConnection(HOST + "/api", 0);
+        request.releaseConnection(consumed, true);
+        HttpURLConnection failed = request.openConnection(HOST + "/api", 0);
+        HttpURLConnection mockConnection = mock(HttpURLConnection.class);
+        request.releaseConnection(mockConnection, false);
+
+        verify(mockConnection).disconnect();
+        assertEquals(failed.getURL().toString(), HOST + "/api");
+        assertEquals(pool.getLeasedCount(), 0);
+        assertEquals(pool.getKeptAliveCount(), 1);
+        assertEquals(pool.getDiscardedCount(), 1);
+    }
+
+    @Test
+    public void shouldWriteBodyAndParseResponse() throws Exception {
+        PooledHttpJsonRequest request = new PooledHttpJsonRequest(pool, createLink("POST", HOST, "rel"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getOutputStream()).thenReturn(output);
+
+        request.writeBody(connection, new JsonArrayImpl<>(asList("a", "b")));
+        HttpJsonResponse response = request.readResponse(new ByteArrayInputStream("{\"name\":\"value\"}  ".getBytes(UTF_8)),
+                                                         APPLICATION_JSON,
+                                                         200);
+
+        verify(connection).setFixedLengthStreamingMode(9);
+        assertEquals(new String(output.toByteArray(), UTF_8), "[\"a\",\"b\"]");
+        assertEquals(response.getResponseCode(), 200);
+        assertEquals(response.asProperties().get("name"), "value");
+        assertEquals(response.asString(), "{\"name\":\"value\"}");
+    }
+
+    @Test
+    public void shouldParseEmptyResponse() throws Exception {
+        PooledHttpJsonRequest request = new PooledHttpJsonRequest(pool, HOST);
+
+        HttpJsonResponse response = request.readResponse(new ByteArrayInputStream(new byte[0]), APPLICATION_JSON, 204);
+
+        assertEquals(response.asString(), "");
+        assertEquals(response.asDto(Link.class), null);
+    }
+
+    @Test
+    public void shouldParseListOfDtos() throws Exception {
+        PooledHttpJsonRequest request = new PooledHttpJsonRequest(pool, HOST);
+        String json = "[{\"href\":\"http://localhost/a\",\"rel\":\"a\"},{\"href\":\"http://localhost/b\",\"rel\":\"b\"}]";
+
+        List<Link> links = request.readResponse(new ByteArrayInputStream(json.getBytes(UTF_8)), APPLICATION_JSON, 200)
+                                   .asList(Link.class);
+
+        assertEquals(links.size(), 2);
+        assertEquals(links.get(0).getRel(), "a");
+        assertEquals(links.get(1).getHref(), "http://localhost/b");
+    }
+
+    @Test
+    public void shouldReadResponseWhichIsNotJsonAsIs() throws Exception {
+        PooledHttpJsonRequest request = new PooledHttpJsonRequest(pool, HOST);
+
+        HttpJsonResponse response = request.readResponse(new ByteArrayInputStream("text message".getBytes(UTF_8)),
+                                                         APPLICATION_JSON,
+                                                         200);
+
+        assertEquals(response.asString(), "text message");
+    }
+}
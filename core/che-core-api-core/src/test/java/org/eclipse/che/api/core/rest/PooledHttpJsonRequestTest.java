@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.core.util.LinksHelper;
+import org.everrest.assured.EverrestJetty;
+import org.testng.ITestContext;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests of {@link PooledHttpJsonRequest} against a running server.
+ */
+@Listeners(EverrestJetty.class)
+public class PooledHttpJsonRequestTest {
+
+    @SuppressWarnings("unused") // used by EverrestJetty
+    private static final ApiExceptionMapper EXCEPTION_MAPPER = new ApiExceptionMapper();
+    @SuppressWarnings("unused") // used by EverrestJetty
+    private static final TestService        TEST_SERVICE     = new TestService();
+
+    private PooledHttpJsonRequestFactory requestFactory;
+
+    @BeforeMethod
+    public void setUp() {
+        requestFactory = new PooledHttpJsonRequestFactory(2, 10_000);
+    }
+
+    @Test
+    public void shouldSendSmallBodyAndParseJsonResponse(ITestContext ctx) throws Exception {
+        final List<Link> links = singletonList(LinksHelper.createLink("GET", "localhost:8080/application-json", "rel"));
+
+        final List<Link> result = requestFactory.fromUrl(getUrl(ctx) + "/application-json")
+                                                .usePostMethod()
+                                                .setBody(links)
+                                                .request()
+                                                .asList(Link.class);
+
+        assertEquals(result, links);
+    }
+
+    @Test
+    public void shouldSendLargeBodyInChunks(ITestContext ctx) throws Exception {
+        final List<Link> links = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            links.add(LinksHelper.createLink("GET", "localhost:8080/application-json/" + i, "rel" + i));
+        }
+
+        final List<Link> result = requestFactory.fromUrl(getUrl(ctx) + "/application-json")
+                                                .usePostMethod()
+                                                .setBody(links)
+                                                .request()
+                                                .asList(Link.class);
+
+        assertEquals(result, links);
+    }
+
+    @Test
+    public void shouldReadResponseWhichIsNotJsonAsString(ITestContext ctx) throws Exception {
+        final String base = getUrl(ctx) + "/decode";
+
+        final HttpJsonResponse response = requestFactory.fromUrl(base)
+                                                        .addQueryParam("query", "some white spaces !!")
+                                                        .useGetMethod()
+                                                        .request();
+
+        assertEquals(response.asString(), base + "?query=some white spaces !!");
+    }
+
+    @Test
+    public void shouldKeepConnectionAliveWhenResponseIsRead(ITestContext ctx) throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(requestFactory.fromUrl(getUrl(ctx) + "/application-json").useGetMethod().request().asString(),
+                         TestService.JSON_OBJECT);
+        }
+
+        final HttpConnectionPool pool = requestFactory.getConnectionPool();
+        assertEquals(pool.getKeptAliveCount(), 3);
+        assertEquals(pool.getDiscardedCount(), 0);
+        assertEquals(pool.getLeasedCount(), 0);
+    }
+
+    private String getUrl(ITestContext ctx) {
+        return "http://localhost:" + ctx.getAttribute(EverrestJetty.JETTY_PORT) + "/rest/test";
+    }
+}
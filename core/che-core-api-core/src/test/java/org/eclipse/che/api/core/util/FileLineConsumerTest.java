@@ -25,7 +25,9 @@ import java.lang.reflect.Modifier;
 
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static java.util.Arrays.asList;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -69,6 +71,19 @@ public class FileLineConsumerTest {
         verify(writer).write(eq(message));
     }
 
+    @Test
+    public void shouldFlushBatchOfLinesOnce() throws Exception {
+        // when
+        fileLineConsumer.writeLines(asList("first", "second", "third"));
+
+        // then
+        verify(writer).write(eq("first"));
+        verify(writer).write(eq("second"));
+        verify(writer).write(eq("third"));
+        verify(writer, times(3)).write('\n');
+        verify(writer).flush();
+    }
+
     @Test
     public void shouldNotWriteIntoFileAfterConsumerClosing() throws Exception {
         // given
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util.lineconsumer;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.AsyncLineConsumer.OverflowPolicy;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link AsyncLineConsumer}.
+ */
+public class AsyncLineConsumerTest {
+    private ScheduledExecutorService executor;
+    private BatchRecorder            delegate;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        delegate = new BatchRecorder();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldWriteLinesInBatchesAfterLingerTime() throws Exception {
+        AsyncLineConsumer consumer = new AsyncLineConsumer(delegate, OverflowPolicy.BLOCK, 100, 10, 50, executor);
+
+        consumer.writeLine("first");
+        consumer.writeLine("second");
+        consumer.writeLine("third");
+
+        assertTrue(delegate.awaitLines(3));
+        assertEquals(delegate.batches, asList(asList("first", "second", "third")));
+    }
+
+    @Test
+    public void shouldWriteFullBatchWithoutWaitingForLingerTime() throws Exception {
+        AsyncLineConsumer consumer = new AsyncLineConsumer(delegate, OverflowPolicy.BLOCK, 100, 2, 60_000, executor);
+
+        consumer.writeLine("first");
+        consumer.writeLine("second");
+
+        assertTrue(delegate.awaitLines(2));
+        assertEquals(delegate.lines(), asList("first", "second"));
+    }
+
+    @Test
+    public void shouldWriteBufferedLinesAndCloseDelegateOnClose() throws Exception {
+        AsyncLineConsumer consumer = new AsyncLineConsumer(delegate, OverflowPolicy.BLOCK, 100, 10, 60_000, executor);
+
+        consumer.writeLine("first");
+        consumer.writeLine(null);
+        consumer.close();
+        consumer.writeLine("after close");
+
+        assertEquals(delegate.lines(), asList("first", ""));
+        assertTrue(delegate.closed);
+        assertFalse(consumer.isOpen());
+    }
+
+    @Test
+    public void shouldDropOldestLinesWhenBufferIsFull() throws Exception {
+        AsyncLineConsumer consumer = new AsyncLineConsumer(delegate, OverflowPolicy.DROP_OLDEST, 2, 10, 60_000, executor);
+
+        consumer.writeLine("first");
+        consumer.writeLine("second");
+        consumer.writeLine("third");
+        consumer.close();
+
+        assertEquals(consumer.getDroppedLinesCount(), 1);
+        assertEquals(delegate.lines().size(), 3);
+        assertTrue(delegate.lines().get(0).startsWith("[WARN] 1 lines"));
+        assertEquals(delegate.lines().subList(1, 3), asList("second", "third"));
+    }
+
+    @Test
+    public void shouldDropNewestLinesWhenBufferIsFull() throws Exception {
+        AsyncLineConsumer consumer = new AsyncLineConsumer(delegate, OverflowPolicy.DROP_NEWEST, 2, 10, 60_000, executor);
+
+        consumer.writeLine("first");
+        consumer.writeLine("second");
+        consumer.writeLine("third");
+        consumer.close();
+
+        assertEquals(consumer.getDroppedLinesCount(), 1);
+        assertEquals(delegate.lines().subList(1, 3), asList("first", "second"));
+    }
+
+    @Test
+    public void shouldStopBufferingLinesWhenDelegateIsClosed() throws Exception {
+        AsyncLineConsumer consumer = new AsyncLineConsumer(new BatchRecorder() {
+            @Override
+            public void writeLines(List<String> lines) throws IOException {
+                throw new ConsumerAlreadyClosedException("Stream closed");
+            }
+        }, OverflowPolicy.BLOCK, 100, 1, 60_000, executor);
+
+        consumer.writeLine("first");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (consumer.isOpen() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(consumer.isOpen());
+    }
+
+    private static class BatchRecorder implements LineConsumer {
+        final List<List<String>> batches = new ArrayList<>();
+
+        volatile boolean closed;
+
+        @Override
+        public void writeLine(String line) throws IOException {
+            writeLines(asList(line));
+        }
+
+        @Override
+        public synchronized void writeLines(List<String> lines) throws IOException {
+            batches.add(new ArrayList<>(lines));
+            notifyAll();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+
+        synchronized List<String> lines() {
+            List<String> lines = new ArrayList<>();
+            batches.forEach(lines::addAll);
+            return lines;
+        }
+
+        synchronized boolean awaitLines(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+            while (lines().size() < count && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+            return lines().size() >= count;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util.lineconsumer;
+
+import org.eclipse.che.api.core.util.lineconsumer.SegmentedLogReader.Lines;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link SegmentedFileLineConsumer} and {@link SegmentedLogReader}.
+ */
+public class SegmentedFileLineConsumerTest {
+    private File dir;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("segmented-log").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        IoUtil.deleteRecursive(dir);
+    }
+
+    @Test
+    public void shouldReadLinesFromTheMiddleOfTheLog() throws Exception {
+        try (SegmentedFileLineConsumer consumer = new SegmentedFileLineConsumer(dir)) {
+            consumer.writeLines(lines(0, 1000));
+        }
+        SegmentedLogReader reader = new SegmentedLogReader(dir);
+
+        Lines lines = reader.readLines(500, 3);
+
+        long[] indexed = LogSegments.findIndexed(dir, 0, 500);
+        assertEquals(indexed[0], 384);
+        assertEquals(indexed[1], 3346);
+        assertEquals(reader.getEndLine(), 1000);
+        assertEquals(lines.getFirstLine(), 500);
+        assertEquals(lines.getLines(), asList("line 500", "line 501", "line 502"));
+        assertEquals(lines.getNextLine(), 503);
+    }
+
+    @Test
+    public void shouldReadLinesOverSegments() throws Exception {
+        try (SegmentedFileLineConsumer consumer = new SegmentedFileLineConsumer(dir, 1024, 2, 100)) {
+            consumer.writeLines(lines(0, 1000));
+        }
+
+        Lines lines = new SegmentedLogReader(dir).readLines(0, 2000);
+
+        assertEquals(lines.getLines(), lines(0, 1000));
+        assertEquals(lines.getNextLine(), 1000);
+    }
+
+    @Test
+    public void shouldReadLastLines() throws Exception {
+        try (SegmentedFileLineConsumer consumer = new SegmentedFileLineConsumer(dir, 1024, 2, 100)) {
+            consumer.writeLines(lines(0, 300));
+        }
+
+        Lines lines = new SegmentedLogReader(dir).tail(2);
+
+        assertEquals(lines.getFirstLine(), 298);
+        assertEquals(lines.getLines(), asList("line 298", "line 299"));
+    }
+
+    @Test
+    public void shouldCompressOldSegmentsAndRemoveOldestOnes() throws Exception {
+        try (SegmentedFileLineConsumer consumer = new SegmentedFileLineConsumer(dir, 1024, 2, 5)) {
+            for (int i = 0; i < 1000; i += 10) {
+                consumer.writeLines(lines(i, i + 10));
+            }
+        }
+        List<Long> segments = LogSegments.list(dir);
+        SegmentedLogReader reader = new SegmentedLogReader(dir);
+
+        assertEquals(segments.size(), 5);
+        assertTrue(LogSegments.compressedFile(dir, segments.get(0)).isFile());
+        assertFalse(LogSegments.logFile(dir, segments.get(0)).exists());
+        assertTrue(LogSegments.logFile(dir, segments.get(4)).isFile());
+        assertTrue(reader.getFirstLine() > 0);
+        assertEquals(reader.readLines(0, 1).getFirstLine(), reader.getFirstLine());
+        assertEquals(reader.readLines(0, 2000).getLines(), lines((int)reader.getFirstLine(), 1000));
+        try (BufferedReader all = new BufferedReader(reader.openReader())) {
+            assertEquals(all.lines().collect(Collectors.toList()), lines((int)reader.getFirstLine(), 1000));
+        }
+    }
+
+    @Test
+    public void shouldContinueNumberingOfExistingLog() throws Exception {
+        try (SegmentedFileLineConsumer consumer = new SegmentedFileLineConsumer(dir, 1024, 2, 100)) {
+            consumer.writeLines(lines(0, 100));
+        }
+        try (SegmentedFileLineConsumer consumer = new SegmentedFileLineConsumer(dir, 1024, 2, 100)) {
+            consumer.writeLine("first\nsecond");
+            consumer.writeLine(null);
+        }
+
+        Lines lines = new SegmentedLogReader(dir).readLines(99, 10);
+
+        assertEquals(lines.getLines(), asList("line 99", "first", "second", ""));
+    }
+
+    @Test
+    public void shouldWaitForNewLinesWhenFollowingLog() throws Exception {
+        SegmentedFileLineConsumer consumer = new SegmentedFileLineConsumer(dir);
+        consumer.writeLine("first");
+        SegmentedLogReader reader = new SegmentedLogReader(dir);
+
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                consumer.writeLine("second");
+            } catch (Exception ignored) {
+            }
+        });
+        writer.start();
+        Lines lines = reader.follow(1, 10, 5_000);
+        writer.join();
+        consumer.close();
+
+        assertEquals(lines.getLines(), asList("second"));
+        assertEquals(reader.follow(2, 10, 10).getLines().size(), 0);
+    }
+
+    private static List<String> lines(int from, int to) {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            lines.add("line " + i);
+        }
+        return lines;
+    }
+}
@@ -21,14 +21,18 @@ import javax.websocket.RemoteEndpoint;
 import javax.websocket.Session;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
 /**
  * Tests for {@link MessagesReSender}
@@ -54,6 +58,7 @@ public class MessagesReSenderTest {
     public void beforeMethod() {
         when(sessionRegistry.get(anyString())).thenReturn(Optional.of(session));
         when(session.getAsyncRemote()).thenReturn(endpoint);
+        when(endpoint.sendText(anyString())).thenReturn(CompletableFuture.completedFuture(null));
         when(session.isOpen()).thenReturn(true);
     }
 
@@ -153,4 +158,127 @@ public class MessagesReSenderTest {
         verify(session, times(2)).getAsyncRemote();
         verify(endpoint, times(2)).sendText(MESSAGE);
     }
+
+    @Test
+    public void shouldDropOldestMessagesWhenMaxMessagesIsExceeded() {
+        reSender = new MessagesReSender(sessionRegistry, 2, 1024, 60_000);
+
+        reSender.add(ENDPOINT_ID, "0");
+        reSender.add(ENDPOINT_ID, "1");
+        reSender.add(ENDPOINT_ID, "2");
+
+        assertEquals(reSender.getBufferedCount(ENDPOINT_ID), 2);
+        assertEquals(reSender.getDroppedCount(), 1);
+
+        reSender.resend(ENDPOINT_ID);
+
+        verify(endpoint, never()).sendText("0");
+        verify(endpoint).sendText("1");
+        verify(endpoint).sendText("2");
+    }
+
+    @Test
+    public void shouldDropOldestMessagesWhenMaxSizeIsExceeded() {
+        reSender = new MessagesReSender(sessionRegistry, 100, 4 * Character.BYTES, 60_000);
+
+        reSender.add(ENDPOINT_ID, "00");
+        reSender.add(ENDPOINT_ID, "11");
+        reSender.add(ENDPOINT_ID, "22");
+
+        assertEquals(reSender.getBufferedCount(ENDPOINT_ID), 2);
+        assertEquals(reSender.getBufferedBytes(), 4 * Character.BYTES);
+        assertEquals(reSender.getDroppedCount(), 1);
+    }
+
+    @Test
+    public void shouldResendOnlyNotAcknowledgedMessages() {
+        long first = reSender.add(ENDPOINT_ID, "0");
+        reSender.add(ENDPOINT_ID, "1");
+
+        reSender.resend(ENDPOINT_ID, first);
+
+        verify(endpoint, never()).sendText("0");
+        verify(endpoint).sendText("1");
+        assertEquals(reSender.getBufferedCount(ENDPOINT_ID), 0);
+    }
+
+    @Test
+    public void shouldDropMessagesOnceTheyAreDelivered() {
+        long first = reSender.track(ENDPOINT_ID, "0").getSequence();
+        reSender.track(ENDPOINT_ID, "1");
+
+        reSender.delivered(ENDPOINT_ID, first);
+
+        assertEquals(reSender.getBufferedCount(ENDPOINT_ID), 1);
+        assertEquals(reSender.getBufferedBytes(), Character.BYTES);
+    }
+
+    @Test
+    public void shouldResendMessagesWithResendAction() {
+        @SuppressWarnings("unchecked")
+        Consumer<String> resendAction = mock(Consumer.class);
+        reSender.setResendAction(resendAction);
+        reSender.add(ENDPOINT_ID, MESSAGE);
+
+        reSender.resend(ENDPOINT_ID);
+
+        verify(resendAction).accept(ENDPOINT_ID);
+        verify(endpoint, never()).sendText(anyString());
+        assertEquals(reSender.getPending(ENDPOINT_ID).get(0).getText(), MESSAGE);
+    }
+
+    @Test
+    public void shouldResendOnlyNotDeliveredMessagesWhenEndpointDoesNotAcknowledgeThem() {
+        long first = reSender.track(ENDPOINT_ID, "0").getSequence();
+        reSender.delivered(ENDPOINT_ID, first);
+        reSender.add(ENDPOINT_ID, "1");
+
+        reSender.resend(ENDPOINT_ID);
+
+        verify(endpoint, never()).sendText("0");
+        verify(endpoint).sendText("1");
+    }
+
+    @Test
+    public void shouldStampJsonObjectsWithSequenceNumbersWhenEndpointOptsIn() {
+        reSender.resend(ENDPOINT_ID, -1);
+
+        assertEquals(reSender.track(ENDPOINT_ID, "{\"jsonrpc\":\"2.0\"}").getText(), "{\"seq\":0,\"jsonrpc\":\"2.0\"}");
+        assertEquals(reSender.track(ENDPOINT_ID, " [ {\"id\":\"1\"}]").getText(), " [ {\"seq\":1,\"id\":\"1\"}]");
+        assertEquals(reSender.track(ENDPOINT_ID, "{ }").getText(), "{\"seq\":2 }");
+        assertEquals(reSender.track(ENDPOINT_ID, MESSAGE).getText(), MESSAGE);
+    }
+
+    @Test
+    public void shouldNotStampMessagesWhenEndpointDoesNotOptIn() {
+        reSender.resend(ENDPOINT_ID);
+
+        assertEquals(reSender.track(ENDPOINT_ID, "{\"jsonrpc\":\"2.0\"}").getText(), "{\"jsonrpc\":\"2.0\"}");
+    }
+
+    @Test
+    public void shouldNotExpireBuffersOfConnectedEndpoints() throws Exception {
+        reSender = new MessagesReSender(sessionRegistry, 100, 1024, 1);
+
+        reSender.add(ENDPOINT_ID, MESSAGE);
+        Thread.sleep(5);
+        reSender.add("1", MESSAGE);
+
+        assertEquals(reSender.getBufferedCount(ENDPOINT_ID), 1);
+        assertEquals(reSender.getDroppedCount(), 0);
+    }
+
+    @Test
+    public void shouldExpireBuffersAfterTimeToLive() throws Exception {
+        when(sessionRegistry.get(ENDPOINT_ID)).thenReturn(Optional.empty());
+        reSender = new MessagesReSender(sessionRegistry, 100, 1024, 1);
+
+        reSender.add(ENDPOINT_ID, MESSAGE);
+        Thread.sleep(5);
+        reSender.add("1", MESSAGE);
+
+        assertEquals(reSender.getBufferedCount(ENDPOINT_ID), 0);
+        assertEquals(reSender.getBufferedCount("1"), 1);
+        assertEquals(reSender.getDroppedCount(), 1);
+    }
 }
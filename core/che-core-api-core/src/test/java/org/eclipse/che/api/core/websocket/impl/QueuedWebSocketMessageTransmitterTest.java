@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import org.eclipse.che.api.core.websocket.impl.MessagesReSender.SequencedMessage;
+import org.eclipse.che.api.core.websocket.impl.QueuedWebSocketMessageTransmitter.OverflowPolicy;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.Collections.singleton;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test for {@link QueuedWebSocketMessageTransmitter}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class QueuedWebSocketMessageTransmitterTest {
+    private static final String MESSAGE     = "message";
+    private static final String ENDPOINT_ID = "id";
+
+    @Mock
+    private WebSocketSessionRegistry registry;
+    @Mock
+    private MessagesReSender         reSender;
+    @Mock
+    private ExecutorService          executor;
+
+    @Mock
+    private Session              session;
+    @Mock
+    private RemoteEndpoint.Async remote;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        when(reSender.track(anyString(), anyString()))
+                .thenAnswer(invocation -> new SequencedMessage(sequence.getAndIncrement(), (String)invocation.getArguments()[1], 0));
+        doAnswer(invocation -> {
+            ((SendHandler)invocation.getArguments()[1]).onResult(new SendResult());
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+        when(session.getAsyncRemote()).thenReturn(remote);
+        when(session.isOpen()).thenReturn(true);
+
+        when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
+        when(registry.getEndpointIds()).thenReturn(singleton(ENDPOINT_ID));
+    }
+
+    @Test
+    public void shouldSendDirectMessageIfSessionIsOpen() throws IOException {
+        runTasksImmediately();
+
+        createTransmitter(10, OverflowPolicy.DROP_OLDEST).transmit(ENDPOINT_ID, MESSAGE);
+
+        verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
+        verify(reSender).track(ENDPOINT_ID, MESSAGE);
+        verify(reSender).delivered(ENDPOINT_ID, 0);
+        verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
+    }
+
+    @Test
+    public void shouldSendBroadcastingMessageToAllOpenSessions() throws IOException {
+        runTasksImmediately();
+
+        createTransmitter(10, OverflowPolicy.DROP_OLDEST).transmit(MESSAGE);
+
+        verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldAddMessageToPendingIfSessionIsNotOpened() throws IOException {
+        when(session.isOpen()).thenReturn(false);
+
+        createTransmitter(10, OverflowPolicy.DROP_OLDEST).transmit(ENDPOINT_ID, MESSAGE);
+
+        verify(remote, never()).sendText(eq(MESSAGE), any(SendHandler.class));
+        verify(reSender).add(ENDPOINT_ID, MESSAGE);
+    }
+
+    @Test
+    public void shouldDropOldestMessageWhenQueueIsFull() throws IOException {
+        QueuedWebSocketMessageTransmitter transmitter = createTransmitter(2, OverflowPolicy.DROP_OLDEST);
+
+        transmitter.transmit(ENDPOINT_ID, "0");
+        transmitter.transmit(ENDPOINT_ID, "1");
+        transmitter.transmit(ENDPOINT_ID, "2");
+
+        assertEquals(transmitter.getQueueDepth(ENDPOINT_ID), 2);
+        assertEquals(transmitter.getOverflowCount(ENDPOINT_ID), 1);
+
+        drainQueue();
+
+        verify(remote, never()).sendText(eq("0"), any(SendHandler.class));
+        verify(remote).sendText(eq("1"), any(SendHandler.class));
+        verify(remote).sendText(eq("2"), any(SendHandler.class));
+        assertEquals(transmitter.getQueueDepth(ENDPOINT_ID), 0);
+    }
+
+    @Test
+    public void shouldCoalesceMessagesWhenQueueIsFull() throws IOException {
+        QueuedWebSocketMessageTransmitter transmitter = createTransmitter(2, OverflowPolicy.COALESCE);
+
+        transmitter.transmit(ENDPOINT_ID, "{\"id\":\"0\"}");
+        transmitter.transmit(ENDPOINT_ID, "[{\"id\":\"1\"}]");
+        transmitter.transmit(ENDPOINT_ID, "{\"id\":\"2\"}");
+
+        assertEquals(transmitter.getQueueDepth(ENDPOINT_ID), 2);
+
+        drainQueue();
+
+        verify(remote).sendText(eq("[{\"id\":\"0\"},{\"id\":\"1\"}]"), any(SendHandler.class));
+        verify(remote).sendText(eq("{\"id\":\"2\"}"), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldDropOldestMessagesWhichDoNotFitIntoCoalescedBatch() throws IOException {
+        QueuedWebSocketMessageTransmitter transmitter = createTransmitter(2, OverflowPolicy.COALESCE);
+        String first = message(QueuedWebSocketMessageTransmitter.MAX_COALESCED_BATCH_LENGTH / 2);
+        String second = message(QueuedWebSocketMessageTransmitter.MAX_COALESCED_BATCH_LENGTH / 2);
+
+        transmitter.transmit(ENDPOINT_ID, first);
+        transmitter.transmit(ENDPOINT_ID, second);
+        transmitter.transmit(ENDPOINT_ID, "{\"id\":\"2\"}");
+
+        drainQueue();
+
+        verify(remote).sendText(eq("[" + second + "]"), any(SendHandler.class));
+        verify(remote).sendText(eq("{\"id\":\"2\"}"), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldSendNextMessageWhenPreviousOneIsCompleted() throws IOException {
+        ArgumentCaptor<SendHandler> handlerCaptor = ArgumentCaptor.forClass(SendHandler.class);
+        doAnswer(invocation -> null).when(remote).sendText(anyString(), any(SendHandler.class));
+        QueuedWebSocketMessageTransmitter transmitter = createTransmitter(10, OverflowPolicy.DROP_OLDEST);
+        transmitter.transmit(ENDPOINT_ID, "0");
+        transmitter.transmit(ENDPOINT_ID, "1");
+
+        drainQueue();
+
+        verify(remote).sendText(eq("0"), handlerCaptor.capture());
+        verify(remote, never()).sendText(eq("1"), any(SendHandler.class));
+
+        handlerCaptor.getValue().onResult(new SendResult());
+
+        verify(remote).sendText(eq("1"), any(SendHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldKeepQueueWhichIsDrainedWhenSessionIsRemoved() throws IOException {
+        ArgumentCaptor<SendHandler> handlerCaptor = ArgumentCaptor.forClass(SendHandler.class);
+        doAnswer(invocation -> null).when(remote).sendText(anyString(), any(SendHandler.class));
+        QueuedWebSocketMessageTransmitter transmitter = createTransmitter(10, OverflowPolicy.DROP_OLDEST);
+        ArgumentCaptor<Consumer> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(registry).addRemovalListener(listenerCaptor.capture());
+        transmitter.transmit(ENDPOINT_ID, "0");
+        drainQueue();
+
+        listenerCaptor.getValue().accept(ENDPOINT_ID);
+        transmitter.transmit(ENDPOINT_ID, "1");
+
+        // the message is queued to the queue which is drained, no concurrent draining is started
+        verify(executor).execute(any(Runnable.class));
+        verify(remote, never()).sendText(eq("1"), any(SendHandler.class));
+
+        verify(remote).sendText(eq("0"), handlerCaptor.capture());
+        handlerCaptor.getValue().onResult(new SendResult());
+
+        verify(remote).sendText(eq("1"), any(SendHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldResendBufferedMessagesBeforeMessagesQueuedForNewSession() throws IOException {
+        QueuedWebSocketMessageTransmitter transmitter = createTransmitter(10, OverflowPolicy.DROP_OLDEST);
+        ArgumentCaptor<Consumer> resendActionCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(reSender).setResendAction(resendActionCaptor.capture());
+        SequencedMessage queued = new SequencedMessage(1, "1", 0);
+        when(reSender.track(ENDPOINT_ID, "1")).thenReturn(queued);
+        when(reSender.getPending(ENDPOINT_ID)).thenReturn(Arrays.asList(new SequencedMessage(0, "0", 0), queued));
+        transmitter.transmit(ENDPOINT_ID, "1");
+
+        resendActionCaptor.getValue().accept(ENDPOINT_ID);
+        drainQueue();
+
+        InOrder inOrder = inOrder(remote);
+        inOrder.verify(remote).sendText(eq("0"), any(SendHandler.class));
+        inOrder.verify(remote).sendText(eq("1"), any(SendHandler.class));
+        verify(reSender).delivered(ENDPOINT_ID, 0);
+        verify(reSender).delivered(ENDPOINT_ID, 1);
+    }
+
+    @Test
+    public void shouldCloseSessionWhenQueueIsFull() throws IOException {
+        QueuedWebSocketMessageTransmitter transmitter = createTransmitter(1, OverflowPolicy.DISCONNECT);
+
+        transmitter.transmit(ENDPOINT_ID, "0");
+        transmitter.transmit(ENDPOINT_ID, "1");
+
+        verify(session).close(any(CloseReason.class));
+        assertEquals(transmitter.getQueueDepth(ENDPOINT_ID), 0);
+    }
+
+    private QueuedWebSocketMessageTransmitter createTransmitter(int queueSize, OverflowPolicy policy) {
+        return new QueuedWebSocketMessageTransmitter(registry, reSender, executor, queueSize, policy, 60_000);
+    }
+
+    private void runTasksImmediately() {
+        doAnswer(invocation -> {
+            ((Runnable)invocation.getArguments()[0]).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+
+    private void drainQueue() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(captor.capture());
+        runTasksImmediately();
+        captor.getValue().run();
+    }
+
+    private static String message(int length) {
+        char[] chars = new char[length];
+        Arrays.fill(chars, 'a');
+        return new String(chars);
+    }
+}
@@ -169,11 +169,20 @@ abstract class DtoImpl {
     }
 
     protected List<Method> getDtoGetters(Class<?> dto) {
-        final Map<String, Method> getters = new HashMap<>();
-        if (enclosingTemplate.isDtoInterface(dto)) {
-            addDtoGetters(dto, getters);
-            addSuperGetters(dto, getters);
+        if (!enclosingTemplate.isDtoInterface(dto)) {
+            return new ArrayList<>();
         }
+        return getDeclaredDtoGetters(dto);
+    }
+
+    /**
+     * Returns getters declared in DTO interface and its super interfaces which are not DTOs, the same as {@link #getDtoGetters(Class)}
+     * but DTO interface may be implemented in dependencies of current project.
+     */
+    protected List<Method> getDeclaredDtoGetters(Class<?> dto) {
+        final Map<String, Method> getters = new HashMap<>();
+        addDtoGetters(dto, getters);
+        addSuperGetters(dto, getters);
         return new ArrayList<>(getters.values());
     }
 
@@ -11,10 +11,13 @@
 
 package org.eclipse.che.dto.generator;
 
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.DtoTypeAdapter;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
 import org.eclipse.che.dto.shared.DelegateRule;
+import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.DTOImpl;
 import org.eclipse.che.dto.shared.DelegateTo;
 import org.eclipse.che.dto.shared.JsonArray;
@@ -24,6 +27,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.primitives.Primitives;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -38,8 +42,11 @@ import java.util.Set;
 /** Generates the source code for a generated Server DTO impl. */
 public class DtoImplServerTemplate extends DtoImpl {
     private static final String JSON_ARRAY_IMPL   = JsonArrayImpl.class.getCanonicalName();
+    private static final String COPY_ANY          = DtoFactory.class.getCanonicalName() + ".copyAny";
     private static final String JSON_MAP_IMPL     = JsonStringMapImpl.class.getCanonicalName();
     private static final String SERVER_DTO_MARKER = "  @" + DTOImpl.class.getCanonicalName() + "(\"server\")\n";
+    /** Simple name of type adapter class generated inside of DTO impl. */
+    static final String         TYPE_ADAPTER      = "GsonAdapter";
 
     DtoImplServerTemplate(DtoTemplate template, Class<?> superInterface) {
         super(template, superInterface);
@@ -75,6 +82,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
         emitCopyConstructor(methods, builder);
+        emitTypeAdapter(builder);
         // Delegation DTO methods.
         emitDelegateMethods(builder);
         // "builder" method, it is method that set field and return "this" instance
@@ -322,12 +330,9 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("      return gson.fromJson(jsonString, ").append(getImplClassName()).append(".class);\n");
         builder.append("    }\n\n");
     }
-    private static StringBuilder appendNaiveCopyJsonExpression(String inValue, StringBuilder builder) {
-        builder.append("((");
-        builder.append(inValue);
-        builder.append(") != null ? new JsonParser().parse((");
-        builder.append(inValue);
-        builder.append(").toString()) : null)");
+    /** Generates an expression which creates deep copy of value that may be any JSON value. */
+    private static StringBuilder appendCopyAnyExpression(String inValue, StringBuilder builder) {
+        builder.append(COPY_ANY).append("(").append(inValue).append(")");
         return builder;
     }
 
@@ -504,7 +509,7 @@ public class DtoImplServerTemplate extends DtoImpl {
             builder.append(i).append("}\n");
         } else if (isAny(rawClass)) {
             builder.append(i).append("this.").append(fieldName).append(" = ");
-            appendNaiveCopyJsonExpression(origin + "." + getterName + "()", builder).append(";\n");
+            appendCopyAnyExpression(origin + "." + getterName + "()", builder).append(";\n");
         } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
             builder.append(i).append(rawTypeName).append(" ").append(fieldNameIn).append(" = ").append(origin).append(".")
                    .append(getterName).append("();\n");
@@ -558,6 +563,8 @@ public class DtoImplServerTemplate extends DtoImpl {
             }
             if (getEnclosingTemplate().isDtoInterface(childRawType)) {
                 emitCheckNullAndCopyDto(childRawType, childVarIn, builder);
+            } else if (isAny(childRawType)) {
+                appendCopyAnyExpression(childVarIn, builder);
             } else {
                 builder.append(childVarIn);
             }
@@ -571,6 +578,180 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append(fieldName).append(" == null ? null : ").append("new ").append(implName).append("(").append(fieldName).append(")");
     }
 
+    /**
+     * Emits a Gson type adapter of the impl which reads and writes fields of the impl and its super impls directly,
+     * see {@link DtoTypeAdapter}. Fields are written in the same order as Gson's reflective adapter writes them.
+     */
+    private void emitTypeAdapter(StringBuilder builder) {
+        final String implClassName = getImplClassName();
+        final List<Method> getters = getFieldGetters();
+        builder.append("    public static class ").append(TYPE_ADAPTER).append(" extends ")
+               .append(DtoTypeAdapter.class.getCanonicalName()).append("<").append(implClassName).append("> {\n");
+        for (Method getter : getters) {
+            if (isWrittenWithAdapter(getter.getGenericReturnType())) {
+                builder.append("      private final com.google.gson.TypeAdapter<").append(getAdapterTypeName(getter.getGenericReturnType()))
+                       .append("> ").append(getAdapterName(getter)).append(";\n");
+            }
+        }
+        builder.append("\n");
+        builder.append("      public ").append(TYPE_ADAPTER).append("(Gson gson) {\n");
+        builder.append("        super(gson);\n");
+        for (Method getter : getters) {
+            final Type type = getter.getGenericReturnType();
+            if (isWrittenWithAdapter(type)) {
+                builder.append("        this.").append(getAdapterName(getter)).append(" = gson.getAdapter(");
+                if (type instanceof Class<?>) {
+                    builder.append(((Class<?>)type).getCanonicalName()).append(".class");
+                } else {
+                    builder.append("new com.google.gson.reflect.TypeToken<").append(getImplName(type, false)).append(">() {}");
+                }
+                builder.append(");\n");
+            }
+        }
+        builder.append("      }\n\n");
+
+        builder.append("      @Override\n");
+        builder.append("      public void write(com.google.gson.stream.JsonWriter out, ").append(implClassName)
+               .append(" value) throws java.io.IOException {\n");
+        builder.append("        if (value == null) {\n");
+        builder.append("          out.nullValue();\n");
+        builder.append("          return;\n");
+        builder.append("        }\n");
+        builder.append("        out.beginObject();\n");
+        for (Method getter : getters) {
+            builder.append("        out.name(").append(quoteStringLiteral(getJsonFieldName(getter))).append(");\n");
+            builder.append("        ");
+            emitWriteField(getter, builder);
+        }
+        builder.append("        out.endObject();\n");
+        builder.append("      }\n\n");
+
+        builder.append("      @Override\n");
+        builder.append("      public ").append(implClassName)
+               .append(" read(com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        builder.append("        if (nextNull(in)) {\n");
+        builder.append("          return null;\n");
+        builder.append("        }\n");
+        builder.append("        final ").append(implClassName).append(" value = new ").append(implClassName).append("();\n");
+        builder.append("        in.beginObject();\n");
+        builder.append("        while (in.hasNext()) {\n");
+        builder.append("          switch (in.nextName()) {\n");
+        for (Method getter : getters) {
+            builder.append("            case ").append(quoteStringLiteral(getJsonFieldName(getter))).append(":\n");
+            builder.append("              ");
+            emitReadField(getter, builder);
+            builder.append("              break;\n");
+        }
+        builder.append("            default:\n");
+        builder.append("              in.skipValue();\n");
+        builder.append("          }\n");
+        builder.append("        }\n");
+        builder.append("        in.endObject();\n");
+        builder.append("        return value;\n");
+        builder.append("      }\n");
+        builder.append("    }\n\n");
+    }
+
+    private void emitWriteField(Method getter, StringBuilder builder) {
+        final Type type = getter.getGenericReturnType();
+        final String value = "value." + getJavaFieldName(getter.getName());
+        if (isWrittenWithAdapter(type)) {
+            final Class<?> rawClass = getRawClass(type);
+            if (type instanceof Class<?> && !rawClass.isPrimitive() && !Modifier.isFinal(rawClass.getModifiers())
+                && !rawClass.isEnum() && !isAny(rawClass) && !isDto(rawClass)) {
+                // value of a subclass is written with adapter of its own class as Gson does it
+                builder.append("writeValue(out, this.").append(getAdapterName(getter)).append(", ")
+                       .append(rawClass.getCanonicalName()).append(".class, ").append(value).append(");\n");
+            } else {
+                builder.append("this.").append(getAdapterName(getter)).append(".write(out, ").append(value).append(");\n");
+            }
+        } else if (type == Boolean.class) {
+            builder.append("writeBoolean(out, ").append(value).append(");\n");
+        } else if (type == double.class) {
+            builder.append("writeDouble(out, ").append(value).append(");\n");
+        } else if (type == float.class || !((Class<?>)type).isPrimitive() && isNumber((Class<?>)type)) {
+            builder.append("writeNumber(out, ").append(value).append(");\n");
+        } else {
+            // strings, booleans and integral numbers
+            builder.append("out.value(").append(value).append(");\n");
+        }
+    }
+
+    private void emitReadField(Method getter, StringBuilder builder) {
+        final Type type = getter.getGenericReturnType();
+        final String value = "value." + getJavaFieldName(getter.getName());
+        if (isWrittenWithAdapter(type)) {
+            if (getRawClass(type).isPrimitive()) {
+                // null is not assigned to primitive field
+                final String readValue = getJavaFieldName(getter.getName()) + "Value";
+                builder.append("final ").append(getAdapterTypeName(type)).append(" ").append(readValue).append(" = this.")
+                       .append(getAdapterName(getter)).append(".read(in);\n");
+                builder.append("              if (").append(readValue).append(" != null) {\n");
+                builder.append("                ").append(value).append(" = ").append(readValue).append(";\n");
+                builder.append("              }\n");
+            } else {
+                builder.append(value).append(" = this.").append(getAdapterName(getter)).append(".read(in);\n");
+            }
+            return;
+        }
+        final Class<?> rawClass = (Class<?>)type;
+        final String next = "next" + Primitives.unwrap(rawClass).getSimpleName().substring(0, 1).toUpperCase()
+                            + Primitives.unwrap(rawClass).getSimpleName().substring(1) + "(in)";
+        if (rawClass == String.class) {
+            builder.append(value).append(" = nextNull(in) ? null : nextString(in);\n");
+        } else if (rawClass.isPrimitive()) {
+            builder.append("if (!nextNull(in)) {\n");
+            builder.append("                ").append(value).append(" = ").append(next).append(";\n");
+            builder.append("              }\n");
+        } else {
+            builder.append(value).append(" = nextNull(in) ? null : ").append(rawClass.getCanonicalName()).append(".valueOf(")
+                   .append(next).append(");\n");
+        }
+    }
+
+    /** Tests whether field of the given type is read and written with Gson adapter of its type. */
+    private static boolean isWrittenWithAdapter(Type type) {
+        if (!(type instanceof Class<?>)) {
+            return true;
+        }
+        final Class<?> rawClass = Primitives.unwrap((Class<?>)type);
+        return rawClass != String.class && (!rawClass.isPrimitive() || rawClass == char.class);
+    }
+
+    private boolean isDto(Class<?> type) {
+        return getEnclosingTemplate().isDtoInterface(type) || type.isAnnotationPresent(DTO.class);
+    }
+
+    private String getAdapterTypeName(Type type) {
+        if (type instanceof Class<?> && ((Class<?>)type).isPrimitive()) {
+            return Primitives.wrap((Class<?>)type).getCanonicalName();
+        }
+        return getImplName(type, false);
+    }
+
+    private String getAdapterName(Method getter) {
+        return getJavaFieldName(getter.getName()) + "Adapter";
+    }
+
+    /**
+     * Returns getters of fields declared by the impl and by its super impls in the order Gson's reflective adapter
+     * serializes the fields, i.e. fields of the impl go before fields of its super impl. Each getter is taken from
+     * the DTO interface which impl declares the field, so return type of the getter is type of the field.
+     */
+    private List<Method> getFieldGetters() {
+        final List<Method> getters = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        for (Class<?> dto = getDtoInterface(); dto != null; dto = getSuperDtoInterface(dto)) {
+            final Set<String> superGetterNames = getSuperGetterNames(dto);
+            for (Method getter : getDeclaredDtoGetters(dto)) {
+                if (!superGetterNames.contains(getter.getName()) && names.add(getter.getName())) {
+                    getters.add(getter);
+                }
+            }
+        }
+        return getters;
+    }
+
     /** Emit a method that ensures a collection is initialized. */
     private void emitEnsureCollection(Method method, String fieldName, StringBuilder builder) {
         builder.append("    protected void ");
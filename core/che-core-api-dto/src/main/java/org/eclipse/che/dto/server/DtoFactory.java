@@ -16,6 +16,9 @@ import com.google.common.cache.LoadingCache;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
@@ -35,8 +38,10 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
@@ -80,6 +85,16 @@ public final class DtoFactory {
         return dtoGson;
     }
 
+    /**
+     * Creates a {@link Gson} which is configured the same as {@link #getGson()} but serializes/deserializes DTOs
+     * with Gson's reflective adapters instead of adapters generated for DTO implementations.
+     *
+     * @return A Gson.
+     */
+    public Gson createReflectiveGson() {
+        return createGson(false);
+    }
+
     /**
      * Creates new instance of class which implements specified DTO interface.
      *
@@ -96,10 +111,7 @@ public final class DtoFactory {
     // Additional mapping for implementation of DTO interfaces.
     // It helps avoid reflection when need create copy of exited DTO instance.
     private final Map<Class<?>, DtoProvider<?>> dtoImpl2Providers      = new ConcurrentHashMap<>();
-    private final Gson dtoGson = new GsonBuilder()
-            .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Collection.class, Collections.emptyList()))
-            .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Map.class, Collections.emptyMap()))
-            .registerTypeAdapterFactory(new DtoInterfaceTAF()).create();
+    private final Gson dtoGson = createGson(true);
 
     /**
      * Created deep copy of DTO object.
@@ -144,6 +156,51 @@ public final class DtoFactory {
         return (T)provider.clone(origin);
     }
 
+    /**
+     * Creates deep copy of value of DTO property which may hold any JSON value. JSON elements, maps and lists are copied
+     * recursively, strings, numbers and booleans are immutable and returned as is, any other value is copied through its
+     * JSON representation.
+     *
+     * @param value
+     *         value of property
+     * @return copy
+     */
+    public static Object copyAny(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof JsonPrimitive || value instanceof JsonNull) {
+            return value;
+        }
+        if (value instanceof JsonObject) {
+            final JsonObject copy = new JsonObject();
+            for (Map.Entry<String, JsonElement> entry : ((JsonObject)value).entrySet()) {
+                copy.add(entry.getKey(), (JsonElement)copyAny(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof com.google.gson.JsonArray) {
+            final com.google.gson.JsonArray copy = new com.google.gson.JsonArray();
+            for (JsonElement element : (com.google.gson.JsonArray)value) {
+                copy.add((JsonElement)copyAny(element));
+            }
+            return copy;
+        }
+        if (value instanceof Map) {
+            final Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+                copy.put(entry.getKey(), copyAny(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List) {
+            final List<Object> copy = new ArrayList<>(((List<?>)value).size());
+            for (Object element : (List<?>)value) {
+                copy.add(copyAny(element));
+            }
+            return copy;
+        }
+        return getInstance().getGson().toJsonTree(value);
+    }
+
     /**
      * Shortcut for {@code DtoFactory.getInstance().clone(T dtoObject)}
      *
@@ -423,9 +480,22 @@ public final class DtoFactory {
         return dtoInterface2Providers.get(dtoInterface) != null;
     }
 
+    private Gson createGson(boolean generatedAdapters) {
+        final GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Collection.class, Collections.emptyList()))
+                .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Map.class, Collections.emptyMap()))
+                .registerTypeAdapterFactory(new DtoInterfaceTAF());
+        if (generatedAdapters) {
+            builder.registerTypeAdapterFactory(new DtoImplTAF());
+        }
+        return builder.create();
+    }
+
     /**
      * A specialization of Gson's {@link ReflectiveTypeAdapterFactory} delegates operation on DTO interfaces to the
      * corresponding implementation classes. The implementation classes generated correctly by the DTO Gson.
+     * Values of other classes which implement DTO interface, e.g. implementations of DTO interfaces which extend it,
+     * are written with adapters of their own classes.
      * 
      * @author tareq.sha@gmail.com
      */
@@ -434,8 +504,37 @@ public final class DtoFactory {
         @SuppressWarnings("unchecked")
         public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
             DtoProvider<?> prov = dtoInterface2Providers.get(type.getRawType());
+            if (prov == null) {
+                return null;
+            }
+            final Class<?> implClass = prov.getImplClass();
+            final TypeAdapter<T> delegate = (TypeAdapter<T>)gson.getAdapter(implClass);
+            return new TypeAdapter<T>() {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    if (value == null || value.getClass() == implClass) {
+                        delegate.write(out, value);
+                    } else {
+                        ((TypeAdapter<T>)gson.getAdapter(value.getClass())).write(out, value);
+                    }
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    return delegate.read(in);
+                }
+            };
+        }
+    }
+
+    /** Uses adapters generated for DTO implementations instead of Gson's reflective adapters, see {@link DtoTypeAdapter}. */
+    private class DtoImplTAF implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            DtoProvider<?> prov = dtoImpl2Providers.get(type.getRawType());
             if (prov != null) {
-                return (TypeAdapter<T>) gson.getAdapter(prov.getImplClass());
+                return (TypeAdapter<T>)prov.getTypeAdapter(gson);
             }
             return null;
         }
@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.dto.server;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 
 /**
  * Provides implementation of DTO interface.
@@ -27,4 +29,15 @@ public interface DtoProvider<DTO> {
     DTO newInstance();
 
     DTO clone(DTO origin);
+
+    /**
+     * Returns adapter which reads and writes JSON representation of DTO implementation without reflection
+     * or {@code null} if Gson's reflective adapter should be used.
+     *
+     * @param gson
+     *         Gson which adapters are used for fields of complex types
+     */
+    default TypeAdapter<? extends DTO> getTypeAdapter(Gson gson) {
+        return null;
+    }
 }
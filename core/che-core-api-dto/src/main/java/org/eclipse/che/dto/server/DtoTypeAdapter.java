@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Base class of type adapters generated for server implementations of DTO interfaces.
+ *
+ * <p>Generated adapter reads and writes fields of simple types directly with {@link JsonReader} and {@link JsonWriter}
+ * and delegates fields of other types to adapters of the {@link Gson} instance it is created for. Values are read and
+ * written the same way as Gson's reflective adapter does it, but without reflective access to fields, lookup of bound
+ * fields by name and lookup of adapters of runtime types of field values.
+ *
+ * @see DtoProvider#getTypeAdapter(Gson)
+ */
+public abstract class DtoTypeAdapter<T> extends TypeAdapter<T> {
+    protected final Gson gson;
+
+    protected DtoTypeAdapter(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Writes value with adapter of its runtime type if it differs from the declared type of field
+     * or with adapter of the declared type otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    protected void writeValue(JsonWriter out, TypeAdapter<?> declaredTypeAdapter, Class<?> declaredType, Object value)
+            throws IOException {
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>)declaredTypeAdapter;
+        if (value != null && value.getClass() != declaredType) {
+            adapter = (TypeAdapter<Object>)gson.getAdapter(value.getClass());
+        }
+        adapter.write(out, value);
+    }
+
+    protected static void writeBoolean(JsonWriter out, Boolean value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.value(value.booleanValue());
+        }
+    }
+
+    protected static void writeDouble(JsonWriter out, double value) throws IOException {
+        checkValidFloatingPoint(value);
+        out.value(value);
+    }
+
+    /** Writes number, float values are written with {@link Float#toString()} as Gson does it. */
+    protected static void writeNumber(JsonWriter out, Number value) throws IOException {
+        if (value instanceof Double || value instanceof Float) {
+            checkValidFloatingPoint(value.doubleValue());
+        }
+        out.value(value);
+    }
+
+    /** Consumes next token and returns {@code true} if it is JSON null, otherwise returns {@code false}. */
+    protected static boolean nextNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    protected static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    protected static boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    protected static int nextInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    protected static long nextLong(JsonReader in) throws IOException {
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    protected static short nextShort(JsonReader in) throws IOException {
+        return (short)nextInt(in);
+    }
+
+    protected static byte nextByte(JsonReader in) throws IOException {
+        return (byte)nextInt(in);
+    }
+
+    protected static double nextDouble(JsonReader in) throws IOException {
+        return in.nextDouble();
+    }
+
+    protected static float nextFloat(JsonReader in) throws IOException {
+        return (float)in.nextDouble();
+    }
+
+    private static void checkValidFloatingPoint(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a valid double value as per JSON specification. To override this"
+                                               + " behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.");
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.eclipse.che.dto.definitions.DTOHierarchy;
 import org.eclipse.che.dto.definitions.DtoWithAny;
 import org.eclipse.che.dto.definitions.DtoWithDelegate;
 import org.eclipse.che.dto.definitions.DtoWithFieldNames;
+import org.eclipse.che.dto.definitions.DtoWithPrimitives;
 import org.eclipse.che.dto.definitions.SimpleDto;
 import org.eclipse.che.dto.definitions.DTOHierarchy.GrandchildDto;
 import org.eclipse.che.dto.definitions.model.Model;
@@ -32,12 +33,14 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -174,6 +177,75 @@ public class ServerDtoTest {
         dtoFactory.toJson(dto1);
     }
 
+    @Test
+    public void testCloneWithAnyCopiesValuesDeeply() throws Exception {
+        DtoWithAny dto = dtoFactory.createDtoFromJson("{\"stuff\":{\"a\":\"x y\",\"b\":[1,2]},\"objects\":[{\"c\":\"z\"}]}",
+                                                      DtoWithAny.class);
+
+        DtoWithAny copy = dtoFactory.clone(dto);
+
+        assertEquals(copy, dto);
+        assertNotSame(copy.getStuff(), dto.getStuff());
+        assertNotSame(copy.getObjects().get(0), dto.getObjects().get(0));
+    }
+
+    @Test
+    public void testGeneratedAdaptersWriteSameJsonAsReflectiveGson() throws Exception {
+        Gson reflectiveGson = dtoFactory.createReflectiveGson();
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("name").withId(1).withDefault("default");
+        ComplicatedDto complicatedDto = dtoFactory.createDto(ComplicatedDto.class)
+                                                  .withStrings(asList("a", "b"))
+                                                  .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                                                  .withMap(Collections.singletonMap("key", simpleDto))
+                                                  .withSimpleDtos(asList(simpleDto, null))
+                                                  .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE)));
+        GrandchildDto grandchildDto = dtoFactory.createDto(GrandchildDto.class);
+        grandchildDto.setDtoField("dto-field");
+        // value of a DTO field is a subclass of the field type
+        DTOHierarchy.ChildDto childDto = dtoFactory.createDto(DTOHierarchy.ChildDto.class).withChildField("child-field");
+        childDto.setShadowedField(grandchildDto);
+
+        for (Object dto : asList(complicatedDto, dtoFactory.createDto(ComplicatedDto.class), childDto, createDtoWithPrimitives())) {
+            assertEquals(dtoFactory.getGson().toJson(dto), reflectiveGson.toJson(dto));
+        }
+    }
+
+    @Test
+    public void testDtoWithPrimitivesSerializerAndDeserializer() throws Exception {
+        DtoWithPrimitives dto = createDtoWithPrimitives();
+
+        DtoWithPrimitives result = dtoFactory.createDtoFromJson(dtoFactory.toJson(dto), DtoWithPrimitives.class);
+
+        assertEquals(result, dto);
+    }
+
+    @Test
+    public void testDeserializerOfDtoWithPrimitivesSkipsNullsAndUnknownFields() throws Exception {
+        String json = "{\"intValue\":\"12\",\"booleanValue\":\"true\",\"longValue\":null,\"boxedInt\":null,\"unknown\":{\"a\":[1]}}";
+
+        DtoWithPrimitives dto = dtoFactory.createDtoFromJson(json, DtoWithPrimitives.class);
+
+        assertEquals(dto, dtoFactory.createDto(DtoWithPrimitives.class).withIntValue(12).withBooleanValue(true));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSerializerFailsOnNaN() throws Exception {
+        dtoFactory.toJson(dtoFactory.createDto(DtoWithPrimitives.class).withDoubleValue(Double.NaN));
+    }
+
+    private static DtoWithPrimitives createDtoWithPrimitives() {
+        return dtoFactory.createDto(DtoWithPrimitives.class)
+                         .withIntValue(-7)
+                         .withLongValue(1L << 40)
+                         .withDoubleValue(1.1)
+                         .withFloatValue(1.1f)
+                         .withBooleanValue(true)
+                         .withCharValue('x')
+                         .withBoxedInt(300)
+                         .withBoxedDouble(2.5)
+                         .withBoxedBoolean(false);
+    }
+
     /** Intentionally call several times to ensure non-reference equality */
     private static JsonElement createTestValueForAny() {
         return new JsonParser().parse("{a:100,b:{c:'blah'}}");
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.definitions;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * DTO for testing that generated type adapters read and write primitive and boxed values the same way Gson does it.
+ */
+@DTO
+public interface DtoWithPrimitives {
+    int getIntValue();
+
+    DtoWithPrimitives withIntValue(int intValue);
+
+    long getLongValue();
+
+    DtoWithPrimitives withLongValue(long longValue);
+
+    double getDoubleValue();
+
+    DtoWithPrimitives withDoubleValue(double doubleValue);
+
+    float getFloatValue();
+
+    DtoWithPrimitives withFloatValue(float floatValue);
+
+    boolean isBooleanValue();
+
+    DtoWithPrimitives withBooleanValue(boolean booleanValue);
+
+    char getCharValue();
+
+    DtoWithPrimitives withCharValue(char charValue);
+
+    Integer getBoxedInt();
+
+    DtoWithPrimitives withBoxedInt(Integer boxedInt);
+
+    Double getBoxedDouble();
+
+    DtoWithPrimitives withBoxedDouble(Double boxedDouble);
+
+    Boolean getBoxedBoolean();
+
+    DtoWithPrimitives withBoxedBoolean(Boolean boxedBoolean);
+}
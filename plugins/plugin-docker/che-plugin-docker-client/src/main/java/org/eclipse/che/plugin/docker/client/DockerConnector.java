@@ -295,6 +295,7 @@ public class DockerConnector {
                              (params.getTimeunit() == null) ? params.getTimeout() : params.getTimeunit().toSeconds(params.getTimeout());
 
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
                                                                   "/stop")) {
@@ -345,6 +346,7 @@ public class DockerConnector {
      */
     public void removeContainer(final RemoveContainerParams params) throws IOException {
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("DELETE")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer())) {
             addQueryParamIfNotNull(connection, "force", params.isForce());
@@ -377,6 +379,7 @@ public class DockerConnector {
      */
     public int waitContainer(final WaitContainerParams params) throws IOException {
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
                                                                   "/wait")) {
@@ -437,6 +440,7 @@ public class DockerConnector {
         final Boolean stream = params.isStream();
 
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/attach")
                                                             .query("stdout", 1)
@@ -466,6 +470,7 @@ public class DockerConnector {
     public void getContainerLogs(final GetContainerLogsParams params, MessageProcessor<LogMessage> containerLogsProcessor)
             throws IOException {
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("GET")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/logs")
                                                             .query("stdout", 1)
@@ -534,6 +539,7 @@ public class DockerConnector {
 
         byte[] entityBytesArray = toJson(execStart).getBytes(StandardCharsets.UTF_8);
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/exec/" + params.getExecId() + "/start")
                                                             .header("Content-Type", MediaType.APPLICATION_JSON)
@@ -633,6 +639,7 @@ public class DockerConnector {
         DockerConnection connection = null;
         try {
             connection = connectionFactory.openConnection(dockerDaemonUri)
+                                          .streaming()
                                           .method("GET")
                                           .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/archive")
                                           .query("path", params.getSourcePath());
@@ -671,6 +678,7 @@ public class DockerConnector {
 
         try (InputStream tarStream = new BufferedInputStream(new FileInputStream(tarFile));
              DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("PUT")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
                                                                   "/archive")
@@ -707,6 +715,7 @@ public class DockerConnector {
         final Filters filters = params.getFilters();
 
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("GET")
                                                             .path(apiVersionPathPrefix + "/events")) {
             addQueryParamIfNotNull(connection, "since", params.getSinceSecond());
@@ -739,6 +748,7 @@ public class DockerConnector {
         if (params.getRemote() != null) {
             // build context provided by remote URL
             DockerConnection dockerConnection = connectionFactory.openConnection(dockerDaemonUri)
+                                                                 .streaming()
                                                                  .query("remote", params.getRemote());
             return buildImage(dockerConnection,
                               params,
@@ -753,6 +763,7 @@ public class DockerConnector {
             createTarArchive(tar, files);
             try (InputStream tarInput = new FileInputStream(tar)) {
                 DockerConnection dockerConnection = connectionFactory.openConnection(dockerDaemonUri)
+                                                                     .streaming()
                                                                      .header("Content-Type", "application/x-compressed-tar")
                                                                      .header("Content-Length", tar.length())
                                                                      .entity(tarInput);
@@ -863,6 +874,7 @@ public class DockerConnector {
      */
     public void removeImage(final RemoveImageParams params) throws IOException {
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("DELETE")
                                                             .path(apiVersionPathPrefix + "/images/" + params.getImage())) {
             addQueryParamIfNotNull(connection, "force", params.isForce());
@@ -913,6 +925,7 @@ public class DockerConnector {
         final String fullRepo = params.getFullRepo();
 
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/images/" + fullRepo + "/push")
                                                             .header("X-Registry-Auth",
@@ -979,6 +992,7 @@ public class DockerConnector {
     public String commit(final CommitParams params) throws IOException {
         // TODO: add option to pause container
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/commit")
                                                             .query("container", params.getContainer())) {
@@ -1023,6 +1037,7 @@ public class DockerConnector {
                         final ProgressMonitor progressMonitor,
                         final URI dockerDaemonUri) throws IOException {
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .streaming()
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/images/create")
                                                             .query("fromImage", params.getFullRepo())
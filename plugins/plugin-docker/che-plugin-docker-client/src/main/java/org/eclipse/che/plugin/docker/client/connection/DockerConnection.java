@@ -32,6 +32,7 @@ public abstract class DockerConnection implements Closeable {
     private Entity<?> entity;
     private StringBuilder         query   = new StringBuilder();
     private List<Pair<String, ?>> headers = new LinkedList<>();
+    private boolean               streaming;
 
     public DockerConnection method(String method) {
         this.method = method;
@@ -91,6 +92,20 @@ public abstract class DockerConnection implements Closeable {
         return this;
     }
 
+    /**
+     * Marks the request as a long living stream, e.g. attach, events or logs, or as a long running call,
+     * e.g. commit or stop, such request gets a dedicated connection to docker daemon instead of a persistent one,
+     * so it doesn't hold a connection of the pool which is shared by short requests.
+     */
+    public DockerConnection streaming() {
+        this.streaming = true;
+        return this;
+    }
+
+    protected boolean isStreaming() {
+        return streaming;
+    }
+
     public DockerResponse request() throws IOException {
         return request(method, path, query.toString(), headers, entity);
     }
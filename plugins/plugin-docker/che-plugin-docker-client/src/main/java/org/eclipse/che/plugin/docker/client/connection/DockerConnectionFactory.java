@@ -15,19 +15,28 @@ import com.google.inject.Inject;
 import org.eclipse.che.plugin.docker.client.DockerCertificates;
 import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.net.ssl.SSLSocketFactory;
 import java.net.URI;
 
 /**
  * Factory for connections to docker API.
  *
  * <p>Detects connection implementation by checking docker daemon URI.
+ * Requests are sent over persistent connections of {@link DockerConnectionPool}
+ * unless the pool is disabled by setting max connections per daemon to 0,
+ * streaming requests always get dedicated connections.
  *
  * @author Alexander Garagatyi
  */
+@Singleton
 public class DockerConnectionFactory {
     public static final String CONNECTION_TIMEOUT_MS_PROPERTY      = "che.docker.tcp_connection_timeout_ms";
     public static final String CONNECTION_READ_TIMEOUT_MS_PROPERTY = "che.docker.tcp_connection_read_timeout_ms";
+    public static final String POOL_MAX_CONNECTIONS_PROPERTY       = "che.docker.connection_pool.max_connections_per_daemon";
+    public static final String POOL_IDLE_TIMEOUT_MS_PROPERTY       = "che.docker.connection_pool.idle_timeout_ms";
 
     @Inject(optional = true)
     @Named(CONNECTION_TIMEOUT_MS_PROPERTY)
@@ -37,14 +46,74 @@ public class DockerConnectionFactory {
     @Named(CONNECTION_READ_TIMEOUT_MS_PROPERTY)
     private int connectionReadTimeoutMs = 60000;
 
+    @Inject(optional = true)
+    @Named(POOL_MAX_CONNECTIONS_PROPERTY)
+    private int poolMaxConnectionsPerDaemon = 10;
+
+    @Inject(optional = true)
+    @Named(POOL_IDLE_TIMEOUT_MS_PROPERTY)
+    private long poolIdleTimeoutMs = 30000;
+
     private final DockerCertificates dockerCertificates;
 
+    private DockerConnectionPool connectionPool;
+
     @Inject
     public DockerConnectionFactory(DockerConnectorConfiguration connectorConfiguration) {
         this.dockerCertificates = connectorConfiguration.getDockerCertificates();
     }
 
     public DockerConnection openConnection(URI dockerDaemonUri) {
+        final DockerConnectionPool pool = getConnectionPool();
+        if (pool == null) {
+            return openDedicatedConnection(dockerDaemonUri);
+        }
+        if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
+            final String socketPath = dockerDaemonUri.getPath();
+            return new PooledDockerConnection(pool,
+                                              dockerDaemonUri.toString(),
+                                              // unix socket has no host, but docker requires a valid Host header
+                                              "localhost",
+                                              () -> DockerSocket.unix(socketPath),
+                                              () -> openDedicatedConnection(dockerDaemonUri));
+        }
+        final boolean https = "https".equals(dockerDaemonUri.getScheme());
+        if (https && dockerCertificates == null) {
+            throw new IllegalArgumentException("Certificates are required for https connection.");
+        } else if (!https && !"http".equals(dockerDaemonUri.getScheme())) {
+            throw new IllegalArgumentException(String.format("Invalid URL '%s', only http and https protocols are supported.",
+                                                             dockerDaemonUri));
+        }
+        final String host = dockerDaemonUri.getHost();
+        final int port = dockerDaemonUri.getPort() != -1 ? dockerDaemonUri.getPort() : (https ? 443 : 80);
+        final SSLSocketFactory sslSocketFactory = https ? dockerCertificates.getSslContext().getSocketFactory() : null;
+        return new PooledDockerConnection(pool,
+                                          dockerDaemonUri.getScheme() + "://" + host + ':' + port,
+                                          host + ':' + port,
+                                          () -> DockerSocket.tcp(host, port, sslSocketFactory, connectionTimeoutMs, connectionReadTimeoutMs),
+                                          () -> openDedicatedConnection(dockerDaemonUri));
+    }
+
+    /**
+     * Returns pool of persistent connections to docker daemons
+     * or {@code null} if requests are sent over dedicated connections.
+     */
+    public synchronized DockerConnectionPool getConnectionPool() {
+        if (connectionPool == null && poolMaxConnectionsPerDaemon > 0) {
+            connectionPool = new DockerConnectionPool(poolMaxConnectionsPerDaemon, poolIdleTimeoutMs, connectionTimeoutMs);
+        }
+        return connectionPool;
+    }
+
+    @PreDestroy
+    public synchronized void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.close();
+            connectionPool = null;
+        }
+    }
+
+    protected DockerConnection openDedicatedConnection(URI dockerDaemonUri) {
         if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
             return new UnixSocketConnection(dockerDaemonUri.getPath());
         } else {
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Pool of persistent connections to docker daemons.
+ *
+ * <p>Connections are kept separately for each daemon. The number of connections to one daemon
+ * which are in use at the same time is limited, a request waits for a free connection
+ * not longer than the lease timeout. Idle connections are closed when they are not used
+ * longer than the idle timeout.
+ *
+ * <p>The pool counts opened, reused, evicted and discarded connections,
+ * the counters are available with getters and are logged with debug level on each eviction.
+ */
+public class DockerConnectionPool implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerConnectionPool.class);
+
+    private final int                          maxConnectionsPerDaemon;
+    private final long                         idleTimeoutMs;
+    private final long                         leaseTimeoutMs;
+    private final ConcurrentMap<String, Daemon> daemons;
+    private final ScheduledExecutorService     evictor;
+
+    private final AtomicLong opened        = new AtomicLong();
+    private final AtomicLong reused        = new AtomicLong();
+    private final AtomicLong evicted       = new AtomicLong();
+    private final AtomicLong discarded     = new AtomicLong();
+    private final AtomicLong leaseTimeouts = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public DockerConnectionPool(int maxConnectionsPerDaemon, long idleTimeoutMs, long leaseTimeoutMs) {
+        if (maxConnectionsPerDaemon <= 0) {
+            throw new IllegalArgumentException("Max connections per daemon must be positive");
+        }
+        if (idleTimeoutMs <= 0) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        this.maxConnectionsPerDaemon = maxConnectionsPerDaemon;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.daemons = new ConcurrentHashMap<>();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("DockerConnectionEvictor-%d")
+                                                                                             .setDaemon(true)
+                                                                                             .build());
+        final long evictionPeriodMs = Math.max(idleTimeoutMs / 2, 1000);
+        evictor.scheduleWithFixedDelay(this::evictIdle, evictionPeriodMs, evictionPeriodMs, MILLISECONDS);
+    }
+
+    /**
+     * Leases a connection to the daemon, reuses an idle connection if there is one.
+     *
+     * @param daemon
+     *         key of the daemon
+     * @param opener
+     *         opens a new connection to the daemon if there is no idle one
+     * @throws IOException
+     *         when the connection can't be opened or there is no free connection in the lease timeout
+     */
+    DockerSocket lease(String daemon, DockerSocket.Opener opener) throws IOException {
+        return lease(daemon, opener, true);
+    }
+
+    /**
+     * Leases a new connection to the daemon, idle connections are not used.
+     *
+     * @see #lease(String, DockerSocket.Opener)
+     */
+    DockerSocket leaseNew(String daemon, DockerSocket.Opener opener) throws IOException {
+        return lease(daemon, opener, false);
+    }
+
+    /**
+     * Returns the connection to the pool.
+     *
+     * @param daemon
+     *         key of the daemon the connection was leased for
+     * @param socket
+     *         the leased connection
+     * @param reusable
+     *         whether the connection can be used by the next request,
+     *         connection is closed if it is not reusable
+     */
+    void release(String daemon, DockerSocket socket, boolean reusable) {
+        final Daemon target = getDaemon(daemon);
+        try {
+            if (reusable && !closed) {
+                socket.released();
+                synchronized (target) {
+                    target.idle.push(socket);
+                }
+            } else {
+                discarded.incrementAndGet();
+                socket.close();
+            }
+        } finally {
+            target.permits.release();
+        }
+    }
+
+    /** Returns the number of opened connections. */
+    public long getOpenedCount() {
+        return opened.get();
+    }
+
+    /** Returns the number of requests which were sent over an idle connection. */
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    /** Returns the number of idle connections which were closed after the idle timeout. */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    /** Returns the number of connections which were closed after request because they couldn't be reused. */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    /** Returns the number of requests which didn't get a connection in the lease timeout. */
+    public long getLeaseTimeoutsCount() {
+        return leaseTimeouts.get();
+    }
+
+    /** Returns the number of connections which are in use now. */
+    public int getLeasedCount() {
+        int leased = 0;
+        for (Daemon daemon : daemons.values()) {
+            leased += maxConnectionsPerDaemon - daemon.permits.availablePermits();
+        }
+        return leased;
+    }
+
+    /** Returns the number of idle connections. */
+    public int getIdleCount() {
+        int idle = 0;
+        for (Daemon daemon : daemons.values()) {
+            synchronized (daemon) {
+                idle += daemon.idle.size();
+            }
+        }
+        return idle;
+    }
+
+    /** Closes idle connections and stops eviction, connections which are in use are closed when released. */
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        for (Daemon daemon : daemons.values()) {
+            final List<DockerSocket> toClose;
+            synchronized (daemon) {
+                toClose = new ArrayList<>(daemon.idle);
+                daemon.idle.clear();
+            }
+            toClose.forEach(DockerSocket::close);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DockerConnectionPool{" +
+               "leased=" + getLeasedCount() +
+               ", idle=" + getIdleCount() +
+               ", opened=" + opened +
+               ", reused=" + reused +
+               ", evicted=" + evicted +
+               ", discarded=" + discarded +
+               ", leaseTimeouts=" + leaseTimeouts +
+               '}';
+    }
+
+    /** Closes connections which are idle longer than the idle timeout. */
+    void evictIdle() {
+        final long expired = System.currentTimeMillis() - idleTimeoutMs;
+        for (Daemon daemon : daemons.values()) {
+            final List<DockerSocket> toClose = new ArrayList<>();
+            synchronized (daemon) {
+                for (Iterator<DockerSocket> it = daemon.idle.iterator(); it.hasNext(); ) {
+                    final DockerSocket socket = it.next();
+                    if (socket.getLastUsed() <= expired) {
+                        it.remove();
+                        toClose.add(socket);
+                    }
+                }
+            }
+            evicted.addAndGet(toClose.size());
+            toClose.forEach(DockerSocket::close);
+        }
+        LOG.debug("Docker connections: {}", this);
+    }
+
+    private DockerSocket lease(String daemon, DockerSocket.Opener opener, boolean reuse) throws IOException {
+        if (closed) {
+            throw new IOException("Pool of docker connections is closed");
+        }
+        final Daemon target = getDaemon(daemon);
+        try {
+            if (!target.permits.tryAcquire(leaseTimeoutMs, MILLISECONDS)) {
+                leaseTimeouts.incrementAndGet();
+                throw new IOException(String.format("Timeout of %dms waiting for a connection to docker daemon '%s' reached",
+                                                    leaseTimeoutMs,
+                                                    daemon));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to docker daemon " + daemon);
+        }
+        try {
+            if (reuse) {
+                final DockerSocket idle = pollIdle(target);
+                if (idle != null) {
+                    reused.incrementAndGet();
+                    return idle;
+                }
+            }
+            final DockerSocket socket = opener.open();
+            opened.incrementAndGet();
+            return socket;
+        } catch (IOException | RuntimeException e) {
+            target.permits.release();
+            throw e;
+        }
+    }
+
+    /** Returns the most recently used idle connection which is not expired, closes the expired ones. */
+    private DockerSocket pollIdle(Daemon daemon) {
+        final long expired = System.currentTimeMillis() - idleTimeoutMs;
+        final Deque<DockerSocket> toClose = new ArrayDeque<>();
+        DockerSocket result = null;
+        synchronized (daemon) {
+            while (result == null && !daemon.idle.isEmpty()) {
+                final DockerSocket socket = daemon.idle.pop();
+                if (socket.getLastUsed() > expired) {
+                    result = socket;
+                } else {
+                    toClose.add(socket);
+                }
+            }
+        }
+        evicted.addAndGet(toClose.size());
+        toClose.forEach(DockerSocket::close);
+        return result;
+    }
+
+    private Daemon getDaemon(String daemon) {
+        return daemons.computeIfAbsent(daemon, key -> new Daemon(maxConnectionsPerDaemon));
+    }
+
+    private static class Daemon {
+        final Semaphore           permits;
+        final Deque<DockerSocket> idle;
+
+        Daemon(int maxConnections) {
+            this.permits = new Semaphore(maxConnections, true);
+            this.idle = new ArrayDeque<>();
+        }
+    }
+}
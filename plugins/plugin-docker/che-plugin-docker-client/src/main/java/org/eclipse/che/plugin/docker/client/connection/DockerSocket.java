@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.CountingOutputStream;
+
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Persistent connection to docker daemon which is kept in {@link DockerConnectionPool}.
+ *
+ * <p>Streams of the socket are buffered once and used by all the requests sent over the socket,
+ * so bytes read ahead by one response are not lost for the next one.
+ */
+abstract class DockerSocket implements Closeable {
+
+    /** Opens new sockets to a docker daemon. */
+    interface Opener {
+        DockerSocket open() throws IOException;
+    }
+
+    /** Opens socket to docker daemon which listens to the unix socket at the given path. */
+    static DockerSocket unix(String dockerSocketPath) throws IOException {
+        final int fd = UnixSocketConnection.connect(dockerSocketPath);
+        return new DockerSocket(new UnixSocketInputStream(fd), new UnixSocketOutputStream(fd)) {
+            @Override
+            void closeSocket() {
+                getCLibrary().close(fd);
+            }
+        };
+    }
+
+    /**
+     * Opens socket to docker daemon which listens to the given host and port.
+     *
+     * @param sslSocketFactory
+     *         factory of TLS sockets, {@code null} if the daemon is not secured
+     */
+    static DockerSocket tcp(String host,
+                            int port,
+                            SSLSocketFactory sslSocketFactory,
+                            int connectionTimeoutMs,
+                            int readTimeoutMs) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), connectionTimeoutMs);
+            socket.setSoTimeout(readTimeoutMs);
+            socket.setTcpNoDelay(true);
+            if (sslSocketFactory != null) {
+                socket = sslSocketFactory.createSocket(socket, host, port, true);
+                ((SSLSocket)socket).startHandshake();
+            }
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+        final Socket connected = socket;
+        return new DockerSocket(connected.getInputStream(), connected.getOutputStream()) {
+            @Override
+            void closeSocket() throws IOException {
+                connected.close();
+            }
+        };
+    }
+
+    private final InputStream          input;
+    private final OutputStream         output;
+    private final CountingOutputStream written;
+
+    private boolean reused;
+    private long    lastUsed;
+
+    private DockerSocket(InputStream input, OutputStream output) {
+        this.input = new BufferedInputStream(input);
+        this.written = new CountingOutputStream(output);
+        this.output = new BufferedOutputStream(written);
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    InputStream getInputStream() {
+        return input;
+    }
+
+    OutputStream getOutputStream() {
+        return output;
+    }
+
+    /** Returns the number of bytes written to the socket itself, bytes kept in the buffer are not counted. */
+    long getWrittenBytes() {
+        return written.getCount();
+    }
+
+    /** Returns {@code true} if the socket was used by a previous request. */
+    boolean isReused() {
+        return reused;
+    }
+
+    /** Returns the time when the socket was returned to the pool last time. */
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    void released() {
+        reused = true;
+        lastUsed = System.currentTimeMillis();
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeSocket();
+        } catch (IOException ignored) {
+        }
+    }
+
+    abstract void closeSocket() throws IOException;
+}
@@ -56,14 +56,17 @@ public class LimitedInputStream extends InputStream {
             return 0;
         }
 
-        return doRead(b, 0, len);
+        return doRead(b, off, len);
     }
 
     private int doRead(byte[] b, int off, int len) throws IOException {
         if (pos >= limit) {
             return -1;
         }
-        int n = input.read(b, 0, Math.min(len - off, limit - pos));
+        int n = input.read(b, off, Math.min(len, limit - pos));
+        if (n == -1) {
+            throw new IOException("Unexpected end of response from docker API");
+        }
         pos += n;
         return n;
     }
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.base.Strings;
+
+import org.eclipse.che.commons.lang.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Connection to docker API which sends requests over persistent connections of {@link DockerConnectionPool}.
+ *
+ * <p>The connection is returned to the pool when this connection is closed, if the response
+ * was read completely and daemon didn't ask to close it. Streaming requests,
+ * see {@link #streaming()}, are sent over dedicated connections.
+ *
+ * <p>If a reused connection turns out to be closed by daemon, the request is resent over a new
+ * connection only if none of its bytes was written to the socket or its method is GET or HEAD.
+ * Otherwise daemon might have processed it, so the failure is reported to the caller.
+ */
+public class PooledDockerConnection extends DockerConnection {
+    private static final Logger LOG = LoggerFactory.getLogger(PooledDockerConnection.class);
+
+    /** Max size of unread response body which is skipped to reuse the connection. */
+    static final int MAX_DRAINED_BYTES = 64 * 1024;
+
+    private final DockerConnectionPool       pool;
+    private final String                     daemon;
+    private final String                     host;
+    private final DockerSocket.Opener        opener;
+    private final Supplier<DockerConnection> dedicatedConnections;
+
+    private DockerConnection     dedicated;
+    private DockerSocket         socket;
+    private PooledDockerResponse response;
+
+    /**
+     * @param pool
+     *         pool of the connections
+     * @param daemon
+     *         key of the docker daemon in the pool
+     * @param host
+     *         value of the Host header
+     * @param opener
+     *         opens new connections to the daemon
+     * @param dedicatedConnections
+     *         supplies connections for streaming requests
+     */
+    PooledDockerConnection(DockerConnectionPool pool,
+                           String daemon,
+                           String host,
+                           DockerSocket.Opener opener,
+                           Supplier<DockerConnection> dedicatedConnections) {
+        this.pool = pool;
+        this.daemon = daemon;
+        this.host = host;
+        this.opener = opener;
+        this.dedicatedConnections = dedicatedConnections;
+    }
+
+    @Override
+    protected DockerResponse request(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
+            throws IOException {
+        if (isStreaming()) {
+            dedicated = dedicatedConnections.get();
+            return dedicated.request(method, path, query, headers, entity);
+        }
+        final boolean hasContentLength = headers.stream().anyMatch(header -> "Content-Length".equalsIgnoreCase(header.first));
+        // stream of known length is sent as is, other entities are buffered to be resent and to compute their length
+        final byte[] body = entity == null || (hasContentLength && entity instanceof StreamEntity) ? null : toBytes(entity);
+
+        socket = pool.lease(daemon, opener);
+        if (!send(method, path, query, headers, entity, body, hasContentLength)) {
+            if (entity != null && body == null) {
+                throw new IOException("Persistent connection to docker daemon is broken, request entity can't be resent");
+            }
+            // daemon closed the idle connection before the request reached it or the request is idempotent
+            pool.release(daemon, socket, false);
+            socket = null;
+            socket = pool.leaseNew(daemon, opener);
+            if (!send(method, path, query, headers, entity, body, hasContentLength)) {
+                throw new IOException("Docker daemon closed connection without response");
+            }
+        }
+        response = new PooledDockerResponse(socket.getInputStream(), method);
+        return response;
+    }
+
+    @Override
+    public void close() {
+        if (dedicated != null) {
+            dedicated.close();
+            return;
+        }
+        if (socket != null) {
+            boolean reusable = false;
+            if (response != null) {
+                try {
+                    reusable = response.consume(MAX_DRAINED_BYTES);
+                } catch (IOException e) {
+                    LOG.debug("Unable to read the rest of docker response, connection is closed. " + e.getMessage());
+                }
+            }
+            pool.release(daemon, socket, reusable);
+            socket = null;
+            response = null;
+        }
+    }
+
+    /**
+     * Sends the request and waits for the first byte of the response.
+     *
+     * @return {@code false} if the connection was reused and closed by daemon before the response
+     */
+    private boolean send(String method,
+                         String path,
+                         String query,
+                         List<Pair<String, ?>> headers,
+                         Entity<?> entity,
+                         byte[] body,
+                         boolean hasContentLength) throws IOException {
+        final long writtenBefore = socket.getWrittenBytes();
+        try {
+            final OutputStream output = socket.getOutputStream();
+            writeHttpHeaders(output, method, path, query, headers, hasContentLength ? null : body);
+            if (body != null) {
+                output.write(body);
+            } else if (entity != null) {
+                entity.writeTo(output);
+            }
+            output.flush();
+
+            final InputStream input = socket.getInputStream();
+            input.mark(1);
+            if (input.read() == -1) {
+                if (canResend(method, writtenBefore)) {
+                    return false;
+                }
+                throw new IOException("Docker daemon closed connection without response");
+            }
+            input.reset();
+            return true;
+        } catch (SocketTimeoutException e) {
+            throw e;
+        } catch (IOException e) {
+            if (canResend(method, writtenBefore)) {
+                LOG.debug("Persistent connection to docker daemon '{}' is broken. {}", daemon, e.getMessage());
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the request may be resent after the connection is broken. Daemon might have processed
+     * a request which was written to the socket, so only idempotent requests are resent in that case.
+     */
+    private boolean canResend(String method, long writtenBefore) {
+        return socket.isReused()
+               && (socket.getWrittenBytes() == writtenBefore || "GET".equals(method) || "HEAD".equals(method));
+    }
+
+    private void writeHttpHeaders(OutputStream output,
+                                  String method,
+                                  String path,
+                                  String query,
+                                  List<Pair<String, ?>> headers,
+                                  byte[] body) throws IOException {
+        final Writer writer = new OutputStreamWriter(output, ISO_8859_1);
+        writer.write(method);
+        writer.write(' ');
+        writer.write(path);
+        if (!Strings.isNullOrEmpty(query)) {
+            writer.write("?");
+            writer.write(query);
+        }
+        writer.write(" HTTP/1.1\r\n");
+        // Host header is mandatory in HTTP 1.1
+        writer.write("Host: ");
+        writer.write(host);
+        writer.write("\r\n");
+        for (Pair<String, ?> header : headers) {
+            writer.write(header.first);
+            writer.write(": ");
+            writer.write(String.valueOf(header.second));
+            writer.write("\r\n");
+        }
+        if (body != null) {
+            writer.write("Content-Length: ");
+            writer.write(Integer.toString(body.length));
+            writer.write("\r\n");
+        }
+        writer.write("\r\n");
+        writer.flush();
+    }
+
+    private static byte[] toBytes(Entity<?> entity) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        entity.writeTo(output);
+        return output.toByteArray();
+    }
+}
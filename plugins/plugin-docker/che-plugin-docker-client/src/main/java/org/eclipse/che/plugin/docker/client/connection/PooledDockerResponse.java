@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Response received over a persistent connection of {@link DockerConnectionPool}.
+ *
+ * <p>Closing of the response body doesn't close the connection,
+ * the rest of the body is drained by {@link #consume(int)} before the connection is reused.
+ */
+class PooledDockerResponse implements DockerResponse {
+    private static final InputStream EMPTY = new InputStream() {
+        @Override
+        public int read() throws IOException {
+            return -1;
+        }
+    };
+
+    private final UnixSocketDockerResponse response;
+    private final boolean                  head;
+
+    private InputStream body;
+
+    PooledDockerResponse(InputStream input, String method) {
+        this.response = new UnixSocketDockerResponse(input);
+        this.head = "HEAD".equals(method);
+    }
+
+    @Override
+    public int getStatus() throws IOException {
+        return response.getStatus();
+    }
+
+    @Override
+    public int getContentLength() throws IOException {
+        return response.getContentLength();
+    }
+
+    @Override
+    public String getContentType() throws IOException {
+        return response.getContentType();
+    }
+
+    @Override
+    public String getHeader(String name) throws IOException {
+        return response.getHeader(name);
+    }
+
+    @Override
+    public String[] getHeaders(String name) throws IOException {
+        return response.getHeaders(name);
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (body == null) {
+            body = new FilterInputStream(hasNoBody() ? EMPTY : response.getInputStream()) {
+                @Override
+                public void close() {
+                    // the connection is released by PooledDockerConnection
+                }
+            };
+        }
+        return body;
+    }
+
+    /**
+     * Reads the rest of the response body so the connection can be used by the next request.
+     *
+     * @param maxBytes
+     *         max number of bytes to skip, the connection is not reused if the body is bigger
+     * @return {@code true} if the connection can be reused
+     */
+    boolean consume(int maxBytes) throws IOException {
+        if ("close".equalsIgnoreCase(response.getHeader("Connection"))) {
+            return false;
+        }
+        if (hasNoBody()) {
+            return true;
+        }
+        if (response.getContentLength() < 0 && !"chunked".equals(response.getHeader("Transfer-Encoding"))) {
+            // body ends with the end of the connection
+            return false;
+        }
+        final InputStream data = getInputStream();
+        final byte[] buffer = new byte[4096];
+        int skipped = 0;
+        int n;
+        while ((n = data.read(buffer)) != -1) {
+            skipped += n;
+            if (skipped > maxBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasNoBody() throws IOException {
+        final int status = response.getStatus();
+        return head || status == 204 || status == 304 || (status >= 100 && status < 200);
+    }
+}
@@ -46,7 +46,7 @@ public class UnixSocketConnection extends DockerConnection {
     @Override
     protected DockerResponse request(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
             throws IOException {
-        fd = connect();
+        fd = connect(dockerSocketPath);
         final OutputStream output = new BufferedOutputStream(openOutputStream(fd));
         writeHttpHeaders(output, method, path, query, headers);
         if (entity != null) {
@@ -63,7 +63,7 @@ public class UnixSocketConnection extends DockerConnection {
         }
     }
 
-    private int connect() throws IOException {
+    static int connect(String dockerSocketPath) throws IOException {
         final CLibrary cLib = getCLibrary();
         int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
         if (fd == -1) {
@@ -72,6 +72,7 @@ public class UnixSocketConnection extends DockerConnection {
         final SockAddrUn sockAddr = new SockAddrUn(dockerSocketPath);
         int c = cLib.connect(fd, sockAddr, sockAddr.size());
         if (c == -1) {
+            cLib.close(fd);
             throw new ConnectException(String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
         }
         return fd;
@@ -95,7 +96,7 @@ public class UnixSocketConnection extends DockerConnection {
             writer.write("\r\n");
         }
         // Host header is mandatory in HTTP 1.1
-        writer.write("Host: \r\n\r\n");
+        writer.write("Host: localhost\r\n\r\n");
         writer.flush();
     }
 
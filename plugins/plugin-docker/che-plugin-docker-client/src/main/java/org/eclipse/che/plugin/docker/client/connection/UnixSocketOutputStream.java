@@ -15,6 +15,7 @@ import com.sun.jna.LastErrorException;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
 
@@ -40,9 +41,11 @@ public class UnixSocketOutputStream extends OutputStream {
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
+        // send reads from the beginning of the buffer
+        final byte[] buffer = off == 0 ? b : Arrays.copyOfRange(b, off, off + len);
         int n;
         try {
-            n = cLib.send(fd, b, len, 0);
+            n = cLib.send(fd, buffer, len, 0);
         } catch (LastErrorException e) {
             throw new IOException("error: " + cLib.strerror(e.getErrorCode()));
         }
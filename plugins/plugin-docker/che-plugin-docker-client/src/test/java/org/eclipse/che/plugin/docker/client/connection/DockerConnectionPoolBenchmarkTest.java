@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.eclipse.che.plugin.docker.client.DockerApiVersionPathPrefixProvider;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
+import org.eclipse.che.plugin.docker.client.DockerRegistryAuthResolver;
+import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
+import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
+import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetExecInfoParams;
+import org.eclipse.che.plugin.docker.client.params.InspectContainerParams;
+import org.eclipse.che.plugin.docker.client.params.StartContainerParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static java.lang.Boolean.getBoolean;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Measures docker API calls made on workspace start, sent over pooled and over dedicated connections
+ * to {@link StandInDockerDaemon}.
+ *
+ * <p>The benchmark is skipped by default, run it with {@code -Dche.docker.benchmark=true},
+ * the number of started workspaces can be changed with {@code -Dche.docker.benchmark.workspaces}.
+ */
+public class DockerConnectionPoolBenchmarkTest {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerConnectionPoolBenchmarkTest.class);
+
+    private static final int COUNT_OF_WORKSPACES = Integer.getInteger("che.docker.benchmark.workspaces", 500);
+    private static final int EXECS_PER_WORKSPACE = 5;
+
+    private StandInDockerDaemon          daemon;
+    private DockerConnectorConfiguration configuration;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        if (!getBoolean("che.docker.benchmark")) {
+            throw new SkipException("Benchmark is disabled, use -Dche.docker.benchmark=true to run it");
+        }
+        daemon = new StandInDockerDaemon();
+        configuration = mock(DockerConnectorConfiguration.class);
+        when(configuration.getDockerDaemonUri()).thenReturn(daemon.getUri());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        if (daemon != null) {
+            daemon.close();
+        }
+    }
+
+    @Test
+    public void comparePooledWithDedicatedConnections() throws Exception {
+        final DockerConnectionFactory dedicatedFactory = new DockerConnectionFactory(configuration) {
+            @Override
+            public DockerConnection openConnection(URI dockerDaemonUri) {
+                return openDedicatedConnection(dockerDaemonUri);
+            }
+        };
+        final DockerConnectionFactory pooledFactory = new DockerConnectionFactory(configuration);
+
+        // warm up
+        startWorkspaces(dedicatedFactory, 10);
+        startWorkspaces(pooledFactory, 10);
+        final int acceptedBefore = daemon.getAcceptedConnections();
+        final int requestsBefore = daemon.getRequests();
+
+        final long dedicatedTime = startWorkspaces(dedicatedFactory, COUNT_OF_WORKSPACES);
+        final int dedicatedConnections = daemon.getAcceptedConnections() - acceptedBefore;
+
+        final long pooledTime = startWorkspaces(pooledFactory, COUNT_OF_WORKSPACES);
+        final int pooledConnections = daemon.getAcceptedConnections() - acceptedBefore - dedicatedConnections;
+        final int requests = (daemon.getRequests() - requestsBefore) / 2;
+
+        LOG.info("{} workspace starts, {} docker API calls each: dedicated connections {}ms ({} connections), " +
+                 "pooled connections {}ms ({} connections), pool {}",
+                 COUNT_OF_WORKSPACES,
+                 requests / COUNT_OF_WORKSPACES,
+                 dedicatedTime,
+                 dedicatedConnections,
+                 pooledTime,
+                 pooledConnections,
+                 pooledFactory.getConnectionPool());
+        pooledFactory.closeConnectionPool();
+
+        assertEquals(dedicatedConnections, requests);
+        assertEquals(pooledConnections, 0);
+    }
+
+    /** Sends the calls which are made to docker API on workspace start, returns the time in milliseconds. */
+    private long startWorkspaces(DockerConnectionFactory factory, int count) throws IOException {
+        final DockerApiVersionPathPrefixProvider versionPrefix = mock(DockerApiVersionPathPrefixProvider.class);
+        when(versionPrefix.get()).thenReturn("");
+        final DockerConnector connector = new DockerConnector(configuration,
+                                                              factory,
+                                                              mock(DockerRegistryAuthResolver.class),
+                                                              versionPrefix);
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            final String container = connector.createContainer(CreateContainerParams.create(new ContainerConfig().withImage("eclipse/ubuntu_jdk8")))
+                                              .getId();
+            connector.startContainer(StartContainerParams.create(container));
+            connector.inspectContainer(InspectContainerParams.create(container));
+            for (int j = 0; j < EXECS_PER_WORKSPACE; j++) {
+                final String execId = connector.createExec(CreateExecParams.create(container, new String[] {"echo", "test"}))
+                                               .getId();
+                connector.getExecInfo(GetExecInfoParams.create(execId));
+            }
+        }
+        return NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
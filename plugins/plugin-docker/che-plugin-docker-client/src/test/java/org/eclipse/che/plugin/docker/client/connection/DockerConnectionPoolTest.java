@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.CharStreams;
+
+import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests {@link DockerConnectionPool} and {@link PooledDockerConnection} against {@link StandInDockerDaemon}.
+ */
+public class DockerConnectionPoolTest {
+
+    private static final String EXPECTED_BODY = "{\"Id\":\"f3a1c2\",\"Running\":true}";
+
+    private StandInDockerDaemon     daemon;
+    private DockerConnectionFactory factory;
+    private DockerConnectionPool    pool;
+    private URI                     daemonUri;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        daemon = new StandInDockerDaemon();
+        daemonUri = daemon.getUri();
+        factory = new DockerConnectionFactory(mock(DockerConnectorConfiguration.class));
+        pool = factory.getConnectionPool();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        factory.closeConnectionPool();
+        daemon.close();
+    }
+
+    @Test
+    public void shouldReuseConnectionForSequentialRequests() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(get("/containers/abc/json"), EXPECTED_BODY);
+        }
+
+        assertEquals(daemon.getAcceptedConnections(), 1);
+        assertEquals(pool.getOpenedCount(), 1);
+        assertEquals(pool.getReusedCount(), 4);
+        assertEquals(pool.getIdleCount(), 1);
+        assertEquals(pool.getLeasedCount(), 0);
+    }
+
+    @Test
+    public void shouldReuseConnectionAfterChunkedResponse() throws Exception {
+        assertEquals(get("/chunked/json"), EXPECTED_BODY);
+        assertEquals(get("/chunked/json"), EXPECTED_BODY);
+        assertEquals(get("/containers/abc/json"), EXPECTED_BODY);
+
+        assertEquals(daemon.getAcceptedConnections(), 1);
+        assertEquals(pool.getReusedCount(), 2);
+    }
+
+    @Test
+    public void shouldReuseConnectionAfterResponseWithoutBody() throws Exception {
+        try (DockerConnection connection = factory.openConnection(daemonUri)
+                                                  .method("POST")
+                                                  .path("/containers/abc/start")) {
+            assertEquals(connection.request().getStatus(), 204);
+        }
+        try (DockerConnection connection = factory.openConnection(daemonUri)
+                                                  .method("POST")
+                                                  .path("/containers/create")
+                                                  .header("Content-Type", "application/json")
+                                                  .entity("{\"Image\":\"codenvy/ubuntu_jdk8\"}".getBytes(UTF_8))) {
+            assertEquals(connection.request().getStatus(), 201);
+        }
+
+        assertEquals(daemon.getAcceptedConnections(), 1);
+        assertEquals(daemon.getRequests(), 2);
+    }
+
+    @Test
+    public void shouldReuseConnectionWhenResponseIsNotReadCompletely() throws Exception {
+        try (DockerConnection connection = factory.openConnection(daemonUri)
+                                                  .method("GET")
+                                                  .path("/containers/abc/json")) {
+            assertEquals(connection.request().getStatus(), 200);
+        }
+        assertEquals(get("/containers/abc/json"), EXPECTED_BODY);
+
+        assertEquals(daemon.getAcceptedConnections(), 1);
+    }
+
+    @Test
+    public void shouldNotReuseConnectionWhenTooBigResponseIsNotRead() throws Exception {
+        try (DockerConnection connection = factory.openConnection(daemonUri)
+                                                  .method("GET")
+                                                  .path("/big/json")) {
+            assertEquals(connection.request().getStatus(), 200);
+        }
+        assertEquals(get("/containers/abc/json"), EXPECTED_BODY);
+
+        assertEquals(daemon.getAcceptedConnections(), 2);
+        assertEquals(pool.getDiscardedCount(), 1);
+    }
+
+    @Test
+    public void shouldResendRequestWhenIdleConnectionIsClosedByDaemon() throws Exception {
+        assertEquals(get("/close/json"), EXPECTED_BODY);
+        // wait until daemon closes the connection
+        Thread.sleep(200);
+
+        assertEquals(get("/containers/abc/json"), EXPECTED_BODY);
+
+        assertEquals(daemon.getAcceptedConnections(), 2);
+        assertEquals(daemon.getRequests(), 2);
+    }
+
+    @Test
+    public void shouldNotResendPostRequestWhenIdleConnectionIsClosedByDaemon() throws Exception {
+        assertEquals(get("/close/json"), EXPECTED_BODY);
+        // wait until daemon closes the connection
+        Thread.sleep(200);
+
+        try (DockerConnection connection = factory.openConnection(daemonUri)
+                                                  .method("POST")
+                                                  .path("/containers/create")
+                                                  .header("Content-Type", "application/json")
+                                                  .entity("{\"Image\":\"codenvy/ubuntu_jdk8\"}".getBytes(UTF_8))) {
+            connection.request();
+            fail("Request which might be processed by daemon must not be resent");
+        } catch (IOException expected) {
+        }
+
+        assertEquals(daemon.getAcceptedConnections(), 1);
+        assertEquals(pool.getLeasedCount(), 0);
+    }
+
+    @Test
+    public void shouldUseDedicatedConnectionsForStreamingRequests() throws Exception {
+        assertEquals(get("/containers/abc/json"), EXPECTED_BODY);
+        for (int i = 0; i < 2; i++) {
+            try (DockerConnection connection = factory.openConnection(daemonUri)
+                                                      .method("GET")
+                                                      .path("/containers/abc/logs")
+                                                      .streaming()) {
+                assertEquals(read(connection.request()), EXPECTED_BODY);
+            }
+        }
+
+        assertEquals(daemon.getAcceptedConnections(), 3);
+        assertEquals(pool.getOpenedCount(), 1);
+        assertEquals(pool.getIdleCount(), 1);
+    }
+
+    @Test
+    public void shouldFailWhenConnectionIsNotFreedInLeaseTimeout() throws Exception {
+        final DockerConnectionPool pool = new DockerConnectionPool(1, 30000, 100);
+        final DockerSocket.Opener opener = () -> DockerSocket.tcp(daemonUri.getHost(), daemonUri.getPort(), null, 1000, 1000);
+        final DockerSocket leased = pool.lease("daemon", opener);
+        try {
+            pool.lease("daemon", opener);
+            fail("Lease must fail when all connections are in use");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Timeout"));
+        } finally {
+            pool.release("daemon", leased, true);
+        }
+
+        assertNotNull(pool.lease("daemon", opener));
+        assertEquals(pool.getLeaseTimeoutsCount(), 1);
+        assertEquals(pool.getReusedCount(), 1);
+        pool.close();
+    }
+
+    @Test
+    public void shouldEvictIdleConnections() throws Exception {
+        final DockerConnectionPool pool = new DockerConnectionPool(2, 50, 1000);
+        final DockerSocket.Opener opener = () -> DockerSocket.tcp(daemonUri.getHost(), daemonUri.getPort(), null, 1000, 1000);
+        pool.release("daemon", pool.lease("daemon", opener), true);
+        Thread.sleep(100);
+
+        pool.evictIdle();
+
+        assertEquals(pool.getIdleCount(), 0);
+        assertEquals(pool.getEvictedCount(), 1);
+        pool.close();
+    }
+
+    private String get(String path) throws IOException {
+        try (DockerConnection connection = factory.openConnection(daemonUri)
+                                                  .method("GET")
+                                                  .path(path)) {
+            return read(connection.request());
+        }
+    }
+
+    private static String read(DockerResponse response) throws IOException {
+        assertEquals(response.getStatus(), 200);
+        try (InputStreamReader reader = new InputStreamReader(response.getInputStream(), UTF_8)) {
+            return CharStreams.toString(reader);
+        }
+    }
+}
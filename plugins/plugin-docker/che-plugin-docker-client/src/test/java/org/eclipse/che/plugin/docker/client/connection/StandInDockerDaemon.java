@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local HTTP/1.1 server which answers like docker daemon and keeps connections alive.
+ *
+ * <ul>
+ * <li>POST requests are answered with 201 and {@code {"Id":"..."}}, POST to {@code .../start} with 204</li>
+ * <li>GET requests are answered with 200 and {@code {"Id":"..."}}</li>
+ * <li>path with {@code /chunked} is answered with chunked body</li>
+ * <li>path with {@code /big} is answered with body of 128KB</li>
+ * <li>path with {@code /close} closes connection after the response without {@code Connection: close} header</li>
+ * </ul>
+ * The connection is closed after response if request has {@code Connection: close} header.
+ */
+class StandInDockerDaemon implements Closeable {
+    private static final String BODY = "{\"Id\":\"f3a1c2\",\"Running\":true}";
+
+    private final ServerSocket                 serverSocket;
+    private final ExecutorService              executor;
+    private final AtomicInteger                accepted;
+    private final AtomicInteger                requests;
+    private final CopyOnWriteArrayList<Socket> sockets;
+
+    StandInDockerDaemon() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "StandInDockerDaemon");
+            thread.setDaemon(true);
+            return thread;
+        });
+        accepted = new AtomicInteger();
+        requests = new AtomicInteger();
+        sockets = new CopyOnWriteArrayList<>();
+        executor.execute(this::accept);
+    }
+
+    URI getUri() {
+        return URI.create("http://" + serverSocket.getInetAddress().getHostAddress() + ':' + serverSocket.getLocalPort());
+    }
+
+    /** Returns the number of accepted connections. */
+    int getAcceptedConnections() {
+        return accepted.get();
+    }
+
+    /** Returns the number of handled requests. */
+    int getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                accepted.incrementAndGet();
+                sockets.add(socket);
+                executor.execute(() -> serve(socket));
+            } catch (IOException ignored) {
+                // server is closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket ignored = socket) {
+            final InputStream input = new BufferedInputStream(socket.getInputStream());
+            final OutputStream output = new BufferedOutputStream(socket.getOutputStream());
+            for (; ; ) {
+                final String requestLine = readLine(input);
+                if (requestLine == null) {
+                    return;
+                }
+                int contentLength = 0;
+                boolean close = false;
+                for (String header = readLine(input); header != null && !header.isEmpty(); header = readLine(input)) {
+                    final String name = header.substring(0, header.indexOf(':')).trim();
+                    final String value = header.substring(header.indexOf(':') + 1).trim();
+                    if ("Content-Length".equalsIgnoreCase(name)) {
+                        contentLength = Integer.parseInt(value);
+                    } else if ("Connection".equalsIgnoreCase(name)) {
+                        close = "close".equalsIgnoreCase(value);
+                    }
+                }
+                for (int i = 0; i < contentLength; i++) {
+                    input.read();
+                }
+                requests.incrementAndGet();
+                final String[] parts = requestLine.split(" ");
+                respond(output, parts[0], parts[1], close);
+                output.flush();
+                if (close || parts[1].contains("/close")) {
+                    return;
+                }
+            }
+        } catch (IOException ignored) {
+            // connection is closed by client
+        }
+    }
+
+    private void respond(OutputStream output, String method, String path, boolean close) throws IOException {
+        final String connection = close ? "Connection: close\r\n" : "";
+        if ("POST".equals(method) && path.endsWith("/start")) {
+            output.write(("HTTP/1.1 204 No Content\r\n" + connection + "\r\n").getBytes(ISO_8859_1));
+            return;
+        }
+        final String status = "POST".equals(method) ? "201 Created" : "200 OK";
+        if (path.contains("/chunked")) {
+            final byte[] half = BODY.substring(0, BODY.length() / 2).getBytes(UTF_8);
+            final byte[] rest = BODY.substring(BODY.length() / 2).getBytes(UTF_8);
+            output.write(("HTTP/1.1 " + status + "\r\n" +
+                          "Content-Type: application/json\r\n" +
+                          "Transfer-Encoding: chunked\r\n" + connection + "\r\n").getBytes(ISO_8859_1));
+            output.write((Integer.toHexString(half.length) + "\r\n").getBytes(ISO_8859_1));
+            output.write(half);
+            output.write(("\r\n" + Integer.toHexString(rest.length) + "\r\n").getBytes(ISO_8859_1));
+            output.write(rest);
+            output.write("\r\n0\r\n\r\n".getBytes(ISO_8859_1));
+            return;
+        }
+        final byte[] body;
+        if (path.contains("/big")) {
+            body = new byte[128 * 1024];
+            Arrays.fill(body, (byte)' ');
+        } else {
+            body = BODY.getBytes(UTF_8);
+        }
+        output.write(("HTTP/1.1 " + status + "\r\n" +
+                      "Content-Type: application/json\r\n" +
+                      "Content-Length: " + body.length + "\r\n" + connection + "\r\n").getBytes(ISO_8859_1));
+        output.write(body);
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        final StringBuilder line = new StringBuilder();
+        for (int c = input.read(); c != '\n'; c = input.read()) {
+            if (c == -1) {
+                return line.length() == 0 ? null : line.toString();
+            }
+            if (c != '\r') {
+                line.append((char)c);
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import java.util.Map;
+
+/**
+ * Event of docker daemon published by {@link DockerEventHub}.
+ */
+public class DockerEvent {
+
+    public enum Type {
+        /** Container is started. */
+        START,
+        /** Container is stopped or failed. */
+        DIE,
+        /** Process of a container is out of memory. */
+        OOM,
+        /** Network is created, removed, connected to a container or disconnected from it. */
+        NETWORK,
+        /** Image is pulled, pushed, tagged, untagged, removed, imported or loaded. */
+        IMAGE
+    }
+
+    private final Type                type;
+    private final String              action;
+    private final String              actorId;
+    private final Map<String, String> attributes;
+    private final long                time;
+
+    public DockerEvent(Type type, String action, String actorId, Map<String, String> attributes, long time) {
+        this.type = type;
+        this.action = action;
+        this.actorId = actorId;
+        this.attributes = attributes;
+        this.time = time;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** Returns docker action of the event, e.g. {@code die} or {@code connect}. */
+    public String getAction() {
+        return action;
+    }
+
+    /** Returns identifier of container, network or image the event is about. */
+    public String getActorId() {
+        return actorId;
+    }
+
+    /** Returns attributes of the event actor, e.g. name of container or container connected to network. */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /** Returns UNIX time of the event in seconds. */
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return "DockerEvent{" +
+               "type=" + type +
+               ", action='" + action + '\'' +
+               ", actorId='" + actorId + '\'' +
+               ", attributes=" + attributes +
+               ", time=" + time +
+               '}';
+    }
+}
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.json.Filters;
+import org.eclipse.che.plugin.docker.client.json.network.Network;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.eclipse.che.plugin.docker.client.params.network.GetNetworksParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keeps one stream of docker events for all the components which need them.
+ *
+ * <p>Container start, die and oom events as well as network and image events are published
+ * to {@link EventService} as {@link DockerEvent}, containers and networks state is kept in {@link DockerResourcesIndex}.
+ * When the stream is broken it is resumed from the time of the last received event,
+ * resources are listed once again if docker daemon was unavailable.
+ * While docker daemon is unavailable the delay between reconnection attempts grows up to {@value #MAX_RETRY_DELAY_MS}ms.
+ */
+@Singleton
+public class DockerEventHub {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerEventHub.class);
+
+    private static final Filters           EVENT_FILTERS       =
+            new Filters().withFilter("event",
+                                     // container and network events
+                                     "create", "start", "die", "oom", "rename", "destroy", "connect", "disconnect",
+                                     // image events
+                                     "pull", "push", "tag", "untag", "delete", "import", "load");
+    private static final GetNetworksParams GET_NETWORKS_PARAMS =
+            GetNetworksParams.create().withFilters(new Filters().withFilter("type", "custom"));
+    private static final long              MIN_RETRY_DELAY_MS  = 1000;
+    private static final long              MAX_RETRY_DELAY_MS  = 30_000;
+
+    private static final Map<String, DockerEvent.Type> CONTAINER_EVENT_TYPES = ImmutableMap.of("start", DockerEvent.Type.START,
+                                                                                              "die", DockerEvent.Type.DIE,
+                                                                                              "oom", DockerEvent.Type.OOM);
+
+    private final EventService         eventService;
+    private final DockerConnector      dockerConnector;
+    private final DockerResourcesIndex resourcesIndex;
+    private final ExecutorService      executorService;
+
+    private boolean indexed;
+    private long    sinceSecond;
+    private long    lastEventTimeNano;
+
+    @Inject
+    public DockerEventHub(EventService eventService,
+                          DockerConnectorProvider dockerConnectorProvider,
+                          DockerResourcesIndex resourcesIndex) {
+        this.eventService = eventService;
+        this.dockerConnector = dockerConnectorProvider.get();
+        this.resourcesIndex = resourcesIndex;
+        this.sinceSecond = MILLISECONDS.toSeconds(System.currentTimeMillis());
+        this.executorService = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("DockerEventHub-%d")
+                                          .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true)
+                                          .build());
+    }
+
+    @PostConstruct
+    private void start() {
+        executorService.execute(() -> {
+            long retryDelayMs = MIN_RETRY_DELAY_MS;
+            boolean outageReported = false;
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    receiveEvents();
+                } catch (IOException e) {
+                    if (isReadTimeout(e)) {
+                        // there were no events during read timeout, resume the stream
+                        LOG.debug(e.getLocalizedMessage(), e);
+                        continue;
+                    }
+                    if (indexed) {
+                        // docker daemon was available since the last failure
+                        outageReported = false;
+                        retryDelayMs = MIN_RETRY_DELAY_MS;
+                    }
+                    if (!outageReported) {
+                        LOG.warn("Failed to receive docker events. Cause: {}", e.getLocalizedMessage());
+                        outageReported = true;
+                    } else {
+                        LOG.debug("Failed to receive docker events. Cause: {}", e.getLocalizedMessage());
+                    }
+                    // events might be lost while docker daemon is unavailable
+                    indexed = false;
+                    try {
+                        Thread.sleep(retryDelayMs);
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+                    retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    private void stop() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Lists containers and networks if they are not indexed yet and receives events
+     * starting from the time of the last received event until the stream is closed.
+     */
+    @VisibleForTesting
+    void receiveEvents() throws IOException {
+        if (!indexed) {
+            final List<Network> networks = dockerConnector.getNetworks(GET_NETWORKS_PARAMS);
+            // docker returns null instead of empty list, see https://github.com/docker/docker/issues/29946
+            resourcesIndex.initialize(dockerConnector.listContainers(), networks != null ? networks : Collections.emptyList());
+            indexed = true;
+        }
+        dockerConnector.getEvents(GetEventsParams.create()
+                                                 .withSinceSecond(sinceSecond)
+                                                 .withFilters(EVENT_FILTERS),
+                                  this::process);
+    }
+
+    private void process(Event event) {
+        if (event.getTimeNano() != 0) {
+            if (event.getTimeNano() <= lastEventTimeNano) {
+                // already processed event resent after the stream is resumed
+                return;
+            }
+            lastEventTimeNano = event.getTimeNano();
+        }
+        if (event.getTime() != 0) {
+            sinceSecond = event.getTime();
+        }
+
+        final String type;
+        final String action;
+        final String actorId;
+        Map<String, String> attributes;
+        if (event.getType() != null) {
+            type = event.getType();
+            action = event.getAction();
+            actorId = event.getActor() != null ? event.getActor().getId() : event.getId();
+            attributes = event.getActor() != null && event.getActor().getAttributes() != null ? event.getActor().getAttributes()
+                                                                                              : Collections.emptyMap();
+        } else {
+            // events of docker API older than 1.22 are sent only for containers and images
+            resourcesIndex.stopNetworksTracking();
+            type = event.getFrom() != null ? "container" : "image";
+            action = event.getStatus();
+            actorId = event.getId();
+            attributes = Collections.emptyMap();
+        }
+        if (action == null || actorId == null) {
+            return;
+        }
+
+        DockerEvent.Type publishedType = null;
+        switch (type) {
+            case "container":
+                if (attributes.get("name") == null && ("create".equals(action) || "start".equals(action))) {
+                    attributes = inspectContainer(actorId);
+                }
+                resourcesIndex.onContainerEvent(action, actorId, attributes);
+                publishedType = CONTAINER_EVENT_TYPES.get(action);
+                break;
+            case "network":
+                resourcesIndex.onNetworkEvent(action, actorId, attributes);
+                publishedType = DockerEvent.Type.NETWORK;
+                break;
+            case "image":
+                publishedType = DockerEvent.Type.IMAGE;
+                break;
+            default:
+                // docker swarm doesn't filter events
+        }
+        if (publishedType != null) {
+            eventService.publish(new DockerEvent(publishedType, action, actorId, attributes, event.getTime()));
+        }
+    }
+
+    private Map<String, String> inspectContainer(String containerId) {
+        final Map<String, String> attributes = new HashMap<>();
+        try {
+            final ContainerInfo info = dockerConnector.inspectContainer(containerId);
+            if (info.getName() != null) {
+                attributes.put("name", info.getName().startsWith("/") ? info.getName().substring(1) : info.getName());
+            }
+            if (info.getConfig() != null) {
+                attributes.put("image", info.getConfig().getImage());
+            }
+        } catch (IOException e) {
+            // container is already removed
+            LOG.debug(e.getLocalizedMessage(), e);
+        }
+        return attributes;
+    }
+
+    private static boolean isReadTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.network.ContainerInNetwork;
+import org.eclipse.che.plugin.docker.client.json.network.Network;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory index of docker containers and custom networks, kept up to date
+ * by {@link DockerEventHub} from docker events, so they don't need to be listed from docker daemon.
+ *
+ * <p>Networks are indexed only while docker daemon sends network events,
+ * they are not sent by daemons which use API older than 1.22.
+ */
+@Singleton
+public class DockerResourcesIndex {
+    private final Map<String, ContainerListEntry> containers;
+    private final Map<String, Network>            networks;
+
+    private boolean initialized;
+    private boolean networksTracked;
+
+    public DockerResourcesIndex() {
+        this.containers = new LinkedHashMap<>();
+        this.networks = new LinkedHashMap<>();
+        this.networksTracked = true;
+    }
+
+    /**
+     * Returns copies of the indexed containers.
+     * The result is empty if the index is not initialized yet.
+     */
+    public synchronized Optional<List<ContainerListEntry>> getContainers() {
+        if (!initialized) {
+            return Optional.empty();
+        }
+        final List<ContainerListEntry> result = new ArrayList<>(containers.size());
+        for (ContainerListEntry container : containers.values()) {
+            result.add(copy(container));
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Returns copies of the indexed custom networks.
+     * The result is empty if the index is not initialized yet or networks are not tracked.
+     */
+    public synchronized Optional<List<Network>> getNetworks() {
+        if (!initialized || !networksTracked) {
+            return Optional.empty();
+        }
+        final List<Network> result = new ArrayList<>(networks.size());
+        for (Network network : networks.values()) {
+            result.add(copy(network));
+        }
+        return Optional.of(result);
+    }
+
+    /** Replaces the indexed resources with the listed ones. */
+    synchronized void initialize(List<ContainerListEntry> containers, List<Network> networks) {
+        this.containers.clear();
+        for (ContainerListEntry container : containers) {
+            this.containers.put(container.getId(), copy(container));
+        }
+        this.networks.clear();
+        for (Network network : networks) {
+            this.networks.put(network.getId(), copy(network));
+        }
+        initialized = true;
+    }
+
+    /** Stops indexing of networks, used when docker daemon doesn't send network events. */
+    synchronized void stopNetworksTracking() {
+        networksTracked = false;
+    }
+
+    /**
+     * Applies container event to the index.
+     *
+     * @param action
+     *         docker action, e.g. {@code create} or {@code die}
+     * @param containerId
+     *         id of the container
+     * @param attributes
+     *         attributes of the container, {@code name} and {@code image} are used
+     */
+    synchronized void onContainerEvent(String action, String containerId, Map<String, String> attributes) {
+        switch (action) {
+            case "create":
+                addContainer(containerId, attributes, "Created");
+                break;
+            case "start":
+                updateContainerStatus(containerId, attributes, "Up");
+                break;
+            case "die":
+                updateContainerStatus(containerId, attributes, "Exited");
+                break;
+            case "rename":
+                final ContainerListEntry renamed = containers.get(containerId);
+                if (renamed != null && attributes.get("name") != null) {
+                    renamed.setNames(new String[] {'/' + attributes.get("name")});
+                }
+                break;
+            case "destroy":
+                containers.remove(containerId);
+                break;
+            default:
+                // other actions don't change indexed state
+        }
+    }
+
+    /**
+     * Applies network event to the index.
+     *
+     * @param action
+     *         docker action, e.g. {@code create} or {@code connect}
+     * @param networkId
+     *         id of the network
+     * @param attributes
+     *         attributes of the network, {@code name}, {@code type} and {@code container} are used
+     */
+    synchronized void onNetworkEvent(String action, String networkId, Map<String, String> attributes) {
+        final Network network = networks.get(networkId);
+        switch (action) {
+            case "create":
+                networks.put(networkId, new Network().withId(networkId)
+                                                     .withName(attributes.get("name"))
+                                                     .withDriver(attributes.get("type"))
+                                                     .withContainers(new HashMap<>()));
+                break;
+            case "connect":
+                if (network != null && attributes.get("container") != null) {
+                    network.getContainers().put(attributes.get("container"), new ContainerInNetwork());
+                }
+                break;
+            case "disconnect":
+                if (network != null && attributes.get("container") != null) {
+                    network.getContainers().remove(attributes.get("container"));
+                }
+                break;
+            case "destroy":
+                networks.remove(networkId);
+                break;
+            default:
+                // other actions don't change indexed state
+        }
+    }
+
+    private void updateContainerStatus(String containerId, Map<String, String> attributes, String status) {
+        final ContainerListEntry container = containers.get(containerId);
+        if (container != null) {
+            container.setStatus(status);
+        } else {
+            addContainer(containerId, attributes, status);
+        }
+    }
+
+    private void addContainer(String containerId, Map<String, String> attributes, String status) {
+        if (attributes.get("name") == null) {
+            // container without name is already removed
+            return;
+        }
+        final ContainerListEntry container = new ContainerListEntry();
+        container.setId(containerId);
+        // names of listed containers start with slash
+        container.setNames(new String[] {'/' + attributes.get("name")});
+        container.setImage(attributes.get("image"));
+        container.setStatus(status);
+        containers.put(containerId, container);
+    }
+
+    private static ContainerListEntry copy(ContainerListEntry container) {
+        final ContainerListEntry copy = new ContainerListEntry();
+        copy.setId(container.getId());
+        copy.setNames(container.getNames() != null ? container.getNames().clone() : new String[0]);
+        copy.setImage(container.getImage());
+        copy.setImageID(container.getImageID());
+        copy.setCommand(container.getCommand());
+        copy.setCreated(container.getCreated());
+        copy.setStatus(container.getStatus());
+        copy.setPorts(container.getPorts());
+        copy.setLabels(container.getLabels());
+        copy.setSizeRw(container.getSizeRw());
+        copy.setSizeRootFs(container.getSizeRootFs());
+        return copy;
+    }
+
+    private static Network copy(Network network) {
+        return new Network().withId(network.getId())
+                            .withName(network.getName())
+                            .withScope(network.getScope())
+                            .withDriver(network.getDriver())
+                            .withEnableIPv6(network.isEnableIPv6())
+                            .withInternal(network.isInternal())
+                            .withIPAM(network.getIPAM())
+                            .withContainers(network.getContainers() != null ? new HashMap<>(network.getContainers())
+                                                                            : new HashMap<>())
+                            .withOptions(network.getOptions())
+                            .withLabels(network.getLabels());
+    }
+}
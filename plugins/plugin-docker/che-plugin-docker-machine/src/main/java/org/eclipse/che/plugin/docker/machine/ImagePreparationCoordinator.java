@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.slf4j.Logger;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Makes concurrent preparations of the same image, e.g. pulls of the same image by
+ * several starting workspaces, share one request to docker daemon.
+ *
+ * <p>The first caller with a key performs the preparation, the callers with the same key which come
+ * while it is in progress wait for its result and receive its progress. Only in-flight preparations
+ * are shared, the result is not kept after the preparation is finished.
+ */
+@Singleton
+public class ImagePreparationCoordinator {
+    private static final Logger LOG = getLogger(ImagePreparationCoordinator.class);
+
+    /** Preparation of an image. */
+    public interface Preparation {
+        /**
+         * Prepares the image.
+         *
+         * @param progressMonitor
+         *         receives progress of the preparation, shared with all the waiting callers
+         * @return identifier of the prepared image
+         */
+        String prepare(ProgressMonitor progressMonitor) throws IOException;
+    }
+
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Performs the preparation or waits for the one with the same key which is in progress.
+     *
+     * <p>If the preparation this caller waited for fails, the caller performs it once again on its own,
+     * because the failure may be caused by data of another caller, e.g. its registry credentials.
+     *
+     * @param key
+     *         key of the prepared image, e.g. resolved image reference
+     * @param progressMonitor
+     *         monitor of the caller
+     * @param preparation
+     *         performs the preparation if there is no one in progress
+     * @return identifier of the prepared image returned by the preparation
+     * @throws IOException
+     *         when the preparation fails
+     */
+    public String prepare(String key, ProgressMonitor progressMonitor, Preparation preparation) throws IOException {
+        try {
+            return prepareOrJoin(key, progressMonitor, preparation);
+        } catch (JoinedPreparationException e) {
+            LOG.debug("Shared preparation of image '{}' failed, preparing it once again. {}", key, e.getMessage());
+            try {
+                return prepareOrJoin(key, progressMonitor, preparation);
+            } catch (JoinedPreparationException retryEx) {
+                throw retryEx.getCause();
+            }
+        }
+    }
+
+    /** Returns the number of preparations which are in progress. */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private String prepareOrJoin(String key, ProgressMonitor progressMonitor, Preparation preparation) throws IOException {
+        final InFlight created = new InFlight();
+        final InFlight existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return join(key, existing, progressMonitor);
+        }
+
+        created.monitors.add(progressMonitor);
+        try {
+            final String image = preparation.prepare(created);
+            inFlight.remove(key, created);
+            created.result.complete(image);
+            return image;
+        } catch (Throwable e) {
+            // removed before completion, so the waiters which retry don't join the failed preparation
+            inFlight.remove(key, created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private String join(String key, InFlight existing, ProgressMonitor progressMonitor) throws IOException {
+        existing.monitors.add(progressMonitor);
+        try {
+            final ProgressStatus waiting = new ProgressStatus();
+            waiting.setStatus(format("Waiting for preparation of image '%s' started by another workspace", key));
+            progressMonitor.updateProgress(waiting);
+
+            return existing.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(format("Interrupted while waiting for preparation of image '%s'", key));
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw new JoinedPreparationException(cause instanceof IOException ? (IOException)cause
+                                                                              : new IOException(cause.getLocalizedMessage(), cause));
+        } finally {
+            existing.monitors.remove(progressMonitor);
+        }
+    }
+
+    /** Preparation in progress, distributes its progress to all the waiting callers. */
+    private static class InFlight implements ProgressMonitor {
+        final CompletableFuture<String> result   = new CompletableFuture<>();
+        final List<ProgressMonitor>     monitors = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void updateProgress(ProgressStatus currentProgressStatus) {
+            for (ProgressMonitor monitor : monitors) {
+                try {
+                    monitor.updateProgress(currentProgressStatus);
+                } catch (RuntimeException e) {
+                    LOG.error(e.getLocalizedMessage(), e);
+                }
+            }
+        }
+    }
+
+    /** Failure of a preparation performed by another caller. */
+    private static class JoinedPreparationException extends IOException {
+        JoinedPreparationException(IOException cause) {
+            super(cause.getLocalizedMessage(), cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException)super.getCause();
+        }
+    }
+}
@@ -12,6 +12,8 @@ package org.eclipse.che.plugin.docker.machine;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
@@ -53,6 +55,7 @@ import org.eclipse.che.plugin.docker.client.json.network.NewNetwork;
 import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
+import org.eclipse.che.plugin.docker.client.params.InspectImageParams;
 import org.eclipse.che.plugin.docker.client.params.PullParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
@@ -77,6 +80,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
@@ -84,6 +88,7 @@ import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 import static java.lang.Thread.sleep;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toMap;
@@ -131,6 +136,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
     private final long                                          cpuQuota;
     private final WindowsPathEscaper                            windowsPathEscaper;
     private final String[]                                      dnsResolvers;
+    private final ImagePreparationCoordinator                   imagePreparationCoordinator;
 
     @Inject
     public MachineProviderImpl(DockerConnectorProvider dockerProvider,
@@ -156,7 +162,8 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                @Named("che.docker.cpu_quota") long cpuQuota,
                                WindowsPathEscaper windowsPathEscaper,
                                @Named("che.docker.extra_hosts") Set<Set<String>> additionalHosts,
-                               @Nullable @Named("che.docker.dns_resolvers") String[] dnsResolvers)
+                               @Nullable @Named("che.docker.dns_resolvers") String[] dnsResolvers,
+                               ImagePreparationCoordinator imagePreparationCoordinator)
             throws IOException {
         this.docker = dockerProvider.get();
         this.dockerCredentials = dockerCredentials;
@@ -182,6 +189,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         this.windowsPathEscaper = windowsPathEscaper;
         this.pidsLimit = pidsLimit;
         this.dnsResolvers = dnsResolvers;
+        this.imagePreparationCoordinator = imagePreparationCoordinator;
 
         allMachinesSystemVolumes = removeEmptyAndNullValues(allMachinesSystemVolumes);
         devMachineSystemVolumes = removeEmptyAndNullValues(devMachineSystemVolumes);
@@ -382,12 +390,53 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         return imageName;
     }
 
+    /**
+     * Builds docker image for container creation.
+     *
+     * <p>Concurrent builds of the same Dockerfile or context with the same build arguments
+     * share one build, see {@link ImagePreparationCoordinator}, the built image is tagged
+     * with the machine image name of each of them.
+     *
+     * @param service
+     *         service that provides description of the image build
+     * @param machineImageName
+     *         name of the image that should be assigned on build
+     * @param doForcePullOnBuild
+     *         whether base images should be pulled on build
+     * @param progressMonitor
+     *         consumer of output
+     * @throws MachineException
+     *         if any error occurs
+     */
     protected void buildImage(CheServiceImpl service,
                               String machineImageName,
                               boolean doForcePullOnBuild,
                               ProgressMonitor progressMonitor)
             throws MachineException {
+        final boolean[] builtByThisCall = new boolean[1];
+        try {
+            final String imageId = imagePreparationCoordinator.prepare(getBuildKey(service, doForcePullOnBuild),
+                                                                       progressMonitor,
+                                                                       sharedMonitor -> {
+                                                                           builtByThisCall[0] = true;
+                                                                           return doBuildImage(service,
+                                                                                               machineImageName,
+                                                                                               doForcePullOnBuild,
+                                                                                               sharedMonitor);
+                                                                       });
+            if (!builtByThisCall[0]) {
+                // image is built by another workspace, tag it with the name of this machine
+                docker.tag(TagParams.create(imageId, machineImageName).withForce(true));
+            }
+        } catch (IOException e) {
+            throw new MachineException(e.getLocalizedMessage(), e);
+        }
+    }
 
+    private String doBuildImage(CheServiceImpl service,
+                                String machineImageName,
+                                boolean doForcePullOnBuild,
+                                ProgressMonitor progressMonitor) throws IOException {
         File workDir = null;
         try {
             BuildImageParams buildImageParams;
@@ -416,9 +465,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                             .withCpuQuota(cpuQuota)
                             .withBuildArgs(service.getBuild().getArgs());
 
-            docker.buildImage(buildImageParams, progressMonitor);
-        } catch (IOException e) {
-            throw new MachineException(e.getLocalizedMessage(), e);
+            return docker.buildImage(buildImageParams, progressMonitor);
         } finally {
             if (workDir != null) {
                 FileCleaner.addFile(workDir);
@@ -426,6 +473,28 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         }
     }
 
+    /** Returns key of the image build, the builds of the same sources with the same arguments have the same key. */
+    private static String getBuildKey(CheServiceImpl service, boolean doForcePullOnBuild) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        if (service.getBuild().getDockerfileContent() != null) {
+            hasher.putString("dockerfile", UTF_8)
+                  .putString(service.getBuild().getDockerfileContent(), UTF_8);
+        } else {
+            hasher.putString("context", UTF_8)
+                  .putString(service.getBuild().getContext(), UTF_8)
+                  .putByte((byte)0)
+                  .putString(Strings.nullToEmpty(service.getBuild().getDockerfilePath()), UTF_8);
+        }
+        if (service.getBuild().getArgs() != null) {
+            new TreeMap<>(service.getBuild().getArgs()).forEach((name, value) -> hasher.putByte((byte)0)
+                                                                                     .putString(name, UTF_8)
+                                                                                     .putByte((byte)0)
+                                                                                     .putString(Strings.nullToEmpty(value), UTF_8));
+        }
+        hasher.putBoolean(doForcePullOnBuild);
+        return "build:" + hasher.hash().toString();
+    }
+
     /**
      * Pulls docker image for container creation.
      *
@@ -459,7 +528,15 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                                                                     LATEST_TAG))
                                                   .withRegistry(dockerMachineSource.getRegistry())
                                                   .withAuthConfigs(dockerCredentials.getCredentials());
-                docker.pull(pullParams, progressMonitor);
+                String reference = pullParams.getFullRepo() + ':' + pullParams.getTag();
+                // concurrent pulls of the same image share one pull
+                imagePreparationCoordinator.prepare("pull:" + reference, progressMonitor, sharedMonitor -> {
+                    if (!isSnapshot && !doForcePullOnBuild && isImagePresent(reference)) {
+                        return reference;
+                    }
+                    docker.pull(pullParams, sharedMonitor);
+                    return reference;
+                });
             }
 
             String fullNameOfPulledImage = dockerMachineSource.getLocation(false);
@@ -479,6 +556,15 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         }
     }
 
+    /** Checks whether the image is available in docker without pulling it. */
+    private boolean isImagePresent(String image) {
+        try {
+            return docker.inspectImage(InspectImageParams.create(image)) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private String createContainer(String workspaceId,
                                    String machineName,
                                    boolean isDev,
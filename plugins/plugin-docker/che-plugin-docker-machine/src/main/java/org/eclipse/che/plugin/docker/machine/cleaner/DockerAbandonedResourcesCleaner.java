@@ -25,6 +25,7 @@ import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
 import org.eclipse.che.plugin.docker.client.params.network.GetNetworksParams;
 import org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator;
+import org.eclipse.che.plugin.docker.machine.DockerResourcesIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +48,9 @@ import static org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator
  * Job for periodically clean up abandoned docker containers and networks created by CHE.
  * Also, logs active containers list.
  *
+ * <p>Containers and networks are taken from {@link DockerResourcesIndex},
+ * they are listed from docker daemon only when the index is not available.
+ *
  * @author Alexander Andrienko
  * @author Mykola Morhun
  */
@@ -64,6 +68,7 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     // TODO replace with WorkspaceManager
     private final CheEnvironmentEngine         environmentEngine;
     private final DockerConnector              dockerConnector;
+    private final DockerResourcesIndex         resourcesIndex;
     private final DockerContainerNameGenerator nameGenerator;
     private final WorkspaceRuntimes            runtimes;
     private final Set<String>                  additionalNetworks;
@@ -71,11 +76,13 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     @Inject
     public DockerAbandonedResourcesCleaner(CheEnvironmentEngine environmentEngine,
                                            DockerConnectorProvider dockerConnectorProvider,
+                                           DockerResourcesIndex resourcesIndex,
                                            DockerContainerNameGenerator nameGenerator,
                                            WorkspaceRuntimes workspaceRuntimes,
                                            @Named("machine.docker.networks") Set<Set<String>> additionalNetworks) {
         this.environmentEngine = environmentEngine;
         this.dockerConnector = dockerConnectorProvider.get();
+        this.resourcesIndex = resourcesIndex;
         this.nameGenerator = nameGenerator;
         this.runtimes = workspaceRuntimes;
         this.additionalNetworks = additionalNetworks.stream()
@@ -99,7 +106,10 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     void cleanContainers() {
         List<String> activeContainers = new ArrayList<>();
         try {
-            for (ContainerListEntry container : dockerConnector.listContainers()) {
+            Optional<List<ContainerListEntry>> indexedContainers = resourcesIndex.getContainers();
+            List<ContainerListEntry> containers = indexedContainers.isPresent() ? indexedContainers.get()
+                                                                                : dockerConnector.listContainers();
+            for (ContainerListEntry container : containers) {
                 String containerName = container.getNames()[0];
                 Optional<ContainerNameInfo> optional = nameGenerator.parse(containerName);
                 if (optional.isPresent()) {
@@ -162,7 +172,9 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     @VisibleForTesting
     void cleanNetworks() {
         try {
-            List<Network> customNetworks = dockerConnector.getNetworks(GET_NETWORKS_PARAMS);
+            Optional<List<Network>> indexedNetworks = resourcesIndex.getNetworks();
+            List<Network> customNetworks = indexedNetworks.isPresent() ? indexedNetworks.get()
+                                                                       : dockerConnector.getNetworks(GET_NETWORKS_PARAMS);
             // This workaround is added because of docker bug which returns null instead of empty list
             // See https://github.com/docker/docker/issues/29946
             if (customNetworks == null) {
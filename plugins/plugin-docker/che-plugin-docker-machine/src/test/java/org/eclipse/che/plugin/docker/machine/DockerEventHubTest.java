@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.json.Actor;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * Tests {@link DockerEventHub}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerEventHubTest {
+
+    @Mock
+    private EventService            eventService;
+    @Mock
+    private DockerConnectorProvider dockerConnectorProvider;
+    @Mock
+    private DockerConnector         dockerConnector;
+    @Mock
+    private ContainerInfo           containerInfo;
+
+    private DockerResourcesIndex resourcesIndex;
+    private DockerEventHub       eventHub;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerConnectorProvider.get()).thenReturn(dockerConnector);
+        when(dockerConnector.listContainers()).thenReturn(emptyList());
+        when(dockerConnector.getNetworks(any())).thenReturn(null);
+        resourcesIndex = new DockerResourcesIndex();
+        eventHub = new DockerEventHub(eventService, dockerConnectorProvider, resourcesIndex);
+    }
+
+    @Test
+    public void shouldPublishContainerEventsAndIndexContainers() throws Exception {
+        sendEvents(containerEvent("create", 100, 1), containerEvent("start", 100, 2), containerEvent("die", 101, 3));
+
+        eventHub.receiveEvents();
+
+        final ArgumentCaptor<DockerEvent> captor = ArgumentCaptor.forClass(DockerEvent.class);
+        verify(eventService, times(2)).publish(captor.capture());
+        assertEquals(captor.getAllValues().get(0).getType(), DockerEvent.Type.START);
+        assertEquals(captor.getAllValues().get(1).getType(), DockerEvent.Type.DIE);
+        assertEquals(captor.getAllValues().get(1).getActorId(), "container1");
+        assertEquals(resourcesIndex.getContainers().get().get(0).getNames()[0], "/workspace1_machine1");
+        assertEquals(resourcesIndex.getContainers().get().get(0).getStatus(), "Exited");
+    }
+
+    @Test
+    public void shouldResumeStreamFromTheLastEventAndSkipAlreadyProcessedEvents() throws Exception {
+        sendEvents(containerEvent("die", 100, 1));
+        eventHub.receiveEvents();
+        sendEvents(containerEvent("die", 100, 1), containerEvent("oom", 102, 2));
+
+        eventHub.receiveEvents();
+
+        final ArgumentCaptor<GetEventsParams> paramsCaptor = ArgumentCaptor.forClass(GetEventsParams.class);
+        verify(dockerConnector, times(2)).getEvents(paramsCaptor.capture(), any());
+        assertEquals(paramsCaptor.getAllValues().get(1).getSinceSecond(), Long.valueOf(100));
+        verify(eventService, times(2)).publish(any(DockerEvent.class));
+        verify(dockerConnector).listContainers();
+    }
+
+    @Test
+    public void shouldPublishNetworkAndImageEvents() throws Exception {
+        sendEvents(new Event().withType("network")
+                              .withAction("create")
+                              .withActor(new Actor().withId("network1")
+                                                    .withAttributes(ImmutableMap.of("name", "workspace1_network")))
+                              .withTime(100)
+                              .withTimeNano(1),
+                   new Event().withType("image")
+                              .withAction("pull")
+                              .withActor(new Actor().withId("codenvy/ubuntu_jdk8"))
+                              .withTime(100)
+                              .withTimeNano(2));
+
+        eventHub.receiveEvents();
+
+        final ArgumentCaptor<DockerEvent> captor = ArgumentCaptor.forClass(DockerEvent.class);
+        verify(eventService, times(2)).publish(captor.capture());
+        assertEquals(captor.getAllValues().get(0).getType(), DockerEvent.Type.NETWORK);
+        assertEquals(captor.getAllValues().get(1).getType(), DockerEvent.Type.IMAGE);
+        assertEquals(resourcesIndex.getNetworks().get().get(0).getName(), "workspace1_network");
+    }
+
+    @Test
+    public void shouldInspectContainerWhenEventOfOldDockerApiHasNoName() throws Exception {
+        when(containerInfo.getName()).thenReturn("/workspace1_machine1");
+        when(dockerConnector.inspectContainer("container1")).thenReturn(containerInfo);
+        sendEvents(new Event().withStatus("start")
+                              .withId("container1")
+                              .withFrom("codenvy/ubuntu_jdk8")
+                              .withTime(100));
+
+        eventHub.receiveEvents();
+
+        verify(eventService).publish(any(DockerEvent.class));
+        assertEquals(resourcesIndex.getContainers().get().get(0).getNames()[0], "/workspace1_machine1");
+        assertFalse(resourcesIndex.getNetworks().isPresent());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sendEvents(Event... events) throws Exception {
+        doAnswer(invocationOnMock -> {
+            final MessageProcessor<Event> processor = (MessageProcessor<Event>)invocationOnMock.getArguments()[1];
+            for (Event event : asList(events)) {
+                processor.process(event);
+            }
+            return null;
+        }).when(dockerConnector).getEvents(any(), any());
+    }
+
+    private static Event containerEvent(String action, long time, long timeNano) {
+        final Map<String, String> attributes = ImmutableMap.of("name", "workspace1_machine1", "image", "codenvy/ubuntu_jdk8");
+        return new Event().withType("container")
+                          .withAction(action)
+                          .withStatus(action)
+                          .withId("container1")
+                          .withActor(new Actor().withId("container1").withAttributes(attributes))
+                          .withTime(time)
+                          .withTimeNano(time * 1_000_000_000L + timeNano);
+    }
+}
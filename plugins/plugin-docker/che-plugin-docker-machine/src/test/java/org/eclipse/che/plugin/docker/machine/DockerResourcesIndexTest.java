@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.network.Network;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link DockerResourcesIndex}.
+ */
+public class DockerResourcesIndexTest {
+
+    private DockerResourcesIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new DockerResourcesIndex();
+    }
+
+    @Test
+    public void shouldNotProvideResourcesUntilInitialized() {
+        assertFalse(index.getContainers().isPresent());
+        assertFalse(index.getNetworks().isPresent());
+    }
+
+    @Test
+    public void shouldProvideListedResources() {
+        final ContainerListEntry container = new ContainerListEntry();
+        container.setId("container1");
+        container.setNames(new String[] {"/workspace1_machine1"});
+        container.setStatus("Up 6 hours");
+
+        index.initialize(singletonList(container), singletonList(new Network().withId("network1").withName("network")));
+
+        final List<ContainerListEntry> containers = index.getContainers().get();
+        assertEquals(containers.size(), 1);
+        assertEquals(containers.get(0).getNames()[0], "/workspace1_machine1");
+        assertEquals(containers.get(0).getStatus(), "Up 6 hours");
+        assertEquals(index.getNetworks().get().get(0).getName(), "network");
+        assertTrue(index.getNetworks().get().get(0).getContainers().isEmpty());
+    }
+
+    @Test
+    public void shouldFollowContainerLifecycle() {
+        index.initialize(emptyList(), emptyList());
+
+        index.onContainerEvent("create", "container1", ImmutableMap.of("name", "workspace1_machine1", "image", "codenvy/ubuntu_jdk8"));
+        assertEquals(index.getContainers().get().get(0).getNames()[0], "/workspace1_machine1");
+        assertEquals(index.getContainers().get().get(0).getStatus(), "Created");
+
+        index.onContainerEvent("start", "container1", emptyMap());
+        assertTrue(index.getContainers().get().get(0).getStatus().startsWith("Up"));
+
+        index.onContainerEvent("die", "container1", emptyMap());
+        assertFalse(index.getContainers().get().get(0).getStatus().startsWith("Up"));
+
+        index.onContainerEvent("destroy", "container1", emptyMap());
+        assertTrue(index.getContainers().get().isEmpty());
+    }
+
+    @Test
+    public void shouldNotIndexContainerWithoutName() {
+        index.initialize(emptyList(), emptyList());
+
+        index.onContainerEvent("start", "container1", emptyMap());
+
+        assertTrue(index.getContainers().get().isEmpty());
+    }
+
+    @Test
+    public void shouldFollowNetworkLifecycle() {
+        index.initialize(emptyList(), emptyList());
+
+        index.onNetworkEvent("create", "network1", ImmutableMap.of("name", "workspace1_network", "type", "bridge"));
+        index.onNetworkEvent("connect", "network1", ImmutableMap.of("container", "container1"));
+        assertEquals(index.getNetworks().get().get(0).getName(), "workspace1_network");
+        assertTrue(index.getNetworks().get().get(0).getContainers().containsKey("container1"));
+
+        index.onNetworkEvent("disconnect", "network1", ImmutableMap.of("container", "container1"));
+        assertTrue(index.getNetworks().get().get(0).getContainers().isEmpty());
+
+        index.onNetworkEvent("destroy", "network1", emptyMap());
+        assertTrue(index.getNetworks().get().isEmpty());
+    }
+
+    @Test
+    public void shouldNotProvideNetworksWhenTheyAreNotTracked() {
+        index.initialize(emptyList(), singletonList(new Network().withId("network1").withContainers(new HashMap<>())));
+
+        index.stopNetworksTracking();
+
+        assertFalse(index.getNetworks().isPresent());
+        assertTrue(index.getContainers().isPresent());
+    }
+
+    @Test
+    public void shouldNotExposeIndexedState() {
+        index.initialize(emptyList(), emptyList());
+        index.onNetworkEvent("create", "network1", ImmutableMap.of("name", "workspace1_network"));
+
+        index.getNetworks().get().get(0).getContainers().put("container1", null);
+
+        assertTrue(index.getNetworks().get().get(0).getContainers().isEmpty());
+    }
+}
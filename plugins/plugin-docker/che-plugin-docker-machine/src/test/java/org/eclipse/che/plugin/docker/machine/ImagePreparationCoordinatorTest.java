@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests {@link ImagePreparationCoordinator}.
+ */
+public class ImagePreparationCoordinatorTest {
+
+    private ImagePreparationCoordinator coordinator;
+    private ExecutorService             executor;
+
+    @BeforeMethod
+    public void setUp() {
+        coordinator = new ImagePreparationCoordinator();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldShareInFlightPreparationAndItsProgress() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger preparations = new AtomicInteger();
+        final List<String> leaderProgress = new CopyOnWriteArrayList<>();
+        final List<String> waiterProgress = new CopyOnWriteArrayList<>();
+
+        final Future<String> leader = executor.submit(() -> coordinator.prepare("pull:image:latest",
+                                                                                 status -> leaderProgress.add(status.getStatus()),
+                                                                                 monitor -> {
+                                                                                     preparations.incrementAndGet();
+                                                                                     started.countDown();
+                                                                                     await(release);
+                                                                                     monitor.updateProgress(status("Downloaded"));
+                                                                                     return "imageId";
+                                                                                 }));
+        assertTrue(started.await(10, SECONDS));
+        final Future<String> waiter = executor.submit(() -> coordinator.prepare("pull:image:latest",
+                                                                                 status -> waiterProgress.add(status.getStatus()),
+                                                                                 monitor -> {
+                                                                                     preparations.incrementAndGet();
+                                                                                     return "otherImageId";
+                                                                                 }));
+        waitUntilWaiting(waiterProgress);
+        release.countDown();
+
+        assertEquals(leader.get(10, SECONDS), "imageId");
+        assertEquals(waiter.get(10, SECONDS), "imageId");
+        assertEquals(preparations.get(), 1);
+        assertEquals(leaderProgress.get(0), "Downloaded");
+        assertEquals(waiterProgress.get(waiterProgress.size() - 1), "Downloaded");
+        assertEquals(coordinator.getInFlightCount(), 0);
+    }
+
+    @Test
+    public void shouldNotSharePreparationsWithDifferentKeys() throws Exception {
+        assertEquals(coordinator.prepare("pull:image1:latest", ProgressMonitor.DEV_NULL, monitor -> "image1"), "image1");
+        assertEquals(coordinator.prepare("pull:image2:latest", ProgressMonitor.DEV_NULL, monitor -> "image2"), "image2");
+    }
+
+    @Test
+    public void shouldNotKeepResultOfFinishedPreparation() throws Exception {
+        final AtomicInteger preparations = new AtomicInteger();
+
+        coordinator.prepare("pull:image:latest", ProgressMonitor.DEV_NULL, monitor -> "image" + preparations.incrementAndGet());
+        final String second = coordinator.prepare("pull:image:latest",
+                                                  ProgressMonitor.DEV_NULL,
+                                                  monitor -> "image" + preparations.incrementAndGet());
+
+        assertEquals(second, "image2");
+    }
+
+    @Test
+    public void shouldPrepareImageOnItsOwnWhenSharedPreparationFails() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> waiterProgress = new CopyOnWriteArrayList<>();
+
+        final Future<String> leader = executor.submit(() -> coordinator.prepare("pull:image:latest",
+                                                                                 ProgressMonitor.DEV_NULL,
+                                                                                 monitor -> {
+                                                                                     started.countDown();
+                                                                                     await(release);
+                                                                                     throw new IOException("unauthorized");
+                                                                                 }));
+        assertTrue(started.await(10, SECONDS));
+        final Future<String> waiter = executor.submit(() -> coordinator.prepare("pull:image:latest",
+                                                                                 status -> waiterProgress.add(status.getStatus()),
+                                                                                 monitor -> "imageId"));
+        waitUntilWaiting(waiterProgress);
+        release.countDown();
+
+        try {
+            leader.get(10, SECONDS);
+            fail("Preparation must fail");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "unauthorized");
+        }
+        assertEquals(waiter.get(10, SECONDS), "imageId");
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "unauthorized")
+    public void shouldRethrowFailureOfOwnPreparation() throws Exception {
+        coordinator.prepare("pull:image:latest", ProgressMonitor.DEV_NULL, monitor -> {
+            throw new IOException("unauthorized");
+        });
+    }
+
+    private static void waitUntilWaiting(List<String> progress) throws InterruptedException {
+        for (int i = 0; i < 1000 && progress.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(progress.get(0).startsWith("Waiting for preparation of image"));
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static ProgressStatus status(String status) {
+        final ProgressStatus progressStatus = new ProgressStatus();
+        progressStatus.setStatus(status);
+        return progressStatus;
+    }
+}
@@ -31,9 +31,11 @@ import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
 import org.eclipse.che.plugin.docker.client.json.ContainerCreated;
 import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
 import org.eclipse.che.plugin.docker.client.json.ContainerState;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
 import org.eclipse.che.plugin.docker.client.json.Volume;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.InspectContainerParams;
+import org.eclipse.che.plugin.docker.client.params.InspectImageParams;
 import org.eclipse.che.plugin.docker.client.params.PullParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
@@ -226,6 +228,48 @@ public class MachineProviderImplTest {
         verify(dockerConnector, never()).removeImage(any(RemoveImageParams.class));
     }
 
+    @Test
+    public void shouldNotPullImageWhichIsPresentLocallyIfPullIsNotForced() throws Exception {
+        when(dockerConnector.inspectImage(any(InspectImageParams.class))).thenReturn(new ImageInfo());
+        CheServiceImpl machine = createService();
+        machine.setBuild(null);
+        machine.setImage("repo1:tag1");
+
+        provider.startService(USER_NAME,
+                              WORKSPACE_ID,
+                              ENV_NAME,
+                              MACHINE_NAME,
+                              false,
+                              NETWORK_NAME,
+                              machine,
+                              LineConsumer.DEV_NULL);
+
+        verify(dockerConnector).inspectImage(InspectImageParams.create("repo1:tag1"));
+        verify(dockerConnector, never()).pull(any(PullParams.class), any(ProgressMonitor.class));
+        verify(dockerConnector).tag(eq(TagParams.create("repo1:tag1", "eclipse-che/" + machine.getContainerName())));
+    }
+
+    @Test
+    public void shouldPullImageWhichIsPresentLocallyIfPullIsForced() throws Exception {
+        when(dockerConnector.inspectImage(any(InspectImageParams.class))).thenReturn(new ImageInfo());
+        provider = spy(new MachineProviderBuilder().setDoForcePullOnBuild(true)
+                                                   .build());
+        CheServiceImpl machine = createService();
+        machine.setBuild(null);
+        machine.setImage("repo1:tag1");
+
+        provider.startService(USER_NAME,
+                              WORKSPACE_ID,
+                              ENV_NAME,
+                              MACHINE_NAME,
+                              false,
+                              NETWORK_NAME,
+                              machine,
+                              LineConsumer.DEV_NULL);
+
+        verify(dockerConnector).pull(eq(PullParams.create("repo1").withTag("tag1")), any(ProgressMonitor.class));
+    }
+
     @Test
     public void shouldNotRemoveImageWhenCreatingInstanceFromLocalImage() throws Exception {
         String repo = "repo1";
@@ -1519,6 +1563,11 @@ public class MachineProviderImplTest {
             return this;
         }
 
+        public MachineProviderBuilder setDoForcePullOnBuild(boolean doForcePullOnBuild) {
+            this.doForcePullOnBuild = doForcePullOnBuild;
+            return this;
+        }
+
         public MachineProviderBuilder setSnapshotUseRegistry(boolean snapshotUseRegistry) {
             this.snapshotUseRegistry = snapshotUseRegistry;
             return this;
@@ -1619,7 +1668,8 @@ public class MachineProviderImplTest {
                                            cpuQuota,
                                            pathEscaper,
                                            extraHosts,
-                                           dnsResolvers);
+                                           dnsResolvers,
+                                           new ImagePreparationCoordinator());
         }
     }
 }
@@ -22,6 +22,7 @@ import org.eclipse.che.plugin.docker.client.json.network.ContainerInNetwork;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator;
+import org.eclipse.che.plugin.docker.machine.DockerResourcesIndex;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -94,6 +95,8 @@ public class DockerAbandonedResourcesCleanerTest {
     @Mock
     private DockerConnector              dockerConnector;
     @Mock
+    private DockerResourcesIndex         resourcesIndex;
+    @Mock
     private DockerContainerNameGenerator nameGenerator;
     @Mock
     private WorkspaceRuntimes            workspaceRuntimes;
@@ -148,6 +151,7 @@ public class DockerAbandonedResourcesCleanerTest {
         when(dockerConnectorProvider.get()).thenReturn(dockerConnector);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnectorProvider,
+                                                          resourcesIndex,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -157,6 +161,8 @@ public class DockerAbandonedResourcesCleanerTest {
         when(machineImpl1.getId()).thenReturn(machineId1);
         when(machineImpl1.getWorkspaceId()).thenReturn(workspaceId1);
 
+        when(resourcesIndex.getContainers()).thenReturn(Optional.empty());
+        when(resourcesIndex.getNetworks()).thenReturn(Optional.empty());
         when(dockerConnector.listContainers()).thenReturn(asList(container1, container2, container3));
 
         when(container1.getNames()).thenReturn(new String[] {containerName1});
@@ -269,6 +275,18 @@ public class DockerAbandonedResourcesCleanerTest {
         verify(dockerConnector, never()).removeContainer(Matchers.anyObject());
     }
 
+    @Test
+    public void cleanerShouldTakeContainersFromIndexWhenItIsAvailable() throws Exception {
+        when(resourcesIndex.getContainers()).thenReturn(of(asList(container2)));
+
+        cleaner.cleanContainers();
+
+        verify(dockerConnector, never()).listContainers();
+        verify(dockerConnector).killContainer(containerId2);
+        verify(dockerConnector).removeContainer(RemoveContainerParams.create(containerId2).withForce(true).withRemoveVolumes(true));
+        verify(dockerConnector, never()).killContainer(containerId3);
+    }
+
     @Test
     public void shouldRemoveAbandonedNetwork() throws IOException {
         // given
@@ -345,6 +363,7 @@ public class DockerAbandonedResourcesCleanerTest {
         additionalNetworks.add(userNetworks);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnectorProvider,
+                                                          resourcesIndex,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -365,6 +384,7 @@ public class DockerAbandonedResourcesCleanerTest {
         additionalNetworks.add(userNetworks);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnectorProvider,
+                                                          resourcesIndex,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -427,4 +447,17 @@ public class DockerAbandonedResourcesCleanerTest {
         verify(dockerConnector).removeNetwork(abandonedNetworkId);
     }
 
+    @Test
+    public void shouldTakeNetworksFromIndexWhenItIsAvailable() throws IOException {
+        // given
+        when(resourcesIndex.getNetworks()).thenReturn(of(asList(abandonedNetwork)));
+
+        // when
+        cleaner.cleanNetworks();
+
+        // then
+        verify(dockerConnector, never()).getNetworks(any());
+        verify(dockerConnector).removeNetwork(abandonedNetworkId);
+    }
+
 }
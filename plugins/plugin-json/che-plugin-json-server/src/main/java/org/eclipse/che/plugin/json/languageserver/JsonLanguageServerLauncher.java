@@ -63,6 +63,12 @@ public class JsonLanguageServerLauncher extends LanguageServerLauncherTemplate {
         return Files.exists(launchScript);
     }
 
+    @Override
+    public boolean isSharedAcrossProjects() {
+        // JSON server does not depend on the project of a document
+        return true;
+    }
+
     protected JsonBasedLanguageServer connectToLanguageServer(Process languageServerProcess) {
         JsonBasedLanguageServer languageServer = new JsonLanguageServer();
         languageServer.connect(languageServerProcess.getInputStream(), languageServerProcess.getOutputStream());
@@ -71,6 +71,12 @@ public class TSLSLauncher extends LanguageServerLauncherTemplate {
         return Files.exists(launchScript);
     }
 
+    @Override
+    public boolean isSharedAcrossProjects() {
+        // TypeScript server finds tsconfig.json of each project on its own
+        return true;
+    }
+
     static {
         description = new LanguageDescriptionImpl();
         description.setFileExtensions(asList(EXTENSIONS));
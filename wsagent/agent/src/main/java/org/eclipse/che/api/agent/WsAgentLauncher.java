@@ -40,6 +40,8 @@ import static org.eclipse.che.api.workspace.shared.Constants.WS_AGENT_PROCESS_NA
 /**
  * Starts ws agent in the machine and waits until ws agent sends notification about its start.
  *
+ * <p>Ws agent is pinged often right after the start, the delay between pings grows up to the ping delay.
+ *
  * @author Alexander Garagatyi
  * @author Anatolii Bazko
  */
@@ -111,11 +113,13 @@ public class WsAgentLauncher implements AgentLauncher {
                       wsAgentPingUrl,
                       pingStartTimestamp);
 
+            long pingDelayMs = Math.max(1, wsAgentPingDelayMs / 4);
             while (System.currentTimeMillis() - pingStartTimestamp < wsAgentMaxStartTimeMs) {
                 if (pingWsAgent(wsAgentPingRequest)) {
                     return;
                 } else {
-                    Thread.sleep(wsAgentPingDelayMs);
+                    Thread.sleep(pingDelayMs);
+                    pingDelayMs = Math.min(pingDelayMs * 2, wsAgentPingDelayMs);
                 }
             }
         } catch (BadRequestException | ServerException | NotFoundException e) {
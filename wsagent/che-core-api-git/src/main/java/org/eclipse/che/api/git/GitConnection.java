@@ -31,6 +31,7 @@ import org.eclipse.che.api.git.params.ResetParams;
 import org.eclipse.che.api.git.params.RmParams;
 import org.eclipse.che.api.git.params.TagCreateParams;
 import org.eclipse.che.api.git.shared.Branch;
+import org.eclipse.che.api.git.shared.DiffCommitFile;
 import org.eclipse.che.api.git.shared.GitUser;
 import org.eclipse.che.api.git.shared.MergeResult;
 import org.eclipse.che.api.git.shared.PullResponse;
@@ -253,6 +254,18 @@ public interface GitConnection extends Closeable {
      */
     LogPage log(LogParams params) throws GitException;
 
+    /**
+     * Get files changed by commit, the same files as {@link #log(LogParams)} returns for the commit.
+     *
+     * @param commit
+     *         commit to get changed files of
+     * @param filePath
+     *         file or folder path to get changed files under, may be {@code null} to get all changed files
+     * @throws GitException
+     *         if commit doesn't exist or any other error occurs
+     */
+    List<DiffCommitFile> getCommitDiffFiles(String commit, String filePath) throws GitException;
+
     /**
      * List references in a remote repository.
      *
@@ -41,6 +41,7 @@ public class GitModule extends AbstractModule {
         bind(GitExceptionMapper.class);
         bind(BranchListWriter.class);
         bind(CommitMessageWriter.class);
+        bind(LogPageWriter.class);
         bind(MergeResultWriter.class);
         bind(RemoteListWriter.class);
         bind(StatusPageWriter.class);
@@ -34,6 +34,7 @@ import org.eclipse.che.api.git.shared.BranchListMode;
 import org.eclipse.che.api.git.shared.CheckoutRequest;
 import org.eclipse.che.api.git.shared.CloneRequest;
 import org.eclipse.che.api.git.shared.CommitRequest;
+import org.eclipse.che.api.git.shared.DiffCommitFile;
 import org.eclipse.che.api.git.shared.Commiters;
 import org.eclipse.che.api.git.shared.ConfigRequest;
 import org.eclipse.che.api.git.shared.Constants;
@@ -279,14 +280,26 @@ public class GitService {
                        @QueryParam("since") String revisionRangeSince,
                        @QueryParam("until") String revisionRangeUntil,
                        @QueryParam("skip") @DefaultValue("0") int skip,
-                       @QueryParam("maxCount") @DefaultValue(Constants.DEFAULT_PAGE_SIZE_QUERY_PARAM) int maxCount) throws ApiException {
+                       @QueryParam("maxCount") @DefaultValue(Constants.DEFAULT_PAGE_SIZE_QUERY_PARAM) int maxCount,
+                       @QueryParam("diffFiles") @DefaultValue("false") boolean diffFiles) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.log(LogParams.create()
                                               .withFileFilter(fileFilter)
                                               .withRevisionRangeSince(revisionRangeSince)
                                               .withRevisionRangeUntil(revisionRangeUntil)
                                               .withMaxCount(maxCount)
-                                              .withSkip(skip));
+                                              .withSkip(skip)
+                                              .withDiffFiles(diffFiles));
+        }
+    }
+
+    @GET
+    @Path("log/files")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<DiffCommitFile> getCommitDiffFiles(@QueryParam("commit") String commit,
+                                                   @QueryParam("filePath") String filePath) throws ApiException {
+        try (GitConnection gitConnection = getGitConnection()) {
+            return gitConnection.getCommitDiffFiles(commit, filePath);
         }
     }
 
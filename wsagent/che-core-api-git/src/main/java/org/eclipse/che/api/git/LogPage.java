@@ -13,10 +13,14 @@ package org.eclipse.che.api.git;
 import org.eclipse.che.api.git.shared.GitUser;
 import org.eclipse.che.api.git.shared.Log;
 import org.eclipse.che.api.git.shared.Revision;
+import org.eclipse.che.dto.server.DtoFactory;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -76,6 +80,24 @@ public class LogPage implements Log, InfoPage {
         writer.flush();
     }
 
+    /**
+     * Writes page as JSON, the same as {@link Log} DTO is serialized, commit by commit,
+     * so JSON of the whole page is not kept in memory.
+     */
+    public void writeJsonTo(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        DtoFactory dtoFactory = DtoFactory.getInstance();
+        writer.write("{\"commits\":[");
+        for (int i = 0; i < commits.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(dtoFactory.toJson(commits.get(i)));
+        }
+        writer.write("]}");
+        writer.flush();
+    }
+
     /** {@inheritDoc} */
     @Override
     public List<Revision> getCommits() {
@@ -26,6 +26,7 @@ public class LogParams {
     private String       filePath;
     private int          skip;
     private int          maxCount;
+    private boolean      diffFiles;
 
     private LogParams() {
         skip = -1;
@@ -166,4 +167,28 @@ public class LogParams {
         this.fileFilter = fileFilter;
         return this;
     }
+
+    /** Returns {@code true} if files changed by each commit should be returned by log command. */
+    public boolean isDiffFiles() {
+        return diffFiles;
+    }
+
+    /** Set whether files changed by each commit should be returned by log command. */
+    public void setDiffFiles(boolean diffFiles) {
+        this.diffFiles = diffFiles;
+    }
+
+    /**
+     * Create a {@link LogParams} object based on whether files changed by each commit should be returned by log command.
+     * Changed files are computed with a diff for each commit, so without them log is much faster,
+     * files of a single commit may be loaded later with
+     * {@link org.eclipse.che.api.git.GitConnection#getCommitDiffFiles(String, String)}
+     *
+     * @param diffFiles
+     *         {@code true} to return changed files or {@code false} otherwise, default value
+     */
+    public LogParams withDiffFiles(boolean diffFiles) {
+        this.diffFiles = diffFiles;
+        return this;
+    }
 }
@@ -17,8 +17,11 @@ import org.eclipse.che.api.git.GitConnection;
 import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.api.git.params.AddParams;
+import org.eclipse.che.api.git.params.CheckoutParams;
 import org.eclipse.che.api.git.params.CommitParams;
 import org.eclipse.che.api.git.params.LogParams;
+import org.eclipse.che.api.git.shared.Branch;
+import org.eclipse.che.api.git.shared.DiffCommitFile;
 import org.eclipse.che.api.git.shared.Revision;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -29,12 +32,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
-
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.eclipse.che.git.impl.GitTestUtil.addFile;
 import static org.eclipse.che.git.impl.GitTestUtil.cleanupTestRepo;
 import static org.eclipse.che.git.impl.GitTestUtil.connectToInitializedGitRepository;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * @author Igor Vinokur
@@ -139,9 +145,9 @@ public class LogTest {
         List<Revision> allCommits =
             connection.log(LogParams.create()).getCommits();
         List<Revision> firstBucketOfCommits =
-            connection.log(LogParams.create().withSkip(1)).getCommits();
+            connection.log(LogParams.create().withSkip(1).withDiffFiles(true)).getCommits();
         List<Revision> secondBucketOfCommits =
-            connection.log(LogParams.create().withSkip(3)).getCommits();
+            connection.log(LogParams.create().withSkip(3).withDiffFiles(true)).getCommits();
 
         //then
         assertEquals(4, allCommits.size());
@@ -240,9 +246,9 @@ public class LogTest {
         List<Revision> allCommits =
             connection.log(LogParams.create()).getCommits();
         List<Revision> firstBacketOfCommits =
-            connection.log(LogParams.create().withSkip(1).withMaxCount(2)).getCommits();
+            connection.log(LogParams.create().withSkip(1).withMaxCount(2).withDiffFiles(true)).getCommits();
         List<Revision> secondBacketOfCommits =
-            connection.log(LogParams.create().withSkip(2).withMaxCount(2)).getCommits();
+            connection.log(LogParams.create().withSkip(2).withMaxCount(2).withDiffFiles(true)).getCommits();
 
         //then
         assertEquals(4, allCommits.size());
@@ -316,4 +322,77 @@ public class LogTest {
         assertEquals(thirdAndFourthCommits.get(0).getMessage(), "add 4.txt file");
         assertEquals(thirdAndFourthCommits.get(1).getMessage(), "add 3.txt file");
     }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = GitConnectionFactoryProvider.class)
+    public void testLogBranchesOfCommits(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        addFile(connection, "1.txt", "someChanges");
+        connection.add(AddParams.create());
+        connection.commit(CommitParams.create("add 1.txt file"));
+
+        connection.checkout(CheckoutParams.create("feature").withCreateNew(true));
+        addFile(connection, "2.txt", "newChanges");
+        connection.add(AddParams.create());
+        connection.commit(CommitParams.create("add 2.txt file"));
+
+        connection.checkout(CheckoutParams.create("master"));
+        addFile(connection, "3.txt", "otherChanges");
+        connection.add(AddParams.create());
+        connection.commit(CommitParams.create("add 3.txt file"));
+
+        //when
+        List<Revision> masterCommits = connection.log(LogParams.create()).getCommits();
+        List<Revision> featureCommits =
+                connection.log(LogParams.create().withRevisionRangeSince("master").withRevisionRangeUntil("feature")).getCommits();
+
+        //then
+        assertEquals(masterCommits.size(), 2);
+        assertEquals(masterCommits.get(0).getMessage(), "add 3.txt file");
+        assertEquals(getBranchNames(masterCommits.get(0)), singletonList("refs/heads/master"));
+        assertEquals(masterCommits.get(1).getMessage(), "add 1.txt file");
+        assertEquals(getBranchNames(masterCommits.get(1)), asList("refs/heads/feature", "refs/heads/master"));
+
+        assertEquals(featureCommits.size(), 1);
+        assertEquals(featureCommits.get(0).getMessage(), "add 2.txt file");
+        assertEquals(getBranchNames(featureCommits.get(0)), singletonList("refs/heads/feature"));
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = GitConnectionFactoryProvider.class)
+    public void testLogWithoutDiffFilesByDefault(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        addFile(connection, "1.txt", "someChanges");
+        connection.add(AddParams.create());
+        connection.commit(CommitParams.create("add 1.txt file"));
+
+        addFile(connection, "1.txt", "newChanges");
+        addFile(connection, "2.txt", "newChanges");
+        connection.add(AddParams.create());
+        connection.commit(CommitParams.create("update 1.txt and add 2.txt files"));
+
+        //when
+        List<Revision> commits = connection.log(LogParams.create()).getCommits();
+        List<DiffCommitFile> diffFiles = connection.getCommitDiffFiles(commits.get(0).getId(), null);
+        List<DiffCommitFile> filteredDiffFiles = connection.getCommitDiffFiles(commits.get(0).getId(), "2.txt");
+
+        //then
+        assertEquals(commits.size(), 2);
+        assertTrue(commits.get(0).getDiffCommitFile().isEmpty());
+        assertTrue(commits.get(1).getDiffCommitFile().isEmpty());
+        assertEquals(getBranchNames(commits.get(0)), singletonList("refs/heads/master"));
+
+        assertEquals(diffFiles.size(), 2);
+        assertEquals(diffFiles.get(0).getNewPath(), "1.txt");
+        assertEquals(diffFiles.get(0).getChangeType(), "MODIFY");
+        assertEquals(diffFiles.get(1).getNewPath(), "2.txt");
+        assertEquals(diffFiles.get(1).getChangeType(), "ADD");
+
+        assertEquals(filteredDiffFiles.size(), 1);
+        assertEquals(filteredDiffFiles.get(0).getNewPath(), "2.txt");
+    }
+
+    private static List<String> getBranchNames(Revision revision) {
+        return revision.getBranches().stream().map(Branch::getName).collect(Collectors.toList());
+    }
 }
@@ -19,6 +19,8 @@ import org.eclipse.che.api.languageserver.shared.model.LanguageDescription;
  * @author Anatoliy Bazko
  */
 public interface LanguageServerLauncher {
+    /** Memory a language server is expected to use unless its launcher tells otherwise. */
+    long DEFAULT_MEMORY_ESTIMATE_BYTES = 256 * 1024 * 1024;
 
     /**
      * Starts {@link io.typefox.lsapi.services.LanguageServer}.
@@ -31,4 +33,32 @@ public interface LanguageServerLauncher {
     LanguageDescription getLanguageDescription();
 
     boolean isAbleToLaunch();
+
+    /**
+     * Returns {@code true} if a single started server is able to serve all the projects of the workspace,
+     * it is then started once on the projects root folder instead of once per project.
+     */
+    default boolean isSharedAcrossProjects() {
+        return false;
+    }
+
+    /**
+     * Returns the amount of memory in bytes a started server is expected to use,
+     * it is counted against the memory limit of all the started language servers.
+     */
+    default long getMemoryEstimateBytes() {
+        return DEFAULT_MEMORY_ESTIMATE_BYTES;
+    }
+
+    /**
+     * Waits for the process of a server launched by this launcher, which is asked to shut down and exit,
+     * to terminate and kills the process if it doesn't terminate in time.
+     *
+     * @param server
+     *         server launched by this launcher
+     * @param timeoutMs
+     *         time in milliseconds to wait for the process to terminate
+     */
+    default void terminate(LanguageServer server, long timeoutMs) {
+    }
 }
@@ -14,15 +14,40 @@ import io.typefox.lsapi.services.LanguageServer;
 
 import org.eclipse.che.api.languageserver.exception.LanguageServerException;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * @author Anatolii Bazko
  */
 public abstract class LanguageServerLauncherTemplate implements LanguageServerLauncher {
 
+    private final Map<LanguageServer, Process> processes = new ConcurrentHashMap<>();
+
     @Override
     public final LanguageServer launch(String projectPath) throws LanguageServerException {
         Process languageServerProcess = startLanguageServerProcess(projectPath);
-        return connectToLanguageServer(languageServerProcess);
+        LanguageServer languageServer = connectToLanguageServer(languageServerProcess);
+        processes.put(languageServer, languageServerProcess);
+        return languageServer;
+    }
+
+    @Override
+    public void terminate(LanguageServer server, long timeoutMs) {
+        Process process = processes.remove(server);
+        if (process == null) {
+            return;
+        }
+        try {
+            if (!process.waitFor(timeoutMs, MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
     }
 
     abstract protected Process startLanguageServerProcess(String projectPath) throws LanguageServerException;
@@ -36,4 +36,14 @@ public interface LanguageServerRegistry {
     List<LanguageDescription> getSupportedLanguages();
 
     Map<ProjectExtensionKey, LanguageServerDescription> getInitializedLanguages();
+
+    /**
+     * Notifies that the document is opened in the language server, a server is not stopped while it has opened documents.
+     */
+    void onDocumentOpened(LanguageServer server, String fileUri);
+
+    /**
+     * Notifies that the document is closed in the language server.
+     */
+    void onDocumentClosed(LanguageServer server, String fileUri);
 }
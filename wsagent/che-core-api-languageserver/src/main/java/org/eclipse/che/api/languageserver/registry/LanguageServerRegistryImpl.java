@@ -13,9 +13,11 @@ package org.eclipse.che.api.languageserver.registry;
 import io.typefox.lsapi.ServerCapabilities;
 import io.typefox.lsapi.services.LanguageServer;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.languageserver.exception.LanguageServerException;
@@ -26,21 +28,39 @@ import org.eclipse.che.api.project.server.FolderEntry;
 import org.eclipse.che.api.project.server.ProjectManager;
 import org.eclipse.che.api.project.server.VirtualFileEntry;
 import org.eclipse.che.commons.annotation.Nullable;
+import org.slf4j.Logger;
 
+import javax.annotation.PreDestroy;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.stream.Collectors;
 
 import static com.google.common.io.Files.getFileExtension;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.eclipse.che.api.languageserver.shared.ProjectExtensionKey.createProjectKey;
+import static org.slf4j.LoggerFactory.getLogger;
 
+/**
+ * Starts language servers on demand, one per project, or a single one for all the projects if its launcher
+ * {@link LanguageServerLauncher#isSharedAcrossProjects() supports it}.
+ *
+ * <p>A server that has no opened documents and is not used during the idle timeout is stopped, it is started
+ * again once it is needed. The sum of {@link LanguageServerLauncher#getMemoryEstimateBytes() expected memory}
+ * of started servers is limited, least recently used idle servers are stopped to start a new one within the limit.
+ */
 @Singleton
 public class LanguageServerRegistryImpl implements LanguageServerRegistry, ServerInitializerObserver {
+    private static final Logger LOG = getLogger(LanguageServerRegistryImpl.class);
+
     public final static String PROJECT_FOLDER_PATH = "/projects";
 
     /**
@@ -53,19 +73,66 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry, Serve
      */
     private final ConcurrentHashMap<ProjectExtensionKey, LanguageServer> projectToServer;
 
+    /**
+     * Started {@link LanguageServer} that serves all the projects, by launcher.
+     */
+    private final ConcurrentHashMap<LanguageServerLauncher, LanguageServer> sharedServers;
+
+    /**
+     * Usage of started {@link LanguageServer}.
+     */
+    private final ConcurrentHashMap<LanguageServer, ServerUsage> serverUsages;
+
     private final Provider<ProjectManager> projectManagerProvider;
     private final ServerInitializer        initializer;
+    private final long                     idleTimeoutMs;
+    private final long                     memoryLimitBytes;
+    private final ScheduledExecutorService idleServersReaper;
+
+    /**
+     * Memory reserved for servers which are being started, guarded by {@link #memoryLock}.
+     */
+    private final Object memoryLock = new Object();
+    private       long   reservedMemoryBytes;
 
-    @Inject
     public LanguageServerRegistryImpl(Set<LanguageServerLauncher> languageServerLaunchers,
                                       Provider<ProjectManager> projectManagerProvider,
                                       ServerInitializer initializer) {
+        this(languageServerLaunchers, projectManagerProvider, initializer, 0, 0);
+    }
+
+    /**
+     * @param idleTimeoutMs
+     *         time in milliseconds after which a server with no opened documents is stopped,
+     *         non positive value disables stopping of idle servers
+     * @param memoryLimitBytes
+     *         max memory in bytes all the started servers are expected to use, non positive value disables the limit
+     */
+    @Inject
+    public LanguageServerRegistryImpl(Set<LanguageServerLauncher> languageServerLaunchers,
+                                      Provider<ProjectManager> projectManagerProvider,
+                                      ServerInitializer initializer,
+                                      @Named("che.languageserver.idle_timeout_ms") long idleTimeoutMs,
+                                      @Named("che.languageserver.memory_limit_bytes") long memoryLimitBytes) {
         this.projectManagerProvider = projectManagerProvider;
         this.initializer = initializer;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.memoryLimitBytes = memoryLimitBytes;
         this.extensionToLauncher = new ConcurrentHashMap<>();
         this.projectToServer = new ConcurrentHashMap<>();
+        this.sharedServers = new ConcurrentHashMap<>();
+        this.serverUsages = new ConcurrentHashMap<>();
         this.initializer.addObserver(this);
 
+        if (idleTimeoutMs > 0) {
+            idleServersReaper = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("LanguageServerReaper-%d")
+                                                                                             .setDaemon(true)
+                                                                                             .build());
+            idleServersReaper.scheduleWithFixedDelay(this::stopIdleServers, idleTimeoutMs, idleTimeoutMs, MILLISECONDS);
+        } else {
+            idleServersReaper = null;
+        }
+
         for (LanguageServerLauncher launcher : languageServerLaunchers) {
             for (String extension : launcher.getLanguageDescription().getFileExtensions()) {
                 extensionToLauncher.putIfAbsent(extension, new ArrayList<>());
@@ -90,19 +157,48 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry, Serve
 
         for (LanguageServerLauncher launcher : extensionToLauncher.get(extension)) {
             if (!projectToServer.containsKey(projectKey)) {
-                synchronized (launcher) {
-                    if (!projectToServer.containsKey(projectKey)) {
-                        LanguageServer server = initializer.initialize(launcher, projectPath);
-                        projectToServer.put(projectKey, server);
+                long reserved = 0;
+                if (!launcher.isSharedAcrossProjects() || !sharedServers.containsKey(launcher)) {
+                    // stops servers of other launchers, so it is done before the lock of this launcher is taken
+                    reserved = reserveMemory(launcher);
+                }
+                try {
+                    synchronized (launcher) {
+                        if (!projectToServer.containsKey(projectKey)) {
+                            projectToServer.put(projectKey, startServer(launcher, projectPath));
+                        }
                     }
+                } finally {
+                    cancelReservation(reserved);
                 }
             }
-            return projectToServer.get(projectKey);
+            LanguageServer server = projectToServer.get(projectKey);
+            ServerUsage usage = server != null ? serverUsages.get(server) : null;
+            if (usage != null) {
+                usage.lastUsed = System.currentTimeMillis();
+            }
+            return server;
         }
 
         return null;
     }
 
+    private LanguageServer startServer(LanguageServerLauncher launcher, String projectPath) throws LanguageServerException {
+        if (!launcher.isSharedAcrossProjects()) {
+            LanguageServer server = initializer.initialize(launcher, projectPath);
+            serverUsages.put(server, new ServerUsage(launcher));
+            return server;
+        }
+
+        LanguageServer server = sharedServers.get(launcher);
+        if (server == null) {
+            server = initializer.initialize(launcher, PROJECT_FOLDER_PATH);
+            serverUsages.put(server, new ServerUsage(launcher));
+            sharedServers.put(launcher, server);
+        }
+        return server;
+    }
+
 
     @Override
     public List<LanguageDescription> getSupportedLanguages() {
@@ -122,6 +218,24 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry, Serve
                               .collect(Collectors.toMap(Map.Entry::getKey, e -> initializedServers.get(e.getValue())));
     }
 
+    @Override
+    public void onDocumentOpened(LanguageServer server, String fileUri) {
+        ServerUsage usage = serverUsages.get(server);
+        if (usage != null) {
+            usage.openedDocuments.add(fileUri);
+            usage.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void onDocumentClosed(LanguageServer server, String fileUri) {
+        ServerUsage usage = serverUsages.get(server);
+        if (usage != null) {
+            usage.openedDocuments.remove(fileUri);
+            usage.lastUsed = System.currentTimeMillis();
+        }
+    }
+
     protected String extractProjectPath(String filePath) throws LanguageServerException {
         FolderEntry root;
         try {
@@ -157,4 +271,128 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry, Serve
             projectToServer.put(createProjectKey(projectPath, ext), server);
         }
     }
+
+    /** Stops servers that have no opened documents and are not used during the idle timeout. */
+    protected void stopIdleServers() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+        serverUsages.forEach((server, usage) -> {
+            if (usage.isIdleSince(idleSince)) {
+                LOG.info("Stopping Language Server {} as it is idle", usage.launcher.getLanguageDescription().getLanguageId());
+                if (detachServer(server, usage)) {
+                    stopServer(server, usage);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reserves memory for a server of the launcher, least recently used idle servers are stopped
+     * if the server doesn't fit the memory limit. Started servers and reservations are counted
+     * under the same lock, so concurrently started servers can't exceed the limit together.
+     *
+     * @return reserved memory in bytes which is to be {@link #cancelReservation(long) cancelled}
+     * once the server is started or failed to start
+     * @throws LanguageServerException
+     *         if the limit can't be satisfied as all the servers have opened documents
+     */
+    private long reserveMemory(LanguageServerLauncher launcher) throws LanguageServerException {
+        if (memoryLimitBytes <= 0) {
+            return 0;
+        }
+        long required = launcher.getMemoryEstimateBytes();
+        Map<LanguageServer, ServerUsage> detached = new LinkedHashMap<>();
+        synchronized (memoryLock) {
+            long used = reservedMemoryBytes +
+                        serverUsages.values().stream().mapToLong(usage -> usage.launcher.getMemoryEstimateBytes()).sum();
+            if (used + required > memoryLimitBytes) {
+                List<Map.Entry<LanguageServer, ServerUsage>> idleServers =
+                        serverUsages.entrySet()
+                                    .stream()
+                                    .filter(entry -> entry.getValue().openedDocuments.isEmpty())
+                                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                                    .collect(Collectors.toList());
+                for (Map.Entry<LanguageServer, ServerUsage> entry : idleServers) {
+                    if (used + required <= memoryLimitBytes) {
+                        break;
+                    }
+                    ServerUsage usage = entry.getValue();
+                    if (detachServer(entry.getKey(), usage)) {
+                        LOG.info("Stopping Language Server {} to free memory for Language Server {}",
+                                 usage.launcher.getLanguageDescription().getLanguageId(),
+                                 launcher.getLanguageDescription().getLanguageId());
+                        detached.put(entry.getKey(), usage);
+                        used -= usage.launcher.getMemoryEstimateBytes();
+                    }
+                }
+            }
+            if (used + required <= memoryLimitBytes) {
+                reservedMemoryBytes += required;
+            } else {
+                required = -1;
+            }
+        }
+        // detached servers are not counted any more, so they are stopped out of the lock
+        detached.forEach(this::stopServer);
+        if (required < 0) {
+            throw new LanguageServerException("Can't start Language Server " + launcher.getLanguageDescription().getLanguageId() +
+                                              ", memory limit of language servers " + memoryLimitBytes + " bytes is reached");
+        }
+        return required;
+    }
+
+    private void cancelReservation(long reserved) {
+        if (reserved > 0) {
+            synchronized (memoryLock) {
+                reservedMemoryBytes -= reserved;
+            }
+        }
+    }
+
+    /**
+     * Removes the server from the started ones, so it is not used and counted any more.
+     *
+     * @return false if the server is already removed
+     */
+    private boolean detachServer(LanguageServer server, ServerUsage usage) {
+        synchronized (usage.launcher) {
+            if (!serverUsages.remove(server, usage)) {
+                return false;
+            }
+            projectToServer.values().removeIf(server::equals);
+            sharedServers.remove(usage.launcher, server);
+        }
+        return true;
+    }
+
+    private void stopServer(LanguageServer server, ServerUsage usage) {
+        try {
+            initializer.stop(server);
+        } catch (RuntimeException e) {
+            LOG.error("Failed to stop Language Server " + usage.launcher.getLanguageDescription().getLanguageId(), e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (idleServersReaper != null) {
+            idleServersReaper.shutdownNow();
+        }
+    }
+
+    private static class ServerUsage {
+        final LanguageServerLauncher launcher;
+        final Set<String>            openedDocuments;
+
+        volatile long lastUsed;
+
+        ServerUsage(LanguageServerLauncher launcher) {
+            this.launcher = launcher;
+            this.openedDocuments = ConcurrentHashMap.newKeySet();
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        boolean isIdleSince(long idleSince) {
+            return openedDocuments.isEmpty() && lastUsed < idleSince;
+        }
+    }
 }
@@ -32,4 +32,9 @@ public interface ServerInitializer extends ServerInitializerObservable {
      * Returns initialized servers.
      */
     Map<LanguageServer, LanguageServerDescription> getInitializedServers();
+
+    /**
+     * Shuts down initialized {@link LanguageServer}, it is removed from initialized servers.
+     */
+    void stop(LanguageServer server);
 }
@@ -45,8 +45,10 @@ import java.util.stream.Collectors;
 public class ServerInitializerImpl implements ServerInitializer {
     private final static Logger LOG = LoggerFactory.getLogger(ServerInitializerImpl.class);
 
-    private static final int    PROCESS_ID  = getProcessId();
-    private static final String CLIENT_NAME = "EclipseChe";
+    private static final int    PROCESS_ID      = getProcessId();
+    private static final String CLIENT_NAME     = "EclipseChe";
+    /** Time a stopped server is given to exit before its process is killed. */
+    private static final long   STOP_TIMEOUT_MS = 5_000;
 
     private final List<ServerInitializerObserver>   observers;
     private final PublishDiagnosticsParamsMessenger publishDiagnosticsParamsMessenger;
@@ -54,6 +56,7 @@ public class ServerInitializerImpl implements ServerInitializer {
     
     private final ConcurrentHashMap<String, LanguageServer>           languageIdToServers;
     private final ConcurrentHashMap<LanguageServer, LanguageServerDescription> serversToInitResult;
+    private final ConcurrentHashMap<LanguageServer, LanguageServerLauncher>    serversToLaunchers;
 
     @Inject
     public ServerInitializerImpl(final PublishDiagnosticsParamsMessenger publishDiagnosticsParamsMessenger,
@@ -61,6 +64,7 @@ public class ServerInitializerImpl implements ServerInitializer {
         this.observers = new ArrayList<>();
         this.languageIdToServers = new ConcurrentHashMap<>();
         this.serversToInitResult = new ConcurrentHashMap<>();
+        this.serversToLaunchers = new ConcurrentHashMap<>();
         this.publishDiagnosticsParamsMessenger = publishDiagnosticsParamsMessenger;
         this.showMessageMessenger = showMessageMessenger;
     }
@@ -112,6 +116,26 @@ public class ServerInitializerImpl implements ServerInitializer {
         return Collections.unmodifiableMap(serversToInitResult);
     }
 
+    @Override
+    public void stop(LanguageServer server) {
+        LanguageServerDescription description = serversToInitResult.remove(server);
+        languageIdToServers.values().remove(server);
+        if (server instanceof ServerInitializerObserver) {
+            removeObserver((ServerInitializerObserver)server);
+        }
+
+        server.shutdown();
+        server.exit();
+        LanguageServerLauncher launcher = serversToLaunchers.remove(server);
+        if (launcher != null) {
+            launcher.terminate(server, STOP_TIMEOUT_MS);
+        }
+
+        if (description != null) {
+            LOG.info("Stopped Language Server {}", description.getLanguageDescription().getLanguageId());
+        }
+    }
+
     protected LanguageServer doInitialize(LanguageServerLauncher launcher, String projectPath) throws LanguageServerException {
         String languageId = launcher.getLanguageDescription().getLanguageId();
         InitializeParamsImpl initializeParams = prepareInitializeParams(projectPath);
@@ -124,6 +148,7 @@ public class ServerInitializerImpl implements ServerInitializer {
                     "Can't initialize Language Server " + languageId + " on " + projectPath + ". " + e.getMessage(), e);
         }
         registerCallbacks(server);
+        serversToLaunchers.put(server, launcher);
 
         CompletableFuture<InitializeResult> completableFuture = server.initialize(initializeParams);
         try {
@@ -132,6 +157,8 @@ public class ServerInitializerImpl implements ServerInitializer {
         } catch (InterruptedException | ExecutionException e) {
             server.shutdown();
             server.exit();
+            serversToLaunchers.remove(server);
+            launcher.terminate(server, STOP_TIMEOUT_MS);
 
             throw new LanguageServerException("Error fetching server capabilities " + languageId + ". " + e.getMessage(), e);
         }
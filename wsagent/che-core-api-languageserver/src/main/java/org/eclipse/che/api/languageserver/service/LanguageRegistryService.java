@@ -18,6 +18,7 @@ import org.eclipse.che.api.languageserver.exception.LanguageServerException;
 import org.eclipse.che.api.languageserver.registry.LanguageServerDescription;
 import org.eclipse.che.api.languageserver.registry.LanguageServerRegistry;
 import org.eclipse.che.api.languageserver.registry.LanguageServerRegistryImpl;
+import org.eclipse.che.api.languageserver.service.LanguageServerRequestTracker.LanguageServerRequestMetrics;
 import org.eclipse.che.api.languageserver.shared.ProjectExtensionKey;
 import org.eclipse.che.api.languageserver.shared.lsapi.InitializeResultDTO;
 import org.eclipse.che.api.languageserver.shared.lsapi.LanguageDescriptionDTO;
@@ -30,6 +31,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.languageserver.DtoConverter.asDto;
@@ -39,11 +41,13 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
 @Path("languageserver")
 public class LanguageRegistryService {
 
-	private final LanguageServerRegistry registry;
+	private final LanguageServerRegistry       registry;
+	private final LanguageServerRequestTracker requestTracker;
 
 	@Inject
-	public LanguageRegistryService(LanguageServerRegistry registry) {
+	public LanguageRegistryService(LanguageServerRegistry registry, LanguageServerRequestTracker requestTracker) {
 		this.registry = registry;
+		this.requestTracker = requestTracker;
 	}
 
 	@GET
@@ -80,6 +84,14 @@ public class LanguageRegistryService {
 
 	}
 
+	/** Returns metrics of requests to initialized language servers, by language server name. */
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	@Path("metrics")
+	public Map<String, LanguageServerRequestMetrics> getRequestMetrics() {
+		return requestTracker.getMetrics();
+	}
+
 	@POST
     @Path("initialize")
 	public void initialize(@QueryParam("path") String path) throws LanguageServerException {
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.languageserver.service;
+
+import io.typefox.lsapi.services.LanguageServer;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import org.eclipse.che.api.languageserver.registry.LanguageServerDescription;
+import org.eclipse.che.api.languageserver.registry.ServerInitializer;
+import org.slf4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Keeps track of requests sent to language servers.
+ *
+ * <p>A request may be registered with a key, e.g. a method name along with a document, then a request registered
+ * later with the same key supersedes it and the superseded request is cancelled if it is not answered yet.
+ * Cancelling a request future makes the language server client send {@code $/cancelRequest} to the server.
+ *
+ * <p>Latency of answered requests and the number of requests in flight are counted per language server.
+ */
+@Singleton
+public class LanguageServerRequestTracker {
+    private static final Logger LOG = getLogger(LanguageServerRequestTracker.class);
+
+    private final ServerInitializer                                 initializer;
+    private final Map<String, CompletableFuture<?>>                 latestRequests;
+    private final Map<LanguageServer, LanguageServerRequestMetrics> metrics;
+
+    @Inject
+    public LanguageServerRequestTracker(ServerInitializer initializer) {
+        this.initializer = initializer;
+        this.latestRequests = new ConcurrentHashMap<>();
+        this.metrics = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers request sent to the language server.
+     *
+     * @param server
+     *         language server the request is sent to
+     * @param supersedeKey
+     *         key of requests the registered one supersedes, or {@code null} if it doesn't supersede any requests
+     * @param request
+     *         future of the response of the language server
+     * @return the same request future
+     */
+    public <T> CompletableFuture<T> track(LanguageServer server, String supersedeKey, CompletableFuture<T> request) {
+        final LanguageServerRequestMetrics serverMetrics = metrics.computeIfAbsent(server, this::createMetrics);
+        final long started = System.nanoTime();
+        serverMetrics.inFlight.incrementAndGet();
+
+        if (supersedeKey != null) {
+            final CompletableFuture<?> superseded = latestRequests.put(supersedeKey, request);
+            if (superseded != null && superseded.cancel(true)) {
+                LOG.debug("Request '{}' to language server '{}' is superseded and cancelled", supersedeKey, serverMetrics.serverName);
+            }
+        }
+
+        request.whenComplete((result, error) -> {
+            if (supersedeKey != null) {
+                latestRequests.remove(supersedeKey, request);
+            }
+            serverMetrics.inFlight.decrementAndGet();
+            if (error == null) {
+                serverMetrics.record(System.nanoTime() - started);
+            } else if (error instanceof CancellationException) {
+                serverMetrics.cancelled.incrementAndGet();
+            } else {
+                serverMetrics.failed.incrementAndGet();
+            }
+        });
+        return request;
+    }
+
+    /** Returns metrics of requests to initialized language servers, by language server name. */
+    public Map<String, LanguageServerRequestMetrics> getMetrics() {
+        metrics.keySet().retainAll(initializer.getInitializedServers().keySet());
+        final Map<String, LanguageServerRequestMetrics> result = new HashMap<>();
+        for (LanguageServerRequestMetrics serverMetrics : metrics.values()) {
+            result.put(serverMetrics.serverName, serverMetrics);
+        }
+        return result;
+    }
+
+    private LanguageServerRequestMetrics createMetrics(LanguageServer server) {
+        final LanguageServerDescription description = initializer.getInitializedServers().get(server);
+        if (description != null && description.getLanguageDescription() != null) {
+            return new LanguageServerRequestMetrics(description.getLanguageDescription().getLanguageId());
+        }
+        return new LanguageServerRequestMetrics(server.getClass().getSimpleName() + '@' + Integer.toHexString(server.hashCode()));
+    }
+
+    /** Metrics of requests to a single language server. */
+    public static class LanguageServerRequestMetrics {
+        private final String     serverName;
+        private final AtomicLong inFlight          = new AtomicLong();
+        private final AtomicLong answered          = new AtomicLong();
+        private final AtomicLong cancelled         = new AtomicLong();
+        private final AtomicLong failed            = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+        private final AtomicLong maxLatencyNanos   = new AtomicLong();
+
+        private LanguageServerRequestMetrics(String serverName) {
+            this.serverName = serverName;
+        }
+
+        private void record(long latencyNanos) {
+            answered.incrementAndGet();
+            totalLatencyNanos.addAndGet(latencyNanos);
+            maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        }
+
+        public String getServerName() {
+            return serverName;
+        }
+
+        /** Returns the number of requests that are sent to the server and are waiting for a response. */
+        public long getInFlightCount() {
+            return inFlight.get();
+        }
+
+        /** Returns the total number of requests answered by the server. */
+        public long getAnsweredCount() {
+            return answered.get();
+        }
+
+        /** Returns the total number of requests cancelled because they were superseded or the client disconnected. */
+        public long getCancelledCount() {
+            return cancelled.get();
+        }
+
+        /** Returns the total number of requests failed with an error. */
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        /** Returns the average time in milliseconds the server takes to answer a request. */
+        public double getAverageLatencyMs() {
+            final long count = answered.get();
+            return count == 0 ? 0 : (double)totalLatencyNanos.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        /** Returns the longest time in milliseconds the server took to answer a request. */
+        public long getMaxLatencyMs() {
+            return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+        }
+    }
+}
@@ -10,14 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.languageserver.service;
 
-import io.typefox.lsapi.CompletionItem;
-import io.typefox.lsapi.CompletionList;
-import io.typefox.lsapi.DocumentHighlight;
-import io.typefox.lsapi.Hover;
 import io.typefox.lsapi.Location;
-import io.typefox.lsapi.SignatureHelp;
-import io.typefox.lsapi.SymbolInformation;
-import io.typefox.lsapi.TextEdit;
 import io.typefox.lsapi.impl.LocationImpl;
 import io.typefox.lsapi.services.LanguageServer;
 
@@ -43,15 +36,25 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.ConnectionCallback;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import static java.util.Collections.emptyList;
 
 /**
  * REST API for the textDocument/* services defined in https://github.com/Microsoft/vscode-languageserver-protocol
  * Dispatches onto the {@link LanguageServerRegistryImpl}.
+ *
+ * <p>Requests are answered asynchronously, once the language server responds, so no request thread waits for
+ * the language server meanwhile. A request is cancelled when the client disconnects, and completion and hover
+ * requests are cancelled when a newer request of the same kind arrives for the same document.
  */
 @Singleton
 @Path("languageserver/textDocument")
@@ -59,11 +62,13 @@ public class TextDocumentService {
 
     private static final String FILE_PROJECTS = "file:///projects";
 
-    private final LanguageServerRegistry languageServerRegistry;
+    private final LanguageServerRegistry       languageServerRegistry;
+    private final LanguageServerRequestTracker requestTracker;
 
     @Inject
-    public TextDocumentService(LanguageServerRegistry languageServerRegistry) {
+    public TextDocumentService(LanguageServerRegistry languageServerRegistry, LanguageServerRequestTracker requestTracker) {
         this.languageServerRegistry = languageServerRegistry;
+        this.requestTracker = requestTracker;
     }
 
     static String prefixURI(String relativePath) {
@@ -81,55 +86,50 @@ public class TextDocumentService {
     @Path("completion")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public CompletionList completion(TextDocumentPositionParamsDTO textDocumentPositionParams) throws InterruptedException,
-                                                                                                      ExecutionException,
-                                                                                                      LanguageServerException {
+    public void completion(TextDocumentPositionParamsDTO textDocumentPositionParams,
+                           @Suspended AsyncResponse response) throws LanguageServerException {
         textDocumentPositionParams.getTextDocument().setUri(prefixURI(textDocumentPositionParams.getTextDocument().getUri()));
         textDocumentPositionParams.setUri(prefixURI(textDocumentPositionParams.getUri()));
         LanguageServer server = getServer(textDocumentPositionParams.getTextDocument().getUri());
         if (server == null) {
-            return null;
+            response.resume(null);
+            return;
         }
-        return server.getTextDocumentService()
-                     .completion(textDocumentPositionParams).get();
+        resume(response,
+               server,
+               "completion:" + textDocumentPositionParams.getTextDocument().getUri(),
+               server.getTextDocumentService().completion(textDocumentPositionParams));
     }
 
     @POST
     @Path("documentSymbol")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public List<? extends SymbolInformation> documentSymbol(DocumentSymbolParamsDTO documentSymbolParams) throws ExecutionException,
-                                                                                                                 InterruptedException,
-                                                                                                                 LanguageServerException {
+    public void documentSymbol(DocumentSymbolParamsDTO documentSymbolParams,
+                               @Suspended AsyncResponse response) throws LanguageServerException {
         documentSymbolParams.getTextDocument().setUri(prefixURI(documentSymbolParams.getTextDocument().getUri()));
         LanguageServer server = getServer(documentSymbolParams.getTextDocument().getUri());
         if (server == null) {
-            return emptyList();
+            response.resume(emptyList());
+            return;
         }
 
-        return server.getTextDocumentService().documentSymbol(documentSymbolParams).get();
+        resume(response, server, null, server.getTextDocumentService().documentSymbol(documentSymbolParams));
     }
 
     @POST
     @Path("references")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public List<? extends Location> references(ReferenceParamsDTO params) throws ExecutionException,
-                                                                                 InterruptedException,
-                                                                                 LanguageServerException {
+    public void references(ReferenceParamsDTO params, @Suspended AsyncResponse response) throws LanguageServerException {
         params.getTextDocument().setUri(prefixURI(params.getTextDocument().getUri()));
         LanguageServer server = getServer(params.getTextDocument().getUri());
         if (server == null) {
-            return emptyList();
+            response.resume(emptyList());
+            return;
         }
 
-        List<? extends Location> locations = server.getTextDocumentService().references(params).get();
-        locations.forEach(o -> {
-            if (o instanceof LocationImpl) {
-                ((LocationImpl)o).setUri(removePrefixUri(o.getUri()));
-            }
-        });
-        return locations;
+        resume(response, server, null, server.getTextDocumentService().references(params), TextDocumentService::removePrefixUris);
     }
 
 
@@ -137,22 +137,15 @@ public class TextDocumentService {
     @Path("definition")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public List<? extends Location> definition(TextDocumentPositionParamsDTO params) throws ExecutionException,
-                                                                                            InterruptedException,
-                                                                                            LanguageServerException {
+    public void definition(TextDocumentPositionParamsDTO params, @Suspended AsyncResponse response) throws LanguageServerException {
         params.getTextDocument().setUri(prefixURI(params.getTextDocument().getUri()));
         LanguageServer server = getServer(params.getTextDocument().getUri());
         if (server == null) {
-            return emptyList();
+            response.resume(emptyList());
+            return;
         }
 
-        List<? extends Location> locations = server.getTextDocumentService().definition(params).get();
-        locations.forEach(o -> {
-            if (o instanceof LocationImpl) {
-                ((LocationImpl)o).setUri(removePrefixUri(o.getUri()));
-            }
-        });
-        return locations;
+        resume(response, server, null, server.getTextDocumentService().definition(params), TextDocumentService::removePrefixUris);
     }
 
 
@@ -160,14 +153,12 @@ public class TextDocumentService {
     @Path("completionItem/resolve")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public CompletionItem resolveCompletionItem(CompletionItemDTO unresolved) throws InterruptedException,
-                                                                                     ExecutionException,
-                                                                                     LanguageServerException {
+    public void resolveCompletionItem(CompletionItemDTO unresolved, @Suspended AsyncResponse response) throws LanguageServerException {
         LanguageServer server = getServer(prefixURI(unresolved.getTextDocumentIdentifier().getUri()));
         if (server != null) {
-            return server.getTextDocumentService().resolveCompletionItem(unresolved).get();
+            resume(response, server, null, server.getTextDocumentService().resolveCompletionItem(unresolved));
         } else {
-            return unresolved;
+            response.resume(unresolved);
         }
     }
 
@@ -175,15 +166,17 @@ public class TextDocumentService {
     @Path("hover")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Hover hover(TextDocumentPositionParamsDTO positionParams)
-            throws LanguageServerException, ExecutionException, InterruptedException {
+    public void hover(TextDocumentPositionParamsDTO positionParams, @Suspended AsyncResponse response) throws LanguageServerException {
         positionParams.getTextDocument().setUri(prefixURI(positionParams.getTextDocument().getUri()));
         positionParams.setUri(prefixURI(positionParams.getUri()));
         LanguageServer server = getServer(positionParams.getTextDocument().getUri());
         if (server != null) {
-            return server.getTextDocumentService().hover(positionParams).get();
+            resume(response,
+                   server,
+                   "hover:" + positionParams.getTextDocument().getUri(),
+                   server.getTextDocumentService().hover(positionParams));
         } else {
-            return null;
+            response.resume(null);
         }
     }
 
@@ -191,15 +184,15 @@ public class TextDocumentService {
     @Path("signatureHelp")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public SignatureHelp signatureHelp(TextDocumentPositionParamsDTO positionParams)
-            throws LanguageServerException, ExecutionException, InterruptedException {
+    public void signatureHelp(TextDocumentPositionParamsDTO positionParams,
+                              @Suspended AsyncResponse response) throws LanguageServerException {
         positionParams.getTextDocument().setUri(prefixURI(positionParams.getTextDocument().getUri()));
         positionParams.setUri(prefixURI(positionParams.getUri()));
         LanguageServer server = getServer(positionParams.getTextDocument().getUri());
         if (server != null) {
-            return server.getTextDocumentService().signatureHelp(positionParams).get();
+            resume(response, server, null, server.getTextDocumentService().signatureHelp(positionParams));
         } else {
-            return null;
+            response.resume(null);
         }
     }
 
@@ -207,14 +200,14 @@ public class TextDocumentService {
     @Path("formatting")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public List<? extends TextEdit> formatting(DocumentFormattingParamsDTO params)
-            throws InterruptedException, ExecutionException, LanguageServerException {
+    public void formatting(DocumentFormattingParamsDTO params, @Suspended AsyncResponse response) throws LanguageServerException {
         params.getTextDocument().setUri(prefixURI(params.getTextDocument().getUri()));
         LanguageServer server = getServer(params.getTextDocument().getUri());
         if (server == null) {
-            return emptyList();
+            response.resume(emptyList());
+            return;
         }
-        return server.getTextDocumentService().formatting(params).get();
+        resume(response, server, null, server.getTextDocumentService().formatting(params));
 
     }
 
@@ -222,14 +215,14 @@ public class TextDocumentService {
     @Path("rangeFormatting")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public List<? extends TextEdit> rangeFormatting(DocumentRangeFormattingParamsDTO params)
-            throws InterruptedException, ExecutionException, LanguageServerException {
+    public void rangeFormatting(DocumentRangeFormattingParamsDTO params, @Suspended AsyncResponse response) throws LanguageServerException {
         params.getTextDocument().setUri(prefixURI(params.getTextDocument().getUri()));
         LanguageServer server = getServer(params.getTextDocument().getUri());
         if (server == null) {
-            return emptyList();
+            response.resume(emptyList());
+            return;
         }
-        return server.getTextDocumentService().rangeFormatting(params).get();
+        resume(response, server, null, server.getTextDocumentService().rangeFormatting(params));
 
     }
 
@@ -237,14 +230,15 @@ public class TextDocumentService {
     @Path("onTypeFormatting")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public List<? extends TextEdit> onTypeFormatting(DocumentOnTypeFormattingParamsDTO params)
-            throws InterruptedException, ExecutionException, LanguageServerException {
+    public void onTypeFormatting(DocumentOnTypeFormattingParamsDTO params,
+                                 @Suspended AsyncResponse response) throws LanguageServerException {
         params.getTextDocument().setUri(prefixURI(params.getTextDocument().getUri()));
         LanguageServer server = getServer(params.getTextDocument().getUri());
         if (server == null) {
-            return emptyList();
+            response.resume(emptyList());
+            return;
         }
-        return server.getTextDocumentService().onTypeFormatting(params).get();
+        resume(response, server, null, server.getTextDocumentService().onTypeFormatting(params));
 
     }
 
@@ -269,6 +263,7 @@ public class TextDocumentService {
         LanguageServer server = getServer(openEvent.getTextDocument().getUri());
         if (server != null) {
             server.getTextDocumentService().didOpen(openEvent);
+            languageServerRegistry.onDocumentOpened(server, openEvent.getTextDocument().getUri());
         }
     }
 
@@ -280,6 +275,7 @@ public class TextDocumentService {
         LanguageServer server = getServer(closeEvent.getTextDocument().getUri());
         if (server != null) {
             server.getTextDocumentService().didClose(closeEvent);
+            languageServerRegistry.onDocumentClosed(server, closeEvent.getTextDocument().getUri());
         }
     }
 
@@ -297,17 +293,48 @@ public class TextDocumentService {
     @POST
     @Path("documentHighlight")
     @Consumes(MediaType.APPLICATION_JSON)
-	public DocumentHighlight documentHighlight(TextDocumentPositionParamsDTO positionParams)
-			throws LanguageServerException, InterruptedException, ExecutionException {
-    	positionParams.getTextDocument().setUri(prefixURI(positionParams.getTextDocument().getUri()));
-    	LanguageServer server = getServer(positionParams.getTextDocument().getUri());
-    	if (server != null) {
-    		return server.getTextDocumentService().documentHighlight(positionParams).get();
-    	}
-    	return null;
+    public void documentHighlight(TextDocumentPositionParamsDTO positionParams,
+                                  @Suspended AsyncResponse response) throws LanguageServerException {
+        positionParams.getTextDocument().setUri(prefixURI(positionParams.getTextDocument().getUri()));
+        LanguageServer server = getServer(positionParams.getTextDocument().getUri());
+        if (server != null) {
+            resume(response, server, null, server.getTextDocumentService().documentHighlight(positionParams));
+        } else {
+            response.resume(null);
+        }
     }
 
     private LanguageServer getServer(String uri) throws LanguageServerException {
         return languageServerRegistry.findServer(uri);
     }
+
+    private <T> void resume(AsyncResponse response, LanguageServer server, String supersedeKey, CompletableFuture<T> request) {
+        resume(response, server, supersedeKey, request, Function.identity());
+    }
+
+    private <T> void resume(AsyncResponse response, LanguageServer server, String supersedeKey, CompletableFuture<T> request,
+                            Function<T, ?> mapper) {
+        response.register((ConnectionCallback)disconnected -> request.cancel(true));
+        requestTracker.track(server, supersedeKey, request).whenComplete((result, error) -> {
+            if (error == null) {
+                response.resume(mapper.apply(result));
+            } else if (error instanceof CancellationException) {
+                // superseded request is answered the same as if there were no language server for the document,
+                // the response of a disconnected client is already done, so nothing is sent to it
+                response.resume(null);
+            } else {
+                final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                response.resume(new LanguageServerException(cause.getMessage(), cause));
+            }
+        });
+    }
+
+    private static List<? extends Location> removePrefixUris(List<? extends Location> locations) {
+        locations.forEach(o -> {
+            if (o instanceof LocationImpl) {
+                ((LocationImpl)o).setUri(removePrefixUri(o.getUri()));
+            }
+        });
+        return locations;
+    }
 }
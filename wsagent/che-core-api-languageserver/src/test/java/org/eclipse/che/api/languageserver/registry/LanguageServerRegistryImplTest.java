@@ -17,6 +17,7 @@ import io.typefox.lsapi.services.LanguageServer;
 import io.typefox.lsapi.services.TextDocumentService;
 import io.typefox.lsapi.services.WindowService;
 
+import org.eclipse.che.api.languageserver.exception.LanguageServerException;
 import org.eclipse.che.api.languageserver.launcher.LanguageServerLauncher;
 import org.eclipse.che.api.languageserver.shared.model.LanguageDescription;
 import org.mockito.Mock;
@@ -33,10 +34,13 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 
 /**
@@ -103,4 +107,76 @@ public class LanguageServerRegistryImplTest {
         verify(initializer).initialize(eq(languageServerLauncher), eq(PROJECT_PATH));
         verify(registry).onServerInitialized(eq(languageServer), eq(serverCapabilities), eq(languageDescription), eq(PROJECT_PATH));
     }
+
+    @Test
+    public void testSharedServerIsStartedOnceForAllProjects() throws Exception {
+        when(languageServerLauncher.isSharedAcrossProjects()).thenReturn(true);
+
+        LanguageServer first = registry.findServer("txt", "/projects/1");
+        LanguageServer second = registry.findServer("txt", "/projects/2");
+
+        assertEquals(first, languageServer);
+        assertEquals(second, languageServer);
+        verify(initializer).initialize(eq(languageServerLauncher), eq(LanguageServerRegistryImpl.PROJECT_FOLDER_PATH));
+    }
+
+    @Test
+    public void testIdleServerIsStoppedAndStartedAgain() throws Exception {
+        registry.findServer("txt", PROJECT_PATH);
+        Thread.sleep(10);
+
+        registry.stopIdleServers();
+        registry.findServer("txt", PROJECT_PATH);
+
+        verify(initializer).stop(languageServer);
+        verify(initializer, times(2)).initialize(eq(languageServerLauncher), eq(PROJECT_PATH));
+    }
+
+    @Test
+    public void testServerWithOpenedDocumentsIsNotStopped() throws Exception {
+        LanguageServer server = registry.findServer("txt", PROJECT_PATH);
+        registry.onDocumentOpened(server, PREFIX + FILE_PATH);
+        Thread.sleep(10);
+
+        registry.stopIdleServers();
+
+        verify(initializer, never()).stop(languageServer);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIdleServerIsStoppedToFitMemoryLimit() throws Exception {
+        useNewServerPerInitialization();
+        when(languageServerLauncher.getMemoryEstimateBytes()).thenReturn(100L);
+        registry = spy(new LanguageServerRegistryImpl(Collections.singleton(languageServerLauncher), null, initializer, 0, 250));
+
+        LanguageServer first = registry.findServer("txt", "/projects/1");
+        Thread.sleep(2);
+        LanguageServer second = registry.findServer("txt", "/projects/2");
+        registry.onDocumentOpened(second, "file:///projects/2/test.txt");
+        LanguageServer third = registry.findServer("txt", "/projects/3");
+
+        assertNotEquals(third, first);
+        verify(initializer).stop(first);
+        verify(initializer, never()).stop(second);
+    }
+
+    @Test(expectedExceptions = LanguageServerException.class)
+    public void testServerIsNotStartedWhenMemoryLimitIsReached() throws Exception {
+        useNewServerPerInitialization();
+        when(languageServerLauncher.getMemoryEstimateBytes()).thenReturn(100L);
+        registry = spy(new LanguageServerRegistryImpl(Collections.singleton(languageServerLauncher), null, initializer, 0, 150));
+
+        LanguageServer first = registry.findServer("txt", "/projects/1");
+        registry.onDocumentOpened(first, "file:///projects/1/test.txt");
+
+        registry.findServer("txt", "/projects/2");
+    }
+
+    private void useNewServerPerInitialization() throws Exception {
+        when(initializer.initialize(any(LanguageServerLauncher.class), anyString())).thenAnswer(invocation -> {
+            LanguageServer server = mock(LanguageServer.class);
+            registry.onServerInitialized(server, serverCapabilities, languageDescription, (String)invocation.getArguments()[1]);
+            return server;
+        });
+    }
 }
@@ -28,6 +28,7 @@ import org.testng.annotations.Test;
 import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -81,4 +82,21 @@ public class ServerInitializerImplTest {
         assertEquals(server, languageServer);
         verify(observer).onServerInitialized(eq(server), any(ServerCapabilities.class), eq(languageDescription), eq("/path"));
     }
+
+    @Test
+    public void initializerShouldTerminateProcessOfStoppedServer() throws Exception {
+        when(languageDescription.getLanguageId()).thenReturn("languageId");
+        when(server.initialize(any(InitializeParams.class))).thenReturn(completableFuture);
+        when(completableFuture.get()).thenReturn(mock(InitializeResult.class));
+
+        when(launcher.getLanguageDescription()).thenReturn(languageDescription);
+        when(launcher.launch(anyString())).thenReturn(server);
+        doNothing().when(initializer).registerCallbacks(server);
+
+        initializer.initialize(launcher, "/path");
+        initializer.stop(server);
+
+        verify(server).exit();
+        verify(launcher).terminate(eq(server), anyLong());
+    }
 }
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.languageserver.service;
+
+import io.typefox.lsapi.services.LanguageServer;
+
+import org.eclipse.che.api.languageserver.registry.LanguageServerDescription;
+import org.eclipse.che.api.languageserver.registry.ServerInitializer;
+import org.eclipse.che.api.languageserver.service.LanguageServerRequestTracker.LanguageServerRequestMetrics;
+import org.eclipse.che.api.languageserver.shared.model.LanguageDescription;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Collections.singletonMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link LanguageServerRequestTracker}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class LanguageServerRequestTrackerTest {
+
+    @Mock
+    private ServerInitializer         initializer;
+    @Mock
+    private LanguageServer            server;
+    @Mock
+    private LanguageServerDescription serverDescription;
+    @Mock
+    private LanguageDescription       languageDescription;
+
+    private LanguageServerRequestTracker tracker;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(languageDescription.getLanguageId()).thenReturn("java");
+        when(serverDescription.getLanguageDescription()).thenReturn(languageDescription);
+        when(initializer.getInitializedServers()).thenReturn(singletonMap(server, serverDescription));
+
+        tracker = new LanguageServerRequestTracker(initializer);
+    }
+
+    @Test
+    public void shouldCancelSupersededRequest() throws Exception {
+        CompletableFuture<String> first = tracker.track(server, "completion:/project/A.java", new CompletableFuture<>());
+        CompletableFuture<String> second = tracker.track(server, "completion:/project/A.java", new CompletableFuture<>());
+
+        assertTrue(first.isCancelled());
+        assertFalse(second.isDone());
+    }
+
+    @Test
+    public void shouldNotCancelRequestsWithDifferentKeys() throws Exception {
+        CompletableFuture<String> completion = tracker.track(server, "completion:/project/A.java", new CompletableFuture<>());
+        CompletableFuture<String> hover = tracker.track(server, "hover:/project/A.java", new CompletableFuture<>());
+        CompletableFuture<String> other = tracker.track(server, "completion:/project/B.java", new CompletableFuture<>());
+        CompletableFuture<String> unkeyed = tracker.track(server, null, new CompletableFuture<>());
+        tracker.track(server, null, new CompletableFuture<>());
+
+        assertFalse(completion.isDone());
+        assertFalse(hover.isDone());
+        assertFalse(other.isDone());
+        assertFalse(unkeyed.isDone());
+    }
+
+    @Test
+    public void shouldNotCancelNewRequestWhenAnsweredRequestIsSuperseded() throws Exception {
+        CompletableFuture<String> first = tracker.track(server, "hover:/project/A.java", new CompletableFuture<>());
+        first.complete("answer");
+        CompletableFuture<String> second = tracker.track(server, "hover:/project/A.java", new CompletableFuture<>());
+        CompletableFuture<String> third = tracker.track(server, "hover:/project/A.java", new CompletableFuture<>());
+
+        assertFalse(first.isCancelled());
+        assertTrue(second.isCancelled());
+        assertFalse(third.isDone());
+    }
+
+    @Test
+    public void shouldCountRequestsPerServer() throws Exception {
+        CompletableFuture<String> answered = tracker.track(server, null, new CompletableFuture<>());
+        CompletableFuture<String> failed = tracker.track(server, null, new CompletableFuture<>());
+        tracker.track(server, "completion:/project/A.java", new CompletableFuture<>());
+        tracker.track(server, "completion:/project/A.java", new CompletableFuture<>());
+
+        answered.complete("answer");
+        failed.completeExceptionally(new IllegalStateException("error"));
+
+        LanguageServerRequestMetrics metrics = tracker.getMetrics().get("java");
+        assertEquals(metrics.getServerName(), "java");
+        assertEquals(metrics.getInFlightCount(), 1);
+        assertEquals(metrics.getAnsweredCount(), 1);
+        assertEquals(metrics.getFailedCount(), 1);
+        assertEquals(metrics.getCancelledCount(), 1);
+    }
+
+    @Test
+    public void shouldRemoveMetricsOfStoppedServer() throws Exception {
+        LanguageServer stopped = mock(LanguageServer.class);
+        tracker.track(stopped, null, new CompletableFuture<>());
+        tracker.track(server, null, new CompletableFuture<>());
+
+        assertEquals(tracker.getMetrics().size(), 1);
+        assertTrue(tracker.getMetrics().containsKey("java"));
+    }
+}
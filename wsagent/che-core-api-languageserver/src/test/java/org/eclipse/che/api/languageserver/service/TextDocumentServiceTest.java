@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.languageserver.service;
+
+import io.typefox.lsapi.CompletionList;
+import io.typefox.lsapi.impl.CompletionItemImpl;
+import io.typefox.lsapi.impl.CompletionListImpl;
+import io.typefox.lsapi.services.LanguageServer;
+
+import com.jayway.restassured.response.Response;
+
+import org.eclipse.che.api.languageserver.registry.LanguageServerRegistry;
+import org.eclipse.che.api.languageserver.registry.ServerInitializer;
+import org.eclipse.che.api.languageserver.shared.lsapi.TextDocumentIdentifierDTO;
+import org.eclipse.che.api.languageserver.shared.lsapi.TextDocumentPositionParamsDTO;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.everrest.assured.EverrestJetty;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.jayway.restassured.RestAssured.given;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.everrest.assured.JettyHttpServer.ADMIN_USER_NAME;
+import static org.everrest.assured.JettyHttpServer.ADMIN_USER_PASSWORD;
+import static org.everrest.assured.JettyHttpServer.SECURE_PATH;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link TextDocumentService}.
+ */
+@Listeners({EverrestJetty.class, MockitoTestNGListener.class})
+public class TextDocumentServiceTest {
+
+    @Mock
+    private LanguageServerRegistry                        registry;
+    @Mock
+    private ServerInitializer                             initializer;
+    @Mock
+    private LanguageServer                                server;
+    @Mock
+    private io.typefox.lsapi.services.TextDocumentService serverTextDocumentService;
+
+    @SuppressWarnings("unused")
+    private TextDocumentService textDocumentService;
+    private ExecutorService     executor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(registry.findServer(anyString())).thenReturn(server);
+        when(server.getTextDocumentService()).thenReturn(serverTextDocumentService);
+        executor = Executors.newSingleThreadExecutor();
+
+        textDocumentService = new TextDocumentService(registry, new LanguageServerRequestTracker(initializer));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldAnswerRequestWhenLanguageServerResponds() throws Exception {
+        final CompletableFuture<CompletionList> completion = new CompletableFuture<>();
+        when(serverTextDocumentService.completion(any())).thenReturn(completion);
+
+        final Future<Response> response = executor.submit(() -> postCompletion("/project/A.java"));
+        verify(serverTextDocumentService, timeout(5000)).completion(any());
+        completion.complete(completionList("toString"));
+
+        assertEquals(response.get(10, SECONDS).getStatusCode(), 200);
+        assertTrue(response.get().getBody().asString().contains("toString"));
+    }
+
+    @Test
+    public void shouldAnswerSupersededRequestWithEmptyResult() throws Exception {
+        when(serverTextDocumentService.completion(any())).thenReturn(new CompletableFuture<>())
+                                                         .thenReturn(CompletableFuture.completedFuture(completionList("hashCode")));
+
+        final Future<Response> superseded = executor.submit(() -> postCompletion("/project/A.java"));
+        verify(serverTextDocumentService, timeout(5000)).completion(any());
+        final Response latest = postCompletion("/project/A.java");
+
+        assertEquals(latest.getStatusCode(), 200);
+        assertTrue(latest.getBody().asString().contains("hashCode"));
+        assertEquals(superseded.get(10, SECONDS).getStatusCode(), 204);
+    }
+
+    private static Response postCompletion(String path) {
+        final TextDocumentIdentifierDTO document = newDto(TextDocumentIdentifierDTO.class);
+        document.setUri(path);
+        final TextDocumentPositionParamsDTO params = newDto(TextDocumentPositionParamsDTO.class);
+        params.setTextDocument(document);
+        params.setUri(path);
+        return given().auth()
+                      .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                      .contentType("application/json")
+                      .body(DtoFactory.getInstance().toJson(params))
+                      .when()
+                      .post(SECURE_PATH + "/languageserver/textDocument/completion");
+    }
+
+    private static CompletionList completionList(String label) {
+        final CompletionItemImpl item = new CompletionItemImpl();
+        item.setLabel(label);
+        final CompletionListImpl completionList = new CompletionListImpl();
+        completionList.setItems(singletonList(item));
+        return completionList;
+    }
+}
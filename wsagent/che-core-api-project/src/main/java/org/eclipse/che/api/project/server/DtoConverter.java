@@ -20,7 +20,9 @@ import org.eclipse.che.api.project.shared.dto.AttributeDto;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.ProjectImporterDescriptor;
 import org.eclipse.che.api.project.shared.dto.ProjectTypeDto;
+import org.eclipse.che.api.project.shared.dto.SearchOccurrenceDto;
 import org.eclipse.che.api.project.shared.dto.ValueDto;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectProblemDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
@@ -86,6 +88,15 @@ public class DtoConverter {
                                           .withContentLength(file.getVirtualFile().getLength());
     }
 
+    /** Converts {@link SearchOccurrence} to {@link SearchOccurrenceDto}. */
+    public static SearchOccurrenceDto asDto(SearchOccurrence occurrence) {
+        return newDto(SearchOccurrenceDto.class).withPhrase(occurrence.getPhrase())
+                                                .withStartOffset(occurrence.getStartOffset())
+                                                .withEndOffset(occurrence.getEndOffset())
+                                                .withLineNumber(occurrence.getLineNumber())
+                                                .withLineContent(occurrence.getLineContent());
+    }
+
     /** Converts {@link FolderEntry} to {@link ItemReference}. */
     public static ItemReference asDto(FolderEntry folder) {
         return newDto(ItemReference.class).withName(folder.getName())
@@ -28,6 +28,7 @@ import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.model.project.type.Value;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.rest.Service;
+import org.eclipse.che.api.core.rest.ServiceContext;
 import org.eclipse.che.api.core.rest.annotations.Description;
 import org.eclipse.che.api.core.rest.annotations.GenerateLink;
 import org.eclipse.che.api.project.server.importer.ProjectImportOutputWSLineConsumer;
@@ -36,10 +37,12 @@ import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
+import org.eclipse.che.api.project.shared.dto.SearchResultDto;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.QueryExpression.TextMode;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
@@ -65,15 +68,21 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -81,6 +90,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 import static org.eclipse.che.api.project.server.DtoConverter.asDto;
@@ -105,6 +117,9 @@ public class ProjectService extends Service {
     private static final Logger LOG  = LoggerFactory.getLogger(ProjectService.class);
     private static final Tika   TIKA = new Tika();
 
+    /** Max number of files with occurrences of searched text streamed for a single request */
+    private static final int MAX_STREAMED_OCCURRENCES = 10_000;
+
     private final ProjectManager              projectManager;
     private final EventService                eventService;
     private final ProjectServiceLinksInjector projectServiceLinksInjector;
@@ -862,10 +877,15 @@ public class ProjectService extends Service {
                                       @QueryParam("name") String name,
                                       @ApiParam(value = "Search keywords")
                                       @QueryParam("text") String text,
-                                      @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
+                                      @ApiParam(value = "Maximum items to display. If this parameter is dropped or exceeds " +
+                                                        MAX_STREAMED_OCCURRENCES + ", at most " + MAX_STREAMED_OCCURRENCES +
+                                                        " items are displayed")
                                       @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
                                       @ApiParam(value = "Skip count")
-                                      @QueryParam("skipCount") int skipCount) throws NotFoundException,
+                                      @QueryParam("skipCount") int skipCount,
+                                      @ApiParam(value = "Mode of matching of search keywords with content of files",
+                                                allowableValues = "terms,substring,regex")
+                                      @QueryParam("textMode") @DefaultValue("terms") String textMode) throws NotFoundException,
                                                                                      ForbiddenException,
                                                                                      ConflictException,
                                                                                      ServerException {
@@ -886,7 +906,8 @@ public class ProjectService extends Service {
                 .setName(name)
                 .setText(text)
                 .setMaxItems(maxItems)
-                .setSkipCount(skipCount);
+                .setSkipCount(skipCount)
+                .setTextMode(parseTextMode(textMode, text));
 
         final SearchResult result = searcher.search(expr);
         final List<SearchResultEntry> searchResultEntries = result.getResults();
@@ -904,6 +925,120 @@ public class ProjectService extends Service {
         return items;
     }
 
+    @GET
+    @Path("/occurrences/{path:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Search for occurrences of text in files",
+                  notes = "Search for files applying a number of search filters as query parameters. Each found file is returned " +
+                          "along with offsets, line numbers and lines of the searched text occurrences. Results are streamed " +
+                          "as they are read from the index",
+                  response = SearchResultDto.class,
+                  responseContainer = "List")
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 409, message = "Conflict error"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public Response searchOccurrences(@ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                                      @PathParam("path") String path,
+                                      @ApiParam(value = "Resource name")
+                                      @QueryParam("name") String name,
+                                      @ApiParam(value = "Search keywords", required = true)
+                                      @QueryParam("text") String text,
+                                      @ApiParam(value = "Maximum items to display. If this parameter is dropped or exceeds " +
+                                                        MAX_STREAMED_OCCURRENCES + ", at most " + MAX_STREAMED_OCCURRENCES +
+                                                        " items are displayed")
+                                      @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                                      @ApiParam(value = "Skip count")
+                                      @QueryParam("skipCount") int skipCount,
+                                      @ApiParam(value = "Mode of matching of search keywords with content of files",
+                                                allowableValues = "terms,substring,regex")
+                                      @QueryParam("textMode") @DefaultValue("terms") String textMode) throws NotFoundException,
+                                                                                     ForbiddenException,
+                                                                                     ConflictException,
+                                                                                     ServerException {
+        final Searcher searcher;
+        try {
+            searcher = projectManager.getSearcher();
+        } catch (NotFoundException e) {
+            LOG.warn(e.getLocalizedMessage());
+            return Response.ok(Collections.emptyList(), MediaType.APPLICATION_JSON).build();
+        }
+
+        if (skipCount < 0) {
+            throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
+        }
+        if (text == null) {
+            throw new ConflictException("Missed 'text' parameter.");
+        }
+
+        final QueryExpression expr = new QueryExpression()
+                .setPath(path.startsWith("/") ? path : ('/' + path))
+                .setName(name)
+                .setText(text)
+                .setMaxItems(maxItems > 0 ? Math.min(maxItems, MAX_STREAMED_OCCURRENCES) : MAX_STREAMED_OCCURRENCES)
+                .setSkipCount(skipCount)
+                .setIncludePositions(true)
+                .setTextMode(parseTextMode(textMode, text));
+        final FolderEntry root = projectManager.getProjectsRoot();
+        final ServiceContext serviceContext = getServiceContext();
+
+        final StreamingOutput output = outputStream -> {
+            final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            final AtomicBoolean first = new AtomicBoolean(true);
+            writer.write('[');
+            try {
+                searcher.search(expr, entry -> {
+                    try {
+                        final VirtualFileEntry child = root.getChild(entry.getFilePath());
+                        if (child != null && child.isFile()) {
+                            if (!first.compareAndSet(true, false)) {
+                                writer.write(',');
+                            }
+                            final SearchResultDto result = newDto(SearchResultDto.class)
+                                    .withItemReference(projectServiceLinksInjector.injectFileLinks(asDto((FileEntry)child),
+                                                                                                   serviceContext))
+                                    .withSearchOccurrences(entry.getOccurrences()
+                                                                .stream()
+                                                                .map(DtoConverter::asDto)
+                                                                .collect(Collectors.toList()));
+                            writer.write(DtoFactory.getInstance().toJson(result));
+                        }
+                    } catch (ServerException e) {
+                        throw new WebApplicationException(e);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (ServerException e) {
+                throw new WebApplicationException(e);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.write(']');
+            writer.flush();
+        };
+
+        return Response.ok(output, MediaType.APPLICATION_JSON).build();
+    }
+
+    private static TextMode parseTextMode(String textMode, String text) throws ConflictException {
+        final TextMode mode;
+        try {
+            mode = TextMode.valueOf(textMode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ConflictException(String.format("Invalid 'textMode' parameter: %s.", textMode));
+        }
+        if (mode == TextMode.REGEX && text != null) {
+            try {
+                Pattern.compile(text);
+            } catch (PatternSyntaxException e) {
+                throw new ConflictException(String.format("Invalid regular expression in 'text' parameter: %s.", e.getDescription()));
+            }
+        }
+        return mode;
+    }
+
     private void logProjectCreatedEvent(@NotNull String projectName, @NotNull String projectType) {
         LOG.info("EVENT#project-created# PROJECT#{}# TYPE#{}# WS#{}# USER#{}# PAAS#default#",
                  projectName,
@@ -11,10 +11,13 @@
 package org.eclipse.che.api.project.server;
 
 import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
+import org.eclipse.che.api.workspace.server.ProjectConfigsVersion;
 import org.eclipse.che.api.workspace.server.WorkspaceService;
+import org.eclipse.che.api.workspace.shared.dto.ProjectConfigsPatchDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,9 +27,14 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.eclipse.che.api.project.server.DtoConverter.asDto;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 /**
  * For caching and proxy-ing Workspace Configuration.
@@ -44,14 +52,23 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
 
     private final String userToken;
 
+    private final boolean versionedSync;
+
     private HttpJsonRequestFactory httpJsonRequestFactory;
 
-    @Inject
     public WorkspaceHolder(@Named("che.api") String apiEndpoint,
                            HttpJsonRequestFactory httpJsonRequestFactory) throws ServerException {
+        this(apiEndpoint, httpJsonRequestFactory, true);
+    }
+
+    @Inject
+    public WorkspaceHolder(@Named("che.api") String apiEndpoint,
+                           HttpJsonRequestFactory httpJsonRequestFactory,
+                           @Named("che.workspace.projects.sync.versioned") boolean versionedSync) throws ServerException {
 
         this.apiEndpoint = apiEndpoint;
         this.httpJsonRequestFactory = httpJsonRequestFactory;
+        this.versionedSync = versionedSync;
 
         this.workspaceId = System.getenv("CHE_WORKSPACE_ID");
         this.userToken = System.getenv("USER_TOKEN");
@@ -82,6 +99,65 @@ public class WorkspaceHolder extends WorkspaceProjectsSyncer {
     }
 
 
+    /**
+     * Sends all the changes of projects to WS-master side at once.
+     * If the patch is versioned and the projects are changed on WS-master side meanwhile,
+     * the changes are rebased on the current projects and sent once again.
+     */
+    @Override
+    protected void syncProjects(List<? extends ProjectConfig> remote,
+                                List<ProjectConfig> added,
+                                List<ProjectConfig> updated,
+                                List<ProjectConfig> removed) throws ServerException {
+        try {
+            sendPatch(createPatch(remote, added, updated, removed));
+        } catch (ConflictException e) {
+            if (!versionedSync) {
+                throw new ServerException(e.getMessage());
+            }
+            LOG.debug("Projects of workspace {} were changed, rebasing sync. {}", workspaceId, e.getMessage());
+            // added and updated projects are saved and removed ones are removed whatever the current projects are
+            final List<ProjectConfig> changed = new ArrayList<>(added);
+            changed.addAll(updated);
+            final List<? extends ProjectConfig> current = getProjects();
+            final Set<String> currentPaths = current.stream().map(ProjectConfig::getPath).collect(toSet());
+            final Set<String> removedPaths = removed.stream().map(ProjectConfig::getPath).collect(toSet());
+            try {
+                sendPatch(createPatch(current,
+                                      changed.stream().filter(p -> !currentPaths.contains(p.getPath())).collect(toList()),
+                                      changed.stream().filter(p -> currentPaths.contains(p.getPath())).collect(toList()),
+                                      current.stream().filter(p -> removedPaths.contains(p.getPath())).collect(toList())));
+            } catch (ConflictException again) {
+                throw new ServerException(again.getMessage());
+            }
+        }
+    }
+
+    private ProjectConfigsPatchDto createPatch(List<? extends ProjectConfig> remote,
+                                               List<? extends ProjectConfig> added,
+                                               List<? extends ProjectConfig> updated,
+                                               List<? extends ProjectConfig> removed) {
+        return newDto(ProjectConfigsPatchDto.class).withAdded(added.stream().map(DtoConverter::asDto).collect(toList()))
+                                                   .withUpdated(updated.stream().map(DtoConverter::asDto).collect(toList()))
+                                                   .withRemoved(removed.stream().map(ProjectConfig::getPath).collect(toList()))
+                                                   .withBaseVersion(versionedSync ? ProjectConfigsVersion.of(remote) : null);
+    }
+
+    private void sendPatch(ProjectConfigsPatchDto patch) throws ServerException, ConflictException {
+        final UriBuilder builder = UriBuilder.fromUri(apiEndpoint).path(WorkspaceService.class)
+                                             .path(WorkspaceService.class, "updateProjects");
+        if (userToken != null)
+            builder.queryParam("token", userToken);
+        final String href = builder.build(workspaceId).toString();
+        try {
+            httpJsonRequestFactory.fromUrl(href).usePostMethod().setBody(patch).request();
+        } catch (ConflictException e) {
+            throw e;
+        } catch (IOException | ApiException e) {
+            throw new ServerException(e.getMessage());
+        }
+    }
+
     /**
      * Add project on WS-master side.
      *
@@ -14,7 +14,9 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Synchronizer for Project Configurations stored in Workspace Configuration with Agent's state
@@ -24,30 +26,32 @@ import java.util.List;
 public abstract class WorkspaceProjectsSyncer {
 
     /**
-     * Synchronizes Project Config state on Agent and Master
+     * Synchronizes Project Config state on Agent and Master.
+     * Projects are matched by their paths, all the changes are applied by single {@link #syncProjects} call.
+     *
      * @param projectRegistry project registry
      * @throws ServerException
      */
     public final void sync(ProjectRegistry projectRegistry) throws ServerException {
 
-        List<? extends ProjectConfig> remote = getProjects();
+        final List<? extends ProjectConfig> remote = getProjects();
+        final Set<String> remotePaths = new HashSet<>();
 
         // check on removed
-        List <ProjectConfig> removed = new ArrayList<>();
-        for(ProjectConfig r  : remote) {
-            if(projectRegistry.getProject(r.getPath()) == null)
+        final List<ProjectConfig> removed = new ArrayList<>();
+        for (ProjectConfig r : remote) {
+            remotePaths.add(r.getPath());
+            if (projectRegistry.getProject(r.getPath()) == null) {
                 removed.add(r);
+            }
         }
 
-        for(ProjectConfig r : removed)
-            removeProject(r);
-
-
         // update or add
-        for(RegisteredProject project : projectRegistry.getProjects()) {
-
-            if(!project.isSynced() && !project.isDetected()) {
-
+        final List<ProjectConfig> added = new ArrayList<>();
+        final List<ProjectConfig> updated = new ArrayList<>();
+        final List<RegisteredProject> changed = new ArrayList<>();
+        for (RegisteredProject project : projectRegistry.getProjects()) {
+            if (!project.isSynced() && !project.isDetected()) {
                 final ProjectConfig config = new NewProjectConfigImpl(project.getPath(),
                                                                       project.getType(),
                                                                       project.getMixins(),
@@ -56,25 +60,46 @@ public abstract class WorkspaceProjectsSyncer {
                                                                       project.getPersistableAttributes(),
                                                                       null,
                                                                       project.getSource());
-
-                boolean found = false;
-                for(ProjectConfig r  : remote) {
-                    if(r.getPath().equals(project.getPath())) {
-                        updateProject(config);
-                        found = true;
-                    }
+                if (remotePaths.contains(project.getPath())) {
+                    updated.add(config);
+                } else {
+                    added.add(config);
                 }
-
-                if(!found)
-                    addProject(config);
-
-                project.setSync();
-
+                changed.add(project);
             }
+        }
 
-
+        if (!removed.isEmpty() || !added.isEmpty() || !updated.isEmpty()) {
+            syncProjects(remote, added, updated, removed);
+        }
+        for (RegisteredProject project : changed) {
+            project.setSync();
         }
+    }
 
+    /**
+     * Applies changes of projects to Workspace Config.
+     * By default the changes are applied one by one, implementations may apply them at once.
+     *
+     * @param remote the projects from Workspace Config the changes are based on
+     * @param added the projects to add
+     * @param updated the projects to update
+     * @param removed the projects to remove
+     * @throws ServerException
+     */
+    protected void syncProjects(List<? extends ProjectConfig> remote,
+                                List<ProjectConfig> added,
+                                List<ProjectConfig> updated,
+                                List<ProjectConfig> removed) throws ServerException {
+        for (ProjectConfig project : removed) {
+            removeProject(project);
+        }
+        for (ProjectConfig project : updated) {
+            updateProject(project);
+        }
+        for (ProjectConfig project : added) {
+            addProject(project);
+        }
     }
 
     /**
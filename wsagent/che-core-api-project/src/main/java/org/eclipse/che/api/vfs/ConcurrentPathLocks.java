@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hierarchical path locks kept in a concurrent map of per-path lock nodes, so threads that lock unrelated
+ * paths never wait for each other and never scan locks of other paths.
+ *
+ * <p>A lock of a path covers its whole subtree, the same as locks of {@link PathLockFactory}: an exclusive lock
+ * conflicts with any lock of the path, its parents and its children held by other threads, a shared lock conflicts
+ * only with exclusive ones. To check conflicts with parents and children without scanning, a thread that locks
+ * a path takes intention locks of all parents of the path, from the root down to the direct parent, before it takes
+ * the lock of the path itself. Intention locks of a parent conflict with exclusive lock of the parent and, if
+ * the intention is exclusive, with shared lock of the parent.
+ *
+ * <p>Number of held locks of each mode and number of waiting threads of a node are packed into a single word,
+ * so a lock that is available is acquired and released without blocking. Intention locks, which are taken on the
+ * root by every thread, are added to the word with a single atomic add that never retries and are taken back if
+ * the add turns out to conflict, other locks are acquired with compare-and-set. Only a thread that has to wait
+ * synchronizes on the node. Locks are reentrant, a thread never waits for locks it holds itself. A node is removed
+ * from the map as soon as no thread holds or waits for its lock.
+ *
+ * <p>A thread never waits while it holds locks taken by the same acquisition: if the lock of some level is not
+ * available, the thread releases the intention locks of the parents taken so far, waits until the lock of that
+ * level becomes available without taking it and starts over from the root. So waiting threads never block
+ * other threads and acquisition of a single path can't deadlock. Locks held by the thread from previous
+ * acquisitions are kept while it waits, as with any other locks a thread that holds several paths at once
+ * must acquire them in a consistent order.
+ */
+class ConcurrentPathLocks {
+    private static final int INTENTION_SHARED    = 0;
+    private static final int INTENTION_EXCLUSIVE = 1;
+    private static final int SHARED              = 2;
+    private static final int EXCLUSIVE           = 3;
+    private static final int WAITING             = 4;
+
+    /**
+     * Number of bits of state used for a count of locks of each mode and for a count of waiting threads,
+     * so a node allows up to 4095 locks of each mode at the same time.
+     */
+    private static final int  COUNT_BITS = 12;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    /**
+     * State of a node that is removed from the map and must not be used anymore, any state with this bit
+     * is negative, so it stays recognizable while a conflicting atomic add is taken back.
+     */
+    private static final long REMOVED    = Long.MIN_VALUE;
+
+    private final ConcurrentMap<Path, Node> nodes = new ConcurrentHashMap<>();
+    private final ThreadLocal<Holds>        holds = ThreadLocal.withInitial(Holds::new);
+    private final int                       maxSharedLocks;
+
+    /**
+     * @param maxSharedLocks
+     *         max number of threads that hold shared lock of the same path at the same time
+     */
+    ConcurrentPathLocks(int maxSharedLocks) {
+        this.maxSharedLocks = (int)Math.min(maxSharedLocks, COUNT_MASK);
+    }
+
+    /** Returns path with all its parents ordered from the root to the path itself. */
+    static Path[] withParents(Path path) {
+        int count = 0;
+        for (Path current = path; current != null; current = current.getParent()) {
+            count++;
+        }
+        final Path[] paths = new Path[count];
+        for (Path current = path; current != null; current = current.getParent()) {
+            paths[--count] = current;
+        }
+        return paths;
+    }
+
+    /**
+     * Acquires lock of path.
+     *
+     * @param paths
+     *         path with all its parents, see {@link #withParents(Path)}
+     * @param timeoutMilliseconds
+     *         maximum time to wait for the lock, negative value means wait until the lock is available
+     * @throws RuntimeException
+     *         if waiting timeout reached or the thread is interrupted
+     */
+    void acquire(Path[] paths, boolean exclusive, long timeoutMilliseconds) {
+        final long deadline = timeoutMilliseconds < 0 ? -1 : System.currentTimeMillis() + timeoutMilliseconds;
+        final Holds threadHolds = holds.get();
+        final int intention = exclusive ? INTENTION_EXCLUSIVE : INTENTION_SHARED;
+        int i = 0;
+        while (i < paths.length) {
+            final int mode = i == paths.length - 1 ? (exclusive ? EXCLUSIVE : SHARED) : intention;
+            if (tryAcquire(paths[i], mode, threadHolds)) {
+                i++;
+                continue;
+            }
+            // release intention locks of parents taken so far, so the thread doesn't hold them while it waits
+            for (int j = i - 1; j >= 0; j--) {
+                release(paths[j], intention, threadHolds);
+            }
+            if (!await(paths[i], mode, deadline, threadHolds)) {
+                throw new RuntimeException(String.format("Get lock timeout for '%s'. ", paths[paths.length - 1]));
+            }
+            i = 0;
+        }
+    }
+
+    /**
+     * Releases lock of path acquired with {@link #acquire(Path[], boolean, long)}.
+     *
+     * @param paths
+     *         path with all its parents, see {@link #withParents(Path)}
+     */
+    void release(Path[] paths, boolean exclusive) {
+        final Holds threadHolds = holds.get();
+        release(paths[paths.length - 1], exclusive ? EXCLUSIVE : SHARED, threadHolds);
+        for (int i = paths.length - 2; i >= 0; i--) {
+            release(paths[i], exclusive ? INTENTION_EXCLUSIVE : INTENTION_SHARED, threadHolds);
+        }
+    }
+
+    /** Returns {@code true} if there are no held locks. */
+    boolean isClean() {
+        return nodes.isEmpty();
+    }
+
+    private boolean tryAcquire(Path path, int mode, Holds threadHolds) {
+        for (; ; ) {
+            final Node node = getOrCreateNode(path);
+            final Boolean acquired = node.tryAcquire(mode, threadHolds);
+            if (acquired == null) {
+                // node has been removed meanwhile
+                nodes.remove(path, node);
+                continue;
+            }
+            if (acquired) {
+                threadHolds.add(node, mode);
+            } else {
+                removeIfUnused(node);
+            }
+            return acquired;
+        }
+    }
+
+    /** Waits until lock of the given mode is available, the lock is not taken. */
+    private boolean await(Path path, int mode, long deadline, Holds threadHolds) {
+        for (; ; ) {
+            final Node node = getOrCreateNode(path);
+            final Boolean available;
+            try {
+                available = node.await(mode, deadline, threadHolds);
+            } finally {
+                removeIfUnused(node);
+            }
+            if (available != null) {
+                return available;
+            }
+            // node has been removed meanwhile
+            nodes.remove(path, node);
+        }
+    }
+
+    private void release(Path path, int mode, Holds threadHolds) {
+        final Node node = threadHolds.remove(path, mode);
+        if (node != null) {
+            node.release(mode);
+            removeIfUnused(node);
+        }
+    }
+
+    private Node getOrCreateNode(Path path) {
+        final Node node = nodes.get(path);
+        if (node != null) {
+            return node;
+        }
+        final Node created = new Node(path);
+        final Node existing = nodes.putIfAbsent(path, created);
+        return existing == null ? created : existing;
+    }
+
+    private void removeIfUnused(Node node) {
+        if (node.state.get() == 0 && node.state.compareAndSet(0, REMOVED)) {
+            nodes.remove(node.path, node);
+        }
+    }
+
+    private static long one(int field) {
+        return 1L << (field * COUNT_BITS);
+    }
+
+    private static int count(long state, int field) {
+        return (int)((state >>> (field * COUNT_BITS)) & COUNT_MASK);
+    }
+
+    /** Locks held by a thread in order of acquisition, usually there are just a few of them. */
+    private static class Holds {
+        Node[] nodes = new Node[16];
+        int[]  modes = new int[16];
+        int    size;
+
+        void add(Node node, int mode) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                modes = Arrays.copyOf(modes, size * 2);
+            }
+            nodes[size] = node;
+            modes[size] = mode;
+            size++;
+        }
+
+        /** Removes the most recently acquired lock of the given path and mode and returns its node. */
+        Node remove(Path path, int mode) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (modes[i] == mode && nodes[i].path.equals(path)) {
+                    final Node node = nodes[i];
+                    System.arraycopy(nodes, i + 1, nodes, i, size - i - 1);
+                    System.arraycopy(modes, i + 1, modes, i, size - i - 1);
+                    nodes[--size] = null;
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        /** Returns number of locks of the given node and mode held by the thread. */
+        int count(Node node, int mode) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node && modes[i] == mode) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private class Node {
+        final Path       path;
+        /** Counts of held locks of each mode and count of waiting threads, see {@link #one(int)}. */
+        final AtomicLong state = new AtomicLong();
+
+        Node(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Acquires lock of the given mode if it is available.
+         *
+         * @return {@code true} if lock is acquired, {@code false} if it is not available
+         * or {@code null} if node is removed and must not be used anymore
+         */
+        Boolean tryAcquire(int mode, Holds threadHolds) {
+            if (mode == INTENTION_SHARED || mode == INTENTION_EXCLUSIVE) {
+                // optimistic add, unlike compare-and-set it doesn't fail and retry when many threads lock the same parent
+                final long previous = state.getAndAdd(one(mode));
+                if (previous < 0) {
+                    state.addAndGet(-one(mode));
+                    return null;
+                }
+                if (isCompatible(previous, mode, threadHolds)) {
+                    return true;
+                }
+                release(mode);
+                return false;
+            }
+            long current;
+            while ((current = state.get()) >= 0) {
+                if (!isCompatible(current, mode, threadHolds)) {
+                    return false;
+                }
+                if (state.compareAndSet(current, current + one(mode))) {
+                    return true;
+                }
+            }
+            return null;
+        }
+
+        void release(int mode) {
+            final long released = state.addAndGet(-one(mode));
+            if (count(released, WAITING) > 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Waits until lock of the given mode is available.
+         *
+         * @return {@code true} if lock is available, {@code false} if timeout is reached
+         * or {@code null} if node is removed and must not be used anymore
+         */
+        Boolean await(int mode, long deadline, Holds threadHolds) {
+            long current;
+            do {
+                if ((current = state.get()) < 0) {
+                    return null;
+                }
+            } while (!state.compareAndSet(current, current + one(WAITING)));
+
+            synchronized (this) {
+                try {
+                    for (; ; ) {
+                        if (isCompatible(state.get(), mode, threadHolds)) {
+                            return true;
+                        }
+                        if (deadline < 0) {
+                            wait();
+                        } else {
+                            final long timeout = deadline - System.currentTimeMillis();
+                            if (timeout <= 0) {
+                                return false;
+                            }
+                            wait(timeout);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                } finally {
+                    state.addAndGet(-one(WAITING));
+                }
+            }
+        }
+
+        /** Checks whether locks held by other threads allow the current one to get a lock of the given mode. */
+        private boolean isCompatible(long state, int mode, Holds threadHolds) {
+            if (isCompatible(state, mode, 0, 0, 0, 0)) {
+                return true;
+            }
+            // locks held by the current thread itself never conflict
+            return threadHolds.size > 0 && isCompatible(state,
+                                                        mode,
+                                                        threadHolds.count(this, INTENTION_SHARED),
+                                                        threadHolds.count(this, INTENTION_EXCLUSIVE),
+                                                        threadHolds.count(this, SHARED),
+                                                        threadHolds.count(this, EXCLUSIVE));
+        }
+
+        private boolean isCompatible(long state, int mode, int myIntentionShared, int myIntentionExclusive, int myShared,
+                                     int myExclusive) {
+            final int exclusive = count(state, EXCLUSIVE) - myExclusive;
+            switch (mode) {
+                case INTENTION_SHARED:
+                    return exclusive == 0;
+                case INTENTION_EXCLUSIVE:
+                    return exclusive == 0 && count(state, SHARED) - myShared == 0;
+                case SHARED:
+                    return exclusive == 0
+                           && count(state, INTENTION_EXCLUSIVE) - myIntentionExclusive == 0
+                           && (myShared > 0 || count(state, SHARED) < maxSharedLocks);
+                default:
+                    return exclusive == 0
+                           && count(state, SHARED) - myShared == 0
+                           && count(state, INTENTION_SHARED) - myIntentionShared == 0
+                           && count(state, INTENTION_EXCLUSIVE) - myIntentionExclusive == 0;
+            }
+        }
+    }
+}
@@ -30,6 +30,10 @@ package org.eclipse.che.api.vfs;
  *         }
  *      }
  * </pre>
+ * <p/>
+ * By default held locks are kept in a single table guarded by the factory. A factory created with {@code concurrent}
+ * flag keeps locks in a concurrent map of per-path locks instead, see {@link ConcurrentPathLocks}, so that locking
+ * of unrelated paths does not contend.
  *
  * @author andrew00x>
  */
@@ -39,6 +43,8 @@ public final class PathLockFactory {
     private final int maxThreads;
     // Tail of the "lock table".
     private final Node tail = new Node(null, 0, null);
+    /** Per-path locks used instead of the "lock table" if not null. */
+    private final ConcurrentPathLocks concurrentLocks;
 
     /**
      * @param maxThreads
@@ -46,10 +52,22 @@ public final class PathLockFactory {
      *         avoid blocking threads that need to obtain NOT exclusive lock.
      */
     public PathLockFactory(int maxThreads) {
+        this(maxThreads, false);
+    }
+
+    /**
+     * @param maxThreads
+     *         the max number of threads are allowed to access one file. Typically this parameter should be big enough to
+     *         avoid blocking threads that need to obtain NOT exclusive lock.
+     * @param concurrent
+     *         if {@code true} locks are kept in a concurrent map of per-path locks
+     */
+    public PathLockFactory(int maxThreads, boolean concurrent) {
         if (maxThreads < 1) {
             throw new IllegalArgumentException();
         }
         this.maxThreads = maxThreads;
+        this.concurrentLocks = concurrent ? new ConcurrentPathLocks(maxThreads - 1) : null;
     }
 
     public PathLock getLock(Path path, boolean exclusive) {
@@ -153,6 +171,7 @@ public final class PathLockFactory {
 
     public synchronized void checkClean() {
         assert tail.prev == null;
+        assert concurrentLocks == null || concurrentLocks.isClean();
     }
 
    /* =============================================== */
@@ -186,6 +205,9 @@ public final class PathLockFactory {
         private final Path path;
         private final int  permits;
 
+        /** Path with all its parents, used only by concurrent locks. */
+        private Path[] pathWithParents;
+
         private PathLock(Path path, int permits) {
             this.path = path;
             this.permits = permits;
@@ -197,7 +219,11 @@ public final class PathLockFactory {
          * @return this PathLock instance
          */
         public PathLock acquire() {
-            PathLockFactory.this.acquire(path, permits);
+            if (concurrentLocks != null) {
+                concurrentLocks.acquire(pathWithParents(), isExclusive(), -1);
+            } else {
+                PathLockFactory.this.acquire(path, permits);
+            }
             return this;
         }
 
@@ -212,18 +238,33 @@ public final class PathLockFactory {
          *         if waiting timeout reached
          */
         public PathLock acquire(long timeoutMilliseconds) {
-            PathLockFactory.this.acquire(path, permits, timeoutMilliseconds);
+            if (concurrentLocks != null) {
+                concurrentLocks.acquire(pathWithParents(), isExclusive(), timeoutMilliseconds);
+            } else {
+                PathLockFactory.this.acquire(path, permits, timeoutMilliseconds);
+            }
             return this;
         }
 
         /** Release file permit. */
         public void release() {
-            PathLockFactory.this.release(path, permits);
+            if (concurrentLocks != null) {
+                concurrentLocks.release(pathWithParents(), isExclusive());
+            } else {
+                PathLockFactory.this.release(path, permits);
+            }
         }
 
         /** Returns <code>true</code> if this lock is exclusive and <code>false</code> otherwise. */
         public boolean isExclusive() {
             return permits == PathLockFactory.this.maxThreads;
         }
+
+        private Path[] pathWithParents() {
+            if (pathWithParents == null) {
+                pathWithParents = ConcurrentPathLocks.withParents(path);
+            }
+            return pathWithParents;
+        }
     }
 }
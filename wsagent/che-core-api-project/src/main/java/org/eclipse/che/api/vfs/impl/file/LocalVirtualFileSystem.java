@@ -136,18 +136,30 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     private final FileMetadataSerializer                  metadataSerializer;
     private final LoadingCache<Path, Map<String, String>> metadataCache;
 
-    @SuppressWarnings("unchecked")
     public LocalVirtualFileSystem(File ioRoot,
                                   ArchiverFactory archiverFactory,
                                   SearcherProvider searcherProvider,
                                   AbstractVirtualFileSystemProvider.CloseCallback closeCallback) {
+        this(ioRoot, archiverFactory, searcherProvider, closeCallback, false);
+    }
+
+    /**
+     * @param concurrentPathLocks
+     *         if {@code true} locks of paths are kept in a concurrent map of per-path locks, see {@link PathLockFactory}
+     */
+    @SuppressWarnings("unchecked")
+    public LocalVirtualFileSystem(File ioRoot,
+                                  ArchiverFactory archiverFactory,
+                                  SearcherProvider searcherProvider,
+                                  AbstractVirtualFileSystemProvider.CloseCallback closeCallback,
+                                  boolean concurrentPathLocks) {
         this.ioRoot = ioRoot;
         this.archiverFactory = archiverFactory;
         this.searcherProvider = searcherProvider;
         this.closeCallback = closeCallback;
 
         root = new LocalVirtualFile(ioRoot, Path.ROOT, this);
-        pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
+        pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS, concurrentPathLocks);
 
         locksSerializer = new FileLockSerializer();
         lockTokensCache = CacheBuilder.newBuilder()
@@ -27,17 +27,24 @@ import java.nio.file.Files;
 public class LocalVirtualFileSystemProvider extends AbstractVirtualFileSystemProvider {
     private final File             rootDirectory;
     private final SearcherProvider searcherProvider;
+    private final boolean          concurrentPathLocks;
+
+    public LocalVirtualFileSystemProvider(File rootDirectory, SearcherProvider searcherProvider) throws IOException {
+        this(rootDirectory, searcherProvider, false);
+    }
 
     @Inject
     public LocalVirtualFileSystemProvider(@Named("che.user.workspaces.storage") File rootDirectory,
-                                          SearcherProvider searcherProvider) throws IOException {
+                                          SearcherProvider searcherProvider,
+                                          @Named("vfs.local.concurrent_path_locks") boolean concurrentPathLocks) throws IOException {
         this.rootDirectory = rootDirectory;
         this.searcherProvider = searcherProvider;
+        this.concurrentPathLocks = concurrentPathLocks;
         Files.createDirectories(rootDirectory.toPath());
     }
 
     @Override
     protected VirtualFileSystem createVirtualFileSystem(CloseCallback closeCallback) throws ServerException {
-        return new LocalVirtualFileSystem(rootDirectory, new ArchiverFactory(), searcherProvider, closeCallback);
+        return new LocalVirtualFileSystem(rootDirectory, new ArchiverFactory(), searcherProvider, closeCallback, concurrentPathLocks);
     }
 }
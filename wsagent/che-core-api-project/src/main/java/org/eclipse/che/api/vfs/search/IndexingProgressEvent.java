@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+import org.eclipse.che.api.core.notification.EventOrigin;
+
+/**
+ * Published while a tree of files is being indexed by a {@link Searcher}.
+ */
+@EventOrigin("search")
+public class IndexingProgressEvent {
+    public enum Status {
+        STARTED,
+        IN_PROGRESS,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String path;
+    private final Status status;
+    private final long   discoveredFiles;
+    private final long   indexedFiles;
+    private final long   skippedFiles;
+    private final long   deletedFiles;
+    private final long   elapsedTimeMillis;
+
+    public IndexingProgressEvent(String path,
+                                 Status status,
+                                 long discoveredFiles,
+                                 long indexedFiles,
+                                 long skippedFiles,
+                                 long deletedFiles,
+                                 long elapsedTimeMillis) {
+        this.path = path;
+        this.status = status;
+        this.discoveredFiles = discoveredFiles;
+        this.indexedFiles = indexedFiles;
+        this.skippedFiles = skippedFiles;
+        this.deletedFiles = deletedFiles;
+        this.elapsedTimeMillis = elapsedTimeMillis;
+    }
+
+    /** Path of the root of indexed tree. */
+    public String getPath() {
+        return path;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** Number of files found in the tree so far. */
+    public long getDiscoveredFiles() {
+        return discoveredFiles;
+    }
+
+    /** Number of files added to the index or re-indexed so far. */
+    public long getIndexedFiles() {
+        return indexedFiles;
+    }
+
+    /** Number of files that were not re-indexed since they are not changed after they had been indexed. */
+    public long getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    /** Number of files removed from the index since they do not exist anymore. */
+    public long getDeletedFiles() {
+        return deletedFiles;
+    }
+
+    public long getElapsedTimeMillis() {
+        return elapsedTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexingProgressEvent{" +
+               "path='" + path + '\'' +
+               ", status=" + status +
+               ", discoveredFiles=" + discoveredFiles +
+               ", indexedFiles=" + indexedFiles +
+               ", skippedFiles=" + skippedFiles +
+               ", deletedFiles=" + deletedFiles +
+               ", elapsedTimeMillis=" + elapsedTimeMillis +
+               '}';
+    }
+}
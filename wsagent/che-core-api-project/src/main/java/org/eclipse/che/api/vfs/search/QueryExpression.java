@@ -12,11 +12,23 @@ package org.eclipse.che.api.vfs.search;
 
 /** Container for parameters of query that executed by Searcher.*/
 public class QueryExpression {
-    private String name;
-    private String path;
-    private String text;
-    private int    skipCount;
-    private int    maxItems;
+    /** Defines how {@link #getText() text} is matched with content of files. */
+    public enum TextMode {
+        /** Text is a query of whitespace separated terms, terms may contain wildcards */
+        TERMS,
+        /** Text is a literal that must be contained by content of file */
+        SUBSTRING,
+        /** Text is a regular expression that must be found in content of file */
+        REGEX
+    }
+
+    private String   name;
+    private String   path;
+    private String   text;
+    private int      skipCount;
+    private int      maxItems;
+    private boolean  includePositions;
+    private TextMode textMode = TextMode.TERMS;
 
     /** Optional file path parameter. Only file with the specified path or children are included in result. */
     public String getPath() {
@@ -68,6 +80,26 @@ public class QueryExpression {
         return this;
     }
 
+    /** If {@code true} then occurrences of searched text, i.e. offsets, line numbers and lines, are included in result. */
+    public boolean isIncludePositions() {
+        return includePositions;
+    }
+
+    public QueryExpression setIncludePositions(boolean includePositions) {
+        this.includePositions = includePositions;
+        return this;
+    }
+
+    /** Mode of matching of text with content of files, {@link TextMode#TERMS} by default. */
+    public TextMode getTextMode() {
+        return textMode;
+    }
+
+    public QueryExpression setTextMode(TextMode textMode) {
+        this.textMode = textMode;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "QueryExpression{" +
@@ -76,6 +108,8 @@ public class QueryExpression {
                ", path='" + path + '\'' +
                ", skipCount=" + skipCount +
                ", maxItems=" + maxItems +
+               ", includePositions=" + includePositions +
+               ", textMode=" + textMode +
                '}';
     }
 }
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+/**
+ * Single occurrence of searched text in a file of {@code SearchResultEntry}.
+ */
+public class SearchOccurrence {
+    private final String phrase;
+    private final int    startOffset;
+    private final int    endOffset;
+    private final int    lineNumber;
+    private final String lineContent;
+
+    public SearchOccurrence(String phrase, int startOffset, int endOffset, int lineNumber, String lineContent) {
+        this.phrase = phrase;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.lineNumber = lineNumber;
+        this.lineContent = lineContent;
+    }
+
+    /** Matched text as it appears in the file. */
+    public String getPhrase() {
+        return phrase;
+    }
+
+    /** Offset of the first character of matched text from the beginning of the file. */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /** Offset of the character that follows matched text from the beginning of the file. */
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    /** Number of line that contains matched text, starting from 1. */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /** Content of line that contains matched text. */
+    public String getLineContent() {
+        return lineContent;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchOccurrence{" +
+               "phrase='" + phrase + '\'' +
+               ", startOffset=" + startOffset +
+               ", endOffset=" + endOffset +
+               ", lineNumber=" + lineNumber +
+               ", lineContent='" + lineContent + '\'' +
+               '}';
+    }
+}
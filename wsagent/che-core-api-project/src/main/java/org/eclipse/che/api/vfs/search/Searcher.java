@@ -14,6 +14,8 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 
+import java.util.function.Consumer;
+
 /**
  * @deprecated VFS components are now considered deprecated and will be replaced by standard JDK routines.
  */
@@ -30,6 +32,24 @@ public interface Searcher {
      */
     SearchResult search(QueryExpression query) throws ServerException;
 
+    /**
+     * Passes matched items on virtual filesystem to the consumer one by one, so the whole result
+     * doesn't need to be kept in memory.
+     *
+     * @param query
+     *         query expression
+     * @param consumer
+     *         consumer of matched items
+     * @return total number of items that match the query
+     * @throws ServerException
+     *         if an error occurs
+     */
+    default int search(QueryExpression query, Consumer<SearchResultEntry> consumer) throws ServerException {
+        final SearchResult result = search(query);
+        result.getResults().forEach(consumer);
+        return result.getTotalHits();
+    }
+
     /**
      * Add VirtualFile to index.
      *
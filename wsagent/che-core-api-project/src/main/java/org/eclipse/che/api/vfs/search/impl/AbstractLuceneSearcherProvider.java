@@ -13,6 +13,7 @@ package org.eclipse.che.api.vfs.search.impl;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
@@ -33,13 +34,34 @@ import static com.google.common.collect.Lists.newArrayList;
 public abstract class AbstractLuceneSearcherProvider implements SearcherProvider {
     protected final VirtualFileFilter excludeFileIndexFilters;
     protected final AtomicReference<Searcher> searcherReference = new AtomicReference<>();
+    final IndexingPipeline indexingPipeline;
+
     private final ExecutorService executor;
+    private final ExecutorService indexingExecutor;
 
     /**
      * @param excludeFileIndexFilters
      *         set filter for files that should not be indexed
      */
     protected AbstractLuceneSearcherProvider(Set<VirtualFileFilter> excludeFileIndexFilters) {
+        this(excludeFileIndexFilters, 0, 0, null);
+    }
+
+    /**
+     * @param excludeFileIndexFilters
+     *         set filter for files that should not be indexed
+     * @param indexingThreads
+     *         number of threads which walk file tree and index files, if it is not positive then file tree is indexed
+     *         in a single thread
+     * @param commitBatchSize
+     *         number of indexed files after which changes are committed to the index
+     * @param eventService
+     *         event service to publish progress of indexing, may be {@code null}
+     */
+    protected AbstractLuceneSearcherProvider(Set<VirtualFileFilter> excludeFileIndexFilters,
+                                             int indexingThreads,
+                                             int commitBatchSize,
+                                             EventService eventService) {
         this.excludeFileIndexFilters = mergeFileIndexFilters(excludeFileIndexFilters);
         executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
                                                              .setDaemon(true)
@@ -47,6 +69,19 @@ public abstract class AbstractLuceneSearcherProvider implements SearcherProvider
                                                                      LoggingUncaughtExceptionHandler.getInstance())
                                                              .setNameFormat("LuceneSearcherInitThread")
                                                              .build());
+        if (indexingThreads > 0) {
+            indexingExecutor = Executors.newFixedThreadPool(indexingThreads, new ThreadFactoryBuilder()
+                                                                                      .setDaemon(true)
+                                                                                      .setUncaughtExceptionHandler(
+                                                                                              LoggingUncaughtExceptionHandler
+                                                                                                      .getInstance())
+                                                                                      .setNameFormat("LuceneSearcherIndexThread-%d")
+                                                                                      .build());
+            indexingPipeline = new IndexingPipeline(indexingExecutor, commitBatchSize, eventService);
+        } else {
+            indexingExecutor = null;
+            indexingPipeline = IndexingPipeline.sequential();
+        }
     }
 
     private VirtualFileFilter mergeFileIndexFilters(Set<VirtualFileFilter> fileIndexFilters) {
@@ -77,6 +112,9 @@ public abstract class AbstractLuceneSearcherProvider implements SearcherProvider
     @PreDestroy
     void stop() {
         executor.shutdownNow();
+        if (indexingExecutor != null) {
+            indexingExecutor.shutdownNow();
+        }
     }
 
     @Override
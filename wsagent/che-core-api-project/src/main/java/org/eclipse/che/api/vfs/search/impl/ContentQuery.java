@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.eclipse.che.api.vfs.search.QueryExpression.TextMode;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Substring or regular expression query over content of files. Candidate files are selected with
+ * the index of lower-cased character trigrams, i.e. a candidate contains all trigrams of the literal
+ * text that any match must contain, then each candidate is verified against its content.
+ *
+ * <p>Regular expressions are matched against content that throws {@link MatchTimeoutException} once
+ * the deadline of the query is passed, so a catastrophically backtracking expression can't hold a thread.
+ */
+class ContentQuery {
+    static final int GRAM_SIZE = 3;
+
+    /** Max number of trigrams used to select candidates, it keeps query far below the limit of boolean clauses */
+    private static final int MAX_TRIGRAMS = 64;
+
+    /** Number of characters read by a regular expression between checks of the deadline */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final String  text;
+    private final Pattern pattern;
+
+    private long deadlineNanos;
+    private boolean hasDeadline;
+
+    private ContentQuery(String text, Pattern pattern) {
+        this.text = text;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Creates query for searching of {@code text} in the given mode.
+     *
+     * @throws IllegalArgumentException
+     *         if mode is {@link TextMode#REGEX} and text is not a valid regular expression
+     */
+    static ContentQuery create(String text, TextMode mode) {
+        if (mode == TextMode.REGEX) {
+            try {
+                return new ContentQuery(text, Pattern.compile(text, Pattern.MULTILINE));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+        return new ContentQuery(text, null);
+    }
+
+    /**
+     * Sets time after which matching of a regular expression is interrupted
+     * with {@link MatchTimeoutException}.
+     *
+     * @param timeoutMillis
+     *         time in milliseconds from now
+     */
+    ContentQuery withTimeout(long timeoutMillis) {
+        deadlineNanos = System.nanoTime() + MILLISECONDS.toNanos(timeoutMillis);
+        hasDeadline = true;
+        return this;
+    }
+
+    /** Returns distinct lower-cased trigrams of the text. */
+    static Set<String> trigrams(String text) {
+        final String lowerCased = text.toLowerCase(Locale.ROOT);
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= lowerCased.length(); i++) {
+            trigrams.add(lowerCased.substring(i, i + GRAM_SIZE));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Returns literal strings that must be contained by any text matched with the regular expression. Only
+     * literals outside of groups and character classes are taken into account and nothing is returned for
+     * expressions with alternatives, so the result is conservative but never excludes a matching text.
+     * An escaped metacharacter is a literal, any other escape sequence breaks literals as a whole.
+     */
+    static List<String> requiredLiterals(String regex) {
+        final List<String> literals = newArrayList();
+        if (regex.indexOf('|') >= 0) {
+            return literals;
+        }
+        StringBuilder literal = new StringBuilder();
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                final int end = escapeEnd(regex, i);
+                if (end == i + 1 && depth == 0 && !inClass && !Character.isLetterOrDigit(regex.charAt(end))) {
+                    literal = appendLiteral(literals, literal, regex, end);
+                } else {
+                    // escapes like \w, \x41, \p{L}, \Q..\E or back references are not literals
+                    literal = flush(literals, literal);
+                }
+                i = end;
+                continue;
+            }
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '[':
+                    inClass = true;
+                    literal = flush(literals, literal);
+                    break;
+                case '(':
+                    depth++;
+                    literal = flush(literals, literal);
+                    break;
+                case ')':
+                    depth--;
+                    literal = flush(literals, literal);
+                    break;
+                case '{':
+                    // skip bounds of quantifier
+                    final int end = regex.indexOf('}', i);
+                    i = end < 0 ? regex.length() : end;
+                    literal = flush(literals, literal);
+                    break;
+                case '?':
+                case '*':
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                    literal = flush(literals, literal);
+                    break;
+                default:
+                    if (depth == 0) {
+                        literal = appendLiteral(literals, literal, regex, i);
+                    }
+            }
+        }
+        flush(literals, literal);
+        return literals;
+    }
+
+    /** Returns index of the last character of an escape sequence that starts with backslash at {@code start}. */
+    private static int escapeEnd(String regex, int start) {
+        final int last = regex.length() - 1;
+        final int next = start + 1;
+        if (next > last) {
+            return last;
+        }
+        final char c = regex.charAt(next);
+        switch (c) {
+            case 'x':
+                // \xhh or \x{h...h}
+                return next < last && regex.charAt(next + 1) == '{' ? indexOrLast(regex, '}', next + 1) : Math.min(next + 2, last);
+            case 'u':
+                // unicode escape, backslash u followed by four hex digits
+                return Math.min(next + 4, last);
+            case '0':
+                // \0n, \0nn or \0mnn
+                int end = next;
+                while (end < last && end - next < 3 && regex.charAt(end + 1) >= '0' && regex.charAt(end + 1) <= '7') {
+                    end++;
+                }
+                return end;
+            case 'c':
+                // \cX
+                return Math.min(next + 1, last);
+            case 'p':
+            case 'P':
+            case 'N':
+                // \p{Name}, \pL or \N{NAME}
+                return next < last && regex.charAt(next + 1) == '{' ? indexOrLast(regex, '}', next + 1) : Math.min(next + 1, last);
+            case 'k':
+                // \k<name>
+                return indexOrLast(regex, '>', next);
+            case 'Q':
+                // \Q...\E
+                final int quoteEnd = regex.indexOf("\\E", next);
+                return quoteEnd < 0 ? last : quoteEnd + 1;
+            default:
+                if (Character.isDigit(c)) {
+                    // back reference may consist of several digits
+                    int refEnd = next;
+                    while (refEnd < last && Character.isDigit(regex.charAt(refEnd + 1))) {
+                        refEnd++;
+                    }
+                    return refEnd;
+                }
+                return next;
+        }
+    }
+
+    private static int indexOrLast(String regex, char c, int from) {
+        final int index = regex.indexOf(c, from);
+        return index < 0 ? regex.length() - 1 : index;
+    }
+
+    /** Appends character at {@code index} unless it is made optional by a quantifier that follows it. */
+    private static StringBuilder appendLiteral(List<String> literals, StringBuilder literal, String regex, int index) {
+        final char next = index + 1 < regex.length() ? regex.charAt(index + 1) : 0;
+        if (next == '?' || next == '*' || next == '{') {
+            return flush(literals, literal);
+        }
+        literal.append(regex.charAt(index));
+        return next == '+' ? flush(literals, literal) : literal;
+    }
+
+    private static StringBuilder flush(List<String> literals, StringBuilder literal) {
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+        }
+        return new StringBuilder();
+    }
+
+    /**
+     * Returns query which selects candidates from the trigram index, or {@code null}
+     * if the text is too short to select candidates and all files should be verified.
+     *
+     * @param field
+     *         name of field of trigram index
+     */
+    Query createCandidateQuery(String field) {
+        final Set<String> trigrams = new LinkedHashSet<>();
+        if (pattern == null) {
+            trigrams.addAll(trigrams(text));
+        } else {
+            requiredLiterals(text).forEach(literal -> trigrams.addAll(trigrams(literal)));
+        }
+        if (trigrams.isEmpty()) {
+            return null;
+        }
+        final BooleanQuery query = new BooleanQuery();
+        trigrams.stream()
+                .limit(MAX_TRIGRAMS)
+                .forEach(trigram -> query.add(new TermQuery(new Term(field, trigram)), BooleanClause.Occur.MUST));
+        return query;
+    }
+
+    /** Checks whether content contains the searched text. */
+    boolean matches(String content) {
+        if (content == null) {
+            return false;
+        }
+        return pattern == null ? content.contains(text) : pattern.matcher(withDeadline(content)).find();
+    }
+
+    /**
+     * Finds ranges of content matched by the query.
+     *
+     * @param limit
+     *         max number of ranges to find
+     * @return list of start and end offsets
+     */
+    List<int[]> find(String content, int limit) {
+        final List<int[]> ranges = newArrayList();
+        if (content == null) {
+            return ranges;
+        }
+        if (pattern == null) {
+            int start = content.indexOf(text);
+            while (start >= 0 && ranges.size() < limit) {
+                ranges.add(new int[] {start, start + text.length()});
+                start = content.indexOf(text, start + Math.max(1, text.length()));
+            }
+        } else {
+            final Matcher matcher = pattern.matcher(withDeadline(content));
+            while (ranges.size() < limit && matcher.find()) {
+                if (matcher.end() > matcher.start()) {
+                    ranges.add(new int[] {matcher.start(), matcher.end()});
+                }
+            }
+        }
+        return ranges;
+    }
+
+    private CharSequence withDeadline(CharSequence content) {
+        return hasDeadline ? new DeadlineCharSequence(content, deadlineNanos) : content;
+    }
+
+    /** Thrown when matching of a regular expression is not completed before the deadline of the query. */
+    static class MatchTimeoutException extends RuntimeException {
+        MatchTimeoutException() {
+            super("Regular expression is not matched in time");
+        }
+    }
+
+    /** Content that interrupts a regular expression reading it after the deadline. */
+    private static class DeadlineCharSequence implements CharSequence {
+        private final CharSequence content;
+        private final long         deadlineNanos;
+
+        private int reads;
+
+        private DeadlineCharSequence(CharSequence content, long deadlineNanos) {
+            this.content = content;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int length() {
+            return content.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0) {
+                throw new MatchTimeoutException();
+            }
+            return content.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(content.subSequence(start, end), deadlineNanos);
+        }
+
+        @Override
+        public String toString() {
+            return content.toString();
+        }
+    }
+}
@@ -21,17 +21,26 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
 
 /**
- * Filesystem based LuceneSearcher which cleans index directory after call method {@link #close()}.
+ * Filesystem based LuceneSearcher. Index directory is kept after call method {@link #close()},
+ * so the next searcher re-indexes only files that are changed meanwhile. Index directory is
+ * stamped with {@link LuceneSearcher#INDEX_SCHEMA_VERSION}, an index of another version is
+ * removed and built from scratch.
  *
  * @author andrew00x
  */
 public class FSLuceneSearcher extends LuceneSearcher {
     private static final Logger LOG = LoggerFactory.getLogger(FSLuceneSearcher.class);
 
+    /** Name of the file in index directory that holds version of the index schema */
+    static final String SCHEMA_VERSION_FILE = "schema.version";
+
     private final File indexDirectory;
 
     FSLuceneSearcher(File indexDirectory, VirtualFileFilter filter) {
@@ -43,21 +52,43 @@ public class FSLuceneSearcher extends LuceneSearcher {
         this.indexDirectory = indexDirectory;
     }
 
+    FSLuceneSearcher(File indexDirectory,
+                     VirtualFileFilter filter,
+                     AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+                     IndexingPipeline indexingPipeline) {
+        super(filter, closeCallback, indexingPipeline);
+        this.indexDirectory = indexDirectory;
+    }
+
     @Override
     protected Directory makeDirectory() throws ServerException {
         try {
+            checkSchemaVersion();
             return FSDirectory.open(indexDirectory.toPath(), new SingleInstanceLockFactory());
         } catch (IOException e) {
             throw new ServerException(e);
         }
     }
 
-    @Override
-    protected void afterClose() throws IOException {
-        if (!deleteRecursive(indexDirectory)) {
-            LOG.warn("Unable delete index directory '{}', add it in FileCleaner", indexDirectory);
-            FileCleaner.addFile(indexDirectory);
+    /** Removes content of index directory if it is created for another schema version and stamps it with the current one. */
+    private void checkSchemaVersion() throws IOException {
+        final Path versionFile = indexDirectory.toPath().resolve(SCHEMA_VERSION_FILE);
+        final String version = Integer.toString(INDEX_SCHEMA_VERSION);
+        if (Files.exists(versionFile) && version.equals(new String(Files.readAllBytes(versionFile), UTF_8).trim())) {
+            return;
+        }
+
+        final File[] files = indexDirectory.listFiles();
+        if (files != null && files.length > 0) {
+            LOG.info("Index in '{}' is created for another schema version, it is rebuilt", indexDirectory);
+            for (File file : files) {
+                if (!deleteRecursive(file)) {
+                    LOG.warn("Unable delete index file '{}', add it in FileCleaner", file);
+                    FileCleaner.addFile(file);
+                }
+            }
         }
-        super.afterClose();
+        Files.createDirectories(indexDirectory.toPath());
+        Files.write(versionFile, version.getBytes(UTF_8));
     }
 }
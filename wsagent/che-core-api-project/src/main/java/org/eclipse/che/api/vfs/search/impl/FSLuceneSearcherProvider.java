@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search.impl;
 
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 
 import javax.inject.Inject;
@@ -35,16 +36,36 @@ public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
      *         set filter for files that should not be indexed
      * @see LuceneSearcher
      */
+    public FSLuceneSearcherProvider(File indexRootDirectory, Set<PathMatcher> excludePatterns) throws IOException {
+        this(indexRootDirectory, excludePatterns, 0, 0, null);
+    }
+
+    /**
+     * @param indexRootDirectory
+     *         root directory for creation index
+     * @param excludePatterns
+     *         set filter for files that should not be indexed
+     * @param indexingThreads
+     *         number of threads which walk file tree and index files
+     * @param commitBatchSize
+     *         number of indexed files after which changes are committed to the index
+     * @param eventService
+     *         event service to publish progress of indexing
+     * @see LuceneSearcher
+     */
     @Inject
     public FSLuceneSearcherProvider(@Named("vfs.local.fs_index_root_dir") File indexRootDirectory,
-                                    @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns) throws IOException {
-        super(newHashSet(transform(excludePatterns, VirtualFileFilters::wrap)));
+                                    @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
+                                    @Named("vfs.index.threads") int indexingThreads,
+                                    @Named("vfs.index.commit_batch_size") int commitBatchSize,
+                                    EventService eventService) throws IOException {
+        super(newHashSet(transform(excludePatterns, VirtualFileFilters::wrap)), indexingThreads, commitBatchSize, eventService);
         this.indexRootDirectory = indexRootDirectory;
         Files.createDirectories(indexRootDirectory.toPath());
     }
 
     @Override
     protected LuceneSearcher createLuceneSearcher(CloseCallback closeCallback) {
-        return new FSLuceneSearcher(indexRootDirectory, excludeFileIndexFilters, closeCallback);
+        return new FSLuceneSearcher(indexRootDirectory, excludeFileIndexFilters, closeCallback, indexingPipeline);
     }
 }
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.search.IndexingProgressEvent;
+import org.eclipse.che.api.vfs.search.IndexingProgressEvent.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Indexes a tree of virtual files with {@link LuceneSearcher}. Folders are listed and documents
+ * are created on the given executor, so a tree is walked and indexed by several threads at once.
+ * Changes are committed to the index after every {@code commitBatchSize} indexed files and once
+ * the whole tree is indexed.
+ *
+ * <p>When the files that are already in the index are known, a file whose modification date and
+ * length match the indexed ones is not re-indexed, and indexed files that are not found in the tree
+ * are removed from the index, so only the delta between the index and the tree is processed.
+ *
+ * <p>Progress of indexing is published with {@link IndexingProgressEvent}s if event service is set.
+ */
+class IndexingPipeline {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexingPipeline.class);
+
+    private final Executor     executor;
+    private final int          commitBatchSize;
+    private final EventService eventService;
+
+    /**
+     * @param executor
+     *         executor which lists folders and creates documents
+     * @param commitBatchSize
+     *         number of indexed files after which changes are committed
+     * @param eventService
+     *         event service to publish progress of indexing, may be {@code null}
+     */
+    IndexingPipeline(Executor executor, int commitBatchSize, EventService eventService) {
+        this.executor = executor;
+        this.commitBatchSize = commitBatchSize;
+        this.eventService = eventService;
+    }
+
+    /** Creates pipeline which indexes a tree in the calling thread and doesn't publish progress. */
+    static IndexingPipeline sequential() {
+        return new IndexingPipeline(Runnable::run, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Indexes tree and blocks until all files of the tree are indexed.
+     *
+     * @param searcher
+     *         searcher which index is updated
+     * @param tree
+     *         root of the tree
+     * @param indexedFiles
+     *         files of the tree that are already in the index mapped by their paths, may be empty
+     * @throws ServerException
+     *         if any error occurs while tree is indexed
+     */
+    void index(LuceneSearcher searcher, VirtualFile tree, Map<String, IndexedFile> indexedFiles) throws ServerException {
+        final Run run = new Run(searcher, tree, indexedFiles);
+        run.publish(Status.STARTED);
+        run.submitFolder(tree);
+        try {
+            run.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.fail(new ServerException("Indexing of " + tree.getPath() + " is interrupted"));
+        }
+
+        final Throwable failure = run.failure.get();
+        if (failure == null) {
+            try {
+                run.deleteStaleFiles();
+                searcher.getIndexWriter().commit();
+            } catch (IOException e) {
+                run.fail(new ServerException(e.getMessage(), e));
+            }
+        }
+        if (run.failure.get() != null) {
+            run.publish(Status.FAILED);
+            final Throwable error = run.failure.get();
+            if (error instanceof ServerException) {
+                throw (ServerException)error;
+            }
+            if (error instanceof Error) {
+                throw (Error)error;
+            }
+            throw new ServerException(error.getMessage(), error);
+        }
+        run.publish(Status.COMPLETED);
+        LOG.debug("Indexed {} files from {}, skipped {} not modified files, deleted {} files, time: {} ms",
+                  run.indexed, tree.getPath(), run.skipped, run.deleted, System.currentTimeMillis() - run.startTime);
+    }
+
+    /** Modification date and length of a file at the time the file was indexed. */
+    static class IndexedFile {
+        final long lastModified;
+        final long length;
+
+        IndexedFile(long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    /** State of indexing of a single tree. */
+    private class Run {
+        final LuceneSearcher             searcher;
+        final VirtualFile                tree;
+        final Map<String, IndexedFile>   notVisited;
+        final long                       startTime   = System.currentTimeMillis();
+        final AtomicInteger              pending     = new AtomicInteger();
+        final AtomicInteger              uncommitted = new AtomicInteger();
+        final AtomicLong                 discovered  = new AtomicLong();
+        final AtomicLong                 indexed     = new AtomicLong();
+        final AtomicLong                 skipped     = new AtomicLong();
+        final AtomicLong                 deleted     = new AtomicLong();
+        final AtomicReference<Throwable> failure     = new AtomicReference<>();
+        final CountDownLatch             done        = new CountDownLatch(1);
+
+        Run(LuceneSearcher searcher, VirtualFile tree, Map<String, IndexedFile> indexedFiles) {
+            this.searcher = searcher;
+            this.tree = tree;
+            this.notVisited = indexedFiles.isEmpty() ? Collections.emptyMap() : new ConcurrentHashMap<>(indexedFiles);
+        }
+
+        void submitFolder(VirtualFile folder) {
+            submit(() -> {
+                if (folder.exists()) {
+                    for (VirtualFile child : folder.getChildren()) {
+                        if (child.isFolder()) {
+                            submitFolder(child);
+                        } else {
+                            discovered.incrementAndGet();
+                            if (isModified(child)) {
+                                submitFile(child);
+                            } else {
+                                skipped.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+        }
+
+        void submitFile(VirtualFile file) {
+            submit(() -> {
+                searcher.addFile(file);
+                indexed.incrementAndGet();
+                if (uncommitted.incrementAndGet() >= commitBatchSize) {
+                    uncommitted.set(0);
+                    try {
+                        searcher.getIndexWriter().commit();
+                    } catch (IOException e) {
+                        throw new ServerException(e.getMessage(), e);
+                    }
+                    publish(Status.IN_PROGRESS);
+                }
+            });
+        }
+
+        boolean isModified(VirtualFile file) throws ServerException {
+            if (notVisited.isEmpty()) {
+                return true;
+            }
+            final IndexedFile indexedFile = notVisited.remove(file.getPath().toString());
+            return indexedFile == null
+                   || indexedFile.lastModified != file.getLastModificationDate()
+                   || indexedFile.length != file.getLength();
+        }
+
+        void submit(Task task) {
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        if (failure.get() == null) {
+                            task.run();
+                        }
+                    } catch (ServerException | RuntimeException | Error e) {
+                        fail(e);
+                    } finally {
+                        complete();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                fail(new ServerException("Indexing of " + tree.getPath() + " is rejected"));
+                complete();
+            }
+        }
+
+        void complete() {
+            if (pending.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+
+        void fail(Throwable error) {
+            if (!failure.compareAndSet(null, error)) {
+                LOG.debug(error.getMessage(), error);
+            }
+        }
+
+        void deleteStaleFiles() throws ServerException {
+            for (String path : notVisited.keySet()) {
+                searcher.delete(path, true);
+                deleted.incrementAndGet();
+            }
+        }
+
+        void publish(Status status) {
+            if (eventService != null) {
+                eventService.publish(new IndexingProgressEvent(tree.getPath().toString(),
+                                                               status,
+                                                               discovered.get(),
+                                                               indexed.get(),
+                                                               skipped.get(),
+                                                               deleted.get(),
+                                                               System.currentTimeMillis() - startTime));
+            }
+        }
+    }
+
+    private interface Task {
+        void run() throws ServerException;
+    }
+}
@@ -15,18 +15,30 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
@@ -34,18 +46,23 @@ import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.IOUtils;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.QueryExpression.TextMode;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.search.impl.IndexingPipeline.IndexedFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,12 +70,19 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.Collections.emptyList;
 
 /**
  * Lucene based searcher.
@@ -66,18 +90,45 @@ import static com.google.common.collect.Lists.newArrayList;
  * @author andrew00x
  */
 public abstract class LuceneSearcher implements Searcher {
-    private static final Logger LOG          = LoggerFactory.getLogger(LuceneSearcher.class);
-    private static final int    RESULT_LIMIT = 1000;
-    private static final String PATH_FIELD   = "path";
-    private static final String NAME_FIELD   = "name";
-    private static final String TEXT_FIELD   = "text";
+    /** Version of fields of indexed documents, must be incremented whenever they are changed, so persisted indexes are rebuilt */
+    static final int INDEX_SCHEMA_VERSION = 2;
+
+    private static final Logger LOG               = LoggerFactory.getLogger(LuceneSearcher.class);
+    private static final int    RESULT_LIMIT      = 1000;
+    private static final int    PAGE_SIZE         = 100;
+    private static final int    OCCURRENCES_LIMIT = 100;
+    private static final int    FULL_SCAN_LIMIT   = 10_000;
+    private static final long   SCAN_TIMEOUT_MS   = 10_000;
+    private static final String PATH_FIELD        = "path";
+    private static final String NAME_FIELD        = "name";
+    private static final String TEXT_FIELD        = "text";
+    private static final String MODIFIED_FIELD    = "modified";
+    private static final String LENGTH_FIELD      = "length";
+    private static final String TRIGRAM_FIELD     = "trigram";
+
+    /** Trigrams only select candidates of substring and regex search, so neither frequencies nor positions are indexed */
+    private static final FieldType TRIGRAM_FIELD_TYPE = new FieldType();
+
+    static {
+        TRIGRAM_FIELD_TYPE.setIndexOptions(IndexOptions.DOCS);
+        TRIGRAM_FIELD_TYPE.setTokenized(true);
+        TRIGRAM_FIELD_TYPE.setOmitNorms(true);
+        TRIGRAM_FIELD_TYPE.freeze();
+    }
+
+    private static final Set<String> PATH_FIELD_ONLY = Collections.singleton(PATH_FIELD);
+    private static final Set<String> QUERY_OPERATORS = newHashSet("and", "or", "not", "&&", "||");
 
     private final List<VirtualFileFilter>                      excludeFileIndexFilters;
     private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
+    private final IndexingPipeline                             indexingPipeline;
 
     private IndexWriter     luceneIndexWriter;
     private SearcherManager searcherManager;
 
+    /** Content of files is not stored in the index, it is read from this file system to find occurrences */
+    private volatile VirtualFileSystem virtualFileSystem;
+
     private boolean closed = true;
 
     protected LuceneSearcher() {
@@ -94,7 +145,14 @@ public abstract class LuceneSearcher implements Searcher {
      *         with {@link VirtualFileFilters#createAndFilter} or {@link VirtualFileFilters#createOrFilter} methods
      */
     protected LuceneSearcher(VirtualFileFilter excludeFileIndexFilter, AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
+        this(excludeFileIndexFilter, closeCallback, IndexingPipeline.sequential());
+    }
+
+    LuceneSearcher(VirtualFileFilter excludeFileIndexFilter,
+                   AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+                   IndexingPipeline indexingPipeline) {
         this.closeCallback = closeCallback;
+        this.indexingPipeline = indexingPipeline;
         excludeFileIndexFilters = new CopyOnWriteArrayList<>();
         excludeFileIndexFilters.add(excludeFileIndexFilter);
     }
@@ -120,10 +178,24 @@ public abstract class LuceneSearcher implements Searcher {
         };
     }
 
+    /** Analyzer of indexed documents, content of files is additionally split into lower-cased trigrams. */
+    private Analyzer makeIndexAnalyzer() {
+        final Analyzer trigramAnalyzer = new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new NGramTokenizer(ContentQuery.GRAM_SIZE, ContentQuery.GRAM_SIZE);
+                TokenStream filter = new LowerCaseFilter(tokenizer);
+                return new TokenStreamComponents(tokenizer, filter);
+            }
+        };
+        return new PerFieldAnalyzerWrapper(makeAnalyzer(), Collections.singletonMap(TRIGRAM_FIELD, trigramAnalyzer));
+    }
+
     protected abstract Directory makeDirectory() throws ServerException;
 
     /**
-     * Init lucene index. Need call this method if index directory is clean. Scan all files in virtual filesystem and add to index.
+     * Init lucene index. Scan all files in virtual filesystem and add to index. If index directory is not clean then only files
+     * which are modified after they had been indexed are re-indexed and files which do not exist anymore are removed from index.
      *
      * @param virtualFileSystem
      *         VirtualFileSystem
@@ -131,16 +203,18 @@ public abstract class LuceneSearcher implements Searcher {
      *         if any virtual filesystem error occurs
      */
     public void init(VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
-        addTree(virtualFileSystem.getRoot());
+        indexingPipeline.index(this, virtualFileSystem.getRoot(), getIndexedFiles());
     }
 
     public void initAsynchronously(ExecutorService executor, VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
         if (!executor.isShutdown()) {
             executor.execute(() -> {
                 try {
-                    LuceneSearcher.this.addTree(virtualFileSystem.getRoot());
+                    indexingPipeline.index(LuceneSearcher.this, virtualFileSystem.getRoot(), getIndexedFiles());
                 } catch (ServerException e) {
                     LOG.error(e.getMessage());
                 }
@@ -150,7 +224,7 @@ public abstract class LuceneSearcher implements Searcher {
 
     protected final synchronized void doInit() throws ServerException {
         try {
-            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeAnalyzer()));
+            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeIndexAnalyzer()));
             searcherManager = new SearcherManager(luceneIndexWriter, true, new SearcherFactory());
             closed = false;
         } catch (IOException e) {
@@ -185,8 +259,52 @@ public abstract class LuceneSearcher implements Searcher {
         return luceneIndexWriter;
     }
 
+    /** Returns modification dates and lengths of files that are already in the index mapped by paths of files. */
+    private Map<String, IndexedFile> getIndexedFiles() throws ServerException {
+        IndexSearcher luceneSearcher = null;
+        try {
+            searcherManager.maybeRefresh();
+            luceneSearcher = searcherManager.acquire();
+            final IndexReader reader = luceneSearcher.getIndexReader();
+            if (reader.numDocs() == 0) {
+                return Collections.emptyMap();
+            }
+
+            final Set<String> fields = newHashSet(PATH_FIELD, MODIFIED_FIELD, LENGTH_FIELD);
+            final Map<String, IndexedFile> indexedFiles = new HashMap<>(reader.numDocs());
+            for (LeafReaderContext context : reader.leaves()) {
+                final LeafReader leafReader = context.reader();
+                final Bits liveDocs = leafReader.getLiveDocs();
+                for (int i = 0; i < leafReader.maxDoc(); i++) {
+                    if (liveDocs != null && !liveDocs.get(i)) {
+                        continue;
+                    }
+                    final Document document = leafReader.document(i, fields);
+                    final IndexableField modified = document.getField(MODIFIED_FIELD);
+                    final IndexableField length = document.getField(LENGTH_FIELD);
+                    if (modified != null && length != null) {
+                        indexedFiles.put(document.get(PATH_FIELD),
+                                         new IndexedFile(modified.numericValue().longValue(), length.numericValue().longValue()));
+                    }
+                }
+            }
+            return indexedFiles;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+        }
+    }
+
     @Override
     public SearchResult search(QueryExpression query) throws ServerException {
+        if (isContentQuery(query)) {
+            return searchContent(query);
+        }
         IndexSearcher luceneSearcher = null;
         try {
             final long startTime = System.currentTimeMillis();
@@ -205,11 +323,10 @@ public abstract class LuceneSearcher implements Searcher {
             TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
             final int totalHitsNum = topDocs.totalHits;
 
+            final List<Pattern> termPatterns = query.isIncludePositions() ? getTermPatterns(query.getText()) : emptyList();
             List<SearchResultEntry> results = newArrayList();
             for (int i = 0; i < topDocs.scoreDocs.length; i++) {
-                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
-                String filePath = luceneSearcher.doc(scoreDoc.doc).getField(PATH_FIELD).stringValue();
-                results.add(new SearchResultEntry(filePath));
+                results.add(createSearchResultEntry(luceneSearcher, topDocs.scoreDocs[i], termPatterns));
             }
 
             final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
@@ -237,6 +354,276 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
+    /**
+     * Reads matched documents from the index page by page and passes them to the consumer, so
+     * unlike {@link #search(QueryExpression)} the number of results is not limited.
+     */
+    @Override
+    public int search(QueryExpression query, Consumer<SearchResultEntry> consumer) throws ServerException {
+        if (isContentQuery(query)) {
+            return scanContent(query,
+                               Math.max(0, query.getSkipCount()),
+                               query.getMaxItems() > 0 ? query.getMaxItems() : Integer.MAX_VALUE,
+                               consumer);
+        }
+        IndexSearcher luceneSearcher = null;
+        try {
+            searcherManager.maybeRefresh();
+            luceneSearcher = searcherManager.acquire();
+
+            final Query luceneQuery = createLuceneQuery(query);
+            final List<Pattern> termPatterns = query.isIncludePositions() ? getTermPatterns(query.getText()) : emptyList();
+
+            ScoreDoc after = null;
+            final int numSkipDocs = Math.max(0, query.getSkipCount());
+            if (numSkipDocs > 0) {
+                after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
+            }
+
+            int remaining = query.getMaxItems() > 0 ? query.getMaxItems() : Integer.MAX_VALUE;
+            TopDocs topDocs;
+            do {
+                topDocs = luceneSearcher.searchAfter(after, luceneQuery, Math.min(PAGE_SIZE, remaining));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    consumer.accept(createSearchResultEntry(luceneSearcher, scoreDoc, termPatterns));
+                    after = scoreDoc;
+                }
+                remaining -= topDocs.scoreDocs.length;
+            } while (remaining > 0 && topDocs.scoreDocs.length == PAGE_SIZE);
+
+            return topDocs.totalHits;
+        } catch (IOException | ParseException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isContentQuery(QueryExpression query) {
+        return query.getText() != null && query.getTextMode() != TextMode.TERMS;
+    }
+
+    private SearchResult searchContent(QueryExpression query) throws ServerException {
+        final long startTime = System.currentTimeMillis();
+        final int numSkipDocs = Math.max(0, query.getSkipCount());
+        final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
+
+        final List<SearchResultEntry> results = newArrayList();
+        final int totalHitsNum = scanContent(query, numSkipDocs, numDocs, results::add);
+
+        QueryExpression nextPageQueryExpression = null;
+        if (numSkipDocs + results.size() < totalHitsNum) {
+            nextPageQueryExpression = createNextPageQuery(query, numSkipDocs + results.size());
+        }
+
+        return SearchResult.aSearchResult()
+                           .withResults(results)
+                           .withTotalHits(totalHitsNum)
+                           .withNextPageQueryExpression(nextPageQueryExpression)
+                           .withElapsedTimeMillis(System.currentTimeMillis() - startTime)
+                           .build();
+    }
+
+    /**
+     * Verifies candidates selected with the trigram index against content of files read from the file system and
+     * passes at most {@code limit} matched files, that follow the first {@code skip} matched files, to the consumer.
+     *
+     * <p>Scanning stops as soon as one more file than requested is matched. Text that is too short to select
+     * candidates is verified against at most {@link #FULL_SCAN_LIMIT} files, and matching of a regular expression
+     * is interrupted after {@link #SCAN_TIMEOUT_MS}, so a single query can't hold a thread for long.
+     *
+     * @return number of matched files, it is lower than the total number of matched files when scanning stops early
+     */
+    private int scanContent(QueryExpression query, int skip, int limit, Consumer<SearchResultEntry> consumer) throws ServerException {
+        final ContentQuery contentQuery;
+        try {
+            contentQuery = ContentQuery.create(query.getText(), query.getTextMode()).withTimeout(SCAN_TIMEOUT_MS);
+        } catch (IllegalArgumentException e) {
+            // invalid expressions are rejected by the REST service, it is a bug when they get here
+            throw new ServerException("Invalid regular expression: " + e.getMessage(), e);
+        }
+
+        int matched = 0;
+        IndexSearcher luceneSearcher = null;
+        try {
+            searcherManager.maybeRefresh();
+            luceneSearcher = searcherManager.acquire();
+
+            final Query luceneQuery = createLuceneQuery(query);
+            final int scanLimit = contentQuery.createCandidateQuery(TRIGRAM_FIELD) == null ? FULL_SCAN_LIMIT : Integer.MAX_VALUE;
+            // one more file is matched, so the caller knows there is the next page
+            final long matchLimit = (long)skip + limit + 1;
+            int scanned = 0;
+            ScoreDoc after = null;
+            TopDocs topDocs;
+            do {
+                topDocs = luceneSearcher.searchAfter(after, luceneQuery, PAGE_SIZE);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    if (matched >= matchLimit) {
+                        return matched;
+                    }
+                    if (scanned++ >= scanLimit) {
+                        LOG.debug("Content of only {} files is verified against too short text '{}'", scanLimit, query.getText());
+                        return matched;
+                    }
+                    after = scoreDoc;
+                    final String path = luceneSearcher.doc(scoreDoc.doc, PATH_FIELD_ONLY).get(PATH_FIELD);
+                    final String content = readContent(path);
+                    if (content == null || !contentQuery.matches(content)) {
+                        continue;
+                    }
+                    if (matched >= skip && matched - skip < limit) {
+                        final List<SearchOccurrence> occurrences = query.isIncludePositions()
+                                                                   ? toOccurrences(content, contentQuery.find(content, OCCURRENCES_LIMIT))
+                                                                   : emptyList();
+                        consumer.accept(new SearchResultEntry(path, occurrences));
+                    }
+                    matched++;
+                }
+            } while (topDocs.scoreDocs.length == PAGE_SIZE);
+
+            return matched;
+        } catch (ContentQuery.MatchTimeoutException e) {
+            LOG.warn("Search for '{}' is interrupted after {}ms", query.getText(), SCAN_TIMEOUT_MS);
+            return matched;
+        } catch (IOException | ParseException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+        }
+    }
+
+    private SearchResultEntry createSearchResultEntry(IndexSearcher luceneSearcher,
+                                                      ScoreDoc scoreDoc,
+                                                      List<Pattern> termPatterns) throws IOException {
+        final String path = luceneSearcher.doc(scoreDoc.doc, PATH_FIELD_ONLY).get(PATH_FIELD);
+        if (termPatterns.isEmpty()) {
+            return new SearchResultEntry(path);
+        }
+        return new SearchResultEntry(path, findOccurrences(readContent(path), termPatterns));
+    }
+
+    /**
+     * Reads content of an indexed file from the file system.
+     *
+     * @return content of the file or null if it is not available, e.g. the file is removed after it was indexed
+     */
+    private String readContent(String path) {
+        final VirtualFileSystem fileSystem = virtualFileSystem;
+        if (fileSystem == null) {
+            return null;
+        }
+        try {
+            final VirtualFile file = fileSystem.getRoot().getChild(Path.of(path));
+            return file != null && file.isFile() ? file.getContentAsString() : null;
+        } catch (ForbiddenException | ServerException e) {
+            LOG.debug("Unable to read content of file {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Finds occurrences of searched terms in the content of file. Content is split into terms
+     * with the same analyzer that is used for indexing, so found offsets match the indexed ones.
+     */
+    private List<SearchOccurrence> findOccurrences(String content, List<Pattern> termPatterns) throws IOException {
+        if (content == null) {
+            return newArrayList();
+        }
+        final List<int[]> ranges = newArrayList();
+        try (Analyzer analyzer = makeAnalyzer();
+             TokenStream tokenStream = analyzer.tokenStream(TEXT_FIELD, content)) {
+            final CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            final OffsetAttribute offsetAttribute = tokenStream.addAttribute(OffsetAttribute.class);
+            tokenStream.reset();
+            while (ranges.size() < OCCURRENCES_LIMIT && tokenStream.incrementToken()) {
+                final String term = termAttribute.toString();
+                if (termPatterns.stream().anyMatch(pattern -> pattern.matcher(term).matches())) {
+                    ranges.add(new int[] {offsetAttribute.startOffset(), offsetAttribute.endOffset()});
+                }
+            }
+            tokenStream.end();
+        }
+        return toOccurrences(content, ranges);
+    }
+
+    /**
+     * Creates occurrences from ranges of content.
+     *
+     * @param ranges
+     *         start and end offsets of occurrences, sorted by start offset
+     */
+    private static List<SearchOccurrence> toOccurrences(String content, List<int[]> ranges) {
+        final List<SearchOccurrence> occurrences = newArrayList();
+        int lineNumber = 1;
+        int lineStart = 0;
+        int scanned = 0;
+        for (int[] range : ranges) {
+            final int startOffset = range[0];
+            final int endOffset = range[1];
+            for (; scanned < startOffset; scanned++) {
+                if (content.charAt(scanned) == '\n') {
+                    lineNumber++;
+                    lineStart = scanned + 1;
+                }
+            }
+            int lineEnd = content.indexOf('\n', startOffset);
+            if (lineEnd < 0) {
+                lineEnd = content.length();
+            }
+            if (lineEnd > lineStart && content.charAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            occurrences.add(new SearchOccurrence(content.substring(startOffset, endOffset),
+                                                 startOffset,
+                                                 endOffset,
+                                                 lineNumber,
+                                                 content.substring(lineStart, lineEnd)));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Converts terms of text query to patterns which match indexed terms. Query syntax like boolean operators,
+     * grouping, boosting and fuzziness is dropped, wildcards are kept.
+     */
+    private static List<Pattern> getTermPatterns(String text) {
+        final List<Pattern> patterns = newArrayList();
+        if (text == null) {
+            return patterns;
+        }
+        for (String token : text.trim().split("\\s+")) {
+            final String term = token.replaceAll("[~^][0-9.]*$", "")
+                                     .replaceAll("^[+\\-!(\"]+|[)\"]+$", "")
+                                     .toLowerCase();
+            if (term.isEmpty() || QUERY_OPERATORS.contains(term)) {
+                continue;
+            }
+            final StringBuilder regex = new StringBuilder();
+            for (char c : term.toCharArray()) {
+                if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else if (Character.isLetterOrDigit(c)) {
+                    regex.append(c);
+                } else {
+                    regex.append('\\').append(c);
+                }
+            }
+            patterns.add(Pattern.compile(regex.toString()));
+        }
+        return patterns;
+    }
+
     private Query createLuceneQuery(QueryExpression query) throws ParseException {
         final BooleanQuery luceneQuery = new BooleanQuery();
         final String name = query.getName();
@@ -251,9 +638,20 @@ public abstract class LuceneSearcher implements Searcher {
             luceneQuery.add(qParser.parse(name), BooleanClause.Occur.MUST);
         }
         if (text != null) {
-            QueryParser qParser = new QueryParser(TEXT_FIELD, makeAnalyzer());
-            qParser.setAllowLeadingWildcard(true);
-            luceneQuery.add(qParser.parse(text), BooleanClause.Occur.MUST);
+            if (query.getTextMode() == TextMode.TERMS) {
+                QueryParser qParser = new QueryParser(TEXT_FIELD, makeAnalyzer());
+                qParser.setAllowLeadingWildcard(true);
+                luceneQuery.add(qParser.parse(text), BooleanClause.Occur.MUST);
+            } else {
+                final Query candidatesQuery = ContentQuery.create(text, query.getTextMode()).createCandidateQuery(TRIGRAM_FIELD);
+                if (candidatesQuery != null) {
+                    luceneQuery.add(candidatesQuery, BooleanClause.Occur.MUST);
+                }
+            }
+        }
+        if (luceneQuery.clauses().isEmpty() && isContentQuery(query)) {
+            // text is too short to select candidates, so content of all files is verified
+            return new MatchAllDocsQuery();
         }
         return luceneQuery;
     }
@@ -284,7 +682,9 @@ public abstract class LuceneSearcher implements Searcher {
                                     .setName(originalQuery.getName())
                                     .setPath(originalQuery.getPath())
                                     .setSkipCount(newSkipCount)
-                                    .setMaxItems(originalQuery.getMaxItems());
+                                    .setMaxItems(originalQuery.getMaxItems())
+                                    .setIncludePositions(originalQuery.isIncludePositions())
+                                    .setTextMode(originalQuery.getTextMode());
     }
 
     @Override
@@ -301,34 +701,16 @@ public abstract class LuceneSearcher implements Searcher {
     }
 
     protected void addTree(VirtualFile tree) throws ServerException {
-        final long start = System.currentTimeMillis();
-        final LinkedList<VirtualFile> q = new LinkedList<>();
-        q.add(tree);
-        int indexedFiles = 0;
-        while (!q.isEmpty()) {
-            final VirtualFile folder = q.pop();
-            if (folder.exists()) {
-                for (VirtualFile child : folder.getChildren()) {
-                    if (child.isFolder()) {
-                        q.push(child);
-                    } else {
-                        addFile(child);
-                        indexedFiles++;
-                    }
-                }
-            }
-        }
-        final long end = System.currentTimeMillis();
-        LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
+        indexingPipeline.index(this, tree, Collections.emptyMap());
     }
 
     protected void addFile(VirtualFile virtualFile) throws ServerException {
         if (virtualFile.exists()) {
-            try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                         ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-                                         : null) {
+            final boolean indexContent = shouldIndexContent(virtualFile);
+            try (Reader fContentReader = indexContent ? openContent(virtualFile) : null;
+                 Reader trigramReader = indexContent ? openContent(virtualFile) : null) {
                 getIndexWriter().updateDocument(new Term(PATH_FIELD, virtualFile.getPath().toString()),
-                                                createDocument(virtualFile, fContentReader));
+                                                createDocument(virtualFile, fContentReader, trigramReader));
             } catch (OutOfMemoryError oome) {
                 close();
                 throw oome;
@@ -364,10 +746,10 @@ public abstract class LuceneSearcher implements Searcher {
     }
 
     protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
-        try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                     ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-                                     : null) {
-            getIndexWriter().updateDocument(deleteTerm, createDocument(virtualFile, fContentReader));
+        final boolean indexContent = shouldIndexContent(virtualFile);
+        try (Reader fContentReader = indexContent ? openContent(virtualFile) : null;
+             Reader trigramReader = indexContent ? openContent(virtualFile) : null) {
+            getIndexWriter().updateDocument(deleteTerm, createDocument(virtualFile, fContentReader, trigramReader));
         } catch (OutOfMemoryError oome) {
             close();
             throw oome;
@@ -378,16 +760,36 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
-    protected Document createDocument(VirtualFile virtualFile, Reader reader) throws ServerException {
+    /**
+     * Creates a document of a file, its content is streamed from the readers while the
+     * document is indexed, so it is never loaded into memory at once.
+     *
+     * @param virtualFile
+     *         indexed file
+     * @param reader
+     *         reader of the file content for full text search, or {@code null} if content is not indexed
+     * @param trigramReader
+     *         another reader of the file content for substring and regex search, or {@code null} if content is not indexed
+     */
+    protected Document createDocument(VirtualFile virtualFile, Reader reader, Reader trigramReader) throws ServerException {
         final Document doc = new Document();
         doc.add(new StringField(PATH_FIELD, virtualFile.getPath().toString(), Field.Store.YES));
         doc.add(new TextField(NAME_FIELD, virtualFile.getName(), Field.Store.YES));
+        doc.add(new StoredField(MODIFIED_FIELD, virtualFile.getLastModificationDate()));
+        doc.add(new StoredField(LENGTH_FIELD, virtualFile.getLength()));
         if (reader != null) {
             doc.add(new TextField(TEXT_FIELD, reader));
         }
+        if (trigramReader != null) {
+            doc.add(new Field(TRIGRAM_FIELD, trigramReader, TRIGRAM_FIELD_TYPE));
+        }
         return doc;
     }
 
+    private static Reader openContent(VirtualFile virtualFile) throws ForbiddenException, ServerException {
+        return new BufferedReader(new InputStreamReader(virtualFile.getContent()));
+    }
+
     private boolean shouldIndexContent(VirtualFile virtualFile) {
         for (VirtualFileFilter indexFilter : excludeFileIndexFilters) {
             if (indexFilter.accept(virtualFile)) {
@@ -26,6 +26,12 @@ public class MemoryLuceneSearcher extends LuceneSearcher {
         super(filter, closeCallback);
     }
 
+    MemoryLuceneSearcher(VirtualFileFilter filter,
+                         AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+                         IndexingPipeline indexingPipeline) {
+        super(filter, closeCallback, indexingPipeline);
+    }
+
     @Override
     protected Directory makeDirectory() {
         return new RAMDirectory();
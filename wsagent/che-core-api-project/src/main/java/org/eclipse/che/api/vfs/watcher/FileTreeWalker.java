@@ -16,16 +16,23 @@ import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -33,12 +40,24 @@ import java.util.function.Consumer;
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
 import static java.nio.file.Files.exists;
+import static java.nio.file.Files.readAttributes;
 import static java.nio.file.Files.walkFileTree;
-import static java.util.stream.Collectors.toSet;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.eclipse.che.api.vfs.watcher.FileWatcherUtils.isExcluded;
 
 /**
  * Walks a file system tree, register addition, update and removal of file system items.
  * On events runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>In event driven mode the whole tree is walked only once, then every directory of the tree
+ * is watched with a {@link WatchService} and a walk handles only the entries reported by watch
+ * events since the previous walk. A directory is rescanned only when its events are overflowed
+ * or when it is created. If directories can't be watched, e.g. the limit of watches of the file
+ * system is exceeded, the walker falls back to walking the whole tree.
  */
 @Singleton
 public class FileTreeWalker {
@@ -56,8 +75,34 @@ public class FileTreeWalker {
     private final Set<Consumer<Path>> fileDeleteConsumers;
     private final Set<PathMatcher>    fileExcludes;
 
-    private final Map<Path, Long> files       = new HashMap<>();
-    private final Map<Path, Long> directories = new HashMap<>();
+    private final PathTrie files;
+    private final PathTrie directories;
+
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+
+    private boolean      eventDriven;
+    private WatchService watchService;
+
+    public FileTreeWalker(File root,
+                          Set<Consumer<Path>> directoryUpdateConsumers,
+                          Set<Consumer<Path>> directoryCreateConsumers,
+                          Set<Consumer<Path>> directoryDeleteConsumers,
+                          Set<PathMatcher> directoryExcludes,
+                          Set<Consumer<Path>> fileUpdateConsumers,
+                          Set<Consumer<Path>> fileCreateConsumers,
+                          Set<Consumer<Path>> fileDeleteConsumers,
+                          Set<PathMatcher> fileExcludes) {
+        this(root,
+             directoryUpdateConsumers,
+             directoryCreateConsumers,
+             directoryDeleteConsumers,
+             directoryExcludes,
+             fileUpdateConsumers,
+             fileCreateConsumers,
+             fileDeleteConsumers,
+             fileExcludes,
+             false);
+    }
 
     @Inject
     public FileTreeWalker(@Named("che.user.workspaces.storage") File root,
@@ -70,7 +115,9 @@ public class FileTreeWalker {
                           @Named("che.fs.file.update") Set<Consumer<Path>> fileUpdateConsumers,
                           @Named("che.fs.file.create") Set<Consumer<Path>> fileCreateConsumers,
                           @Named("che.fs.file.delete") Set<Consumer<Path>> fileDeleteConsumers,
-                          @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes) {
+                          @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes,
+
+                          @Named("che.fs.walker.event_driven") boolean eventDriven) {
         this.root = root;
 
         this.directoryUpdateConsumers = directoryUpdateConsumers;
@@ -83,68 +130,203 @@ public class FileTreeWalker {
 
         this.directoryExcludes = directoryExcludes;
         this.fileExcludes = fileExcludes;
+
+        this.eventDriven = eventDriven;
+
+        this.files = new PathTrie(root.toPath());
+        this.directories = new PathTrie(root.toPath());
     }
 
     @ScheduleRate(period = 10)
-    void walk() {
+    synchronized void walk() {
         try {
             LOG.debug("Tree walk started");
 
-            Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-            fileDeleteConsumers.forEach(deletedFiles::forEach);
-            files.keySet().removeAll(deletedFiles);
-
-            Set<Path> deletedDirectories = directories.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-            directoryDeleteConsumers.forEach(deletedDirectories::forEach);
-            directories.keySet().removeAll(deletedDirectories);
-
-            walkFileTree(root.toPath(), new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                    for (PathMatcher matcher : directoryExcludes) {
-                        if (matcher.matches(dir)) {
-                            return SKIP_SUBTREE;
-                        }
+            if (!eventDriven) {
+                rescan(root.toPath());
+            } else if (watchService == null) {
+                watchService = root.toPath().getFileSystem().newWatchService();
+                rescan(root.toPath());
+            } else {
+                handleEvents();
+            }
+
+            LOG.debug("Tree walk finished");
+        } catch (Exception e) {
+            LOG.error("Error while walking file tree", e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        closeWatchService();
+    }
+
+    /** Handles entries reported by watch events since the previous walk. */
+    private void handleEvents() throws IOException {
+        final Set<Path> overflowed = new LinkedHashSet<>();
+        final Set<Path> changed = new LinkedHashSet<>();
+
+        WatchKey key;
+        while (watchService != null && (key = watchService.poll()) != null) {
+            final Path dir = keys.get(key);
+            if (dir != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        overflowed.add(dir);
+                    } else {
+                        changed.add(dir.resolve((Path)event.context()));
+                        changed.add(dir);
                     }
+                }
+            }
+            if (!key.reset()) {
+                keys.remove(key);
+            }
+        }
 
-                    updateFsTreeAndAcceptConsumables(directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
+        for (Path dir : overflowed) {
+            LOG.debug("File system events of '{}' are overflowed, rescanning", dir);
+            rescan(dir);
+        }
+        for (Path path : changed) {
+            if (!isUnder(overflowed, path)) {
+                check(path);
+            }
+        }
+    }
 
-                    return CONTINUE;
+    /** Walks a subtree, reports removal of its items that don't exist anymore and addition and update of existing ones. */
+    private void rescan(Path dir) throws IOException {
+        final List<Path> deletedFiles = files.removeIf(dir, it -> !exists(it, NOFOLLOW_LINKS));
+        fileDeleteConsumers.forEach(deletedFiles::forEach);
+
+        final List<Path> deletedDirectories = directories.removeIf(dir, it -> !exists(it, NOFOLLOW_LINKS));
+        directoryDeleteConsumers.forEach(deletedDirectories::forEach);
+
+        if (!exists(dir)) {
+            return;
+        }
+
+        walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (isExcluded(directoryExcludes, dir)) {
+                    return SKIP_SUBTREE;
                 }
 
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                    for (PathMatcher matcher : fileExcludes) {
-                        if (matcher.matches(file)) {
-                            return CONTINUE;
-                        }
-                    }
+                // register directory before its entries are visited so no entry added meanwhile is missed
+                register(dir);
+                updateFsTreeAndAcceptConsumables(directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
 
-                    updateFsTreeAndAcceptConsumables(files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
+                return CONTINUE;
+            }
 
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (isExcluded(fileExcludes, file)) {
                     return CONTINUE;
                 }
-            });
-            LOG.debug("Tree walk finished");
-        } catch (Exception e) {
-            LOG.error("Error while walking file tree", e);
+
+                updateFsTreeAndAcceptConsumables(files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
+
+                return CONTINUE;
+            }
+        });
+    }
+
+    /** Checks a single item reported by a watch event. */
+    private void check(Path path) throws IOException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = readAttributes(path, BasicFileAttributes.class, NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            delete(path);
+            return;
+        }
+
+        if (attrs.isDirectory()) {
+            if (files.contains(path)) {
+                delete(path);
+            }
+            if (isExcluded(directoryExcludes, path)) {
+                return;
+            }
+            if (register(path) || !directories.contains(path)) {
+                // entries of a new or re-created directory could be created before it is registered
+                rescan(path);
+            } else {
+                updateFsTreeAndAcceptConsumables(directories, directoryUpdateConsumers, directoryCreateConsumers, path, attrs);
+            }
+        } else {
+            if (directories.contains(path)) {
+                delete(path);
+            }
+            if (!isExcluded(fileExcludes, path)) {
+                updateFsTreeAndAcceptConsumables(files, fileUpdateConsumers, fileCreateConsumers, path, attrs);
+            }
+        }
+    }
+
+    private void delete(Path path) {
+        final List<Path> deletedFiles = files.removeSubtree(path);
+        fileDeleteConsumers.forEach(deletedFiles::forEach);
+
+        final List<Path> deletedDirectories = directories.removeSubtree(path);
+        directoryDeleteConsumers.forEach(deletedDirectories::forEach);
+    }
+
+    /**
+     * Starts watching a directory if walker is event driven, registration of a directory
+     * that is already watched returns its existing watch key.
+     *
+     * @return {@code true} if directory was not watched before
+     */
+    private boolean register(Path dir) {
+        if (!eventDriven) {
+            return false;
+        }
+        try {
+            return keys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir) == null;
+        } catch (IOException e) {
+            LOG.warn("Can't watch directory '{}', falling back to walking the whole tree. Cause: {}", dir, e.getMessage());
+            eventDriven = false;
+            closeWatchService();
+            return false;
         }
     }
 
-    private void updateFsTreeAndAcceptConsumables(Map<Path, Long> items, Set<Consumer<Path>> updateConsumer,
+    private void closeWatchService() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.error("Closing of java watch service failed: {}", e.getMessage());
+            }
+            watchService = null;
+            keys.clear();
+        }
+    }
+
+    private static boolean isUnder(Set<Path> dirs, Path path) {
+        for (Path dir : dirs) {
+            if (path.startsWith(dir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateFsTreeAndAcceptConsumables(PathTrie items, Set<Consumer<Path>> updateConsumer,
                                                   Set<Consumer<Path>> createConsumer,
                                                   Path path, BasicFileAttributes attrs) {
-        Long lastModifiedActual = attrs.lastModifiedTime().toMillis();
+        final long lastModifiedActual = attrs.lastModifiedTime().toMillis();
+        final long lastModifiedStored = items.put(path, lastModifiedActual);
 
-        if (items.containsKey(path)) {
-            Long lastModifiedStored = items.get(path);
-            if (!lastModifiedActual.equals(lastModifiedStored)) {
-                updateConsumer.forEach(it -> it.accept(path));
-                items.put(path, lastModifiedActual);
-            }
-        } else {
+        if (lastModifiedStored == PathTrie.NO_VALUE) {
             createConsumer.forEach(it -> it.accept(path));
-            items.put(path, lastModifiedActual);
+        } else if (lastModifiedStored != lastModifiedActual) {
+            updateConsumer.forEach(it -> it.accept(path));
         }
     }
 }
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.watcher;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Compact map of paths to primitive {@code long} values. Paths are stored relative to a root as a trie
+ * of their name elements, so common parents are stored once and each entry costs a node with a short
+ * name instead of a full {@link Path}, a boxed value and a hash map entry. Children of a node are kept
+ * in an array sorted by name and looked up with a binary search.
+ *
+ * <p>Not thread safe.
+ */
+class PathTrie {
+    /** Returned by {@link #get(Path)} and {@link #put(Path, long)} when there is no value for a path. */
+    static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Path root;
+    private final Node rootNode = new Node("");
+
+    private int size;
+
+    /**
+     * @param root
+     *         root of paths stored in this trie, paths outside of the root are ignored
+     */
+    PathTrie(Path root) {
+        this.root = root;
+    }
+
+    /** Returns value of path or {@link #NO_VALUE} if there is no value for the path. */
+    long get(Path path) {
+        final Node node = find(path);
+        return node == null ? NO_VALUE : node.value;
+    }
+
+    boolean contains(Path path) {
+        return get(path) != NO_VALUE;
+    }
+
+    /**
+     * Associates value with path.
+     *
+     * @return previous value of path or {@link #NO_VALUE} if there was no value
+     */
+    long put(Path path, long value) {
+        final Path relative = relativize(path);
+        if (relative == null) {
+            return NO_VALUE;
+        }
+        Node node = rootNode;
+        for (int i = 0; i < nameCount(relative); i++) {
+            node = node.getOrCreateChild(relative.getName(i).toString());
+        }
+        final long previous = node.value;
+        node.value = value;
+        if (previous == NO_VALUE) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Removes values of path and all paths under it.
+     *
+     * @return removed paths, children are placed before their parents
+     */
+    List<Path> removeSubtree(Path path) {
+        return removeIf(path, it -> true);
+    }
+
+    /**
+     * Removes values of path and paths under it that match the predicate.
+     *
+     * @return removed paths, children are placed before their parents
+     */
+    List<Path> removeIf(Path path, Predicate<Path> predicate) {
+        final List<Path> removed = new ArrayList<>();
+        final Path relative = relativize(path);
+        if (relative == null) {
+            return removed;
+        }
+        Node parent = null;
+        Node node = rootNode;
+        for (int i = 0; i < nameCount(relative) && node != null; i++) {
+            parent = node;
+            node = node.getChild(relative.getName(i).toString());
+        }
+        if (node != null) {
+            removeIf(node, root.resolve(relative), predicate, removed);
+            if (parent != null && node.isEmpty()) {
+                parent.removeChild(node.name);
+            }
+            prune(relative);
+        }
+        size -= removed.size();
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void removeIf(Node node, Path path, Predicate<Path> predicate, List<Path> removed) {
+        for (int i = node.childCount - 1; i >= 0; i--) {
+            final Node child = node.children[i];
+            removeIf(child, path.resolve(child.name), predicate, removed);
+            if (child.isEmpty()) {
+                node.removeChild(child.name);
+            }
+        }
+        if (node.value != NO_VALUE && predicate.test(path)) {
+            node.value = NO_VALUE;
+            removed.add(path);
+        }
+    }
+
+    /** Removes parents of path that are left without values and children. */
+    private void prune(Path relative) {
+        for (int count = nameCount(relative) - 1; count > 0; count--) {
+            final Path parentPath = relative.subpath(0, count);
+            final Node parent = find(root.resolve(parentPath));
+            if (parent == null || !parent.isEmpty()) {
+                return;
+            }
+            final Node grandParent = count == 1 ? rootNode : find(root.resolve(relative.subpath(0, count - 1)));
+            if (grandParent != null) {
+                grandParent.removeChild(parent.name);
+            }
+        }
+    }
+
+    private Node find(Path path) {
+        final Path relative = relativize(path);
+        if (relative == null) {
+            return null;
+        }
+        Node node = rootNode;
+        for (int i = 0; i < nameCount(relative) && node != null; i++) {
+            node = node.getChild(relative.getName(i).toString());
+        }
+        return node;
+    }
+
+    private Path relativize(Path path) {
+        return path.startsWith(root) ? root.relativize(path) : null;
+    }
+
+    /** Relative path of the root itself is an empty path which still has a single empty name. */
+    private static int nameCount(Path relative) {
+        return relative.toString().isEmpty() ? 0 : relative.getNameCount();
+    }
+
+    private static class Node {
+        final String name;
+
+        long   value    = NO_VALUE;
+        Node[] children = NO_CHILDREN;
+        int    childCount;
+
+        Node(String name) {
+            this.name = name;
+        }
+
+        boolean isEmpty() {
+            return value == NO_VALUE && childCount == 0;
+        }
+
+        Node getChild(String name) {
+            final int index = indexOf(name);
+            return index < 0 ? null : children[index];
+        }
+
+        Node getOrCreateChild(String name) {
+            int index = indexOf(name);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -(index + 1);
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, childCount == 0 ? 2 : childCount * 2);
+            }
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            final Node child = new Node(name);
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(String name) {
+            final int index = indexOf(name);
+            if (index >= 0) {
+                System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                children[--childCount] = null;
+                if (childCount == 0) {
+                    children = NO_CHILDREN;
+                }
+            }
+        }
+
+        private int indexOf(String name) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int cmp = children[mid].name.compareTo(name);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.project.shared.dto.ItemReference;
+import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
+import org.eclipse.che.api.workspace.shared.dto.EnvironmentRecipeDto;
+import org.eclipse.che.api.workspace.shared.dto.ExtendedMachineDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.ServerConf2Dto;
+import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Compares throughput and allocation rate of DTO serialization with generated type adapters and
+ * with Gson's reflective adapters, run it with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean generatedAdapters;
+
+    @Param({"workspace", "itemReferences"})
+    public String dto;
+
+    private Gson     gson;
+    private Object   value;
+    private Class<?> type;
+    private String   json;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DtoSerializationBenchmark.class.getSimpleName())
+                                       .addProfiler(GCProfiler.class)
+                                       .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        gson = generatedAdapters ? dtoFactory.getGson() : dtoFactory.createReflectiveGson();
+        if ("workspace".equals(dto)) {
+            value = createWorkspace();
+            type = WorkspaceDto.class;
+        } else {
+            final List<ItemReference> items = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                items.add(createItemReference(i));
+            }
+            value = items;
+            type = ItemReference[].class;
+        }
+        json = gson.toJson(value);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(value);
+    }
+
+    @Benchmark
+    public Object fromJson() {
+        return gson.fromJson(json, type);
+    }
+
+    private static WorkspaceDto createWorkspace() {
+        final List<ProjectConfigDto> projects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            projects.add(newDto(ProjectConfigDto.class).withName("project-" + i)
+                                                       .withPath("/project-" + i)
+                                                       .withType("maven")
+                                                       .withMixins(asList("git", "pullrequest"))
+                                                       .withAttributes(ImmutableMap.of("language", singletonList("java"),
+                                                                                       "maven.version", singletonList("3.3.9")))
+                                                       .withSource(newDto(SourceStorageDto.class)
+                                                                           .withType("git")
+                                                                           .withLocation("https://github.com/eclipse/che.git")
+                                                                           .withParameters(singletonMap("branch", "master"))));
+        }
+        final ExtendedMachineDto machine = newDto(ExtendedMachineDto.class)
+                .withAgents(asList("org.eclipse.che.terminal", "org.eclipse.che.ws-agent", "org.eclipse.che.exec"))
+                .withServers(singletonMap("tomcat", newDto(ServerConf2Dto.class).withPort("8080/tcp")
+                                                                                .withProtocol("http")
+                                                                                .withProperties(singletonMap("path", "/"))))
+                .withAttributes(singletonMap("memoryLimitBytes", "2147483648"));
+        final EnvironmentDto environment = newDto(EnvironmentDto.class)
+                .withRecipe(newDto(EnvironmentRecipeDto.class).withType("dockerimage").withLocation("codenvy/ubuntu_jdk8"))
+                .withMachines(singletonMap("dev-machine", machine));
+        return newDto(WorkspaceDto.class).withId("workspace123456789")
+                                         .withNamespace("user")
+                                         .withStatus(WorkspaceStatus.RUNNING)
+                                         .withAttributes(ImmutableMap.of("created", "1490000000000", "stackId", "java-default"))
+                                         .withLinks(asList(createLink("self"), createLink("ide url")))
+                                         .withConfig(newDto(WorkspaceConfigDto.class).withName("workspace")
+                                                                                     .withDefaultEnv("default")
+                                                                                     .withProjects(projects)
+                                                                                     .withEnvironments(singletonMap("default", environment)));
+    }
+
+    private static ItemReference createItemReference(int i) {
+        return newDto(ItemReference.class).withName("File" + i + ".java")
+                                          .withType("file")
+                                          .withProject("/project")
+                                          .withPath("/project/src/main/java/org/eclipse/File" + i + ".java")
+                                          .withModified(1490000000000L + i)
+                                          .withContentLength(1024 + i)
+                                          .withAttributes(singletonMap("vcs.status", "untracked"))
+                                          .withLinks(asList(createLink("get content"), createLink("update content")));
+    }
+
+    private static Link createLink(String rel) {
+        return newDto(Link.class).withRel(rel).withHref("http://localhost:8080/api/" + rel.replace(' ', '/')).withMethod("GET");
+    }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tests of {@link PathLockFactory} against concurrent per-path locks.
+ */
+public class ConcurrentPathLocksTest extends PathLockFactoryTest {
+    private PathLockFactory concurrentLockFactory;
+
+    @Override
+    protected PathLockFactory createPathLockFactory(int maxThreads) {
+        concurrentLockFactory = new PathLockFactory(maxThreads, true);
+        return concurrentLockFactory;
+    }
+
+    public void testReleasedLocksAreRemoved() throws Exception {
+        PathLockFactory.PathLock shared = concurrentLockFactory.getLock(Path.of("/a/b/c"), false).acquire(1000);
+        PathLockFactory.PathLock exclusive = concurrentLockFactory.getLock(Path.of("/a/d"), true).acquire(1000);
+        PathLockFactory.PathLock reentered = concurrentLockFactory.getLock(Path.of("/a/d"), true).acquire(1000);
+
+        reentered.release();
+        exclusive.release();
+        shared.release();
+
+        concurrentLockFactory.checkClean();
+    }
+
+    public void testExclusiveLocksOfSiblingsDoNotBlockEachOther() throws Exception {
+        PathLockFactory.PathLock lock = concurrentLockFactory.getLock(Path.of("/a/b"), true).acquire(1000);
+        try {
+            assertTrue(acquireInOtherThread(Path.of("/a/c"), true));
+        } finally {
+            lock.release();
+        }
+    }
+
+    public void testSharedLockOfParentBlocksExclusiveLockOfChild() throws Exception {
+        PathLockFactory.PathLock lock = concurrentLockFactory.getLock(Path.of("/a"), false).acquire(1000);
+        try {
+            assertTrue(acquireInOtherThread(Path.of("/a/b"), false));
+            assertFalse(acquireInOtherThread(Path.of("/a/b"), true));
+        } finally {
+            lock.release();
+        }
+    }
+
+    public void testExclusiveLockOfChildBlocksLockOfParent() throws Exception {
+        PathLockFactory.PathLock lock = concurrentLockFactory.getLock(Path.of("/a/b/c"), true).acquire(1000);
+        try {
+            assertFalse(acquireInOtherThread(Path.of("/a"), false));
+            assertFalse(acquireInOtherThread(Path.of("/a"), true));
+        } finally {
+            lock.release();
+        }
+        assertTrue(acquireInOtherThread(Path.of("/a"), true));
+    }
+
+    public void testTimedOutAcquisitionLeavesNoLocks() throws Exception {
+        PathLockFactory.PathLock lock = concurrentLockFactory.getLock(Path.of("/a/b"), true).acquire(1000);
+        assertFalse(acquireInOtherThread(Path.of("/a/b/c/d"), false));
+        lock.release();
+
+        concurrentLockFactory.checkClean();
+    }
+
+    public void testWaitingThreadDoesNotHoldLocksOfParents() throws Exception {
+        PathLockFactory.PathLock lock = concurrentLockFactory.getLock(Path.of("/a/b"), false).acquire(1000);
+        Thread waiting = new Thread(() -> concurrentLockFactory.getLock(Path.of("/a/b"), true).acquire().release());
+        waiting.start();
+        try {
+            while (waiting.getState() != Thread.State.WAITING) {
+                assertTrue(waiting.isAlive());
+                Thread.sleep(10);
+            }
+            // thread which waits for exclusive lock of '/a/b' doesn't hold intention lock of '/a'
+            assertTrue(acquireInOtherThread(Path.of("/a"), false));
+        } finally {
+            lock.release();
+        }
+        waiting.join(5000);
+        assertFalse(waiting.isAlive());
+
+        concurrentLockFactory.checkClean();
+    }
+
+    public void testConcurrentLocksOfNestedPathsDoNotDeadlock() throws Exception {
+        final Path[] paths = {Path.ROOT, Path.of("/a"), Path.of("/a/b"), Path.of("/a/b/c"), Path.of("/a/d"), Path.of("/e")};
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    final Random random = new Random();
+                    for (int j = 0; j < 2000; j++) {
+                        final Path path = paths[random.nextInt(paths.length)];
+                        final boolean exclusive = random.nextBoolean();
+                        concurrentLockFactory.getLock(path, exclusive).acquire().release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        concurrentLockFactory.checkClean();
+    }
+
+    private boolean acquireInOtherThread(Path path, boolean exclusive) throws Exception {
+        final AtomicBoolean acquired = new AtomicBoolean();
+        final CountDownLatch waiter = new CountDownLatch(1);
+        new Thread(() -> {
+            try {
+                concurrentLockFactory.getLock(path, exclusive).acquire(100).release();
+                acquired.set(true);
+            } catch (RuntimeException ignored) {
+            } finally {
+                waiter.countDown();
+            }
+        }).start();
+        assertTrue(waiter.await(5, TimeUnit.SECONDS));
+        return acquired.get();
+    }
+}
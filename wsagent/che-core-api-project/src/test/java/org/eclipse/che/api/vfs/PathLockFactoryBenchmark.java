@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of acquiring and releasing {@link PathLockFactory} locks by many threads with
+ * the synchronized lock table and with concurrent per-path locks, run it with {@link #main(String[])}
+ * from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class PathLockFactoryBenchmark {
+    private static final int MAX_THREADS = 1024;
+
+    @Param({"false", "true"})
+    public boolean concurrent;
+
+    /** Number of distinct files locked by benchmark threads. */
+    @Param({"16", "1024"})
+    public int files;
+
+    private PathLockFactory pathLockFactory;
+    private Path[]          paths;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathLockFactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pathLockFactory = new PathLockFactory(MAX_THREADS, concurrent);
+        paths = new Path[files];
+        for (int i = 0; i < files; i++) {
+            paths[i] = Path.of(String.format("/project-%d/src/main/java/File%d.java", i % 4, i));
+        }
+    }
+
+    @Benchmark
+    public boolean sharedLock() {
+        return lockAndRelease(false);
+    }
+
+    @Benchmark
+    public boolean exclusiveLock() {
+        return lockAndRelease(true);
+    }
+
+    /** Mix of metadata reads and content updates, one of ten accesses is exclusive. */
+    @Benchmark
+    public boolean mixedLock() {
+        return lockAndRelease(ThreadLocalRandom.current().nextInt(10) == 0);
+    }
+
+    private boolean lockAndRelease(boolean exclusive) {
+        final Path path = paths[ThreadLocalRandom.current().nextInt(paths.length)];
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(path, exclusive).acquire(60000);
+        try {
+            return lock.isExclusive();
+        } finally {
+            lock.release();
+        }
+    }
+}
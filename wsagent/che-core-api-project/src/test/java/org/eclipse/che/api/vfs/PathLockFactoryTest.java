@@ -30,7 +30,11 @@ public class PathLockFactoryTest extends TestCase {
     @Override
     protected void setUp() throws Exception {
         super.setUp();
-        pathLockFactory = new PathLockFactory(maxThreads);
+        pathLockFactory = createPathLockFactory(maxThreads);
+    }
+
+    protected PathLockFactory createPathLockFactory(int maxThreads) {
+        return new PathLockFactory(maxThreads);
     }
 
     public void testLock() throws Exception {
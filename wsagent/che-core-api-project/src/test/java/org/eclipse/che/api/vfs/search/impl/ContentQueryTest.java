@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import com.google.common.base.Strings;
+
+import org.eclipse.che.api.vfs.search.QueryExpression.TextMode;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static java.util.Collections.emptyList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ContentQueryTest {
+
+    @DataProvider(name = "regexLiterals")
+    public Object[][] regexLiterals() {
+        return new Object[][] {
+                {"foo\\.bar\\(", newArrayList("foo.bar(")},
+                {"x->y", newArrayList("x->y")},
+                {"get\\w+Name", newArrayList("get", "Name")},
+                {"colou?r", newArrayList("colo", "r")},
+                {"ab+c", newArrayList("ab", "c")},
+                {"a{2}bcd", newArrayList("bcd")},
+                {"(optional)?text", newArrayList("text")},
+                {"[abc]def", newArrayList("def")},
+                {"^import .*;$", newArrayList("import ", ";")},
+                {"foo|bar", emptyList()},
+                {"foo\\x41bar", newArrayList("foo", "bar")},
+                {"foo\\x{41}bar", newArrayList("foo", "bar")},
+                {"foo\\u0041bar", newArrayList("foo", "bar")},
+                {"foo\\0101bar", newArrayList("foo", "bar")},
+                {"foo\\cAbar", newArrayList("foo", "bar")},
+                {"foo\\p{Lu}bar", newArrayList("foo", "bar")},
+                {"foo\\pLbar", newArrayList("foo", "bar")},
+                {"foo\\Q.*\\Ebar", newArrayList("foo", "bar")},
+                {"(?<x>a)foo\\k<x>bar", newArrayList("foo", "bar")},
+                {"(a)foo\\1bar", newArrayList("foo", "bar")},
+                {"[\\Q]\\E]foo", newArrayList("foo")}
+        };
+    }
+
+    @Test(dataProvider = "regexLiterals")
+    public void findsLiteralsRequiredByRegex(String regex, List<String> literals) {
+        assertEquals(ContentQuery.requiredLiterals(regex), literals);
+    }
+
+    @Test
+    public void splitsTextIntoLowerCasedTrigrams() {
+        assertEquals(ContentQuery.trigrams("Foo.b"), newLinkedHashSet(newArrayList("foo", "oo.", "o.b")));
+    }
+
+    @Test
+    public void doesNotSelectCandidatesForShortText() {
+        assertNull(ContentQuery.create("ab", TextMode.SUBSTRING).createCandidateQuery("trigram"));
+        assertNull(ContentQuery.create("a.c|x", TextMode.REGEX).createCandidateQuery("trigram"));
+    }
+
+    @Test
+    public void verifiesSubstring() {
+        ContentQuery query = ContentQuery.create("bar(", TextMode.SUBSTRING);
+
+        assertTrue(query.matches("foo.bar(1)"));
+        assertFalse(query.matches("foo.bar"));
+        assertEquals(query.find("bar(bar(", 10).size(), 2);
+    }
+
+    @Test
+    public void verifiesRegex() {
+        ContentQuery query = ContentQuery.create("^\\s*return \\w+;$", TextMode.REGEX);
+
+        assertTrue(query.matches("int x() {\n    return y;\n}"));
+        assertFalse(query.matches("return;"));
+    }
+
+    @Test(expectedExceptions = ContentQuery.MatchTimeoutException.class, timeOut = 10_000)
+    public void interruptsRegexMatchingAfterTimeout() {
+        ContentQuery query = ContentQuery.create("(a+)+b", TextMode.REGEX).withTimeout(100);
+
+        query.matches(Strings.repeat("a", 64));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsInvalidRegex() {
+        ContentQuery.create("foo.bar(", TextMode.REGEX);
+    }
+}
@@ -28,10 +28,12 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.mock;
@@ -257,6 +259,33 @@ public class FSLuceneSearcherTest {
         assertFalse(searcher.getIndexWriter().isOpen());
     }
 
+    @Test
+    public void keepsIndexWhenSearcherClosed() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFolder("folder").createFile("zzz.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+        searcher.close();
+
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback);
+        searcher.doInit();
+
+        List<String> paths = searcher.search(new QueryExpression().setText("think")).getFilePaths();
+        assertEquals(newArrayList("/folder/zzz.txt"), paths);
+    }
+
+    @Test
+    public void rebuildsIndexCreatedForAnotherSchemaVersion() throws Exception {
+        File staleFile = new File(indexDirectory, "stale");
+        Files.write(staleFile.toPath(), "stale".getBytes(UTF_8));
+        Files.write(new File(indexDirectory, FSLuceneSearcher.SCHEMA_VERSION_FILE).toPath(), "0".getBytes(UTF_8));
+
+        searcher.init(virtualFileSystem());
+
+        assertFalse(staleFile.exists());
+        assertEquals(new String(Files.readAllBytes(new File(indexDirectory, FSLuceneSearcher.SCHEMA_VERSION_FILE).toPath()), UTF_8),
+                     Integer.toString(LuceneSearcher.INDEX_SCHEMA_VERSION));
+    }
+
     @Test
     public void notifiesCallbackWhenSearcherClosed() throws Exception {
         VirtualFileSystem virtualFileSystem = virtualFileSystem();
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
+import org.eclipse.che.api.vfs.search.IndexingProgressEvent;
+import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.impl.IndexingPipeline.IndexedFile;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class IndexingPipelineTest {
+    private ExecutorService      executor;
+    private EventService         eventService;
+    private MemoryLuceneSearcher searcher;
+    private IndexingPipeline     pipeline;
+    private VirtualFileSystem    virtualFileSystem;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+        eventService = mock(EventService.class);
+        pipeline = new IndexingPipeline(executor, 2, eventService);
+
+        VirtualFileFilter filter = mock(VirtualFileFilter.class);
+        when(filter.accept(any(VirtualFile.class))).thenReturn(false);
+        searcher = spy(new MemoryLuceneSearcher(filter, null, pipeline));
+        searcher.doInit();
+
+        virtualFileSystem = new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        searcher.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void indexesAllFilesOfTree() throws Exception {
+        VirtualFile root = virtualFileSystem.getRoot();
+        root.createFolder("a").createFolder("b").createFile("xxx.txt", "to be or not to be");
+        root.createFolder("c").createFile("yyy.txt", "think twice");
+        root.createFile("zzz.txt", "to be");
+
+        pipeline.index(searcher, root, Collections.emptyMap());
+
+        List<String> paths = searcher.search(new QueryExpression().setText("be")).getFilePaths();
+        assertEquals(paths.size(), 2);
+        assertEquals(searcher.search(new QueryExpression().setText("twice")).getFilePaths(), newArrayList("/c/yyy.txt"));
+        IndexingProgressEvent completed = lastEvent();
+        assertEquals(completed.getStatus(), IndexingProgressEvent.Status.COMPLETED);
+        assertEquals(completed.getIndexedFiles(), 3);
+    }
+
+    @Test
+    public void reindexesOnlyModifiedFilesAndDeletesMissingFiles() throws Exception {
+        VirtualFile root = virtualFileSystem.getRoot();
+        VirtualFile notModified = root.createFile("xxx.txt", "to be or not to be");
+        VirtualFile modified = root.createFile("yyy.txt", "think twice");
+        pipeline.index(searcher, root, Collections.emptyMap());
+        VirtualFile gone = root.createFile("gone.txt", "gone");
+        searcher.add(gone);
+        gone.delete();
+
+        pipeline.index(searcher, root, ImmutableMap.of(
+                notModified.getPath().toString(), new IndexedFile(notModified.getLastModificationDate(), notModified.getLength()),
+                modified.getPath().toString(), new IndexedFile(modified.getLastModificationDate() - 1, modified.getLength()),
+                "/gone.txt", new IndexedFile(0, 4)));
+
+        verify(searcher, atLeastOnce()).addFile(modified);
+        assertEquals(searcher.search(new QueryExpression().setText("gone")).getFilePaths(), Collections.emptyList());
+        IndexingProgressEvent completed = lastEvent();
+        assertEquals(completed.getDiscoveredFiles(), 2);
+        assertEquals(completed.getIndexedFiles(), 1);
+        assertEquals(completed.getSkippedFiles(), 1);
+        assertEquals(completed.getDeletedFiles(), 1);
+    }
+
+    @Test
+    public void doesNotReindexNotModifiedFiles() throws Exception {
+        VirtualFile root = virtualFileSystem.getRoot();
+        VirtualFile file = root.createFile("xxx.txt", "to be or not to be");
+
+        pipeline.index(searcher, root, ImmutableMap.of(file.getPath().toString(),
+                                                       new IndexedFile(file.getLastModificationDate(), file.getLength())));
+
+        verify(searcher, never()).addFile(file);
+    }
+
+    private IndexingProgressEvent lastEvent() {
+        ArgumentCaptor<IndexingProgressEvent> captor = ArgumentCaptor.forClass(IndexingProgressEvent.class);
+        verify(eventService, atLeastOnce()).publish(captor.capture());
+        List<IndexingProgressEvent> events = captor.getAllValues();
+        return events.get(events.size() - 1);
+    }
+}
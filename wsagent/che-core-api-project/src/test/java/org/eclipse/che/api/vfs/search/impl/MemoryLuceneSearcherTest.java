@@ -18,13 +18,16 @@ import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatcher;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
@@ -284,6 +287,131 @@ public class MemoryLuceneSearcherTest {
         assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
     }
 
+    @Test
+    public void findsOccurrencesOfSearchedText() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", "first line\nTo be or not\r\nto be");
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be").setIncludePositions(true));
+
+        List<SearchOccurrence> occurrences = result.getResults().get(0).getOccurrences();
+        assertEquals(2, occurrences.size());
+        assertEquals("be", occurrences.get(0).getPhrase());
+        assertEquals(2, occurrences.get(0).getLineNumber());
+        assertEquals("To be or not", occurrences.get(0).getLineContent());
+        assertEquals(14, occurrences.get(0).getStartOffset());
+        assertEquals(16, occurrences.get(0).getEndOffset());
+        assertEquals(3, occurrences.get(1).getLineNumber());
+        assertEquals("to be", occurrences.get(1).getLineContent());
+    }
+
+    @Test
+    public void findsOccurrencesInCurrentContentOfFile() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile file = virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+        file.updateContent("not to be");
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be").setIncludePositions(true));
+
+        List<SearchOccurrence> occurrences = result.getResults().get(0).getOccurrences();
+        assertEquals(1, occurrences.size());
+        assertEquals(7, occurrences.get(0).getStartOffset());
+    }
+
+    @Test
+    public void findsOccurrencesOfSearchedTextWithWildcard() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("space*").setIncludePositions(true));
+
+        List<SearchOccurrence> occurrences = result.getResults().get(0).getOccurrences();
+        assertEquals(1, occurrences.size());
+        assertEquals("spaceflight", occurrences.get(0).getPhrase());
+    }
+
+    @Test
+    public void doesNotFindOccurrencesIfTheyAreNotRequested() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be"));
+
+        assertTrue(result.getResults().get(0).getOccurrences().isEmpty());
+    }
+
+    @Test
+    public void streamsAllSearchResultsPageByPage() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 1200; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%04d", i), TEST_CONTENT[2]);
+        }
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = new ArrayList<>();
+        int totalHits = searcher.search(new QueryExpression().setText("be").setSkipCount(10),
+                                        entry -> paths.add(entry.getFilePath()));
+
+        assertEquals(1200, totalHits);
+        assertEquals(1190, paths.size());
+        assertEquals(1190, new HashSet<>(paths).size());
+    }
+
+    @Test
+    public void searchesBySubstring() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.java", "int a = foo.bar(x->y);");
+        virtualFileSystem.getRoot().createFile("yyy.java", "int b = foo.baz(y);");
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("foo.bar(")
+                                                                   .setTextMode(QueryExpression.TextMode.SUBSTRING)
+                                                                   .setIncludePositions(true));
+
+        assertEquals(newArrayList("/xxx.java"), result.getFilePaths());
+        assertEquals(8, result.getResults().get(0).getOccurrences().get(0).getStartOffset());
+        assertEquals(newArrayList("/xxx.java"),
+                     searcher.search(new QueryExpression().setText("x->y").setTextMode(QueryExpression.TextMode.SUBSTRING))
+                             .getFilePaths());
+    }
+
+    @Test
+    public void searchesByRegex() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFile("xxx.java", "String getFirstName();");
+        virtualFileSystem.getRoot().createFile("yyy.java", "String getName();");
+        virtualFileSystem.getRoot().createFile("zzz.java", "String setLastName(String name);");
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("get\\w+Name\\(")
+                                                                   .setTextMode(QueryExpression.TextMode.REGEX));
+
+        assertEquals(newArrayList("/xxx.java"), result.getFilePaths());
+        assertEquals(1, result.getTotalHits());
+    }
+
+    @Test
+    public void stopsScanningContentWhenRequestedPageIsFound() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), "int a = foo.bar(x);");
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("foo.bar(")
+                                                                   .setTextMode(QueryExpression.TextMode.SUBSTRING)
+                                                                   .setSkipCount(10)
+                                                                   .setMaxItems(5));
+
+        assertEquals(5, result.getFilePaths().size());
+        assertEquals(16, result.getTotalHits());
+        assertEquals(15, result.getNextPageQueryExpression().get().getSkipCount());
+    }
+
     private VirtualFileSystem virtualFileSystem() throws Exception {
         return new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
     }
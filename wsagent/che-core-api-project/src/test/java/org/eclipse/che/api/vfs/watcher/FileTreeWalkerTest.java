@@ -198,4 +198,66 @@ public class FileTreeWalkerTest {
         fileTreeWalker.walk();
         verify(directoryCreatedConsumerMock, never()).accept(file.toPath());
     }
+
+    @Test
+    public void shouldRunConsumersOfEntriesReportedByWatchEvents() throws Exception {
+        fileTreeWalker = newEventDrivenFileTreeWalker();
+        fileCreateConsumers.add(fileCreatedConsumerMock);
+        fileUpdateConsumers.add(fileUpdateConsumerMock);
+        directoryCreateConsumers.add(directoryCreatedConsumerMock);
+
+        File existing = rootFolder.newFile(TEST_FILE_NAME);
+        fileTreeWalker.walk();
+        verify(fileCreatedConsumerMock).accept(existing.toPath());
+
+        File folder = rootFolder.newFolder(TEST_FOLDER_NAME);
+        File nested = new File(folder, TEST_FILE_NAME);
+        write(nested, TEST_FILE_CONTENT);
+        sleep(FS_LATENCY_DELAY);
+        fileTreeWalker.walk();
+
+        verify(directoryCreatedConsumerMock).accept(folder.toPath());
+        verify(fileCreatedConsumerMock).accept(nested.toPath());
+
+        write(existing, TEST_FILE_CONTENT);
+        sleep(FS_LATENCY_DELAY);
+        fileTreeWalker.walk();
+
+        verify(fileUpdateConsumerMock).accept(existing.toPath());
+        fileTreeWalker.stop();
+    }
+
+    @Test
+    public void shouldRunDeleteConsumersOfDeletedDirectoryEntries() throws Exception {
+        fileTreeWalker = newEventDrivenFileTreeWalker();
+        fileDeleteConsumers.add(fileDeleteConsumerMock);
+        directoryDeleteConsumers.add(directoryDeleteConsumerMock);
+
+        File folder = rootFolder.newFolder(TEST_FOLDER_NAME);
+        File nested = new File(folder, TEST_FILE_NAME);
+        write(nested, TEST_FILE_CONTENT);
+        fileTreeWalker.walk();
+
+        nested.delete();
+        folder.delete();
+        sleep(FS_LATENCY_DELAY);
+        fileTreeWalker.walk();
+
+        verify(fileDeleteConsumerMock).accept(nested.toPath());
+        verify(directoryDeleteConsumerMock).accept(folder.toPath());
+        fileTreeWalker.stop();
+    }
+
+    private FileTreeWalker newEventDrivenFileTreeWalker() {
+        return new FileTreeWalker(rootFolder.getRoot(),
+                                  directoryUpdateConsumers,
+                                  directoryCreateConsumers,
+                                  directoryDeleteConsumers,
+                                  directoryExcludes,
+                                  fileUpdateConsumers,
+                                  fileCreateConsumers,
+                                  fileDeleteConsumers,
+                                  fileExcludes,
+                                  true);
+    }
 }
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.watcher;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.api.vfs.watcher.PathTrie.NO_VALUE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link PathTrie}
+ */
+public class PathTrieTest {
+    Path     root;
+    PathTrie trie;
+
+    @Before
+    public void setUp() throws Exception {
+        root = Paths.get("/", "projects");
+        trie = new PathTrie(root);
+    }
+
+    @Test
+    public void shouldStoreValuesOfPaths() throws Exception {
+        Path parent = root.resolve("a");
+        Path child = root.resolve("a/b/c.txt");
+
+        assertEquals(NO_VALUE, trie.put(child, 1));
+        assertEquals(NO_VALUE, trie.put(parent, 2));
+        assertEquals(1, trie.put(child, 3));
+
+        assertEquals(2, trie.get(parent));
+        assertEquals(3, trie.get(child));
+        assertEquals(NO_VALUE, trie.get(root.resolve("a/b")));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    public void shouldStoreValueOfRoot() throws Exception {
+        trie.put(root, 1);
+
+        assertEquals(1, trie.get(root));
+    }
+
+    @Test
+    public void shouldIgnorePathsOutsideOfRoot() throws Exception {
+        Path path = Paths.get("/", "tmp", "a");
+
+        assertEquals(NO_VALUE, trie.put(path, 1));
+        assertFalse(trie.contains(path));
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void shouldKeepChildrenSortedRegardlessOfInsertionOrder() throws Exception {
+        for (String name : asList("d", "b", "e", "a", "c")) {
+            trie.put(root.resolve(name), name.charAt(0));
+        }
+
+        for (String name : asList("a", "b", "c", "d", "e")) {
+            assertEquals(name.charAt(0), trie.get(root.resolve(name)));
+        }
+    }
+
+    @Test
+    public void shouldRemoveSubtreeChildrenFirst() throws Exception {
+        trie.put(root.resolve("a"), 1);
+        trie.put(root.resolve("a/b"), 2);
+        trie.put(root.resolve("a/b/c"), 3);
+        trie.put(root.resolve("x"), 4);
+
+        List<Path> removed = trie.removeSubtree(root.resolve("a"));
+
+        assertEquals(asList(root.resolve("a/b/c"), root.resolve("a/b"), root.resolve("a")), removed);
+        assertFalse(trie.contains(root.resolve("a/b")));
+        assertTrue(trie.contains(root.resolve("x")));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    public void shouldRemoveOnlyMatchedPaths() throws Exception {
+        trie.put(root.resolve("a/b"), 1);
+        trie.put(root.resolve("a/c"), 2);
+        trie.put(root.resolve("d"), 3);
+
+        List<Path> removed = trie.removeIf(root, it -> it.getFileName().toString().equals("b")
+                                                       || it.getFileName().toString().equals("d"));
+
+        assertEquals(new HashSet<>(asList(root.resolve("a/b"), root.resolve("d"))), new HashSet<>(removed));
+        assertEquals(2, trie.get(root.resolve("a/c")));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    public void shouldRemoveNothingIfPathIsNotStored() throws Exception {
+        trie.put(root.resolve("a"), 1);
+
+        assertTrue(trie.removeSubtree(root.resolve("a/b")).isEmpty());
+        assertEquals(1, trie.size());
+    }
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Finds branches that contain commits, the same branches as {@code git branch --all --contains <commit>} lists,
+ * with a single walk over history for any number of commits.
+ *
+ * <p>The walk starts from tips of all local and remote-tracking branches, and of detached {@code HEAD}, and visits
+ * commits from the newest to the oldest one. Each commit keeps a set of branches it is reachable from, which is
+ * passed to its parents when the commit is visited. So branches of a commit are known once all its children are
+ * visited, and the walk goes no deeper in history than the oldest commit asked about. A commit whose child is
+ * visited after the commit itself, because of clock skew, passes missed branches to already visited ancestors,
+ * but branches already returned for them are not corrected. So a branch may be missed for a commit only if some
+ * of its descendants are older than {@link #OVER_SCAN} commits visited after the commit itself, the same case in
+ * which date ordered {@code git log} lists commits out of order.
+ *
+ * <p>Commits are expected to be asked about in the order they are listed by {@code git log}, the walk is advanced
+ * lazily, only as far as needed for the requested commit. Not thread safe.
+ */
+class BranchContainment implements AutoCloseable {
+    /**
+     * Number of visited commits that must be older than a requested commit before its set of branches is
+     * considered complete, the same slop as JGit uses to stop date ordered walks.
+     */
+    private static final int OVER_SCAN = 6;
+
+    private final BranchesWalk walk;
+    private final String[]     branches;
+    /** Commit times of the last visited commits, used as a ring buffer. */
+    private final int[]        lastVisited;
+
+    private int     visitedCount;
+    private boolean exhausted;
+
+    BranchContainment(Repository repository) throws IOException {
+        walk = new BranchesWalk(repository);
+        walk.setRetainBody(false);
+        final Map<String, Ref> refs = new TreeMap<>();
+        final Ref head = repository.exactRef(Constants.HEAD);
+        if (head != null && !head.isSymbolic() && head.getObjectId() != null) {
+            refs.put(head.getName(), head);
+        }
+        for (String prefix : new String[] {Constants.R_HEADS, Constants.R_REMOTES}) {
+            for (Ref ref : repository.getRefDatabase().getRefs(prefix).values()) {
+                refs.put(ref.getName(), ref);
+            }
+        }
+
+        final List<String> names = new ArrayList<>(refs.size());
+        for (Ref ref : refs.values()) {
+            if (ref.getObjectId() == null) {
+                continue;
+            }
+            final BranchCommit tip;
+            try {
+                tip = (BranchCommit)walk.parseCommit(ref.getObjectId());
+            } catch (IncorrectObjectTypeException ignored) {
+                // branch that points to something that is not a commit can't contain commits
+                continue;
+            }
+            tip.add(names.size());
+            names.add(ref.getName());
+            walk.markStart(tip);
+        }
+        branches = names.toArray(new String[names.size()]);
+        lastVisited = new int[OVER_SCAN];
+        Arrays.fill(lastVisited, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns full names of branches that contain the commit, sorted by name.
+     *
+     * @throws IOException
+     *         if history can't be read
+     */
+    List<String> getBranches(AnyObjectId commitId) throws IOException {
+        final BranchCommit commit = (BranchCommit)walk.lookupCommit(commitId);
+        while (!exhausted && !(commit.visited && isComplete(commit))) {
+            final BranchCommit next = (BranchCommit)walk.next();
+            if (next == null) {
+                exhausted = true;
+            } else {
+                visit(next);
+            }
+        }
+        if (commit.branches == null) {
+            return emptyList();
+        }
+        final List<String> result = new ArrayList<>(commit.branches.cardinality());
+        for (int i = commit.branches.nextSetBit(0); i >= 0; i = commit.branches.nextSetBit(i + 1)) {
+            result.add(branches[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        walk.close();
+    }
+
+    private boolean isComplete(BranchCommit commit) {
+        for (int commitTime : lastVisited) {
+            if (commitTime >= commit.getCommitTime()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void visit(BranchCommit commit) {
+        commit.visited = true;
+        lastVisited[visitedCount++ % OVER_SCAN] = commit.getCommitTime();
+        if (commit.branches == null) {
+            return;
+        }
+        for (RevCommit parent : commit.getParents()) {
+            final BranchCommit branchParent = (BranchCommit)parent;
+            if (branchParent.visited) {
+                propagateToVisited(branchParent, commit.branches);
+            } else {
+                branchParent.addAll(commit.branches);
+            }
+        }
+    }
+
+    /** Adds branches to a commit that is visited already and to all its ancestors that miss any of the branches. */
+    private void propagateToVisited(BranchCommit start, BitSet branches) {
+        final Deque<BranchCommit> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final BranchCommit commit = queue.poll();
+            if (!commit.addAll(branches) || !commit.visited) {
+                // nothing new for this commit, or it passes branches to its parents itself once visited
+                continue;
+            }
+            for (RevCommit parent : commit.getParents()) {
+                queue.add((BranchCommit)parent);
+            }
+        }
+    }
+
+    private static class BranchesWalk extends RevWalk {
+        BranchesWalk(Repository repository) {
+            super(repository);
+        }
+
+        @Override
+        protected RevCommit createCommit(AnyObjectId id) {
+            return new BranchCommit(id);
+        }
+    }
+
+    private static class BranchCommit extends RevCommit {
+        /** Indexes of branches that contain this commit, {@code null} if there are none found so far. */
+        BitSet  branches;
+        boolean visited;
+
+        BranchCommit(AnyObjectId id) {
+            super(id);
+        }
+
+        void add(int branch) {
+            if (branches == null) {
+                branches = new BitSet();
+            }
+            branches.set(branch);
+        }
+
+        /** Adds branches, returns {@code true} if any of them is new for this commit. */
+        boolean addAll(BitSet toAdd) {
+            if (branches == null) {
+                branches = (BitSet)toAdd.clone();
+                return true;
+            }
+            final int before = branches.cardinality();
+            branches.or(toAdd);
+            return branches.cardinality() != before;
+        }
+    }
+}
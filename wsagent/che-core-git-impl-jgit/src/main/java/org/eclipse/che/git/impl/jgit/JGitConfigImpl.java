@@ -100,11 +100,14 @@ class JGitConfigImpl extends Config {
     @Override
     public Config set(String name, String value) throws GitException {
         ConfigKey key = parseName(name);
-        repository.getConfig().setString(key.section, key.subsection, key.name, value);
-        try {
-            this.repository.getConfig().save();
-        } catch (IOException e) {
-            throw new GitException(e.getMessage(), e);
+        // configuration of the repository is shared by all its connections
+        synchronized (repository) {
+            repository.getConfig().setString(key.section, key.subsection, key.name, value);
+            try {
+                this.repository.getConfig().save();
+            } catch (IOException e) {
+                throw new GitException(e.getMessage(), e);
+            }
         }
         return this;
     }
@@ -117,11 +120,13 @@ class JGitConfigImpl extends Config {
     @Override
     public Config unset(String name) throws GitException {
         ConfigKey key = parseName(name);
-        repository.getConfig().unset(key.section, key.subsection, key.name);
-        try {
-            this.repository.getConfig().save();
-        } catch (IOException e) {
-            throw new GitException(e.getMessage(), e);
+        synchronized (repository) {
+            repository.getConfig().unset(key.section, key.subsection, key.name);
+            try {
+                this.repository.getConfig().save();
+            } catch (IOException e) {
+                throw new GitException(e.getMessage(), e);
+            }
         }
         return this;
     }
@@ -164,7 +164,6 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -253,6 +252,7 @@ class JGitConnection implements GitConnection {
     private final CredentialsLoader credentialsLoader;
     private final SshKeyProvider    sshKeyProvider;
     private final GitUserResolver   userResolver;
+    /** Repository may be shared with other connections, changes of its configuration are synchronized on it. */
     private final Repository        repository;
 
     @Inject
@@ -354,7 +354,10 @@ class JGitConnection implements GitConnection {
             checkoutCommand.setUpstreamMode(SetupUpstreamMode.SET_UPSTREAM);
         }
         try {
-            checkoutCommand.call();
+            // creating of a branch saves its upstream to the configuration
+            synchronized (repository) {
+                checkoutCommand.call();
+            }
         } catch (CheckoutConflictException exception) {
             throw new GitConflictException(exception.getMessage(), exception.getConflictingPaths());
         } catch (RefAlreadyExistsException exception) {
@@ -378,7 +381,10 @@ class JGitConnection implements GitConnection {
             createBranchCommand.setStartPoint(startPoint);
         }
         try {
-            Ref brRef = createBranchCommand.call();
+            Ref brRef;
+            synchronized (repository) {
+                brRef = createBranchCommand.call();
+            }
             String refName = brRef.getName();
             String displayName = Repository.shortenRefName(refName);
             return newDto(Branch.class).withName(refName)
@@ -393,10 +399,12 @@ class JGitConnection implements GitConnection {
     @Override
     public void branchDelete(String name, boolean force) throws GitException {
         try {
-            getGit().branchDelete()
-                    .setBranchNames(name)
-                    .setForce(force)
-                    .call();
+            synchronized (repository) {
+                getGit().branchDelete()
+                        .setBranchNames(name)
+                        .setForce(force)
+                        .call();
+            }
         } catch (GitAPIException exception) {
             throw new GitException(exception.getMessage(), exception);
         }
@@ -405,10 +413,12 @@ class JGitConnection implements GitConnection {
     @Override
     public void branchRename(String oldName, String newName) throws GitException {
         try {
-            getGit().branchRename()
-                    .setOldName(oldName)
-                    .setNewName(newName)
-                    .call();
+            synchronized (repository) {
+                getGit().branchRename()
+                        .setOldName(oldName)
+                        .setNewName(newName)
+                        .call();
+            }
         } catch (GitAPIException exception) {
             throw new GitException(exception.getMessage(), exception);
         }
@@ -516,13 +526,15 @@ class JGitConnection implements GitConnection {
 
             ((Git)executeRemoteCommand(remoteUri, cloneCommand, params.getUsername(), params.getPassword())).close();
 
-            StoredConfig repositoryConfig = getRepository().getConfig();
-            GitUser gitUser = getUser();
-            if (gitUser != null) {
-                repositoryConfig.setString(ConfigConstants.CONFIG_USER_SECTION, null, ConfigConstants.CONFIG_KEY_NAME, gitUser.getName());
-                repositoryConfig.setString(ConfigConstants.CONFIG_USER_SECTION, null, ConfigConstants.CONFIG_KEY_EMAIL, gitUser.getEmail());
+            synchronized (repository) {
+                StoredConfig repositoryConfig = getRepository().getConfig();
+                GitUser gitUser = getUser();
+                if (gitUser != null) {
+                    repositoryConfig.setString(ConfigConstants.CONFIG_USER_SECTION, null, ConfigConstants.CONFIG_KEY_NAME, gitUser.getName());
+                    repositoryConfig.setString(ConfigConstants.CONFIG_USER_SECTION, null, ConfigConstants.CONFIG_KEY_EMAIL, gitUser.getEmail());
+                }
+                repositoryConfig.save();
             }
-            repositoryConfig.save();
         } catch (IOException | GitAPIException exception) {
             // Delete .git directory in case it was created
             if (removeIfFailed) {
@@ -784,12 +796,16 @@ class JGitConnection implements GitConnection {
             if (!isNullOrEmpty(filePath)) {
                 logCommand.addPath(filePath);
             }
-            Iterator<RevCommit> revIterator = logCommand.call().iterator();
+            Iterable<RevCommit> revisions = logCommand.call();
             List<Revision> commits = new ArrayList<>();
-            while (revIterator.hasNext()) {
-                RevCommit commit = revIterator.next();
-                Revision revision = getRevision(commit, filePath);
-                commits.add(revision);
+            try (BranchContainment branchContainment = new BranchContainment(repository)) {
+                for (RevCommit commit : revisions) {
+                    commits.add(getRevision(commit, filePath, branchContainment, params.isDiffFiles()));
+                }
+            } finally {
+                if (revisions instanceof RevWalk) {
+                    ((RevWalk)revisions).close();
+                }
             }
             return new LogPage(commits);
         } catch (GitAPIException | IOException exception) {
@@ -803,19 +819,39 @@ class JGitConnection implements GitConnection {
         }
     }
 
-    private Revision getRevision(RevCommit commit, String filePath) throws GitAPIException, IOException {
+    @Override
+    public List<DiffCommitFile> getCommitDiffFiles(String commit, String filePath) throws GitException {
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            ObjectId commitId = repository.resolve(commit);
+            if (commitId == null) {
+                throw new GitException(String.format("Commit '%s' not found", commit));
+            }
+            return getCommitDiffFiles(revWalk.parseCommit(commitId), filePath);
+        } catch (IOException exception) {
+            throw new GitException(exception.getMessage(), exception);
+        }
+    }
+
+    private Revision getRevision(RevCommit commit,
+                                 String filePath,
+                                 BranchContainment branchContainment,
+                                 boolean diffFiles) throws IOException {
         List<String> commitParentsList = Stream.of(commit.getParents())
                                                .map(RevCommit::getName)
                                                .collect(Collectors.toList());
+        List<Branch> branches = branchContainment.getBranches(commit)
+                                                 .stream()
+                                                 .map(name -> newDto(Branch.class).withName(name))
+                                                 .collect(Collectors.toList());
 
         return newDto(Revision.class).withId(commit.getId().getName())
                                      .withMessage(commit.getFullMessage())
                                      .withCommitTime((long)commit.getCommitTime() * 1000)
                                      .withCommitter(getCommitCommitter(commit))
                                      .withAuthor(getCommitAuthor(commit))
-                                     .withBranches(getBranchesOfCommit(commit, ListMode.ALL))
+                                     .withBranches(branches)
                                      .withCommitParent(commitParentsList)
-                                     .withDiffCommitFile(getCommitDiffFiles(commit, filePath));
+                                     .withDiffCommitFile(diffFiles ? getCommitDiffFiles(commit, filePath) : new ArrayList<>());
     }
 
     private GitUser getCommitCommitter(RevCommit commit) {
@@ -830,16 +866,6 @@ class JGitConnection implements GitConnection {
                                     .withEmail(authorIdentity.getEmailAddress());
     }
 
-    private List<Branch> getBranchesOfCommit(RevCommit commit, ListMode mode) throws GitAPIException {
-        List<Ref> branches = getGit().branchList()
-                                     .setListMode(mode)
-                                     .setContains(commit.getName())
-                                     .call();
-        return branches.stream()
-                       .map(branch -> newDto(Branch.class).withName(branch.getName()))
-                       .collect(Collectors.toList());
-    }
-
     private List<DiffCommitFile> getCommitDiffFiles(RevCommit revCommit, String pattern) throws IOException {
         List<DiffEntry> diffs;
         TreeFilter filter = null;
@@ -1273,86 +1299,90 @@ class JGitConnection implements GitConnection {
 
     @Override
     public void remoteAdd(RemoteAddParams params) throws GitException {
-        String remoteName = params.getName();
-        if (isNullOrEmpty(remoteName)) {
-            throw new GitException(ERROR_ADD_REMOTE_NAME_MISSING);
-        }
+        synchronized (repository) {
+            String remoteName = params.getName();
+            if (isNullOrEmpty(remoteName)) {
+                throw new GitException(ERROR_ADD_REMOTE_NAME_MISSING);
+            }
 
-        StoredConfig config = repository.getConfig();
-        Set<String> remoteNames = config.getSubsections("remote");
-        if (remoteNames.contains(remoteName)) {
-            throw new GitException(format(ERROR_ADD_REMOTE_NAME_ALREADY_EXISTS, remoteName));
-        }
+            StoredConfig config = repository.getConfig();
+            Set<String> remoteNames = config.getSubsections("remote");
+            if (remoteNames.contains(remoteName)) {
+                throw new GitException(format(ERROR_ADD_REMOTE_NAME_ALREADY_EXISTS, remoteName));
+            }
 
-        String url = params.getUrl();
-        if (isNullOrEmpty(url)) {
-            throw new GitException(ERROR_ADD_REMOTE_URL_MISSING);
-        }
+            String url = params.getUrl();
+            if (isNullOrEmpty(url)) {
+                throw new GitException(ERROR_ADD_REMOTE_URL_MISSING);
+            }
 
-        RemoteConfig remoteConfig;
-        try {
-            remoteConfig = new RemoteConfig(config, remoteName);
-        } catch (URISyntaxException exception) {
-            // Not happen since it is newly created remote.
-            throw new GitException(exception.getMessage(), exception);
-        }
+            RemoteConfig remoteConfig;
+            try {
+                remoteConfig = new RemoteConfig(config, remoteName);
+            } catch (URISyntaxException exception) {
+                // Not happen since it is newly created remote.
+                throw new GitException(exception.getMessage(), exception);
+            }
 
-        try {
-            remoteConfig.addURI(new URIish(url));
-        } catch (URISyntaxException exception) {
-            throw new GitException("Remote url " + url + " is invalid. ");
-        }
+            try {
+                remoteConfig.addURI(new URIish(url));
+            } catch (URISyntaxException exception) {
+                throw new GitException("Remote url " + url + " is invalid. ");
+            }
 
-        List<String> branches = params.getBranches();
-        if (branches.isEmpty()) {
-            remoteConfig.addFetchRefSpec(
-                    new RefSpec(Constants.R_HEADS + "*" + ":" + Constants.R_REMOTES + remoteName + "/*").setForceUpdate(true));
-        } else {
-            for (String branch : branches) {
-                remoteConfig.addFetchRefSpec(new RefSpec(Constants.R_HEADS + branch + ":" + Constants.R_REMOTES + remoteName + "/" + branch)
-                                                     .setForceUpdate(true));
+            List<String> branches = params.getBranches();
+            if (branches.isEmpty()) {
+                remoteConfig.addFetchRefSpec(
+                        new RefSpec(Constants.R_HEADS + "*" + ":" + Constants.R_REMOTES + remoteName + "/*").setForceUpdate(true));
+            } else {
+                for (String branch : branches) {
+                    remoteConfig.addFetchRefSpec(new RefSpec(Constants.R_HEADS + branch + ":" + Constants.R_REMOTES + remoteName + "/" + branch)
+                                                         .setForceUpdate(true));
+                }
             }
-        }
 
-        remoteConfig.update(config);
+            remoteConfig.update(config);
 
-        try {
-            config.save();
-        } catch (IOException exception) {
-            throw new GitException(exception.getMessage(), exception);
+            try {
+                config.save();
+            } catch (IOException exception) {
+                throw new GitException(exception.getMessage(), exception);
+            }
         }
     }
 
     @Override
     public void remoteDelete(String name) throws GitException {
-        StoredConfig config = repository.getConfig();
-        Set<String> remoteNames = config.getSubsections(ConfigConstants.CONFIG_KEY_REMOTE);
-        if (!remoteNames.contains(name)) {
-            throw new GitException("error: Could not remove config section 'remote." + name + "'");
-        }
-
-        config.unsetSection(ConfigConstants.CONFIG_REMOTE_SECTION, name);
-        Set<String> branches = config.getSubsections(ConfigConstants.CONFIG_BRANCH_SECTION);
-
-        for (String branch : branches) {
-            String r = config.getString(ConfigConstants.CONFIG_BRANCH_SECTION, branch,
-                                        ConfigConstants.CONFIG_KEY_REMOTE);
-            if (name.equals(r)) {
-                config.unset(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_REMOTE);
-                config.unset(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_MERGE);
-                List<Branch> remoteBranches = branchList(LIST_REMOTE);
-                for (Branch remoteBranch : remoteBranches) {
-                    if (remoteBranch.getDisplayName().startsWith(name)) {
-                        branchDelete(remoteBranch.getName(), true);
+        synchronized (repository) {
+            StoredConfig config = repository.getConfig();
+            Set<String> remoteNames = config.getSubsections(ConfigConstants.CONFIG_KEY_REMOTE);
+            if (!remoteNames.contains(name)) {
+                throw new GitException("error: Could not remove config section 'remote." + name + "'");
+            }
+
+            config.unsetSection(ConfigConstants.CONFIG_REMOTE_SECTION, name);
+            Set<String> branches = config.getSubsections(ConfigConstants.CONFIG_BRANCH_SECTION);
+
+            for (String branch : branches) {
+                String r = config.getString(ConfigConstants.CONFIG_BRANCH_SECTION, branch,
+                                            ConfigConstants.CONFIG_KEY_REMOTE);
+                if (name.equals(r)) {
+                    config.unset(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_REMOTE);
+                    config.unset(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_MERGE);
+                    List<Branch> remoteBranches = branchList(LIST_REMOTE);
+                    for (Branch remoteBranch : remoteBranches) {
+                        if (remoteBranch.getDisplayName().startsWith(name)) {
+                            branchDelete(remoteBranch.getName(), true);
+                        }
                     }
                 }
             }
-        }
 
-        try {
-            config.save();
-        } catch (IOException exception) {
-            throw new GitException(exception.getMessage(), exception);
+            try {
+                config.save();
+            } catch (IOException exception) {
+                throw new GitException(exception.getMessage(), exception);
+            }
         }
     }
 
@@ -1380,88 +1410,90 @@ class JGitConnection implements GitConnection {
 
     @Override
     public void remoteUpdate(RemoteUpdateParams params) throws GitException {
-        String remoteName = params.getName();
-        if (isNullOrEmpty(remoteName)) {
-            throw new GitException(ERROR_UPDATE_REMOTE_NAME_MISSING);
-        }
-
-        StoredConfig config = repository.getConfig();
-        Set<String> remoteNames = config.getSubsections(ConfigConstants.CONFIG_KEY_REMOTE);
-        if (!remoteNames.contains(remoteName)) {
-            throw new GitException("Remote " + remoteName + " not found. ");
-        }
-
-        RemoteConfig remoteConfig;
-        try {
-            remoteConfig = new RemoteConfig(config, remoteName);
-        } catch (URISyntaxException e) {
-            throw new GitException(e.getMessage(), e);
-        }
-
-        List<String> branches = params.getBranches();
-        if (!branches.isEmpty()) {
-            if (!params.isAddBranches()) {
-                remoteConfig.setFetchRefSpecs(Collections.emptyList());
-                remoteConfig.setPushRefSpecs(Collections.emptyList());
-            } else {
-                // Replace wildcard refSpec if any.
-                remoteConfig.removeFetchRefSpec(
-                        new RefSpec(Constants.R_HEADS + "*" + ":" + Constants.R_REMOTES + remoteName + "/*")
-                                .setForceUpdate(true));
-                remoteConfig.removeFetchRefSpec(
-                        new RefSpec(Constants.R_HEADS + "*" + ":" + Constants.R_REMOTES + remoteName + "/*"));
+        synchronized (repository) {
+            String remoteName = params.getName();
+            if (isNullOrEmpty(remoteName)) {
+                throw new GitException(ERROR_UPDATE_REMOTE_NAME_MISSING);
             }
 
-            // Add new refSpec.
-            for (String branch : branches) {
-                remoteConfig.addFetchRefSpec(
-                        new RefSpec(Constants.R_HEADS + branch + ":" + Constants.R_REMOTES + remoteName + "/" + branch)
-                                .setForceUpdate(true));
+            StoredConfig config = repository.getConfig();
+            Set<String> remoteNames = config.getSubsections(ConfigConstants.CONFIG_KEY_REMOTE);
+            if (!remoteNames.contains(remoteName)) {
+                throw new GitException("Remote " + remoteName + " not found. ");
             }
-        }
 
-        // Remove URLs first.
-        for (String url : params.getRemoveUrl()) {
+            RemoteConfig remoteConfig;
             try {
-                remoteConfig.removeURI(new URIish(url));
+                remoteConfig = new RemoteConfig(config, remoteName);
             } catch (URISyntaxException e) {
-                LOG.debug(ERROR_UPDATE_REMOTE_REMOVE_INVALID_URL);
+                throw new GitException(e.getMessage(), e);
             }
-        }
 
-        // Add new URLs.
-        for (String url : params.getAddUrl()) {
-            try {
-                remoteConfig.addURI(new URIish(url));
-            } catch (URISyntaxException e) {
-                throw new GitException("Remote url " + url + " is invalid. ");
+            List<String> branches = params.getBranches();
+            if (!branches.isEmpty()) {
+                if (!params.isAddBranches()) {
+                    remoteConfig.setFetchRefSpecs(Collections.emptyList());
+                    remoteConfig.setPushRefSpecs(Collections.emptyList());
+                } else {
+                    // Replace wildcard refSpec if any.
+                    remoteConfig.removeFetchRefSpec(
+                            new RefSpec(Constants.R_HEADS + "*" + ":" + Constants.R_REMOTES + remoteName + "/*")
+                                    .setForceUpdate(true));
+                    remoteConfig.removeFetchRefSpec(
+                            new RefSpec(Constants.R_HEADS + "*" + ":" + Constants.R_REMOTES + remoteName + "/*"));
+                }
+
+                // Add new refSpec.
+                for (String branch : branches) {
+                    remoteConfig.addFetchRefSpec(
+                            new RefSpec(Constants.R_HEADS + branch + ":" + Constants.R_REMOTES + remoteName + "/" + branch)
+                                    .setForceUpdate(true));
+                }
             }
-        }
 
-        // Remove URLs for pushing.
-        for (String url : params.getRemovePushUrl()) {
-            try {
-                remoteConfig.removePushURI(new URIish(url));
-            } catch (URISyntaxException e) {
-                LOG.debug(ERROR_UPDATE_REMOTE_REMOVE_INVALID_URL);
+            // Remove URLs first.
+            for (String url : params.getRemoveUrl()) {
+                try {
+                    remoteConfig.removeURI(new URIish(url));
+                } catch (URISyntaxException e) {
+                    LOG.debug(ERROR_UPDATE_REMOTE_REMOVE_INVALID_URL);
+                }
             }
-        }
 
-        // Add URLs for pushing.
-        for (String url : params.getAddPushUrl()) {
-            try {
-                remoteConfig.addPushURI(new URIish(url));
-            } catch (URISyntaxException e) {
-                throw new GitException("Remote push url " + url + " is invalid. ");
+            // Add new URLs.
+            for (String url : params.getAddUrl()) {
+                try {
+                    remoteConfig.addURI(new URIish(url));
+                } catch (URISyntaxException e) {
+                    throw new GitException("Remote url " + url + " is invalid. ");
+                }
             }
-        }
 
-        remoteConfig.update(config);
+            // Remove URLs for pushing.
+            for (String url : params.getRemovePushUrl()) {
+                try {
+                    remoteConfig.removePushURI(new URIish(url));
+                } catch (URISyntaxException e) {
+                    LOG.debug(ERROR_UPDATE_REMOTE_REMOVE_INVALID_URL);
+                }
+            }
 
-        try {
-            config.save();
-        } catch (IOException exception) {
-            throw new GitException(exception.getMessage(), exception);
+            // Add URLs for pushing.
+            for (String url : params.getAddPushUrl()) {
+                try {
+                    remoteConfig.addPushURI(new URIish(url));
+                } catch (URISyntaxException e) {
+                    throw new GitException("Remote push url " + url + " is invalid. ");
+                }
+            }
+
+            remoteConfig.update(config);
+
+            try {
+                config.save();
+            } catch (IOException exception) {
+                throw new GitException(exception.getMessage(), exception);
+            }
         }
     }
 
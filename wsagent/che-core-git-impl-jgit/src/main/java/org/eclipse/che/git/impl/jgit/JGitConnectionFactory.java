@@ -17,12 +17,15 @@ import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.api.git.GitUserResolver;
 import org.eclipse.che.plugin.ssh.key.script.SshKeyProvider;
-import org.eclipse.jgit.internal.storage.file.FileRepository;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
 import org.eclipse.jgit.transport.UserAgent;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -37,19 +40,58 @@ import java.security.NoSuchAlgorithmException;
  * 
  * @author Tareq Sharafy (tareq.sha@gmail.com)
  */
+@Singleton
 public class JGitConnectionFactory extends GitConnectionFactory {
 
     private static final String USER_AGENT = "git/2.1.0";
 
-    private final CredentialsLoader credentialsLoader;
-    private final SshKeyProvider    sshKeyProvider;
-    private final GitUserResolver   userResolver;
+    private final CredentialsLoader   credentialsLoader;
+    private final SshKeyProvider      sshKeyProvider;
+    private final GitUserResolver     userResolver;
+    private final JGitRepositoryCache repositoryCache;
+    private final WindowCacheConfig   windowCacheConfig;
 
-    @Inject
+    /**
+     * Creates factory which opens repository for each connection.
+     */
     public JGitConnectionFactory(CredentialsLoader credentialsLoader, SshKeyProvider sshKeyProvider, GitUserResolver userResolver) throws GitException {
+        this(credentialsLoader, sshKeyProvider, userResolver, new JGitRepositoryCache(0), null);
+    }
+
+    /**
+     * @param repositoryCacheIdleTimeoutMs
+     *         time in milliseconds an opened repository is kept for next connections, non positive value disables caching
+     * @param packedGitLimit
+     *         max number of bytes of pack files JGit keeps in memory for all repositories
+     * @param deltaBaseCacheLimit
+     *         max number of bytes of delta bases JGit keeps in memory per thread to read deltified objects
+     */
+    @Inject
+    public JGitConnectionFactory(CredentialsLoader credentialsLoader,
+                                 SshKeyProvider sshKeyProvider,
+                                 GitUserResolver userResolver,
+                                 @Named("che.git.repository_cache.idle_timeout_ms") long repositoryCacheIdleTimeoutMs,
+                                 @Named("che.git.jgit.packed_git_limit_bytes") long packedGitLimit,
+                                 @Named("che.git.jgit.delta_base_cache_limit_bytes") int deltaBaseCacheLimit) throws GitException {
+        this(credentialsLoader,
+             sshKeyProvider,
+             userResolver,
+             new JGitRepositoryCache(repositoryCacheIdleTimeoutMs),
+             new WindowCacheConfig());
+        windowCacheConfig.setPackedGitLimit(packedGitLimit);
+        windowCacheConfig.setDeltaBaseCacheLimit(deltaBaseCacheLimit);
+    }
+
+    private JGitConnectionFactory(CredentialsLoader credentialsLoader,
+                                  SshKeyProvider sshKeyProvider,
+                                  GitUserResolver userResolver,
+                                  JGitRepositoryCache repositoryCache,
+                                  WindowCacheConfig windowCacheConfig) throws GitException {
         this.credentialsLoader = credentialsLoader;
         this.sshKeyProvider = sshKeyProvider;
         this.userResolver = userResolver;
+        this.repositoryCache = repositoryCache;
+        this.windowCacheConfig = windowCacheConfig;
 
         UserAgent.set(USER_AGENT);
         // Install the all-trusting trust manager
@@ -84,9 +126,9 @@ public class JGitConnectionFactory extends GitConnectionFactory {
         return conn;
     }
 
-    private static Repository createRepository(File workDir) throws GitException {
+    private Repository createRepository(File workDir) throws GitException {
         try {
-            return new FileRepository(new File(workDir, Constants.DOT_GIT));
+            return repositoryCache.acquire(workDir);
         } catch (IOException e) {
             throw new GitException(e.getMessage(), e);
         }
@@ -96,4 +138,17 @@ public class JGitConnectionFactory extends GitConnectionFactory {
     public CredentialsLoader getCredentialsLoader() {
         return credentialsLoader;
     }
+
+    /** Pack files and delta bases are cached by JGit globally, so configuration of the cache is shared by all repositories. */
+    @PostConstruct
+    void installWindowCacheConfig() {
+        if (windowCacheConfig != null) {
+            windowCacheConfig.install();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        repositoryCache.close();
+    }
 }
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Keeps opened repositories, so connections to the same repository share its pack indexes, configuration and refs
+ * instead of reading them again for each connection.
+ *
+ * <p>Each cached repository holds one use of its own, see {@link Repository#incrementOpen()}, and each acquired
+ * repository holds one more use which is released when the connection that uses it is closed. A repository that is
+ * not acquired during the idle timeout is removed from the cache, it is closed as soon as all its users are closed.
+ *
+ * <p>JGit itself notices changes of refs, packs and configuration of an opened repository. A cached repository is
+ * replaced when its {@code .git} directory is removed or replaced by another one, e.g. when the repository is deleted
+ * and initialized or cloned again. Repositories that do not exist yet are not cached.
+ *
+ * <p>Hits, misses, evictions and invalidations are counted and logged with each eviction run
+ * at debug level and once the cache is closed.
+ */
+public class JGitRepositoryCache {
+    private static final Logger LOG = getLogger(JGitRepositoryCache.class);
+
+    private final ConcurrentMap<File, Entry>  entries             = new ConcurrentHashMap<>();
+    private final AtomicLong                  hitCounter          = new AtomicLong();
+    private final AtomicLong                  missCounter         = new AtomicLong();
+    private final AtomicLong                  evictedCounter      = new AtomicLong();
+    private final AtomicLong                  invalidatedCounter  = new AtomicLong();
+    private final long                        idleTimeoutMs;
+    private final ScheduledThreadPoolExecutor evictionExecutor;
+
+    /**
+     * @param idleTimeoutMs
+     *         time in milliseconds a repository is kept after it is acquired for the last time,
+     *         non positive value disables caching so each acquired repository is opened again
+     */
+    public JGitRepositoryCache(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        if (idleTimeoutMs > 0) {
+            this.evictionExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("JGitRepositoryCache-%d")
+                                                                                                 .setDaemon(true)
+                                                                                                 .build());
+            this.evictionExecutor.scheduleWithFixedDelay(this::evictIdle, idleTimeoutMs, idleTimeoutMs, MILLISECONDS);
+        } else {
+            this.evictionExecutor = null;
+        }
+    }
+
+    /**
+     * Returns repository of the working directory, the caller must {@link Repository#close() close} it once
+     * it is not used anymore.
+     *
+     * @throws IOException
+     *         if the repository can't be opened
+     */
+    public Repository acquire(File workDir) throws IOException {
+        final File gitDir = new File(workDir, Constants.DOT_GIT);
+        final Object gitDirKey = idleTimeoutMs > 0 ? getDirectoryKey(gitDir) : null;
+        if (gitDirKey == null) {
+            missCounter.incrementAndGet();
+            return new FileRepository(gitDir);
+        }
+        for (; ; ) {
+            Entry entry = entries.get(gitDir);
+            if (entry == null) {
+                final Entry created = new Entry(gitDir, new FileRepository(gitDir), gitDirKey);
+                entry = entries.putIfAbsent(gitDir, created);
+                if (entry == null) {
+                    if (created.acquire()) {
+                        missCounter.incrementAndGet();
+                        return created.repository;
+                    }
+                    continue;
+                }
+                created.close();
+            }
+            if (!gitDirKey.equals(entry.gitDirKey)) {
+                if (entries.remove(gitDir, entry)) {
+                    invalidatedCounter.incrementAndGet();
+                    LOG.debug("Repository {} is changed, removing it from the cache", gitDir);
+                    entry.close();
+                }
+                continue;
+            }
+            if (entry.acquire()) {
+                hitCounter.incrementAndGet();
+                return entry.repository;
+            }
+            // entry is closed by eviction meanwhile
+            entries.remove(gitDir, entry);
+        }
+    }
+
+    /** Removes repository of the working directory from the cache, it is closed as soon as all its users are closed. */
+    public void invalidate(File workDir) {
+        final Entry entry = entries.remove(new File(workDir, Constants.DOT_GIT));
+        if (entry != null) {
+            invalidatedCounter.incrementAndGet();
+            entry.close();
+        }
+    }
+
+    /** Returns the number of repositories that are currently cached. */
+    int getCachedCount() {
+        return entries.size();
+    }
+
+    /** Returns the total number of repositories acquired from the cache. */
+    long getHitCount() {
+        return hitCounter.get();
+    }
+
+    /** Returns the total number of repositories opened because they were not cached. */
+    long getMissCount() {
+        return missCounter.get();
+    }
+
+    /** Returns the total number of repositories removed from the cache because of idle timeout. */
+    long getEvictedCount() {
+        return evictedCounter.get();
+    }
+
+    /** Returns the total number of repositories removed from the cache because they were changed or invalidated. */
+    long getInvalidatedCount() {
+        return invalidatedCounter.get();
+    }
+
+    /** Stops eviction and removes all the repositories from the cache. */
+    public void close() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+            LOG.info("Repository cache is closed, {}", getStatistics());
+        }
+        for (Entry entry : entries.values()) {
+            if (entries.remove(entry.gitDir, entry)) {
+                entry.close();
+            }
+        }
+    }
+
+    private void evictIdle() {
+        final long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+        int evicted = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.closeIfIdle(idleSince)) {
+                entries.remove(entry.gitDir, entry);
+                evicted++;
+            }
+        }
+        evictedCounter.addAndGet(evicted);
+        LOG.debug("Evicted {} idle repositories, {}", evicted, getStatistics());
+    }
+
+    private String getStatistics() {
+        return String.format("cached: %d, hits: %d, misses: %d, evicted: %d, invalidated: %d",
+                             entries.size(), hitCounter.get(), missCounter.get(), evictedCounter.get(), invalidatedCounter.get());
+    }
+
+    /**
+     * Returns a key that identifies the directory itself rather than its path, so it differs for a directory
+     * that is removed and created again, or {@code null} if there is no such directory.
+     */
+    private static Object getDirectoryKey(File dir) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(dir.toPath(), BasicFileAttributes.class);
+            if (!attributes.isDirectory()) {
+                return null;
+            }
+            final Object fileKey = attributes.fileKey();
+            return fileKey != null ? fileKey : attributes.creationTime();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static class Entry {
+        final File       gitDir;
+        final Repository repository;
+        final Object     gitDirKey;
+
+        long    lastAcquired;
+        boolean closed;
+
+        Entry(File gitDir, Repository repository, Object gitDirKey) {
+            this.gitDir = gitDir;
+            this.repository = repository;
+            this.gitDirKey = gitDirKey;
+            this.lastAcquired = System.currentTimeMillis();
+        }
+
+        synchronized boolean acquire() {
+            if (closed) {
+                return false;
+            }
+            repository.incrementOpen();
+            lastAcquired = System.currentTimeMillis();
+            return true;
+        }
+
+        synchronized boolean closeIfIdle(long idleSince) {
+            if (closed || lastAcquired >= idleSince) {
+                return false;
+            }
+            close();
+            return true;
+        }
+
+        synchronized void close() {
+            if (!closed) {
+                closed = true;
+                repository.close();
+            }
+        }
+    }
+}
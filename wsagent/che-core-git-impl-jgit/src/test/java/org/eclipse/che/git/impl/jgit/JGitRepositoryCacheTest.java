@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import com.google.common.io.Files;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link JGitRepositoryCache}.
+ */
+public class JGitRepositoryCacheTest {
+    private File                workDir;
+    private JGitRepositoryCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        workDir = Files.createTempDir();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        if (cache != null) {
+            cache.close();
+        }
+        FileUtils.delete(workDir, FileUtils.RECURSIVE);
+    }
+
+    @Test
+    public void shouldShareRepositoryBetweenConnections() throws Exception {
+        createRepository(new File(workDir, ".git"));
+        cache = new JGitRepositoryCache(60_000);
+
+        Repository first = cache.acquire(workDir);
+        first.close();
+        Repository second = cache.acquire(workDir);
+
+        assertSame(second, first);
+        assertTrue(second.getObjectDatabase().exists());
+        assertEquals(cache.getCachedCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitCount(), 1);
+        second.close();
+    }
+
+    @Test
+    public void shouldNotCacheRepositoryThatDoesNotExist() throws Exception {
+        cache = new JGitRepositoryCache(60_000);
+
+        Repository first = cache.acquire(workDir);
+        first.create();
+        first.close();
+        Repository second = cache.acquire(workDir);
+
+        assertNotSame(second, first);
+        assertEquals(cache.getCachedCount(), 1);
+        assertEquals(cache.getMissCount(), 2);
+        second.close();
+    }
+
+    @Test
+    public void shouldReplaceRepositoryWhenGitDirectoryIsReplaced() throws Exception {
+        createRepository(new File(workDir, ".git"));
+        cache = new JGitRepositoryCache(60_000);
+        Repository first = cache.acquire(workDir);
+        first.close();
+
+        File newGitDir = new File(workDir, "new/.git");
+        createRepository(newGitDir);
+        FileUtils.rename(new File(workDir, ".git"), new File(workDir, "old.git"));
+        FileUtils.rename(newGitDir, new File(workDir, ".git"));
+        Repository second = cache.acquire(workDir);
+
+        assertNotSame(second, first);
+        assertEquals(cache.getCachedCount(), 1);
+        assertEquals(cache.getInvalidatedCount(), 1);
+        second.close();
+    }
+
+    @Test
+    public void shouldEvictIdleRepository() throws Exception {
+        createRepository(new File(workDir, ".git"));
+        cache = new JGitRepositoryCache(100);
+        cache.acquire(workDir).close();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cache.getCachedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(cache.getCachedCount(), 0);
+        assertEquals(cache.getEvictedCount(), 1);
+    }
+
+    @Test
+    public void shouldOpenRepositoryForEachConnectionWhenCachingIsDisabled() throws Exception {
+        createRepository(new File(workDir, ".git"));
+        cache = new JGitRepositoryCache(0);
+
+        Repository first = cache.acquire(workDir);
+        Repository second = cache.acquire(workDir);
+
+        assertNotSame(second, first);
+        assertEquals(cache.getCachedCount(), 0);
+        first.close();
+        second.close();
+    }
+
+    private static void createRepository(File gitDir) throws IOException {
+        try (Repository repository = new FileRepository(gitDir)) {
+            repository.create();
+        }
+    }
+}
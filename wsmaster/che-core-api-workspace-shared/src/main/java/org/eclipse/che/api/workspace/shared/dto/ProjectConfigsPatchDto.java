@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * Changes of projects of a workspace which are applied at once.
+ */
+@DTO
+public interface ProjectConfigsPatchDto {
+
+    /** Returns projects to add to the workspace. */
+    List<ProjectConfigDto> getAdded();
+
+    void setAdded(List<ProjectConfigDto> added);
+
+    ProjectConfigsPatchDto withAdded(List<ProjectConfigDto> added);
+
+    /** Returns projects which replace the workspace projects with the same paths. */
+    List<ProjectConfigDto> getUpdated();
+
+    void setUpdated(List<ProjectConfigDto> updated);
+
+    ProjectConfigsPatchDto withUpdated(List<ProjectConfigDto> updated);
+
+    /** Returns paths of projects to remove from the workspace. */
+    List<String> getRemoved();
+
+    void setRemoved(List<String> removed);
+
+    ProjectConfigsPatchDto withRemoved(List<String> removed);
+
+    /**
+     * Returns version of projects of the workspace the changes are based on, or {@code null}
+     * if the changes are applied regardless of the current projects of the workspace.
+     */
+    String getBaseVersion();
+
+    void setBaseVersion(String baseVersion);
+
+    ProjectConfigsPatchDto withBaseVersion(String baseVersion);
+}
@@ -15,6 +15,8 @@ import org.eclipse.che.api.core.notification.EventOrigin;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.dto.shared.DTO;
 
+import java.util.Map;
+
 /**
  * Describes workspace status changes.
  *
@@ -73,4 +75,15 @@ public interface WorkspaceStatusEvent {
     void setError(String error);
 
     WorkspaceStatusEvent withError(String error);
+
+    /**
+     * Returns time in milliseconds taken by start of each machine of the workspace mapped by machine names,
+     * the value is present if and only if the type of this event is {@link EventType#RUNNING}.
+     */
+    @Nullable
+    Map<String, Long> getMachinesStartTime();
+
+    void setMachinesStartTime(Map<String, Long> machinesStartTime);
+
+    WorkspaceStatusEvent withMachinesStartTime(Map<String, Long> machinesStartTime);
 }
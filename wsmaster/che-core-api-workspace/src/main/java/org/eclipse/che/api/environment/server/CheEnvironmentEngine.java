@@ -34,8 +34,11 @@ import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.core.util.AbstractLineConsumer;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.MessageConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.AsyncLineConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.AsyncLineConsumer.OverflowPolicy;
 import org.eclipse.che.api.core.util.lineconsumer.ConcurrentCompositeLineConsumer;
-import org.eclipse.che.api.core.util.lineconsumer.ConcurrentFileLineConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.SegmentedFileLineConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.SegmentedLogReader;
 import org.eclipse.che.api.environment.server.exception.EnvironmentException;
 import org.eclipse.che.api.environment.server.exception.EnvironmentNotRunningException;
 import org.eclipse.che.api.environment.server.exception.EnvironmentStartInterruptedException;
@@ -79,12 +82,16 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
@@ -124,6 +131,7 @@ public class CheEnvironmentEngine {
     private final ContainerNameGenerator         containerNameGenerator;
     private final AgentRegistry                  agentRegistry;
     private final WorkspaceSharedPool            sharedPool;
+    private final boolean                        parallelMachinesStart;
 
     private volatile boolean isPreDestroyInvoked;
 
@@ -141,7 +149,8 @@ public class CheEnvironmentEngine {
                                 RecipeDownloader recipeDownloader,
                                 ContainerNameGenerator containerNameGenerator,
                                 AgentRegistry agentRegistry,
-                                WorkspaceSharedPool sharedPool) {
+                                WorkspaceSharedPool sharedPool,
+                                @Named("che.workspace.parallel_machines_start") boolean parallelMachinesStart) {
         this.snapshotDao = snapshotDao;
         this.eventService = eventService;
         this.environmentParser = environmentParser;
@@ -151,6 +160,7 @@ public class CheEnvironmentEngine {
         this.recipeDownloader = recipeDownloader;
         this.agentRegistry = agentRegistry;
         this.sharedPool = sharedPool;
+        this.parallelMachinesStart = parallelMachinesStart;
         this.environments = new ConcurrentHashMap<>();
         this.machineInstanceProviders = machineInstanceProviders;
         this.machineLogsDir = new File(machineLogsDir);
@@ -212,6 +222,43 @@ public class CheEnvironmentEngine {
                                                   machineId, workspaceId)));
     }
 
+    /**
+     * Returns time in milliseconds taken by start of each machine from environment of specific workspace,
+     * including launch of the machine agents.
+     *
+     * @param workspaceId
+     *         ID of workspace that owns environment machines
+     * @return start time of the started machines mapped by their names,
+     * or empty map if environment is not running
+     */
+    public Map<String, Long> getMachinesStartTime(String workspaceId) {
+        try (@SuppressWarnings("unused") Unlocker u = stripedLocks.readLock(workspaceId)) {
+            EnvironmentHolder environment = environments.get(workspaceId);
+            if (environment == null) {
+                return Collections.emptyMap();
+            }
+            return new HashMap<>(environment.machinesStartTime);
+        }
+    }
+
+    /**
+     * Returns log of specific machine that can be read from any line, see {@link SegmentedLogReader}.
+     * Logs of a machine stay available after the machine is stopped.
+     *
+     * @param machineId
+     *         ID of machine whose log is requested
+     * @return log of the machine
+     * @throws NotFoundException
+     *         if log of the machine is not available
+     */
+    public SegmentedLogReader getMachineLog(String machineId) throws NotFoundException {
+        final SegmentedLogReader log = new SegmentedLogReader(getMachineLogsDir(machineId));
+        if (!log.exists()) {
+            throw new NotFoundException(format("Logs of machine '%s' are not available", machineId));
+        }
+        return log;
+    }
+
     /**
      * Starts provided environment.
      *
@@ -579,7 +626,15 @@ public class CheEnvironmentEngine {
                   workspaceId,
                   internalEnv);
 
-        List<String> servicesOrder = startStrategy.order(internalEnv);
+        List<List<String>> servicesOrder;
+        if (parallelMachinesStart) {
+            servicesOrder = startStrategy.orderInGroups(internalEnv);
+        } else {
+            servicesOrder = startStrategy.order(internalEnv)
+                                         .stream()
+                                         .map(Collections::singletonList)
+                                         .collect(toList());
+        }
 
         normalizeNames(internalEnv);
 
@@ -724,6 +779,7 @@ public class CheEnvironmentEngine {
 
     /**
      * Starts all machine from machine queue of environment.
+     * Machines of a group from the queue don't depend on each other and are started concurrently.
      */
     private void startEnvironmentQueue(String namespace,
                                        String workspaceId,
@@ -734,9 +790,9 @@ public class CheEnvironmentEngine {
             throws ServerException,
                    AgentException,
                    EnvironmentException {
-        // Starting all machines in environment one by one by getting configs
+        // Starting all groups of machines in environment one by one by getting configs
         // from the corresponding starting queue.
-        // Config will be null only if there are no machines left in the queue
+        // Group will be null only if there are no machines left in the queue
         String envName;
         MessageConsumer<MachineLogMessage> envLogger;
         String creator = EnvironmentContext.getCurrent().getSubject().getUserId();
@@ -749,124 +805,28 @@ public class CheEnvironmentEngine {
             envLogger = environmentHolder.logger;
         }
 
+        QueuedMachineStarter machineStarter = machineName -> startQueuedMachine(namespace,
+                                                                                 workspaceId,
+                                                                                 envName,
+                                                                                 envLogger,
+                                                                                 creator,
+                                                                                 machineName,
+                                                                                 devMachineName.equals(machineName),
+                                                                                 networkId,
+                                                                                 recover,
+                                                                                 startedHandler);
         try {
             machineProvider.createNetwork(networkId);
 
-            String machineName = queuePeekOrFail(workspaceId);
-            while (machineName != null) {
-                boolean isDev = devMachineName.equals(machineName);
-                // Environment start is failed when any machine start is failed, so if any error
-                // occurs during machine creation then environment start fail is reported and
-                // start resources such as queue and descriptor must be cleaned up
-
-                CheServiceImpl service;
-                @Nullable ExtendedMachine extendedMachine;
-                try (@SuppressWarnings("unused") Unlocker u = stripedLocks.readLock(workspaceId)) {
-                    EnvironmentHolder environmentHolder = environments.get(workspaceId);
-                    if (environmentHolder == null) {
-                        throw new ServerException("Environment start is interrupted.");
-                    }
-                    service = environmentHolder.environment.getServices().get(machineName);
-                    extendedMachine = environmentHolder.environmentConfig.getMachines().get(machineName);
-                }
-                // should not happen
-                if (service == null) {
-                    LOG.error("Start of machine with name {} in workspace {} failed. Machine not found in start queue",
-                              machineName, workspaceId);
-                    throw new ServerException(
-                            format("Environment of workspace with ID '%s' failed due to internal error", workspaceId));
-                }
-
-                final String finalMachineName = machineName;
-                // needed to reuse startInstance method and
-                // create machine instances by different implementation-specific providers
-                MachineStarter machineStarter = (machineLogger, machineSource) -> {
-                    CheServiceImpl serviceWithNormalizedSource = normalizeServiceSource(service, machineSource);
-                    return machineProvider.startService(namespace,
-                                                        workspaceId,
-                                                        envName,
-                                                        finalMachineName,
-                                                        isDev,
-                                                        networkId,
-                                                        serviceWithNormalizedSource,
-                                                        machineLogger);
-                };
-
-                MachineImpl machine =
-                        MachineImpl.builder()
-                                   .setConfig(MachineConfigImpl.builder()
-                                                               .setDev(isDev)
-                                                               .setLimits(new MachineLimitsImpl(
-                                                                       bytesToMB(service.getMemLimit())))
-                                                               .setType("docker")
-                                                               .setName(machineName)
-                                                               .setEnvVariables(service.getEnvironment())
-                                                               .build())
-                                   .setId(service.getId())
-                                   .setWorkspaceId(workspaceId)
-                                   .setStatus(MachineStatus.CREATING)
-                                   .setEnvName(envName)
-                                   .setOwner(creator)
-                                   .build();
-
-                checkInterruption(workspaceId, envName);
-                Instance instance = startInstance(recover,
-                                                  envLogger,
-                                                  machine,
-                                                  machineStarter);
-                checkInterruption(workspaceId, envName);
-
-                startedHandler.started(instance, extendedMachine);
-                checkInterruption(workspaceId, envName);
-
-                // Machine destroying is an expensive operation which must be
-                // performed outside of the lock, this section checks if
-                // the environment wasn't stopped while it is starting and sets
-                // polled flag to true if the environment wasn't stopped.
-                // Also polls the proceeded machine configuration from the queue
-                boolean queuePolled = false;
-                try (@SuppressWarnings("unused") Unlocker u = stripedLocks.writeLock(workspaceId)) {
-                    ensurePreDestroyIsNotExecuted();
-                    EnvironmentHolder environmentHolder = environments.get(workspaceId);
-                    if (environmentHolder != null) {
-                        final Queue<String> queue = environmentHolder.startQueue;
-                        if (queue != null) {
-                            queue.poll();
-                            queuePolled = true;
-                        }
-                    }
-                }
-
-                // If machine config is not polled from the queue
-                // then environment was stopped and newly created machine
-                // must be destroyed
-                if (!queuePolled) {
-                    try {
-                        eventService.publish(newDto(MachineStatusEvent.class)
-                                                     .withEventType(MachineStatusEvent.EventType.DESTROYING)
-                                                     .withDev(isDev)
-                                                     .withMachineName(machineName)
-                                                     .withMachineId(instance.getId())
-                                                     .withWorkspaceId(workspaceId));
-
-                        instance.destroy();
-
-                        removeMachine(workspaceId, instance.getId());
-
-                        eventService.publish(newDto(MachineStatusEvent.class)
-                                                     .withEventType(MachineStatusEvent.EventType.DESTROYED)
-                                                     .withDev(isDev)
-                                                     .withMachineName(machineName)
-                                                     .withMachineId(instance.getId())
-                                                     .withWorkspaceId(workspaceId));
-                    } catch (MachineException e) {
-                        LOG.error(e.getLocalizedMessage(), e);
-                    }
-                    throw new ServerException("Workspace '" + workspaceId +
-                                              "' start interrupted. Workspace stopped before all its machines started");
+            List<String> machinesGroup = queuePeekOrFail(workspaceId);
+            while (machinesGroup != null) {
+                if (machinesGroup.size() == 1) {
+                    machineStarter.start(machinesGroup.get(0));
+                } else {
+                    startConcurrently(workspaceId, envName, machinesGroup, machineStarter);
                 }
 
-                machineName = queuePeekOrFail(workspaceId);
+                machinesGroup = queuePeekOrFail(workspaceId);
             }
         } catch (RuntimeException | ServerException | EnvironmentStartInterruptedException e) {
             boolean interrupted = Thread.interrupted();
@@ -894,6 +854,177 @@ public class CheEnvironmentEngine {
         }
     }
 
+    /**
+     * Starts machine from the current group of machine queue of environment.
+     */
+    private void startQueuedMachine(String namespace,
+                                    String workspaceId,
+                                    String envName,
+                                    MessageConsumer<MachineLogMessage> envLogger,
+                                    String creator,
+                                    String machineName,
+                                    boolean isDev,
+                                    String networkId,
+                                    boolean recover,
+                                    MachineStartedHandler startedHandler) throws ServerException,
+                                                                                 AgentException,
+                                                                                 EnvironmentException {
+        // Environment start is failed when any machine start is failed, so if any error
+        // occurs during machine creation then environment start fail is reported and
+        // start resources such as queue and descriptor must be cleaned up
+
+        CheServiceImpl service;
+        @Nullable ExtendedMachine extendedMachine;
+        try (@SuppressWarnings("unused") Unlocker u = stripedLocks.readLock(workspaceId)) {
+            EnvironmentHolder environmentHolder = environments.get(workspaceId);
+            if (environmentHolder == null) {
+                throw new ServerException("Environment start is interrupted.");
+            }
+            service = environmentHolder.environment.getServices().get(machineName);
+            extendedMachine = environmentHolder.environmentConfig.getMachines().get(machineName);
+        }
+        // should not happen
+        if (service == null) {
+            LOG.error("Start of machine with name {} in workspace {} failed. Machine not found in start queue",
+                      machineName, workspaceId);
+            throw new ServerException(
+                    format("Environment of workspace with ID '%s' failed due to internal error", workspaceId));
+        }
+
+        // needed to reuse startInstance method and
+        // create machine instances by different implementation-specific providers
+        MachineStarter machineStarter = (machineLogger, machineSource) -> {
+            CheServiceImpl serviceWithNormalizedSource = normalizeServiceSource(service, machineSource);
+            return machineProvider.startService(namespace,
+                                                workspaceId,
+                                                envName,
+                                                machineName,
+                                                isDev,
+                                                networkId,
+                                                serviceWithNormalizedSource,
+                                                machineLogger);
+        };
+
+        MachineImpl machine =
+                MachineImpl.builder()
+                           .setConfig(MachineConfigImpl.builder()
+                                                       .setDev(isDev)
+                                                       .setLimits(new MachineLimitsImpl(
+                                                               bytesToMB(service.getMemLimit())))
+                                                       .setType("docker")
+                                                       .setName(machineName)
+                                                       .setEnvVariables(service.getEnvironment())
+                                                       .build())
+                           .setId(service.getId())
+                           .setWorkspaceId(workspaceId)
+                           .setStatus(MachineStatus.CREATING)
+                           .setEnvName(envName)
+                           .setOwner(creator)
+                           .build();
+
+        checkInterruption(workspaceId, envName);
+        long startTime = System.currentTimeMillis();
+        Instance instance = startInstance(recover,
+                                          envLogger,
+                                          machine,
+                                          machineStarter);
+        checkInterruption(workspaceId, envName);
+
+        startedHandler.started(instance, extendedMachine);
+        checkInterruption(workspaceId, envName);
+        long machineStartTime = System.currentTimeMillis() - startTime;
+
+        // Machine destroying is an expensive operation which must be
+        // performed outside of the lock, this section checks if
+        // the environment wasn't stopped while it is starting and sets
+        // polled flag to true if the environment wasn't stopped.
+        // Also polls the proceeded machine configuration from the queue,
+        // the group of machines is polled when all its machines are proceeded
+        boolean queuePolled = false;
+        try (@SuppressWarnings("unused") Unlocker u = stripedLocks.writeLock(workspaceId)) {
+            ensurePreDestroyIsNotExecuted();
+            EnvironmentHolder environmentHolder = environments.get(workspaceId);
+            if (environmentHolder != null) {
+                final Queue<List<String>> queue = environmentHolder.startQueue;
+                final List<String> machinesGroup = queue.peek();
+                if (machinesGroup != null && machinesGroup.remove(machineName)) {
+                    if (machinesGroup.isEmpty()) {
+                        queue.poll();
+                    }
+                    environmentHolder.machinesStartTime.put(machineName, machineStartTime);
+                    queuePolled = true;
+                }
+            }
+        }
+
+        // If machine config is not polled from the queue
+        // then environment was stopped and newly created machine
+        // must be destroyed
+        if (!queuePolled) {
+            try {
+                eventService.publish(newDto(MachineStatusEvent.class)
+                                             .withEventType(MachineStatusEvent.EventType.DESTROYING)
+                                             .withDev(isDev)
+                                             .withMachineName(machineName)
+                                             .withMachineId(instance.getId())
+                                             .withWorkspaceId(workspaceId));
+
+                instance.destroy();
+
+                removeMachine(workspaceId, instance.getId());
+
+                eventService.publish(newDto(MachineStatusEvent.class)
+                                             .withEventType(MachineStatusEvent.EventType.DESTROYED)
+                                             .withDev(isDev)
+                                             .withMachineName(machineName)
+                                             .withMachineId(instance.getId())
+                                             .withWorkspaceId(workspaceId));
+            } catch (MachineException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+            throw new ServerException("Workspace '" + workspaceId +
+                                      "' start interrupted. Workspace stopped before all its machines started");
+        }
+        LOG.debug("Machine '{}' of workspace '{}' started in {}ms", machineName, workspaceId, machineStartTime);
+    }
+
+    /**
+     * Starts machines of a group concurrently using {@link WorkspaceSharedPool}.
+     * Start of the rest of the machines is cancelled when start of any machine fails.
+     */
+    private void startConcurrently(String workspaceId,
+                                   String envName,
+                                   List<String> machinesGroup,
+                                   QueuedMachineStarter machineStarter) throws ServerException,
+                                                                               AgentException,
+                                                                               EnvironmentException {
+        List<Callable<Void>> tasks = new ArrayList<>(machinesGroup.size());
+        for (String machineName : machinesGroup) {
+            tasks.add(() -> {
+                machineStarter.start(machineName);
+                return null;
+            });
+        }
+        try {
+            sharedPool.runConcurrently(tasks);
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+            throw new EnvironmentStartInterruptedException(workspaceId, envName);
+        } catch (ExecutionException x) {
+            try {
+                throw x.getCause();
+            } catch (ServerException | AgentException | EnvironmentException | RuntimeException | Error rethrow) {
+                throw rethrow;
+            } catch (Throwable wrap) {
+                throw new ServerException(wrap.getMessage(), wrap);
+            }
+        }
+    }
+
+    private interface QueuedMachineStarter {
+        void start(String machineName) throws ServerException, AgentException, EnvironmentException;
+    }
+
     private void checkInterruption(String workspaceId, String envName) throws EnvironmentStartInterruptedException {
         if (Thread.interrupted()) {
             throw new EnvironmentStartInterruptedException(workspaceId, envName);
@@ -1132,7 +1263,7 @@ public class CheEnvironmentEngine {
      * @throws ServerException
      *         if pre destroy has been invoked before peek config retrieved
      */
-    private String queuePeekOrFail(String workspaceId) throws ServerException {
+    private List<String> queuePeekOrFail(String workspaceId) throws ServerException {
         try (@SuppressWarnings("unused") Unlocker u = stripedLocks.readLock(workspaceId)) {
             ensurePreDestroyIsNotExecuted();
             EnvironmentHolder environmentHolder = environments.get(workspaceId);
@@ -1140,7 +1271,8 @@ public class CheEnvironmentEngine {
                 throw new ServerException("Workspace " + workspaceId +
                                           " start interrupted. Workspace was stopped before all its machines were started");
             }
-            return environmentHolder.startQueue.peek();
+            List<String> machinesGroup = environmentHolder.startQueue.peek();
+            return machinesGroup == null ? null : new ArrayList<>(machinesGroup);
         }
     }
 
@@ -1226,8 +1358,9 @@ public class CheEnvironmentEngine {
             }
         };
         try {
-            return new ConcurrentCompositeLineConsumer(new ConcurrentFileLineConsumer(getMachineLogsFile(machineId)),
-                                                       lineConsumer);
+            return new ConcurrentCompositeLineConsumer(new AsyncLineConsumer(new SegmentedFileLineConsumer(getMachineLogsDir(machineId)),
+                                                                             OverflowPolicy.BLOCK),
+                                                       new AsyncLineConsumer(lineConsumer, OverflowPolicy.DROP_OLDEST));
         } catch (IOException e) {
             throw new MachineException(format("Unable create log file '%s' for machine '%s'.",
                                               e.getLocalizedMessage(),
@@ -1242,7 +1375,7 @@ public class CheEnvironmentEngine {
         }
     }
 
-    private File getMachineLogsFile(String machineId) {
+    private File getMachineLogsDir(String machineId) {
         return new File(new File(machineLogsDir, machineId), "machineId.logs");
     }
 
@@ -1314,7 +1447,8 @@ public class CheEnvironmentEngine {
     }
 
     private static class EnvironmentHolder {
-        final Queue<String>                      startQueue;
+        final Queue<List<String>>                startQueue;
+        final Map<String, Long>                  machinesStartTime;
         final CheServicesEnvironmentImpl         environment;
         final MessageConsumer<MachineLogMessage> logger;
         final String                             name;
@@ -1324,14 +1458,18 @@ public class CheEnvironmentEngine {
         List<Instance> machines;
         EnvStatus      status;
 
-        EnvironmentHolder(List<String> startQueue,
+        EnvironmentHolder(List<List<String>> startQueue,
                           CheServicesEnvironmentImpl environment,
                           Environment environmentConfig,
                           MessageConsumer<MachineLogMessage> envLogger,
                           EnvStatus envStatus,
                           String name,
                           String networkId) {
-            this.startQueue = new ArrayDeque<>(startQueue);
+            this.startQueue = new ArrayDeque<>(startQueue.size());
+            for (List<String> machinesGroup : startQueue) {
+                this.startQueue.add(new ArrayList<>(machinesGroup));
+            }
+            this.machinesStartTime = new HashMap<>();
             this.machines = new CopyOnWriteArrayList<>();
             this.logger = envLogger;
             this.status = envStatus;
@@ -16,12 +16,14 @@ import com.google.common.collect.Sets;
 import org.eclipse.che.api.environment.server.model.CheServiceImpl;
 import org.eclipse.che.api.environment.server.model.CheServicesEnvironmentImpl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -46,6 +48,27 @@ public class DefaultServicesStartStrategy {
         return sortByWeight(weights);
     }
 
+    /**
+     * Resolves groups of machines in an environment which can be started concurrently.
+     * Groups are returned in the order of start, machines of a group depend only
+     * on machines of the previous groups.
+     *
+     * @throws IllegalArgumentException
+     *         if order of machines can not be calculated
+     */
+    public List<List<String>> orderInGroups(CheServicesEnvironmentImpl composeEnvironment) throws IllegalArgumentException {
+
+        Map<String, Integer> weights = weightMachines(composeEnvironment.getServices());
+
+        // weight of machine is the length of the longest path to it in dependency graph,
+        // so machines with the same weight don't depend on each other
+        Map<Integer, List<String>> groups = new TreeMap<>();
+        for (String machine : sortByWeight(weights)) {
+            groups.computeIfAbsent(weights.get(machine), weight -> new ArrayList<>()).add(machine);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
     /**
      * Returns mapping of names of machines to its weights in dependency graph.
      *
@@ -20,10 +20,13 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.model.machine.Command;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.util.CompositeLineConsumer;
-import org.eclipse.che.api.core.util.FileLineConsumer;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.api.core.util.WebsocketLineConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.AsyncLineConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.AsyncLineConsumer.OverflowPolicy;
+import org.eclipse.che.api.core.util.lineconsumer.SegmentedFileLineConsumer;
+import org.eclipse.che.api.core.util.lineconsumer.SegmentedLogReader;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.spi.Instance;
 import org.eclipse.che.api.machine.server.spi.InstanceProcess;
@@ -40,8 +43,6 @@ import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -207,25 +208,40 @@ public class MachineProcessManager {
      *         if other error occur
      */
     public Reader getProcessLogReader(String machineId, int pid) throws NotFoundException, MachineException {
-        final File processLogsFile = getProcessLogsFile(machineId, pid);
-        if (processLogsFile.isFile()) {
-            try {
-                return Files.newBufferedReader(processLogsFile.toPath(), Charset.defaultCharset());
-            } catch (IOException e) {
-                throw new MachineException(
-                        String.format("Unable read log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
-            }
+        try {
+            return getProcessLog(machineId, pid).openReader();
+        } catch (IOException e) {
+            throw new MachineException(
+                    String.format("Unable read log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
         }
-        throw new NotFoundException(String.format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
     }
 
-    private File getProcessLogsFile(String machineId, int pid) {
+    /**
+     * Gets log of the process in the machine that can be read from any line, see {@link SegmentedLogReader}.
+     *
+     * @param machineId
+     *         machine id whose process log will be returned
+     * @param pid
+     *         process id
+     * @return log of specified process on machine
+     * @throws NotFoundException
+     *         if log of the process is not available
+     */
+    public SegmentedLogReader getProcessLog(String machineId, int pid) throws NotFoundException {
+        final SegmentedLogReader log = new SegmentedLogReader(getProcessLogsDir(machineId, pid));
+        if (!log.exists()) {
+            throw new NotFoundException(String.format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
+        }
+        return log;
+    }
+
+    private File getProcessLogsDir(String machineId, int pid) {
         return new File(new File(machineLogsDir, machineId), Integer.toString(pid));
     }
 
-    private FileLineConsumer getProcessFileLogger(String machineId, int pid) throws MachineException {
+    private SegmentedFileLineConsumer getProcessFileLogger(String machineId, int pid) throws MachineException {
         try {
-            return new FileLineConsumer(getProcessLogsFile(machineId, pid));
+            return new SegmentedFileLineConsumer(getProcessLogsDir(machineId, pid));
         } catch (IOException e) {
             throw new MachineException(
                     String.format("Unable create log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
@@ -237,11 +253,17 @@ public class MachineProcessManager {
         return getLogger(getProcessFileLogger(machineId, pid), outputChannel);
     }
 
+    /**
+     * Lines are written into the file and sent to the channel in batches on a separate thread, so a chatty process
+     * is not slowed down by a flush and a websocket message per line. The process waits when the file falls behind,
+     * while the oldest lines not sent to the channel yet are dropped when the channel falls behind.
+     */
     private LineConsumer getLogger(LineConsumer fileLogger, String outputChannel) throws MachineException {
         if (outputChannel != null) {
-            return new CompositeLineConsumer(fileLogger, new WebsocketLineConsumer(outputChannel));
+            return new CompositeLineConsumer(new AsyncLineConsumer(fileLogger, OverflowPolicy.BLOCK),
+                                             new AsyncLineConsumer(new WebsocketLineConsumer(outputChannel), OverflowPolicy.DROP_OLDEST));
         }
-        return fileLogger;
+        return new AsyncLineConsumer(fileLogger, OverflowPolicy.BLOCK);
     }
 
     /**
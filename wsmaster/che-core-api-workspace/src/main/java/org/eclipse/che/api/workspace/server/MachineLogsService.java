@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.rest.Service;
+import org.eclipse.che.api.core.util.lineconsumer.SegmentedLogReader;
+import org.eclipse.che.api.core.util.lineconsumer.SegmentedLogReader.Lines;
+import org.eclipse.che.api.environment.server.CheEnvironmentEngine;
+import org.eclipse.che.api.environment.server.MachineProcessManager;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+
+import static java.lang.String.format;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+
+/**
+ * Pages logs of machines and their processes, so a large log can be shown without downloading it fully.
+ *
+ * <p>Lines of a log are numbered from 0. The response contains the requested lines separated by line feeds,
+ * the number of the first returned line in {@value #FIRST_LINE_HEADER} header and the number of the line
+ * to request next in {@value #NEXT_LINE_HEADER} header.
+ */
+@Api(value = "/machine", description = "Machine logs REST API")
+@Path("/machine")
+public class MachineLogsService extends Service {
+    public static final String FIRST_LINE_HEADER = "X-First-Line";
+    public static final String NEXT_LINE_HEADER  = "X-Next-Line";
+
+    private static final int  MAX_LINES   = 10_000;
+    /** Following a log holds a request thread, so a client is to request new lines again after a short wait. */
+    private static final long MAX_WAIT_MS = 10_000;
+
+    private final CheEnvironmentEngine  environmentEngine;
+    private final MachineProcessManager processManager;
+
+    @Inject
+    public MachineLogsService(CheEnvironmentEngine environmentEngine, MachineProcessManager processManager) {
+        this.environmentEngine = environmentEngine;
+        this.processManager = processManager;
+    }
+
+    @GET
+    @Path("/{machineId}/logs")
+    @Produces(TEXT_PLAIN)
+    @ApiOperation(value = "Get lines of the machine log",
+                  notes = "Returns the last lines if 'tail' is set, otherwise the lines starting from 'from' line")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains requested lines"),
+                   @ApiResponse(code = 400, message = "Missed required parameters, parameters are not valid"),
+                   @ApiResponse(code = 404, message = "The log of the machine is not available"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public Response getMachineLogs(@ApiParam("The machine id")
+                                   @PathParam("machineId")
+                                   String machineId,
+                                   @ApiParam("The number of the first line to return")
+                                   @DefaultValue("0")
+                                   @QueryParam("from")
+                                   long from,
+                                   @ApiParam("The max number of lines to return, default is 1000")
+                                   @DefaultValue("1000")
+                                   @QueryParam("limit")
+                                   int limit,
+                                   @ApiParam("The number of the last lines to return")
+                                   @QueryParam("tail")
+                                   Integer tail) throws NotFoundException, ServerException, BadRequestException {
+        return readLines(environmentEngine.getMachineLog(machineId), from, limit, tail, 0);
+    }
+
+    @GET
+    @Path("/{machineId}/process/{pid}/logs")
+    @Produces(TEXT_PLAIN)
+    @ApiOperation(value = "Get lines of the process log",
+                  notes = "Returns the last lines if 'tail' is set, otherwise the lines starting from 'from' line. " +
+                          "If there are no such lines yet, waits for them up to 'wait' milliseconds, but not longer than 10 seconds")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains requested lines"),
+                   @ApiResponse(code = 400, message = "Missed required parameters, parameters are not valid"),
+                   @ApiResponse(code = 404, message = "The log of the process is not available"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public Response getProcessLogs(@ApiParam("The machine id")
+                                   @PathParam("machineId")
+                                   String machineId,
+                                   @ApiParam("The process id")
+                                   @PathParam("pid")
+                                   int pid,
+                                   @ApiParam("The number of the first line to return")
+                                   @DefaultValue("0")
+                                   @QueryParam("from")
+                                   long from,
+                                   @ApiParam("The max number of lines to return, default is 1000")
+                                   @DefaultValue("1000")
+                                   @QueryParam("limit")
+                                   int limit,
+                                   @ApiParam("The number of the last lines to return")
+                                   @QueryParam("tail")
+                                   Integer tail,
+                                   @ApiParam("The max time in milliseconds to wait for new lines, up to 10000, default is 0")
+                                   @DefaultValue("0")
+                                   @QueryParam("wait")
+                                   long waitMs) throws NotFoundException, ServerException, BadRequestException {
+        return readLines(processManager.getProcessLog(machineId, pid), from, limit, tail, waitMs);
+    }
+
+    private Response readLines(SegmentedLogReader log, long from, int limit, Integer tail, long waitMs) throws ServerException,
+                                                                                                             BadRequestException {
+        if (from < 0) {
+            throw new BadRequestException("The number of the first line must not be negative");
+        }
+        if (limit <= 0 || limit > MAX_LINES) {
+            throw new BadRequestException(format("The number of lines must be between 1 and %d", MAX_LINES));
+        }
+        if (tail != null && (tail <= 0 || tail > MAX_LINES)) {
+            throw new BadRequestException(format("The number of the last lines must be between 1 and %d", MAX_LINES));
+        }
+        if (waitMs < 0 || waitMs > MAX_WAIT_MS) {
+            throw new BadRequestException(format("The wait time must be between 0 and %d milliseconds", MAX_WAIT_MS));
+        }
+
+        final Lines lines;
+        try {
+            if (tail != null) {
+                lines = log.tail(tail);
+            } else if (waitMs > 0) {
+                lines = log.follow(from, limit, waitMs);
+            } else {
+                lines = log.readLines(from, limit);
+            }
+        } catch (IOException e) {
+            throw new ServerException(format("Unable read log. %s", e.getMessage()), e);
+        }
+
+        final StringBuilder content = new StringBuilder();
+        for (String line : lines.getLines()) {
+            content.append(line).append('\n');
+        }
+        return Response.ok(content.toString(), TEXT_PLAIN)
+                       .header(FIRST_LINE_HEADER, lines.getFirstLine())
+                       .header(NEXT_LINE_HEADER, lines.getNextLine())
+                       .build();
+    }
+}
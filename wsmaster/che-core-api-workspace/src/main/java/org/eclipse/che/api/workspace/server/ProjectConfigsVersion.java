@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import org.eclipse.che.api.core.model.project.ProjectConfig;
+import org.eclipse.che.api.core.model.project.SourceStorage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Comparator.comparing;
+
+/**
+ * Computes version of projects of a workspace, see {@link org.eclipse.che.api.workspace.shared.dto.ProjectConfigsPatchDto}.
+ *
+ * <p>The version is a digest of the project configs, so it doesn't depend on the order of the projects,
+ * the order of their attributes or whether an absent value is {@code null} or empty.
+ */
+public final class ProjectConfigsVersion {
+
+    /** Returns version of the projects. */
+    public static String of(Collection<? extends ProjectConfig> projects) {
+        final List<ProjectConfig> sorted = new ArrayList<>(projects);
+        sorted.sort(comparing(ProjectConfig::getPath));
+
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        for (ProjectConfig project : sorted) {
+            update(digest, project.getPath());
+            update(digest, project.getName());
+            update(digest, project.getType());
+            update(digest, project.getDescription());
+            if (project.getMixins() != null) {
+                final List<String> mixins = new ArrayList<>(project.getMixins());
+                mixins.sort(null);
+                mixins.forEach(mixin -> update(digest, mixin));
+            }
+            update(digest, "attributes");
+            if (project.getAttributes() != null) {
+                for (Map.Entry<String, List<String>> attribute : new TreeMap<>(project.getAttributes()).entrySet()) {
+                    update(digest, attribute.getKey());
+                    if (attribute.getValue() != null) {
+                        attribute.getValue().forEach(value -> update(digest, value));
+                    }
+                    update(digest, "");
+                }
+            }
+            update(digest, "source");
+            final SourceStorage source = project.getSource();
+            update(digest, source != null ? source.getType() : null);
+            update(digest, source != null ? source.getLocation() : null);
+            if (source != null && source.getParameters() != null) {
+                new TreeMap<>(source.getParameters()).forEach((name, value) -> {
+                    update(digest, name);
+                    update(digest, value);
+                });
+            }
+            update(digest, "project");
+        }
+
+        final StringBuilder version = new StringBuilder();
+        for (byte b : digest.digest()) {
+            version.append(String.format("%02x", b));
+        }
+        return version.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte)0);
+    }
+
+    private ProjectConfigsVersion() {
+    }
+}
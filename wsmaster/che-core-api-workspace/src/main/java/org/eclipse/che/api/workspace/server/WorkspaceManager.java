@@ -34,10 +34,13 @@ import org.eclipse.che.api.machine.server.spi.SnapshotDao;
 import org.eclipse.che.api.workspace.server.event.WorkspaceCreatedEvent;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceSummaryImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.concurrent.StripedLocks;
+import org.eclipse.che.commons.lang.concurrent.Unlocker;
 import org.eclipse.che.commons.subject.Subject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -92,6 +95,7 @@ public class WorkspaceManager {
     private final EventService        eventService;
     private final boolean             defaultAutoSnapshot;
     private final boolean             defaultAutoRestore;
+    private final StripedLocks        updateLocks;
 
     @Inject
     public WorkspaceManager(WorkspaceDao workspaceDao,
@@ -110,6 +114,7 @@ public class WorkspaceManager {
         this.defaultAutoSnapshot = defaultAutoSnapshot;
         this.defaultAutoRestore = defaultAutoRestore;
         this.sharedPool = sharedPool;
+        this.updateLocks = new StripedLocks(16);
     }
 
     /**
@@ -317,6 +322,58 @@ public class WorkspaceManager {
         return workspaces;
     }
 
+    /**
+     * Gets summaries of workspaces which user can read, sorted by workspace identifiers.
+     *
+     * <p>Returned summaries have either {@link WorkspaceStatus#STOPPED} status
+     * or status defined by runtime instances of their workspaces(if those exist).
+     *
+     * @param user
+     *         the id of the user
+     * @param afterId
+     *         the id of the last workspace of the previous page, {@code null} to get the first page
+     * @param maxItems
+     *         the maximum number of summaries to return
+     * @return the list of summaries or empty list if user can't read any workspace after given one
+     * @throws NullPointerException
+     *         when {@code user} is null
+     * @throws ServerException
+     *         when any server error occurs while getting summaries with {@link WorkspaceDao#getSummaries}
+     */
+    public List<WorkspaceSummaryImpl> getSummaries(String user, String afterId, int maxItems) throws ServerException {
+        requireNonNull(user, "Required non-null user id");
+        final List<WorkspaceSummaryImpl> summaries = workspaceDao.getSummaries(user, afterId, maxItems);
+        summaries.forEach(summary -> summary.setStatus(runtimes.getStatus(summary.getId())));
+        return summaries;
+    }
+
+    /**
+     * Gets summaries of workspaces which have given namespace, sorted by workspace identifiers.
+     *
+     * <p>Returned summaries have either {@link WorkspaceStatus#STOPPED} status
+     * or status defined by runtime instances of their workspaces(if those exist).
+     *
+     * @param namespace
+     *         the namespace to find workspaces
+     * @param afterId
+     *         the id of the last workspace of the previous page, {@code null} to get the first page
+     * @param maxItems
+     *         the maximum number of summaries to return
+     * @return the list of summaries or empty list if no matches
+     * @throws NullPointerException
+     *         when {@code namespace} is null
+     * @throws ServerException
+     *         when any server error occurs while getting summaries with {@link WorkspaceDao#getSummariesByNamespace}
+     */
+    public List<WorkspaceSummaryImpl> getSummariesByNamespace(String namespace,
+                                                              String afterId,
+                                                              int maxItems) throws ServerException {
+        requireNonNull(namespace, "Required non-null namespace");
+        final List<WorkspaceSummaryImpl> summaries = workspaceDao.getSummariesByNamespace(namespace, afterId, maxItems);
+        summaries.forEach(summary -> summary.setStatus(runtimes.getStatus(summary.getId())));
+        return summaries;
+    }
+
     /**
      * Updates an existing workspace with a new configuration.
      *
@@ -338,16 +395,54 @@ public class WorkspaceManager {
     public WorkspaceImpl updateWorkspace(String id, Workspace update) throws ConflictException,
                                                                              ServerException,
                                                                              NotFoundException {
+        return updateWorkspace(id, update, null);
+    }
+
+    /**
+     * Updates an existing workspace with a new configuration if projects of the workspace
+     * still have the version the update is based on.
+     *
+     * <p>The version is checked and the workspace is updated while no other update of the workspace
+     * is in progress, so projects changed concurrently are never overwritten by an outdated update.
+     *
+     * @param update
+     *         workspace update
+     * @param projectsBaseVersion
+     *         {@link ProjectConfigsVersion version} of the projects the update is based on,
+     *         the version is not checked if it is {@code null}
+     * @return updated instance of the workspace
+     * @throws NullPointerException
+     *         when either {@code workspaceId} or {@code update} is null
+     * @throws NotFoundException
+     *         when workspace with given id doesn't exist
+     * @throws ConflictException
+     *         when projects of the workspace have other version or any other conflict occurs
+     * @throws ServerException
+     *         when any other error occurs
+     */
+    public WorkspaceImpl updateWorkspace(String id,
+                                         Workspace update,
+                                         @Nullable String projectsBaseVersion) throws ConflictException,
+                                                                                      ServerException,
+                                                                                      NotFoundException {
         requireNonNull(id, "Required non-null workspace id");
         requireNonNull(update, "Required non-null workspace update");
-        WorkspaceImpl workspace = workspaceDao.get(id);
-        workspace.setConfig(new WorkspaceConfigImpl(update.getConfig()));
-        update.getAttributes().put(UPDATED_ATTRIBUTE_NAME, Long.toString(currentTimeMillis()));
-        workspace.setAttributes(update.getAttributes());
-        workspace.setTemporary(update.isTemporary());
-        WorkspaceImpl updated = workspaceDao.update(workspace);
-        runtimes.injectRuntime(updated);
-        return updated;
+        try (Unlocker ignored = updateLocks.writeLock(id)) {
+            WorkspaceImpl workspace = workspaceDao.get(id);
+            if (projectsBaseVersion != null &&
+                !projectsBaseVersion.equals(ProjectConfigsVersion.of(workspace.getConfig().getProjects()))) {
+                throw new ConflictException(format("Projects of workspace '%s' were changed since version '%s'",
+                                                   id,
+                                                   projectsBaseVersion));
+            }
+            workspace.setConfig(new WorkspaceConfigImpl(update.getConfig()));
+            update.getAttributes().put(UPDATED_ATTRIBUTE_NAME, Long.toString(currentTimeMillis()));
+            workspace.setAttributes(update.getAttributes());
+            workspace.setTemporary(update.isTemporary());
+            WorkspaceImpl updated = workspaceDao.update(workspace);
+            runtimes.injectRuntime(updated);
+            return updated;
+        }
     }
 
     /**
@@ -53,6 +53,7 @@ import org.eclipse.che.dto.server.DtoFactory;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -68,6 +69,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -116,6 +118,7 @@ public class WorkspaceRuntimes {
     private final AgentRegistry                       agentRegistry;
     private final SnapshotDao                         snapshotDao;
     private final WorkspaceSharedPool                 sharedPool;
+    private final boolean                             parallelAgentsLaunch;
 
     private final AtomicBoolean         isShutdown            = new AtomicBoolean(false);
     private final AtomicBoolean         isStartRefused        = new AtomicBoolean(false);
@@ -128,7 +131,8 @@ public class WorkspaceRuntimes {
                              AgentLauncherFactory launcherFactory,
                              AgentRegistry agentRegistry,
                              SnapshotDao snapshotDao,
-                             WorkspaceSharedPool sharedPool) {
+                             WorkspaceSharedPool sharedPool,
+                             @Named("che.workspace.parallel_agents_launch") boolean parallelAgentsLaunch) {
         this(eventsService,
              envEngine,
              agentSorter,
@@ -136,6 +140,7 @@ public class WorkspaceRuntimes {
              agentRegistry,
              snapshotDao,
              sharedPool,
+             parallelAgentsLaunch,
              new ConcurrentHashMap<>());
     }
 
@@ -146,6 +151,7 @@ public class WorkspaceRuntimes {
                              AgentRegistry agentRegistry,
                              SnapshotDao snapshotDao,
                              WorkspaceSharedPool sharedPool,
+                             boolean parallelAgentsLaunch,
                              ConcurrentMap<String, RuntimeState> states) {
         this.eventsService = eventsService;
         this.envEngine = envEngine;
@@ -156,6 +162,7 @@ public class WorkspaceRuntimes {
         // 16 - experimental value for stripes count, it comes from default hash map size
         this.locks = new StripedLocks(16);
         this.sharedPool = sharedPool;
+        this.parallelAgentsLaunch = parallelAgentsLaunch;
         this.states = states;
     }
 
@@ -687,13 +694,54 @@ public class WorkspaceRuntimes {
     }
 
     protected void launchAgents(Instance instance, List<String> agents) throws ServerException, AgentException {
-        for (AgentKey agentKey : agentSorter.sort(agents)) {
-            if (!Thread.currentThread().isInterrupted()) {
-                LOG.info("Launching '{}' agent at workspace {}", agentKey.getId(), instance.getWorkspaceId());
-                Agent agent = agentRegistry.getAgent(agentKey);
-                AgentLauncher launcher = launcherFactory.find(agentKey.getId(), instance.getConfig().getType());
-                launcher.launch(instance, agent);
+        if (!parallelAgentsLaunch) {
+            for (AgentKey agentKey : agentSorter.sort(agents)) {
+                launchAgent(instance, agentKey);
+            }
+            return;
+        }
+        // agents of a group don't depend on each other, so they are launched concurrently
+        for (List<AgentKey> agentsGroup : agentSorter.sortInGroups(agents)) {
+            if (agentsGroup.size() == 1) {
+                launchAgent(instance, agentsGroup.get(0));
+                continue;
             }
+            List<Callable<Void>> tasks = new ArrayList<>(agentsGroup.size());
+            for (AgentKey agentKey : agentsGroup) {
+                tasks.add(() -> {
+                    launchAgent(instance, agentKey);
+                    return null;
+                });
+            }
+            try {
+                sharedPool.runConcurrently(tasks);
+            } catch (InterruptedException x) {
+                // the rest of the agents are not launched, interruption is handled by the environment engine
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException x) {
+                try {
+                    throw x.getCause();
+                } catch (ServerException | AgentException | RuntimeException | Error rethrow) {
+                    throw rethrow;
+                } catch (Throwable wrap) {
+                    throw new ServerException(wrap.getMessage(), wrap);
+                }
+            }
+        }
+    }
+
+    private void launchAgent(Instance instance, AgentKey agentKey) throws ServerException, AgentException {
+        if (!Thread.currentThread().isInterrupted()) {
+            LOG.info("Launching '{}' agent at workspace {}", agentKey.getId(), instance.getWorkspaceId());
+            long launchStart = System.currentTimeMillis();
+            Agent agent = agentRegistry.getAgent(agentKey);
+            AgentLauncher launcher = launcherFactory.find(agentKey.getId(), instance.getConfig().getType());
+            launcher.launch(instance, agent);
+            LOG.info("Agent '{}' is launched at workspace {} in {}ms",
+                     agentKey.getId(),
+                     instance.getWorkspaceId(),
+                     System.currentTimeMillis() - launchStart);
         }
     }
 
@@ -766,7 +814,8 @@ public class WorkspaceRuntimes {
                                         .withWorkspaceId(workspaceId)
                                         .withStatus(WorkspaceStatus.RUNNING)
                                         .withEventType(EventType.RUNNING)
-                                        .withPrevStatus(WorkspaceStatus.STARTING));
+                                        .withPrevStatus(WorkspaceStatus.STARTING)
+                                        .withMachinesStartTime(envEngine.getMachinesStartTime(workspaceId)));
     }
 
     /** STOPPING -> remove runtime -> STOPPED. */
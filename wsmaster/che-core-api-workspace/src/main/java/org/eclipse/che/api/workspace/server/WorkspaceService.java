@@ -37,11 +37,14 @@ import org.eclipse.che.api.machine.shared.dto.SnapshotDto;
 import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
 import org.eclipse.che.api.workspace.server.model.impl.ProjectConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceSummaryImpl;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentRecipeDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectConfigsPatchDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceSummaryDto;
 import org.eclipse.che.api.workspace.shared.dto.WsAgentHealthStateDto;
 import org.eclipse.che.commons.env.EnvironmentContext;
 
@@ -60,6 +63,8 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -223,6 +228,60 @@ public class WorkspaceService extends Service {
                                .collect(toList());
     }
 
+    @GET
+    @Path("/summary")
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Get summaries of workspaces which user can read or of workspaces in the given namespace",
+                  notes = "This operation can be performed only by authorized user. " +
+                          "The summaries are sorted by workspace ids, the next page is requested with " +
+                          "the id of the last workspace of the current page. If the page is not the last one " +
+                          "the response contains the 'Link' header with the 'next' page reference",
+                  response = WorkspaceSummaryDto.class,
+                  responseContainer = "List")
+    @ApiResponses({@ApiResponse(code = 200, message = "The summaries successfully fetched"),
+                   @ApiResponse(code = 400, message = "The limit of the items is not valid"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred during summaries fetching")})
+    public Response getSummaries(@ApiParam("The namespace, if it is not set, summaries of workspaces " +
+                                           "which user can read are returned")
+                                 @QueryParam("namespace")
+                                 String namespace,
+                                 @ApiParam("The id of the workspace after which the summaries are returned")
+                                 @QueryParam("after")
+                                 String afterId,
+                                 @ApiParam("The limit of the items in the response, default is 30")
+                                 @DefaultValue("30")
+                                 @QueryParam("maxItems")
+                                 Integer maxItems,
+                                 @ApiParam("Workspace status, the page may contain less items than the limit " +
+                                           "when summaries are filtered by status")
+                                 @QueryParam("status")
+                                 String status) throws ServerException, BadRequestException {
+        if (maxItems == null || maxItems <= 0) {
+            throw new BadRequestException("The limit of the items must be greater than zero");
+        }
+        final List<WorkspaceSummaryImpl> summaries;
+        if (namespace == null) {
+            summaries = workspaceManager.getSummaries(EnvironmentContext.getCurrent().getSubject().getUserId(),
+                                                      afterId,
+                                                      maxItems);
+        } else {
+            summaries = workspaceManager.getSummariesByNamespace(namespace, afterId, maxItems);
+        }
+        final Response.ResponseBuilder response =
+                Response.ok(summaries.stream()
+                                     .filter(ws -> status == null || status.equalsIgnoreCase(ws.getStatus().toString()))
+                                     .map(DtoConverter::asDto)
+                                     .collect(toList()));
+        if (summaries.size() == maxItems) {
+            final String next = uriInfo.getRequestUriBuilder()
+                                       .replaceQueryParam("after", summaries.get(summaries.size() - 1).getId())
+                                       .build()
+                                       .toString();
+            response.header("Link", format("<%s>; rel=\"next\"", next));
+        }
+        return response.build();
+    }
+
     @GET
     @Path("/namespace/{namespace:.*}")
     @Produces(APPLICATION_JSON)
@@ -630,6 +689,67 @@ public class WorkspaceService extends Service {
         return linksInjector.injectLinks(asDto(workspaceManager.updateWorkspace(id, workspace)), getServiceContext());
     }
 
+    @POST
+    @Path("/{id}/project/batch")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Add, update and remove projects of the workspace at once",
+                  notes = "This operation can be performed only by the workspace owner. " +
+                          "If the base version is set, the changes are applied only if the projects of the workspace " +
+                          "still have this version")
+    @ApiResponses({@ApiResponse(code = 200, message = "The projects successfully updated"),
+                   @ApiResponse(code = 400, message = "Missed required parameters, parameters are not valid"),
+                   @ApiResponse(code = 403, message = "The user does not have access to update the projects"),
+                   @ApiResponse(code = 404, message = "The workspace or an updated project not found"),
+                   @ApiResponse(code = 409, message = "The projects of the workspace have other version or " +
+                                                      "an added project already exists"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public WorkspaceDto updateProjects(@ApiParam("The workspace id")
+                                       @PathParam("id")
+                                       String id,
+                                       @ApiParam(value = "The changes of projects", required = true)
+                                       ProjectConfigsPatchDto patch) throws ServerException,
+                                                                            BadRequestException,
+                                                                            NotFoundException,
+                                                                            ConflictException,
+                                                                            ForbiddenException {
+        requiredNotNull(patch, "Projects patch");
+        final WorkspaceImpl workspace = workspaceManager.getWorkspace(id);
+        final List<ProjectConfigImpl> projects = workspace.getConfig().getProjects();
+        // checked before the changes are applied, so outdated changes are not reported as missing projects,
+        // the manager checks the version once again while it updates the workspace
+        if (patch.getBaseVersion() != null && !patch.getBaseVersion().equals(ProjectConfigsVersion.of(projects))) {
+            throw new ConflictException(format("Projects of workspace '%s' were changed since version '%s'",
+                                               id,
+                                               patch.getBaseVersion()));
+        }
+
+        final Map<String, ProjectConfigImpl> byPath = new LinkedHashMap<>();
+        projects.forEach(project -> byPath.put(normalizePath(project.getPath()), project));
+        for (String path : firstNonNull(patch.getRemoved(), Collections.<String>emptyList())) {
+            byPath.remove(normalizePath(path));
+        }
+        for (ProjectConfigDto update : firstNonNull(patch.getUpdated(), Collections.<ProjectConfigDto>emptyList())) {
+            requiredNotNull(update.getPath(), "Path of updated project");
+            final String path = normalizePath(update.getPath());
+            if (byPath.replace(path, newProjectConfig(update, path)) == null) {
+                throw new NotFoundException(format("Workspace '%s' doesn't contain project with path '%s'", id, path));
+            }
+        }
+        for (ProjectConfigDto newProject : firstNonNull(patch.getAdded(), Collections.<ProjectConfigDto>emptyList())) {
+            requiredNotNull(newProject.getPath(), "Path of added project");
+            final String path = normalizePath(newProject.getPath());
+            if (byPath.putIfAbsent(path, newProjectConfig(newProject, path)) != null) {
+                throw new ConflictException(format("Workspace '%s' already contains project with path '%s'", id, path));
+            }
+        }
+        projects.clear();
+        projects.addAll(byPath.values());
+        validator.validateConfig(workspace.getConfig());
+        return linksInjector.injectLinks(asDto(workspaceManager.updateWorkspace(id, workspace, patch.getBaseVersion())),
+                                         getServiceContext());
+    }
+
     @PUT
     @Path("/{id}/project/{path:.*}")
     @Consumes(APPLICATION_JSON)
@@ -656,7 +776,7 @@ public class WorkspaceService extends Service {
         requiredNotNull(update, "Project config");
         final WorkspaceImpl workspace = workspaceManager.getWorkspace(id);
         final List<ProjectConfigImpl> projects = workspace.getConfig().getProjects();
-        final String normalizedPath = path.startsWith("/") ? path : '/' + path;
+        final String normalizedPath = normalizePath(path);
         if (!projects.removeIf(project -> project.getPath().equals(normalizedPath))) {
             throw new NotFoundException(format("Workspace '%s' doesn't contain project with path '%s'",
                                                id,
@@ -686,7 +806,7 @@ public class WorkspaceService extends Service {
                                                   ConflictException,
                                                   ForbiddenException {
         final WorkspaceImpl workspace = workspaceManager.getWorkspace(id);
-        final String normalizedPath = path.startsWith("/") ? path : '/' + path;
+        final String normalizedPath = normalizePath(path);
         if (workspace.getConfig().getProjects().removeIf(project -> project.getPath().equals(normalizedPath))) {
             workspaceManager.updateWorkspace(id, workspace);
         }
@@ -763,6 +883,17 @@ public class WorkspaceService extends Service {
         }
     }
 
+    /** Returns the project path which starts with slash, as paths of workspace projects do. */
+    private static String normalizePath(String path) {
+        return path.startsWith("/") ? path : '/' + path;
+    }
+
+    private static ProjectConfigImpl newProjectConfig(ProjectConfigDto project, String normalizedPath) {
+        final ProjectConfigImpl config = new ProjectConfigImpl(project);
+        config.setPath(normalizedPath);
+        return config;
+    }
+
     /*
      * Validate composite key.
      *
@@ -12,6 +12,7 @@ package org.eclipse.che.api.workspace.server;
 
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.Inject;
 
 import org.eclipse.che.commons.annotation.Nullable;
@@ -22,13 +23,21 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Provides a single non-daemon {@link ExecutorService} instance for workspace components.
@@ -103,6 +112,62 @@ public class WorkspaceSharedPool {
         return CompletableFuture.runAsync(ThreadLocalPropagateContext.wrap(runnable), executor);
     }
 
+    /**
+     * Runs the given tasks concurrently and waits until all of them are finished.
+     *
+     * <p>The current thread also runs the tasks which are not taken by the pool yet,
+     * so the call doesn't hang when all the threads of the pool are busy, e.g.
+     * when it is made from a task which is run by this pool.
+     * When any of the tasks fails the rest of them are cancelled, the tasks which are not started
+     * yet are never started and the call returns only when the started ones are finished,
+     * so nothing they do is left running behind the caller which handles the failure.
+     *
+     * @param tasks
+     *         tasks to run
+     * @throws ExecutionException
+     *         when any of the tasks fails, contains the failure of the task
+     * @throws InterruptedException
+     *         when the current thread is interrupted while waiting for the tasks
+     */
+    public void runConcurrently(List<Callable<Void>> tasks) throws ExecutionException, InterruptedException {
+        BlockingQueue<FutureTask<Void>> finished = new LinkedBlockingQueue<>();
+        List<GuardedTask> guardedTasks = new ArrayList<>(tasks.size());
+        List<FutureTask<Void>> futures = new ArrayList<>(tasks.size());
+        for (Callable<Void> task : tasks) {
+            GuardedTask guardedTask = new GuardedTask(task);
+            guardedTasks.add(guardedTask);
+            futures.add(new FutureTask<Void>(guardedTask) {
+                @Override
+                protected void done() {
+                    finished.add(this);
+                }
+            });
+        }
+        try {
+            for (int i = 1; i < futures.size(); i++) {
+                execute(futures.get(i));
+            }
+            // the task which is already running or finished is not run once again
+            for (FutureTask<Void> future : futures) {
+                future.run();
+                if (future.isDone()) {
+                    future.get();
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                finished.take().get();
+            }
+        } finally {
+            for (FutureTask<Void> future : futures) {
+                future.cancel(true);
+            }
+            // cancelled future is done at once, while its task may still be running
+            for (GuardedTask guardedTask : guardedTasks) {
+                guardedTask.preventOrAwait();
+            }
+        }
+    }
+
     /**
      * Terminates this pool if it's not terminated yet.
      */
@@ -126,4 +191,34 @@ public class WorkspaceSharedPool {
             logger.info("Workspace threads pool is terminated");
         }
     }
+
+    /** Task which can be prevented from starting and whose completion can be waited for. */
+    private static class GuardedTask implements Callable<Void> {
+        private final Callable<Void> task;
+        private final AtomicBoolean  claimed  = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private GuardedTask(Callable<Void> task) {
+            this.task = task;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                return task.call();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        /** Prevents the task from starting if it is not started yet, otherwise waits until it is finished. */
+        void preventOrAwait() {
+            if (!claimed.compareAndSet(false, true)) {
+                Uninterruptibles.awaitUninterruptibly(finished);
+            }
+        }
+    }
 }
@@ -22,6 +22,7 @@ import org.eclipse.che.api.workspace.server.event.BeforeWorkspaceRemovedEvent;
 import org.eclipse.che.api.workspace.server.event.WorkspaceRemovedEvent;
 import org.eclipse.che.api.workspace.server.model.impl.ProjectConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceSummaryImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
 import org.eclipse.che.core.db.cascade.CascadeEventSubscriber;
 import org.eclipse.che.core.db.jpa.DuplicateKeyException;
@@ -33,10 +34,14 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -183,6 +188,63 @@ public class JpaWorkspaceDao implements WorkspaceDao {
         }
     }
 
+    @Override
+    @Transactional
+    public List<WorkspaceSummaryImpl> getSummaries(String userId, String afterId, int maxItems) throws ServerException {
+        checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
+        try {
+            return fetchAttributes(managerProvider.get()
+                                                  .createNamedQuery("Workspace.getSummaries", WorkspaceSummaryImpl.class)
+                                                  .setParameter("afterId", firstNonNull(afterId, ""))
+                                                  .setMaxResults(maxItems)
+                                                  .getResultList());
+        } catch (RuntimeException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<WorkspaceSummaryImpl> getSummariesByNamespace(String namespace,
+                                                              String afterId,
+                                                              int maxItems) throws ServerException {
+        requireNonNull(namespace, "Required non-null namespace");
+        checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
+        try {
+            return fetchAttributes(managerProvider.get()
+                                                  .createNamedQuery("Workspace.getSummariesByNamespace",
+                                                                    WorkspaceSummaryImpl.class)
+                                                  .setParameter("namespace", namespace)
+                                                  .setParameter("afterId", firstNonNull(afterId, ""))
+                                                  .setMaxResults(maxItems)
+                                                  .getResultList());
+        } catch (RuntimeException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+    }
+
+    /**
+     * Sets attributes of all the given summaries selecting them with a single query,
+     * instead of loading the attributes collection of each workspace one by one.
+     */
+    private List<WorkspaceSummaryImpl> fetchAttributes(List<WorkspaceSummaryImpl> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        final Map<String, WorkspaceSummaryImpl> byId = new HashMap<>();
+        for (WorkspaceSummaryImpl summary : summaries) {
+            byId.put(summary.getId(), summary);
+        }
+        final List<Object[]> attributes = managerProvider.get()
+                                                         .createNamedQuery("Workspace.getAttributes", Object[].class)
+                                                         .setParameter("ids", new ArrayList<>(byId.keySet()))
+                                                         .getResultList();
+        for (Object[] attribute : attributes) {
+            byId.get((String)attribute[0]).getAttributes().put((String)attribute[1], (String)attribute[2]);
+        }
+        return summaries;
+    }
+
     @Transactional
     protected void doCreate(WorkspaceImpl workspace) {
         if (workspace.getConfig() != null) {
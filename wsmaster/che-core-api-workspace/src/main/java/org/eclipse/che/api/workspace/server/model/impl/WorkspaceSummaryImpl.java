@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server.model.impl;
+
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Summary of {@link WorkspaceImpl}, contains only the data needed to list workspaces,
+ * so it is selected without configuration of the workspace.
+ *
+ * <p>The instances are created by the constructor expression of JPQL queries,
+ * see {@link WorkspaceImpl} named queries.
+ */
+public class WorkspaceSummaryImpl {
+
+    private String              id;
+    private String              name;
+    private String              namespace;
+    private boolean             isTemporary;
+    private Map<String, String> attributes;
+    private WorkspaceStatus     status;
+
+    public WorkspaceSummaryImpl(String id, String name, String namespace, boolean isTemporary) {
+        this.id = id;
+        this.name = name;
+        this.namespace = namespace;
+        this.isTemporary = isTemporary;
+    }
+
+    public WorkspaceSummaryImpl(String id,
+                                String name,
+                                String namespace,
+                                boolean isTemporary,
+                                Map<String, String> attributes,
+                                WorkspaceStatus status) {
+        this(id, name, namespace, isTemporary);
+        if (attributes != null) {
+            this.attributes = new HashMap<>(attributes);
+        }
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public boolean isTemporary() {
+        return isTemporary;
+    }
+
+    public Map<String, String> getAttributes() {
+        if (attributes == null) {
+            attributes = new HashMap<>();
+        }
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, String> attributes) {
+        this.attributes = attributes;
+    }
+
+    public WorkspaceStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WorkspaceStatus status) {
+        this.status = status;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof WorkspaceSummaryImpl)) {
+            return false;
+        }
+        final WorkspaceSummaryImpl that = (WorkspaceSummaryImpl)obj;
+        return isTemporary == that.isTemporary
+               && Objects.equals(id, that.id)
+               && Objects.equals(name, that.name)
+               && Objects.equals(namespace, that.namespace)
+               && Objects.equals(status, that.status)
+               && getAttributes().equals(that.getAttributes());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 31 * hash + Objects.hashCode(id);
+        hash = 31 * hash + Objects.hashCode(name);
+        hash = 31 * hash + Objects.hashCode(namespace);
+        hash = 31 * hash + Boolean.hashCode(isTemporary);
+        hash = 31 * hash + Objects.hashCode(status);
+        hash = 31 * hash + getAttributes().hashCode();
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkspaceSummaryImpl{" +
+               "id='" + id + '\'' +
+               ", name='" + name + '\'' +
+               ", namespace='" + namespace + '\'' +
+               ", isTemporary=" + isTemporary +
+               ", attributes=" + attributes +
+               ", status=" + status +
+               '}';
+    }
+}
@@ -14,6 +14,7 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceSummaryImpl;
 
 import java.util.List;
 
@@ -159,4 +160,59 @@ public interface WorkspaceDao {
      *         when {@code maxItems} or {@code skipCount} is negative
      */
     List<WorkspaceImpl> getWorkspaces(boolean isTemporary, int skipCount, int maxItems) throws ServerException;
+
+    /**
+     * Gets summaries of workspaces which user can read, sorted by workspace identifiers.
+     *
+     * <p>The summaries are paginated by the identifier of the last workspace of the previous page,
+     * so the pages are not shifted when workspaces are created or removed in between of requests
+     * and a page is fetched in the same time regardless of its position. Expected usage:
+     * <pre>
+     *     List&lt;WorkspaceSummaryImpl&gt; page = workspaceDao.getSummaries(userId, null, 30);
+     *     while (page.size() == 30) {
+     *         ...
+     *         page = workspaceDao.getSummaries(userId, page.get(page.size() - 1).getId(), 30);
+     *     }
+     * </pre>
+     *
+     * <p>Summaries don't contain {@link WorkspaceSummaryImpl#getStatus() status} of workspaces,
+     * as it is not stored.
+     *
+     * @param userId
+     *         id of user
+     * @param afterId
+     *         the identifier of the workspace after which the summaries are returned,
+     *         {@code null} to return the first page
+     * @param maxItems
+     *         the maximum number of summaries to return
+     * @return list of workspace summaries or empty list if no workspaces were found
+     * @throws ServerException
+     *         when any other error occurs during workspaces fetching
+     * @throws IllegalArgumentException
+     *         when {@code maxItems} is negative
+     */
+    List<WorkspaceSummaryImpl> getSummaries(String userId, String afterId, int maxItems) throws ServerException;
+
+    /**
+     * Gets summaries of workspaces in given namespace, sorted by workspace identifiers.
+     * Pagination is the same as for {@link #getSummaries(String, String, int)}.
+     *
+     * @param namespace
+     *         workspace namespace
+     * @param afterId
+     *         the identifier of the workspace after which the summaries are returned,
+     *         {@code null} to return the first page
+     * @param maxItems
+     *         the maximum number of summaries to return
+     * @return list of workspace summaries or empty list if no workspaces were found
+     * @throws NullPointerException
+     *         when {@code namespace} is null
+     * @throws ServerException
+     *         when any other error occurs during workspaces fetching
+     * @throws IllegalArgumentException
+     *         when {@code maxItems} is negative
+     */
+    List<WorkspaceSummaryImpl> getSummariesByNamespace(String namespace,
+                                                       String afterId,
+                                                       int maxItems) throws ServerException;
 }
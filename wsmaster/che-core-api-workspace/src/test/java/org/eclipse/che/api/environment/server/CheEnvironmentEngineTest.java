@@ -70,8 +70,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
@@ -82,6 +85,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
@@ -156,7 +161,8 @@ public class CheEnvironmentEngineTest {
                                               recipeDownloader,
                                               containerNameGenerator,
                                               agentRegistry,
-                                              sharedPool));
+                                              sharedPool,
+                                              false));
 
         when(machineInstanceProviders.getProvider("docker")).thenReturn(instanceProvider);
         when(instanceProvider.getRecipeTypes()).thenReturn(Collections.singleton("dockerfile"));
@@ -330,6 +336,120 @@ public class CheEnvironmentEngineTest {
         }
     }
 
+    @Test
+    public void shouldStartMachinesWhichDoNotDependOnEachOtherConcurrently() throws Exception {
+        // given
+        WorkspaceSharedPool pool = new WorkspaceSharedPool("cached", null, null);
+        CheEnvironmentEngine engine = createParallelEngine(pool);
+        EnvironmentImpl env = createEnv();
+        String envName = "env-1";
+        String workspaceId = "wsId";
+        // machines of the environment don't depend on each other, so none of them is started until all are starting
+        CyclicBarrier allStarting = new CyclicBarrier(env.getMachines().size());
+        when(machineProvider.startService(anyString(),
+                                          eq(workspaceId),
+                                          eq(envName),
+                                          anyString(),
+                                          anyBoolean(),
+                                          anyString(),
+                                          any(CheServiceImpl.class),
+                                          any(LineConsumer.class)))
+                .thenAnswer(invocationOnMock -> {
+                    allStarting.await(10, SECONDS);
+                    Object[] arguments = invocationOnMock.getArguments();
+                    return spy(new NoOpMachineInstance(createMachine(workspaceId,
+                                                                     envName,
+                                                                     (CheServiceImpl)arguments[6],
+                                                                     (String)arguments[3],
+                                                                     (boolean)arguments[4])));
+                });
+        when(environmentParser.parse(env)).thenReturn(createCheServicesEnv());
+
+        // when
+        List<Instance> machines;
+        try {
+            machines = engine.start(workspaceId,
+                                    envName,
+                                    env,
+                                    false,
+                                    messageConsumer,
+                                    startedHandler);
+        } finally {
+            pool.getExecutor().shutdownNow();
+        }
+
+        // then
+        assertEquals(machines.size(), env.getMachines().size());
+        assertEquals(engine.getMachinesStartTime(workspaceId).keySet(), env.getMachines().keySet());
+        for (Instance machine : machines) {
+            verify(startedHandler).started(eq(machine), any(ExtendedMachine.class));
+        }
+    }
+
+    @Test
+    public void shouldDestroyStartedMachinesWhenConcurrentStartOfAnotherMachineFails() throws Exception {
+        // given
+        WorkspaceSharedPool pool = new WorkspaceSharedPool("cached", null, null);
+        CheEnvironmentEngine engine = createParallelEngine(pool);
+        EnvironmentImpl env = createEnv();
+        String envName = "env-1";
+        String workspaceId = "wsId";
+        CountDownLatch devMachineStarted = new CountDownLatch(1);
+        ArrayList<Instance> created = new ArrayList<>();
+        when(machineProvider.startService(anyString(),
+                                          eq(workspaceId),
+                                          eq(envName),
+                                          anyString(),
+                                          anyBoolean(),
+                                          anyString(),
+                                          any(CheServiceImpl.class),
+                                          any(LineConsumer.class)))
+                .thenAnswer(invocationOnMock -> {
+                    Object[] arguments = invocationOnMock.getArguments();
+                    if (!(boolean)arguments[4]) {
+                        devMachineStarted.await(10, SECONDS);
+                        throw new ServerException("failed!");
+                    }
+                    NoOpMachineInstance instance = spy(new NoOpMachineInstance(createMachine(workspaceId,
+                                                                                             envName,
+                                                                                             (CheServiceImpl)arguments[6],
+                                                                                             (String)arguments[3],
+                                                                                             true)));
+                    created.add(instance);
+                    return instance;
+                });
+        doAnswer(invocationOnMock -> {
+            devMachineStarted.countDown();
+            return null;
+        }).when(startedHandler).started(any(Instance.class), any(ExtendedMachine.class));
+        when(environmentParser.parse(env)).thenReturn(createCheServicesEnv());
+
+        // when
+        try {
+            engine.start(workspaceId,
+                         envName,
+                         env,
+                         false,
+                         messageConsumer,
+                         startedHandler);
+            fail("environment must not be running");
+        } catch (ServerException x) {
+            assertEquals(x.getMessage(), "failed!");
+        } finally {
+            pool.getExecutor().shutdownNow();
+        }
+
+        // then
+        try {
+            engine.getMachines(workspaceId);
+            fail("environment must not be running");
+        } catch (EnvironmentNotRunningException x) {
+            assertEquals(x.getMessage(), format("Environment with ID '%s' is not found", workspaceId));
+        }
+        assertEquals(created.size(), 1);
+        verify(created.get(0), atLeastOnce()).destroy();
+    }
+
     @Test
     public void shouldSetDefaultRamToMachinesWithoutRamOnEnvironmentStart() throws Exception {
         // given
@@ -1287,6 +1407,24 @@ public class CheEnvironmentEngineTest {
         }
     }
 
+    private CheEnvironmentEngine createParallelEngine(WorkspaceSharedPool pool) {
+        return new CheEnvironmentEngine(snapshotDao,
+                                        machineInstanceProviders,
+                                        System.getProperty("java.io.tmpdir"),
+                                        DEFAULT_MACHINE_MEM_LIMIT_MB,
+                                        eventService,
+                                        environmentParser,
+                                        new DefaultServicesStartStrategy(),
+                                        machineProvider,
+                                        infrastructureProvisioner,
+                                        API_ENDPOINT,
+                                        recipeDownloader,
+                                        containerNameGenerator,
+                                        agentRegistry,
+                                        pool,
+                                        true);
+    }
+
     private List<Instance> startEnv() throws Exception {
         EnvironmentImpl env = createEnv();
         CheServicesEnvironmentImpl cheServicesEnv = createCheServicesEnv();
@@ -67,6 +67,53 @@ public class DefaultServicesStartStrategyTest {
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void shouldGroupServicesWhichDoNotDependOnEachOther() throws Exception {
+        // given
+        CheServicesEnvironmentImpl composeEnvironment = new CheServicesEnvironmentImpl();
+        composeEnvironment.getServices().put("web", new CheServiceImpl().withDependsOn(asList("db", "redis")));
+        composeEnvironment.getServices().put("redis", new CheServiceImpl().withDependsOn(singletonList("dev-machine")));
+        composeEnvironment.getServices().put("db", new CheServiceImpl().withLinks(singletonList("dev-machine:dev")));
+        composeEnvironment.getServices().put("dev-machine", new CheServiceImpl().withDependsOn(emptyList()));
+        composeEnvironment.getServices().put("storage", new CheServiceImpl());
+
+        // when
+        List<List<String>> actual = strategy.orderInGroups(composeEnvironment);
+
+        // then
+        assertEquals(actual.size(), 3);
+        assertEqualsNoOrder(actual.get(0).toArray(), new String[] {"dev-machine", "storage"});
+        assertEqualsNoOrder(actual.get(1).toArray(), new String[] {"redis", "db"});
+        assertEquals(actual.get(2), singletonList("web"));
+    }
+
+    @Test
+    public void shouldPutServiceIntoGroupAfterItsLongestDependencyChain() throws Exception {
+        // given
+        CheServicesEnvironmentImpl composeEnvironment = new CheServicesEnvironmentImpl();
+        composeEnvironment.getServices().put("first", new CheServiceImpl());
+        composeEnvironment.getServices().put("second", new CheServiceImpl().withVolumesFrom(singletonList("first:ro")));
+        composeEnvironment.getServices().put("third", new CheServiceImpl().withDependsOn(asList("first", "second")));
+
+        // when
+        List<List<String>> actual = strategy.orderInGroups(composeEnvironment);
+
+        // then
+        assertEquals(actual, asList(singletonList("first"), singletonList("second"), singletonList("third")));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Launch order of machines '.*' can't be evaluated. Circular dependency.")
+    public void shouldFailGroupingOnCircularDependency() throws Exception {
+        // given
+        CheServicesEnvironmentImpl composeEnvironment = new CheServicesEnvironmentImpl();
+        composeEnvironment.getServices().put("first", new CheServiceImpl().withDependsOn(singletonList("second")));
+        composeEnvironment.getServices().put("second", new CheServiceImpl().withDependsOn(singletonList("first")));
+
+        // when
+        strategy.orderInGroups(composeEnvironment);
+    }
+
     @Test
     public void testOrderingOfServicesWithoutDependencies() throws Exception {
         // given
@@ -305,6 +305,18 @@ public class WorkspaceManagerTest {
         verify(workspaceDao).update(workspace);
     }
 
+    @Test(expectedExceptions = ConflictException.class,
+          expectedExceptionsMessageRegExp = "Projects of workspace '.*' were changed since version 'outdated'")
+    public void shouldNotUpdateWorkspaceWhenProjectsHaveOtherVersion() throws Exception {
+        WorkspaceImpl workspace = new WorkspaceImpl(createAndMockWorkspace());
+
+        try {
+            workspaceManager.updateWorkspace(workspace.getId(), workspace, "outdated");
+        } finally {
+            verify(workspaceDao, never()).update(any());
+        }
+    }
+
     @Test
     public void workspaceUpdateShouldReturnWorkspaceWithStatusEqualToItsRuntimeStatus() throws Exception {
         final WorkspaceImpl workspace = createAndMockWorkspace();
@@ -16,7 +16,9 @@ import com.google.common.util.concurrent.Futures;
 
 import org.eclipse.che.api.agent.server.AgentRegistry;
 import org.eclipse.che.api.agent.server.impl.AgentSorter;
+import org.eclipse.che.api.agent.server.launcher.AgentLauncher;
 import org.eclipse.che.api.agent.server.launcher.AgentLauncherFactory;
+import org.eclipse.che.api.agent.shared.model.impl.AgentKeyImpl;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
@@ -52,6 +54,7 @@ import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.Event
 import org.eclipse.che.dto.server.DtoFactory;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.testng.MockitoTestNGListener;
@@ -81,14 +84,18 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -146,6 +153,7 @@ public class WorkspaceRuntimesTest {
                                          agentRegistry,
                                          snapshotDao,
                                          sharedPool,
+                                         false,
                                          runtimeStates = new ConcurrentHashMap<>());
     }
 
@@ -234,6 +242,8 @@ public class WorkspaceRuntimesTest {
         WorkspaceImpl workspace = newWorkspace("workspace", "env-name");
         List<Instance> machines = allowEnvironmentStart(workspace, "env-name");
         prepareMachines(workspace.getId(), machines);
+        Map<String, Long> machinesStartTime = singletonMap("dev-machine", 1500L);
+        when(envEngine.getMachinesStartTime(workspace.getId())).thenReturn(machinesStartTime);
 
         CompletableFuture<WorkspaceRuntimeImpl> cmpFuture = runtimes.startAsync(workspace, "env-name", false);
         captureAsyncTaskAndExecuteSynchronously();
@@ -251,7 +261,7 @@ public class WorkspaceRuntimesTest {
                                    WorkspaceStatus.STARTING,
                                    WorkspaceStatus.RUNNING,
                                    EventType.RUNNING,
-                                   null));
+                                   null).withMachinesStartTime(machinesStartTime));
     }
 
     @Test(expectedExceptions = ConflictException.class,
@@ -823,6 +833,60 @@ public class WorkspaceRuntimesTest {
         runtimes.startAsync(newWorkspace("workspace1", "env-name"), "env-name", false);
     }
 
+    @Test
+    public void launchesAgentsOneByOneRespectingDependencies() throws Exception {
+        Instance machine = newMachine("workspace", "env-name", "dev-machine", true);
+        AgentLauncher launcher = mock(AgentLauncher.class);
+        when(agentSorter.sort(asList("agent2", "agent1"))).thenReturn(asList(AgentKeyImpl.parse("agent1"),
+                                                                            AgentKeyImpl.parse("agent2")));
+        when(launcherFactory.find(anyString(), eq("docker"))).thenReturn(launcher);
+
+        runtimes.launchAgents(machine, asList("agent2", "agent1"));
+
+        InOrder inOrder = inOrder(agentRegistry);
+        inOrder.verify(agentRegistry).getAgent(AgentKeyImpl.parse("agent1"));
+        inOrder.verify(agentRegistry).getAgent(AgentKeyImpl.parse("agent2"));
+        verify(launcher, times(2)).launch(eq(machine), any());
+        verify(sharedPool, never()).runConcurrently(any());
+    }
+
+    @Test
+    public void launchesAgentsWhichDoNotDependOnEachOtherConcurrently() throws Exception {
+        WorkspaceSharedPool pool = new WorkspaceSharedPool("cached", null, null);
+        WorkspaceRuntimes runtimes = new WorkspaceRuntimes(eventService,
+                                                           envEngine,
+                                                           agentSorter,
+                                                           launcherFactory,
+                                                           agentRegistry,
+                                                           snapshotDao,
+                                                           pool,
+                                                           true);
+        Instance machine = newMachine("workspace", "env-name", "dev-machine", true);
+        when(agentSorter.sortInGroups(asList("agent1", "agent2", "agent3")))
+                .thenReturn(asList(asList(AgentKeyImpl.parse("agent1"), AgentKeyImpl.parse("agent2")),
+                                   singletonList(AgentKeyImpl.parse("agent3"))));
+        // agents of the first group are not launched until both of them are launching
+        CyclicBarrier firstGroupLaunching = new CyclicBarrier(2);
+        AgentLauncher firstGroupLauncher = mock(AgentLauncher.class);
+        doAnswer(invocationOnMock -> firstGroupLaunching.await(10, TimeUnit.SECONDS))
+                .when(firstGroupLauncher).launch(any(Instance.class), any());
+        AgentLauncher secondGroupLauncher = mock(AgentLauncher.class);
+        when(launcherFactory.find("agent1", "docker")).thenReturn(firstGroupLauncher);
+        when(launcherFactory.find("agent2", "docker")).thenReturn(firstGroupLauncher);
+        when(launcherFactory.find("agent3", "docker")).thenReturn(secondGroupLauncher);
+
+        try {
+            runtimes.launchAgents(machine, asList("agent1", "agent2", "agent3"));
+        } catch (Exception x) {
+            fail("Agents must be launched concurrently", x);
+        } finally {
+            pool.getExecutor().shutdownNow();
+        }
+
+        verify(firstGroupLauncher, times(2)).launch(eq(machine), any());
+        verify(secondGroupLauncher).launch(eq(machine), any());
+    }
+
     private void captureAsyncTaskAndExecuteSynchronously() throws Exception {
         verify(sharedPool).submit(taskCaptor.capture());
         taskCaptor.getValue().call();
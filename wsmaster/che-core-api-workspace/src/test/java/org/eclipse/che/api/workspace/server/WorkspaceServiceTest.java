@@ -46,11 +46,14 @@ import org.eclipse.che.api.workspace.server.model.impl.ExtendedMachineImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceSummaryImpl;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectConfigsPatchDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceSummaryDto;
 import org.eclipse.che.api.workspace.shared.dto.WsAgentHealthStateDto;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.subject.SubjectImpl;
@@ -377,6 +380,45 @@ public class WorkspaceServiceTest {
                      singletonList(workspace2));
     }
 
+    @Test
+    public void shouldGetSummariesPageWithLinkToTheNextPage() throws Exception {
+        final WorkspaceSummaryImpl summary1 = new WorkspaceSummaryImpl("workspace1", "ws1", NAMESPACE, false,
+                                                                       singletonMap("attr", "value"),
+                                                                       WorkspaceStatus.STOPPED);
+        final WorkspaceSummaryImpl summary2 = new WorkspaceSummaryImpl("workspace2", "ws2", NAMESPACE, false,
+                                                                       emptyMap(),
+                                                                       RUNNING);
+        when(wsManager.getSummaries(USER_ID, "workspace0", 2)).thenReturn(asList(summary1, summary2));
+
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/summary?after=workspace0&maxItems=2");
+
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(unwrapDtoList(response, WorkspaceSummaryDto.class), asList(DtoConverter.asDto(summary1),
+                                                                                DtoConverter.asDto(summary2)));
+        assertTrue(response.getHeader("Link").contains("after=workspace2"));
+        assertTrue(response.getHeader("Link").endsWith("rel=\"next\""));
+    }
+
+    @Test
+    public void shouldGetLastSummariesPageByNamespace() throws Exception {
+        final WorkspaceSummaryImpl summary = new WorkspaceSummaryImpl("workspace1", "ws1", NAMESPACE, false,
+                                                                      emptyMap(),
+                                                                      RUNNING);
+        when(wsManager.getSummariesByNamespace(NAMESPACE, null, 30)).thenReturn(singletonList(summary));
+
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/summary?namespace=" + NAMESPACE);
+
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(unwrapDtoList(response, WorkspaceSummaryDto.class), singletonList(DtoConverter.asDto(summary)));
+        assertEquals(response.getHeader("Link"), null);
+    }
+
     @Test
     public void shouldUpdateTheWorkspace() throws Exception {
         final WorkspaceImpl workspace = createWorkspace(createConfigDto());
@@ -789,6 +831,54 @@ public class WorkspaceServiceTest {
         verify(wsManager, never()).updateWorkspace(any(), any());
     }
 
+    @Test
+    public void shouldUpdateProjectsInBatch() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        when(wsManager.getWorkspace(workspace.getId())).thenReturn(workspace);
+        when(wsManager.updateWorkspace(any(), any(), any())).thenReturn(workspace);
+        final ProjectConfigDto updated = createProjectDto().withPath("project/path").withDescription("Updated project");
+        final ProjectConfigDto added = createProjectDto().withName("new-project").withPath("new-project");
+        final ProjectConfigsPatchDto patch = newDto(ProjectConfigsPatchDto.class)
+                .withUpdated(singletonList(updated))
+                .withAdded(singletonList(added))
+                .withBaseVersion(ProjectConfigsVersion.of(workspace.getConfig().getProjects()));
+
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .contentType("application/json")
+                                         .body(patch)
+                                         .when()
+                                         .post(SECURE_PATH + "/workspace/" + workspace.getId() + "/project/batch");
+
+        assertEquals(response.getStatusCode(), 200);
+        final List<? extends ProjectConfig> projects = workspace.getConfig().getProjects();
+        assertEquals(projects.size(), 2);
+        assertEquals(projects.get(0).getDescription(), "Updated project");
+        assertEquals(projects.get(0).getPath(), "/project/path");
+        assertEquals(projects.get(1).getPath(), "/new-project");
+        verify(validator).validateConfig(workspace.getConfig());
+        verify(wsManager).updateWorkspace(workspace.getId(), workspace, patch.getBaseVersion());
+    }
+
+    @Test
+    public void shouldRespond409WhenProjectsWereChangedSinceBaseVersion() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace(createConfigDto());
+        when(wsManager.getWorkspace(workspace.getId())).thenReturn(workspace);
+        final ProjectConfigsPatchDto patch = newDto(ProjectConfigsPatchDto.class)
+                .withRemoved(singletonList("/project/path"))
+                .withBaseVersion(ProjectConfigsVersion.of(emptyList()));
+
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .contentType("application/json")
+                                         .body(patch)
+                                         .when()
+                                         .post(SECURE_PATH + "/workspace/" + workspace.getId() + "/project/batch");
+
+        assertEquals(response.getStatusCode(), 409);
+        verify(wsManager, never()).updateWorkspace(any(), any(), any());
+    }
+
     @Test
     public void shouldDeleteProject() throws Exception {
         final WorkspaceImpl workspace = createWorkspace(createConfigDto());
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests {@link WorkspaceSharedPool}.
+ */
+public class WorkspaceSharedPoolTest {
+
+    private WorkspaceSharedPool pool;
+
+    @BeforeMethod
+    public void setUp() {
+        pool = new WorkspaceSharedPool("cached", null, null);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void shouldRunAllTasks() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        Callable<Void> task = () -> {
+            counter.incrementAndGet();
+            return null;
+        };
+
+        pool.runConcurrently(Arrays.asList(task, task, task));
+
+        assertEquals(counter.get(), 3);
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldWaitForStartedTasksWhenOneOfTasksFails() throws Exception {
+        CountDownLatch slowTaskStarted = new CountDownLatch(1);
+        AtomicBoolean slowTaskFinished = new AtomicBoolean();
+        Callable<Void> failingTask = () -> {
+            slowTaskStarted.await();
+            throw new IllegalStateException("failed");
+        };
+        Callable<Void> slowTask = () -> {
+            slowTaskStarted.countDown();
+            // e.g. a container which is being created doesn't respond to interruption
+            Uninterruptibles.sleepUninterruptibly(500, TimeUnit.MILLISECONDS);
+            slowTaskFinished.set(true);
+            return null;
+        };
+
+        try {
+            pool.runConcurrently(Arrays.asList(failingTask, slowTask));
+            fail("Failure of the task must be rethrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        assertTrue(slowTaskFinished.get());
+    }
+}
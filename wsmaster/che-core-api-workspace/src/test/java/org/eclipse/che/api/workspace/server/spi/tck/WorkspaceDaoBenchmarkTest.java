@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server.spi.tck;
+
+import org.eclipse.che.account.spi.AccountImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceSummaryImpl;
+import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
+import org.eclipse.che.commons.test.tck.TckListener;
+import org.eclipse.che.commons.test.tck.repository.TckRepository;
+import org.eclipse.che.commons.test.tck.repository.TckRepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Boolean.getBoolean;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.eclipse.che.api.workspace.server.spi.tck.WorkspaceDaoTest.createWorkspace;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Compares fetching of all the workspaces with fetching of their summaries page by page.
+ *
+ * <p>The benchmark is skipped by default, run it with {@code -Dche.tck.benchmark=true},
+ * the number of workspaces can be changed with {@code -Dche.tck.benchmark.workspaces}.
+ */
+@Listeners(TckListener.class)
+@Test(suiteName = WorkspaceDaoBenchmarkTest.SUITE_NAME)
+public class WorkspaceDaoBenchmarkTest {
+
+    public static final String SUITE_NAME = "WorkspaceDaoBenchmarkTck";
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkspaceDaoBenchmarkTest.class);
+
+    private static final int COUNT_OF_WORKSPACES = Integer.getInteger("che.tck.benchmark.workspaces", 10_000);
+    private static final int COUNT_OF_ACCOUNTS   = 10;
+    private static final int PAGE_SIZE           = 30;
+
+    @Inject
+    private TckRepository<WorkspaceImpl> workspaceRepo;
+
+    @Inject
+    private TckRepository<AccountImpl> accountRepo;
+
+    @Inject
+    private WorkspaceDao workspaceDao;
+
+    private AccountImpl[] accounts;
+
+    @AfterMethod
+    public void removeEntities() throws TckRepositoryException {
+        if (accounts != null) {
+            workspaceRepo.removeAll();
+            accountRepo.removeAll();
+        }
+    }
+
+    @BeforeMethod
+    public void createEntities() throws TckRepositoryException {
+        if (!getBoolean("che.tck.benchmark")) {
+            throw new SkipException("Benchmark is disabled, use -Dche.tck.benchmark=true to run it");
+        }
+        accounts = new AccountImpl[COUNT_OF_ACCOUNTS];
+        for (int i = 0; i < COUNT_OF_ACCOUNTS; i++) {
+            accounts[i] = new AccountImpl("accountId" + i, "accountName" + i, "test");
+        }
+        accountRepo.createAll(asList(accounts));
+        final List<WorkspaceImpl> workspaces = new ArrayList<>(COUNT_OF_WORKSPACES);
+        for (int i = 0; i < COUNT_OF_WORKSPACES; i++) {
+            workspaces.add(createWorkspace(String.format("workspace-%06d", i), accounts[i % COUNT_OF_ACCOUNTS], "name-" + i));
+        }
+        workspaceRepo.createAll(workspaces);
+    }
+
+    @Test
+    public void compareWorkspacesWithSummaries() throws Exception {
+        long start = System.nanoTime();
+        final int workspacesCount = workspaceDao.getWorkspaces("user123").size();
+        final long workspacesTime = NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        final List<String> ids = new ArrayList<>(COUNT_OF_WORKSPACES);
+        List<WorkspaceSummaryImpl> page = workspaceDao.getSummaries("user123", null, PAGE_SIZE);
+        final long firstPageTime = NANOSECONDS.toMillis(System.nanoTime() - start);
+        long lastPageTime = firstPageTime;
+        while (!page.isEmpty()) {
+            page.forEach(summary -> ids.add(summary.getId()));
+            final long pageStart = System.nanoTime();
+            page = workspaceDao.getSummaries("user123", page.get(page.size() - 1).getId(), PAGE_SIZE);
+            lastPageTime = NANOSECONDS.toMillis(System.nanoTime() - pageStart);
+        }
+        final long summariesTime = NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        final int namespaceCount = workspaceDao.getSummariesByNamespace(accounts[0].getName(), null, PAGE_SIZE).size();
+        final long namespacePageTime = NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        LOG.info("{} workspaces: all workspaces fetched in {}ms, all summaries fetched in {}ms by {} items " +
+                 "(first page {}ms, last page {}ms), first page of namespace fetched in {}ms",
+                 COUNT_OF_WORKSPACES,
+                 workspacesTime,
+                 summariesTime,
+                 PAGE_SIZE,
+                 firstPageTime,
+                 lastPageTime,
+                 namespacePageTime);
+
+        assertEquals(workspacesCount, COUNT_OF_WORKSPACES);
+        assertEquals(ids.size(), COUNT_OF_WORKSPACES);
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "Summaries must be sorted by id");
+        }
+        assertEquals(namespaceCount, PAGE_SIZE);
+    }
+}
@@ -29,6 +29,7 @@ import org.eclipse.che.api.workspace.server.model.impl.ServerConf2Impl;
 import org.eclipse.che.api.workspace.server.model.impl.SourceStorageImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceSummaryImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
 import org.eclipse.che.commons.test.tck.TckListener;
 import org.eclipse.che.commons.test.tck.repository.TckRepository;
@@ -247,6 +248,70 @@ public class WorkspaceDaoTest {
         workspaceDao.getWorkspaces(true, -2, 0);
     }
 
+    @Test
+    public void shouldGetSummariesSortedById() throws Exception {
+        final List<WorkspaceSummaryImpl> summaries = workspaceDao.getSummaries("user123", null, 30);
+
+        assertEquals(summaries.stream().map(WorkspaceSummaryImpl::getId).collect(toList()),
+                     Stream.of(workspaces).map(WorkspaceImpl::getId).sorted().collect(toList()));
+        final WorkspaceSummaryImpl summary = summaries.get(0);
+        assertEquals(summary, new WorkspaceSummaryImpl(workspaces[0].getId(),
+                                                       workspaces[0].getConfig().getName(),
+                                                       workspaces[0].getNamespace(),
+                                                       workspaces[0].isTemporary(),
+                                                       workspaces[0].getAttributes(),
+                                                       null));
+    }
+
+    @Test
+    public void shouldGetSummariesAfterGivenWorkspace() throws Exception {
+        final List<WorkspaceSummaryImpl> first = workspaceDao.getSummaries("user123", null, 2);
+        final List<WorkspaceSummaryImpl> second = workspaceDao.getSummaries("user123", first.get(1).getId(), 2);
+        final List<WorkspaceSummaryImpl> last = workspaceDao.getSummaries("user123", second.get(1).getId(), 2);
+
+        assertEquals(first.stream().map(WorkspaceSummaryImpl::getId).collect(toList()),
+                     asList(workspaces[0].getId(), workspaces[1].getId()));
+        assertEquals(second.stream().map(WorkspaceSummaryImpl::getId).collect(toList()),
+                     asList(workspaces[2].getId(), workspaces[3].getId()));
+        assertEquals(last.stream().map(WorkspaceSummaryImpl::getId).collect(toList()),
+                     singletonList(workspaces[4].getId()));
+    }
+
+    @Test
+    public void shouldGetSummariesByNamespace() throws Exception {
+        final WorkspaceImpl workspace1 = workspaces[2];
+        final WorkspaceImpl workspace2 = workspaces[3];
+        assertEquals(workspace1.getNamespace(), workspace2.getNamespace(), "Namespaces must be the same");
+
+        final List<WorkspaceSummaryImpl> first = workspaceDao.getSummariesByNamespace(workspace1.getNamespace(), null, 1);
+        final List<WorkspaceSummaryImpl> second = workspaceDao.getSummariesByNamespace(workspace1.getNamespace(),
+                                                                                      first.get(0).getId(),
+                                                                                      1);
+
+        assertEquals(first.size(), 1);
+        assertEquals(first.get(0).getId(), workspace1.getId());
+        assertEquals(first.get(0).getNamespace(), workspace1.getNamespace());
+        assertEquals(first.get(0).getAttributes(), workspace1.getAttributes());
+        assertEquals(second.size(), 1);
+        assertEquals(second.get(0).getId(), workspace2.getId());
+    }
+
+    @Test
+    public void emptyListShouldBeReturnedWhenThereAreNoSummariesAfterGivenWorkspace() throws Exception {
+        assertTrue(workspaceDao.getSummaries("user123", workspaces[4].getId(), 30).isEmpty());
+        assertTrue(workspaceDao.getSummariesByNamespace("non-existing-namespace", null, 30).isEmpty());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void shouldThrowNpeWhenGettingSummariesByNullNamespace() throws Exception {
+        workspaceDao.getSummariesByNamespace(null, null, 30);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionOnNegativeSummariesLimit() throws Exception {
+        workspaceDao.getSummaries("user123", null, -1);
+    }
+
     @Test
     public void shouldPublicRemoveWorkspaceEventAfterRemoveWorkspace() throws Exception {
         final boolean[] isNotified = new boolean[] {false};
@@ -0,0 +1,15 @@
+--
+-- Copyright (c) 2012-2017 Codenvy, S.A.
+-- All rights reserved. This program and the accompanying materials
+-- are made available under the terms of the Eclipse Public License v1.0
+-- which accompanies this distribution, and is available at
+-- http://www.eclipse.org/legal/epl-v10.html
+--
+-- Contributors:
+--   Codenvy, S.A. - initial API and implementation
+--
+
+-- workspace summaries are paginated by id within namespace
+CREATE INDEX index_workspace_accountid_id ON workspace (accountid, id);
+-- attributes of workspace summaries are selected by workspace ids
+CREATE INDEX index_workspace_attributes_workspace_id ON workspace_attributes (workspace_id);